@@ -0,0 +1,43 @@
+package gr.aueb.cf.elementaryclassmanager.benchmark;
+
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data sets shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    private static final String[] FIRSTNAMES = {"Anna", "Giorgos", "Maria", "Nikos", "Eleni", "Dimitris"};
+    private static final String[] LASTNAMES = {"Papadopoulou", "Georgiou", "Nikolaidis", "Ioannou", "Vlachos"};
+
+    private BenchmarkData() {
+
+    }
+
+    /**
+     * @param size the number of students
+     * @return students with realistic field lengths, spread over the grades and 25-pupil class groups
+     */
+    public static List<StudentReadOnlyDTO> students(int size) {
+        Grade[] grades = Grade.values();
+        List<StudentReadOnlyDTO> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StudentReadOnlyDTO student = new StudentReadOnlyDTO(FIRSTNAMES[i % FIRSTNAMES.length],
+                    LASTNAMES[i % LASTNAMES.length], ssn(i), grades[i % grades.length], (long) (i / 25 + 1));
+            student.setId((long) i + 1);
+            students.add(student);
+        }
+        return students;
+    }
+
+    /**
+     * @return a distinct 9 digit SSN for each index
+     */
+    public static String ssn(long index) {
+        return String.format("%09d", index);
+    }
+}
@@ -0,0 +1,83 @@
+package gr.aueb.cf.elementaryclassmanager.compression;
+
+import gr.aueb.cf.elementaryclassmanager.benchmark.BenchmarkData;
+import gr.aueb.cf.elementaryclassmanager.serialization.ObjectMapperProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * CPU time of a JSON roster response, written uncompressed, through the
+ * {@link CompressingOutputStream} with a pooled deflater, and, for reference, through a
+ * {@link DeflaterOutputStream} with a deflater allocated per response. Each method returns the
+ * number of bytes sent; the size ratio itself is checked by {@code CompressingOutputStreamTest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    private static final int LEVEL = 6;
+    private static final int THRESHOLD = 1024;
+
+    @Param({"25", "500"})
+    private int students;
+
+    @Param({"GZIP", "DEFLATE"})
+    private ContentCoding coding;
+
+    private byte[] json;
+    private DeflaterPool pool;
+    private final ByteArrayOutputStream target = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() throws Exception {
+        json = new ObjectMapperProvider().getObjectMapper().writeValueAsBytes(BenchmarkData.students(students));
+        pool = new DeflaterPool(LEVEL, coding.isNowrap(), 4);
+    }
+
+    @Benchmark
+    public int identity() {
+        target.reset();
+        target.write(json, 0, json.length);
+        return target.size();
+    }
+
+    @Benchmark
+    public int pooledDeflater() throws IOException {
+        target.reset();
+        CompressingOutputStream out = new CompressingOutputStream(target, coding, pool, THRESHOLD, () -> { });
+        out.write(json, 0, json.length);
+        out.finish();
+        return target.size();
+    }
+
+    @Benchmark
+    public int deflaterPerResponse() throws IOException {
+        target.reset();
+        Deflater deflater = new Deflater(LEVEL, coding.isNowrap());
+        try (DeflaterOutputStream out = new DeflaterOutputStream(target, deflater, 8192)) {
+            out.write(json, 0, json.length);
+        } finally {
+            deflater.end();
+        }
+        return target.size();
+    }
+}
@@ -0,0 +1,75 @@
+package gr.aueb.cf.elementaryclassmanager.keyfilter;
+
+import gr.aueb.cf.elementaryclassmanager.benchmark.BenchmarkData;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentInsertDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.launcher.InProcessServer;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import gr.aueb.cf.elementaryclassmanager.service.IStudentService;
+import jakarta.enterprise.inject.spi.CDI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert throughput of {@code insertStudent} with the {@link UniqueKeyFilter} on and off, against
+ * an in-process application on H2 that already holds {@code existingStudents} students. Every
+ * inserted SSN is new, the common case during enrollment, so with the filter on the uniqueness
+ * lookups are skipped. Each setting runs in its own fork, as the settings are read once per JVM.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsertThroughputBenchmark {
+
+    @Param({"true", "false"})
+    private String keyFilter;
+
+    @Param({"10000"})
+    private int existingStudents;
+
+    private InProcessServer server;
+    private IStudentService studentService;
+    private final AtomicLong nextSsn = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Exception {
+        System.setProperty("keyfilter.enabled", keyFilter);
+        server = InProcessServer.start("insert-throughput");
+        studentService = CDI.current().select(IStudentService.class).get();
+        UniqueKeyFilter uniqueKeyFilter = CDI.current().select(UniqueKeyFilter.class).get();
+        while (Boolean.parseBoolean(keyFilter) && uniqueKeyFilter.mightContainSsn(BenchmarkData.ssn(0))) {
+            // the filters are built in the background after startup
+            Thread.sleep(50);
+        }
+        for (int i = 0; i < existingStudents; i++) {
+            insert();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public StudentReadOnlyDTO insert() throws Exception {
+        return studentService.insertStudent(new StudentInsertDTO("Anna", "Georgiou",
+                BenchmarkData.ssn(nextSsn.getAndIncrement()), Grade.GRADE_1));
+    }
+}
@@ -0,0 +1,82 @@
+package gr.aueb.cf.elementaryclassmanager.problem;
+
+import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import jakarta.ws.rs.core.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an expected error, from the throw in the service layer to the problem details
+ * response: the stackless domain exception through the {@link ProblemExceptionMapper}, against
+ * the same exception with its stack trace filled in. {@code depth} is the number of frames
+ * between the throw and the mapper, as in a request that goes through Jersey, CDI and the service.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProblemMappingBenchmark {
+
+    @Param({"10", "100"})
+    private int depth;
+
+    private final ProblemExceptionMapper mapper = new ProblemExceptionMapper();
+
+    /**
+     * The not found error as it was before the domain exceptions dropped their stack trace.
+     */
+    static final class TracedNotFoundException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        TracedNotFoundException(Long id) {
+            super("Entity " + Student.class.getSimpleName() + " with id " + id + " does not exist");
+        }
+    }
+
+    @Benchmark
+    public Response stackless() {
+        try {
+            throwStackless(depth);
+            throw new AssertionError();
+        } catch (EntityNotFoundException e) {
+            return mapper.toResponse(e);
+        }
+    }
+
+    @Benchmark
+    public Response withStackTrace() {
+        try {
+            throwTraced(depth);
+            throw new AssertionError();
+        } catch (TracedNotFoundException e) {
+            return ProblemResponses.of(Response.Status.NOT_FOUND, e.getMessage()).build();
+        }
+    }
+
+    private static void throwStackless(int frames) throws EntityNotFoundException {
+        if (frames == 0) {
+            throw new EntityNotFoundException(Student.class, (long) frames);
+        }
+        throwStackless(frames - 1);
+    }
+
+    private static void throwTraced(int frames) throws TracedNotFoundException {
+        if (frames == 0) {
+            throw new TracedNotFoundException((long) frames);
+        }
+        throwTraced(frames - 1);
+    }
+}
@@ -0,0 +1,67 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import gr.aueb.cf.elementaryclassmanager.benchmark.BenchmarkData;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes student lists as JSON, CBOR and Smile with the shared mappers.
+ * {@code ObjectMapperProviderTest} checks that the binary encodings are the smaller ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private List<StudentReadOnlyDTO> students;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapperProvider provider = new ObjectMapperProvider();
+        ObjectMapper mapper = "cbor".equals(format) ? provider.getCborMapper()
+                : "smile".equals(format) ? provider.getSmileMapper()
+                : provider.getObjectMapper();
+        students = BenchmarkData.students(size);
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, StudentReadOnlyDTO.class));
+        reader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, StudentReadOnlyDTO.class));
+        encoded = writer.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return writer.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public List<StudentReadOnlyDTO> decode() throws Exception {
+        return reader.readValue(encoded);
+    }
+}
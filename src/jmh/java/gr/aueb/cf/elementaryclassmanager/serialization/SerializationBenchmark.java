@@ -0,0 +1,58 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import gr.aueb.cf.elementaryclassmanager.benchmark.BenchmarkData;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes student lists of 1, 100 and 10 000 elements with the shared, tuned mapper of
+ * {@link ObjectMapperProvider} and, for reference, with a default {@link ObjectMapper} as Jersey
+ * would create it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private List<StudentReadOnlyDTO> students;
+    private ObjectWriter tunedWriter;
+    private ObjectWriter defaultWriter;
+
+    @Setup
+    public void setUp() {
+        students = BenchmarkData.students(size);
+        tunedWriter = new ObjectMapperProvider().getObjectMapper().writerFor(List.class);
+        defaultWriter = new ObjectMapper().writerFor(List.class);
+    }
+
+    @Benchmark
+    public byte[] tunedMapper() throws Exception {
+        return tunedWriter.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] defaultMapper() throws Exception {
+        return defaultWriter.writeValueAsBytes(students);
+    }
+}
@@ -0,0 +1,97 @@
+package gr.aueb.cf.elementaryclassmanager.validator;
+
+import gr.aueb.cf.elementaryclassmanager.benchmark.BenchmarkData;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentInsertDTO;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation throughput of {@link ValidatorUtil} under contention, against the synchronized
+ * getter it replaced. Both validate the same valid and invalid insert DTOs; only the locking
+ * differs. Run with {@code -t} set to the request worker count of the target machine.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    private StudentInsertDTO valid;
+    private StudentInsertDTO invalid;
+    private SynchronizedValidator synchronizedValidator;
+
+    /**
+     * The lazily created validator behind a synchronized getter, as {@code ValidatorUtil} had it.
+     */
+    static final class SynchronizedValidator {
+
+        private Validator validator;
+
+        synchronized Validator getValidator() {
+            if (validator == null) {
+                validator = Validation.buildDefaultValidatorFactory().getValidator();
+            }
+            return validator;
+        }
+
+        <T> List<String> validateDTO(T dto) {
+            Set<ConstraintViolation<T>> violations = getValidator().validate(dto);
+            List<String> errors = new ArrayList<>();
+            for (ConstraintViolation<T> violation : violations) {
+                errors.add(violation.getMessage());
+            }
+            return errors;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        valid = new StudentInsertDTO("Anna", "Papadopoulou", BenchmarkData.ssn(1), Grade.GRADE_1);
+        invalid = new StudentInsertDTO("A", null, "123", Grade.GRADE_1);
+        synchronizedValidator = new SynchronizedValidator();
+        // both paths start with the constraint metadata of the DTO already cached
+        ValidatorUtil.validateDTO(valid);
+        synchronizedValidator.validateDTO(valid);
+    }
+
+    @Benchmark
+    public List<String> sharedValid() {
+        return ValidatorUtil.validateDTO(valid);
+    }
+
+    @Benchmark
+    public List<String> sharedInvalid() {
+        return ValidatorUtil.validateDTO(invalid);
+    }
+
+    @Benchmark
+    public List<String> synchronizedValid() {
+        return synchronizedValidator.validateDTO(valid);
+    }
+
+    @Benchmark
+    public List<String> synchronizedInvalid() {
+        return synchronizedValidator.validateDTO(invalid);
+    }
+}
@@ -0,0 +1,16 @@
+package gr.aueb.cf.elementaryclassmanager.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the priority class the admission layer derives from the HTTP method
+ * (GET/HEAD are {@link AdmissionPriority#READ}, everything else {@link AdmissionPriority#WRITE}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+    AdmissionPriority value();
+}
@@ -0,0 +1,52 @@
+package gr.aueb.cf.elementaryclassmanager.admission;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control settings, read once from system properties.
+ * <ul>
+ *     <li>{@code admission.enabled} - turns the admission layer on or off (default {@code true})</li>
+ *     <li>{@code admission.adaptive} - AIMD limit instead of a static one (default {@code true})</li>
+ *     <li>{@code admission.limit.initial}, {@code admission.limit.min}, {@code admission.limit.max} - per route concurrency limits</li>
+ *     <li>{@code admission.queue.capacity} - waiting requests per route</li>
+ *     <li>{@code admission.global.limit} - requests in flight across all routes (default the
+ *     {@code hibernate.hikari.maximumPoolSize}, 10)</li>
+ *     <li>{@code admission.global.queue.capacity} - waiting requests across all routes (default 64)</li>
+ *     <li>{@code admission.targetLatencyMillis} - latency above which the adaptive limit backs off</li>
+ *     <li>{@code admission.retryAfterSeconds} - value of the {@code Retry-After} header on rejections</li>
+ * </ul>
+ */
+@Getter
+public class AdmissionConfig {
+
+    private final boolean enabled;
+    private final boolean adaptive;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final int globalLimit;
+    private final int globalQueueCapacity;
+    private final long targetLatencyNanos;
+    private final int retryAfterSeconds;
+
+    private AdmissionConfig() {
+        this.enabled = Boolean.parseBoolean(System.getProperty("admission.enabled", "true"));
+        this.adaptive = Boolean.parseBoolean(System.getProperty("admission.adaptive", "true"));
+        this.initialLimit = Integer.getInteger("admission.limit.initial", 8);
+        this.minLimit = Integer.getInteger("admission.limit.min", 1);
+        this.maxLimit = Integer.getInteger("admission.limit.max", 32);
+        this.queueCapacity = Integer.getInteger("admission.queue.capacity", 32);
+        this.globalLimit = Integer.getInteger("admission.global.limit",
+                Integer.getInteger("hibernate.hikari.maximumPoolSize", 10));
+        this.globalQueueCapacity = Integer.getInteger("admission.global.queue.capacity", 64);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("admission.targetLatencyMillis", 250L));
+        this.retryAfterSeconds = Integer.getInteger("admission.retryAfterSeconds", 1);
+    }
+
+    public static AdmissionConfig fromSystemProperties() {
+        return new AdmissionConfig();
+    }
+}
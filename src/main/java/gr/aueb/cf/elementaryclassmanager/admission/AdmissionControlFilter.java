@@ -0,0 +1,100 @@
+package gr.aueb.cf.elementaryclassmanager.admission;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Admits or sheds requests before they reach the REST controllers.
+ * Each matched resource method is a route with its own {@link AdmissionLimiter}; a request
+ * admitted by its route then takes a permit of the global limiter, which is sized to the
+ * connection pool. Event streams hold no connection and skip the global limiter.
+ * Requests over either limit are answered immediately with 503 and a {@code Retry-After} header;
+ * the permit of an admitted request is returned by {@link AdmissionReleaseListener}.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 100)
+@Slf4j
+public class AdmissionControlFilter implements ContainerRequestFilter {
+
+    static final String LIMITER_PROPERTY = AdmissionControlFilter.class.getName() + ".limiter";
+    static final String GLOBAL_LIMITER_PROPERTY = AdmissionControlFilter.class.getName() + ".globalLimiter";
+    static final String START_PROPERTY = AdmissionControlFilter.class.getName() + ".start";
+
+    @Inject
+    private AdmissionController admissionController;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null || !admissionController.getConfig().isEnabled()) {
+            return;
+        }
+
+        String route = resourceInfo.getResourceClass().getSimpleName() + "#" + method.getName();
+        AdmissionLimiter limiter = admissionController.getLimiter(route);
+        AdmissionLimiter globalLimiter = isEventStream(method) ? null : admissionController.getGlobalLimiter();
+        AdmissionPriority priority = priorityOf(method, requestContext.getMethod());
+
+        boolean admitted = tryAcquire(limiter, priority);
+        if (admitted && globalLimiter != null && !tryAcquire(globalLimiter, priority)) {
+            limiter.cancel();
+            admitted = false;
+        }
+
+        if (!admitted) {
+            log.warn("Request to {} was shed by admission control", route);
+            requestContext.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, admissionController.getConfig().getRetryAfterSeconds())
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity("Server is busy, please retry later")
+                    .build());
+            return;
+        }
+
+        requestContext.setProperty(LIMITER_PROPERTY, limiter);
+        requestContext.setProperty(GLOBAL_LIMITER_PROPERTY, globalLimiter);
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    private static boolean tryAcquire(AdmissionLimiter limiter, AdmissionPriority priority) {
+        try {
+            return limiter.tryAcquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isEventStream(Method method) {
+        Produces produces = method.getAnnotation(Produces.class);
+        return produces != null && Arrays.asList(produces.value()).contains(MediaType.SERVER_SENT_EVENTS);
+    }
+
+    private AdmissionPriority priorityOf(Method method, String httpMethod) {
+        Admission admission = method.getAnnotation(Admission.class);
+        if (admission != null) {
+            return admission.value();
+        }
+        return HttpMethod.GET.equals(httpMethod) || HttpMethod.HEAD.equals(httpMethod)
+                ? AdmissionPriority.READ
+                : AdmissionPriority.WRITE;
+    }
+}
@@ -0,0 +1,60 @@
+package gr.aueb.cf.elementaryclassmanager.admission;
+
+import gr.aueb.cf.elementaryclassmanager.dto.admissionDTO.AdmissionRouteReadOnlyDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Registry of the per-route {@link AdmissionLimiter}s and of the global one.
+ * Route limiters are created lazily the first time a route is hit. The global limiter has a
+ * static limit sized to the connection pool, so that the priority classes compete for the
+ * connections across routes; the route limits stay as a cap inside it.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+    static final String GLOBAL_ROUTE = "*";
+
+    private final AdmissionConfig config = AdmissionConfig.fromSystemProperties();
+    private final Map<String, AdmissionLimiter> limiters = new ConcurrentHashMap<>();
+    private final AdmissionLimiter globalLimiter = new AdmissionLimiter(GLOBAL_ROUTE, config,
+            config.getGlobalLimit(), config.getGlobalQueueCapacity(), false);
+
+    /**
+     * Returns the limiter of the given route, creating it on first use.
+     *
+     * @param route the route key, e.g. {@code StudentRestController#getStudentsById}
+     * @return the route's limiter
+     */
+    public AdmissionLimiter getLimiter(String route) {
+        return limiters.computeIfAbsent(route, key -> new AdmissionLimiter(key, config));
+    }
+
+    /**
+     * @return the limiter shared by all routes
+     */
+    public AdmissionLimiter getGlobalLimiter() {
+        return globalLimiter;
+    }
+
+    /**
+     * @return the current limits, queue lengths and counters of the global limiter, reported as
+     * route {@code *}, and of every route seen so far
+     */
+    public List<AdmissionRouteReadOnlyDTO> getSnapshots() {
+        return Stream.concat(Stream.of(globalLimiter), limiters.values().stream())
+                .map(AdmissionLimiter::snapshot)
+                .sorted(Comparator.comparing(AdmissionRouteReadOnlyDTO::getRoute))
+                .collect(Collectors.toList());
+    }
+
+    public AdmissionConfig getConfig() {
+        return config;
+    }
+}
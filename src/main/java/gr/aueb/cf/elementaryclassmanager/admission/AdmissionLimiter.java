@@ -0,0 +1,204 @@
+package gr.aueb.cf.elementaryclassmanager.admission;
+
+import gr.aueb.cf.elementaryclassmanager.dto.admissionDTO.AdmissionRouteReadOnlyDTO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter for a single route, or for all of them together.
+ * Holds at most {@code limit} requests in flight and parks a bounded number of callers
+ * in per-priority wait queues. Higher priority waiters are always woken first.
+ * When adaptive, the limit follows an AIMD policy: it grows by one while the route is
+ * saturated and answers within the target latency, and shrinks multiplicatively when
+ * responses get slower than the target.
+ */
+public class AdmissionLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String route;
+    private final AdmissionConfig config;
+    private final boolean adaptive;
+    private final int queueCapacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition[] waiters;
+    private final int[] waiting;
+    private int totalWaiting;
+    private int inFlight;
+    private double limit;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdmissionLimiter(String route, AdmissionConfig config) {
+        this(route, config, config.getInitialLimit(), config.getQueueCapacity(), config.isAdaptive());
+    }
+
+    /**
+     * @param route         the name the limiter is reported under
+     * @param config        the admission settings
+     * @param limit         the initial, or for a static limiter the fixed, concurrency limit
+     * @param queueCapacity the number of requests that may wait for a permit
+     * @param adaptive      whether the limit follows the AIMD policy
+     */
+    public AdmissionLimiter(String route, AdmissionConfig config, int limit, int queueCapacity, boolean adaptive) {
+        this.route = route;
+        this.config = config;
+        this.adaptive = adaptive;
+        this.queueCapacity = queueCapacity;
+        this.limit = limit;
+
+        AdmissionPriority[] priorities = AdmissionPriority.values();
+        this.waiters = new Condition[priorities.length];
+        this.waiting = new int[priorities.length];
+        for (int i = 0; i < priorities.length; i++) {
+            waiters[i] = lock.newCondition();
+        }
+    }
+
+    /**
+     * Tries to obtain a permit, waiting at most the priority's maximum wait time.
+     *
+     * @param priority the priority class of the request
+     * @return {@code true} if the request was admitted and must later call {@link #release(long)}
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public boolean tryAcquire(AdmissionPriority priority) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < currentLimit() && !hasHigherOrEqualWaiters(priority)) {
+                inFlight++;
+                admitted.increment();
+                return true;
+            }
+
+            int queueSlots = (int) (queueCapacity * priority.getQueueShare());
+            if (totalWaiting >= queueCapacity || waiting[priority.ordinal()] >= queueSlots) {
+                rejected.increment();
+                return false;
+            }
+
+            long remaining = TimeUnit.MILLISECONDS.toNanos(priority.getMaxWaitMillis());
+            boolean timedOut = false;
+            waiting[priority.ordinal()]++;
+            totalWaiting++;
+            try {
+                while (inFlight >= currentLimit() || hasHigherWaiters(priority)) {
+                    if (remaining <= 0L) {
+                        timedOut = true;
+                        break;
+                    }
+                    remaining = waiters[priority.ordinal()].awaitNanos(remaining);
+                }
+            } finally {
+                waiting[priority.ordinal()]--;
+                totalWaiting--;
+            }
+
+            if (timedOut) {
+                rejected.increment();
+                // pass on a signal this waiter may have consumed just before timing out
+                signalNext();
+                return false;
+            }
+
+            inFlight++;
+            admitted.increment();
+            signalNext();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit and feeds the observed latency to the adaptive limit.
+     *
+     * @param latencyNanos the time the request spent being served
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            if (adaptive) {
+                if (latencyNanos > config.getTargetLatencyNanos()) {
+                    backOff();
+                } else if (inFlight * 2 >= currentLimit()) {
+                    limit = Math.min(config.getMaxLimit(), limit + 1);
+                }
+            }
+            inFlight--;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit of a request that was not served, e.g. because another limiter shed it.
+     * Unlike {@link #release(long)} it leaves the adaptive limit as it is, since the request says
+     * nothing about how fast the route answers.
+     */
+    public void cancel() {
+        lock.lock();
+        try {
+            inFlight--;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return a point-in-time view of the limiter for the metrics endpoint
+     */
+    public AdmissionRouteReadOnlyDTO snapshot() {
+        lock.lock();
+        try {
+            return new AdmissionRouteReadOnlyDTO(route, currentLimit(), inFlight, totalWaiting,
+                    admitted.sum(), rejected.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    private void backOff() {
+        limit = Math.max(config.getMinLimit(), limit * BACKOFF_RATIO);
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private boolean hasHigherWaiters(AdmissionPriority priority) {
+        for (int i = 0; i < priority.ordinal(); i++) {
+            if (waiting[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasHigherOrEqualWaiters(AdmissionPriority priority) {
+        return hasHigherWaiters(priority) || waiting[priority.ordinal()] > 0;
+    }
+
+    private void signalNext() {
+        if (inFlight >= currentLimit()) {
+            return;
+        }
+        for (int i = 0; i < waiting.length; i++) {
+            if (waiting[i] > 0) {
+                waiters[i].signal();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package gr.aueb.cf.elementaryclassmanager.admission;
+
+/**
+ * Priority classes used by the admission layer.
+ * Cheap reads may use the whole wait queue, writes only part of it and bulk operations
+ * are never queued: when a route is saturated they are shed immediately.
+ */
+public enum AdmissionPriority {
+    READ(1.0, 500),
+    WRITE(0.5, 250),
+    BULK(0.0, 0);
+
+    private final double queueShare;
+    private final long maxWaitMillis;
+
+    AdmissionPriority(double queueShare, long maxWaitMillis) {
+        this.queueShare = queueShare;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * @return the fraction of a route's wait queue that requests of this class may occupy
+     */
+    public double getQueueShare() {
+        return queueShare;
+    }
+
+    /**
+     * @return the longest time a request of this class waits for a permit before being rejected
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+}
@@ -0,0 +1,42 @@
+package gr.aueb.cf.elementaryclassmanager.admission;
+
+import jakarta.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Returns the admission permit of a request once Jersey has completely finished with it.
+ * The {@link RequestEvent.Type#FINISHED} event fires exactly once per request, also when the
+ * resource method throws, so permits cannot leak the way they could from a response filter.
+ */
+@Provider
+public class AdmissionReleaseListener implements ApplicationEventListener {
+
+    private static final RequestEventListener RELEASE_ON_FINISH = event -> {
+        if (event.getType() != RequestEvent.Type.FINISHED) {
+            return;
+        }
+        ContainerRequest request = event.getContainerRequest();
+        Object limiter = request.getProperty(AdmissionControlFilter.LIMITER_PROPERTY);
+        if (limiter != null) {
+            long latency = System.nanoTime() - (Long) request.getProperty(AdmissionControlFilter.START_PROPERTY);
+            Object globalLimiter = request.getProperty(AdmissionControlFilter.GLOBAL_LIMITER_PROPERTY);
+            if (globalLimiter != null) {
+                ((AdmissionLimiter) globalLimiter).release(latency);
+            }
+            ((AdmissionLimiter) limiter).release(latency);
+        }
+    };
+
+    @Override
+    public void onEvent(ApplicationEvent event) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        return RELEASE_ON_FINISH;
+    }
+}
@@ -0,0 +1,47 @@
+package gr.aueb.cf.elementaryclassmanager.audit;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.security.Principal;
+
+/**
+ * Binds the caller of each request to the {@link AuditContext}.
+ * The authenticated principal is the actor. A header cannot be told apart from one the client set
+ * itself, so it is only read when {@code audit.actorHeader} names it, for deployments behind a proxy
+ * that authenticates the caller and overwrites that header. Otherwise a request without a principal
+ * is recorded as {@link AuditContext#UNKNOWN_ACTOR}.
+ */
+@Provider
+@Priority(Priorities.USER)
+public class AuditActorFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String ACTOR_HEADER = System.getProperty("audit.actorHeader");
+    private static final int MAX_ACTOR_LENGTH = 128;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Principal principal = requestContext.getSecurityContext() != null
+                ? requestContext.getSecurityContext().getUserPrincipal()
+                : null;
+        String actor = principal != null ? principal.getName() : trustedHeaderActor(requestContext);
+        if (actor != null && !actor.isBlank()) {
+            actor = actor.strip();
+            AuditContext.setActor(actor.length() > MAX_ACTOR_LENGTH ? actor.substring(0, MAX_ACTOR_LENGTH) : actor);
+        }
+    }
+
+    private static String trustedHeaderActor(ContainerRequestContext requestContext) {
+        return ACTOR_HEADER != null && !ACTOR_HEADER.isBlank() ? requestContext.getHeaderString(ACTOR_HEADER) : null;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        AuditContext.clear();
+    }
+}
@@ -0,0 +1,29 @@
+package gr.aueb.cf.elementaryclassmanager.audit;
+
+/**
+ * Holds the actor of the request being served on the current thread.
+ * Set and cleared by {@link AuditActorFilter}; read by {@link AuditRecorder} when the services
+ * fire their change events, which happens on the request thread.
+ */
+public final class AuditContext {
+
+    public static final String UNKNOWN_ACTOR = "anonymous";
+
+    private static final ThreadLocal<String> actor = new ThreadLocal<>();
+
+    private AuditContext() {
+    }
+
+    public static String getActor() {
+        String current = actor.get();
+        return current != null ? current : UNKNOWN_ACTOR;
+    }
+
+    static void setActor(String name) {
+        actor.set(name);
+    }
+
+    static void clear() {
+        actor.remove();
+    }
+}
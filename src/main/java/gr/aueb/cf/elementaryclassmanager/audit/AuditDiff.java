@@ -0,0 +1,67 @@
+package gr.aueb.cf.elementaryclassmanager.audit;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Field-by-field comparison of two entity snapshots.
+ * The fields of each snapshot class are looked up once and cached.
+ */
+final class AuditDiff {
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !"id".equals(field.getName())) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private AuditDiff() {
+    }
+
+    /**
+     * Returns the changed fields, each mapped to {@code [old, new]}.
+     * For an insert {@code before} is {@code null} and every non-null field is reported;
+     * for a delete {@code after} is {@code null} and the old values are reported.
+     *
+     * @param before the snapshot before the change, or {@code null}
+     * @param after  the snapshot after the change, or {@code null}
+     * @return the changed fields in declaration order
+     */
+    static Map<String, List<Object>> of(Object before, Object after) {
+        Object sample = after != null ? after : before;
+        Map<String, List<Object>> changes = new LinkedHashMap<>();
+        for (Field field : FIELDS.get(sample.getClass())) {
+            Object oldValue = valueOf(field, before);
+            Object newValue = valueOf(field, after);
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.put(field.getName(), Arrays.asList(oldValue, newValue));
+            }
+        }
+        return changes;
+    }
+
+    private static Object valueOf(Field field, Object snapshot) {
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            return field.get(snapshot);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package gr.aueb.cf.elementaryclassmanager.audit;
+
+import gr.aueb.cf.elementaryclassmanager.service.events.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One captured mutation waiting in the {@link AuditWriter} queue.
+ * {@code changes} is the JSON object of the changed fields, each mapped to its old and new value.
+ */
+@AllArgsConstructor
+@Getter
+public class AuditRecord {
+
+    private final String entityType;
+
+    private final Long entityId;
+
+    private final ChangeType action;
+
+    private final String actor;
+
+    private final long occurredAtMillis;
+
+    private final String changes;
+}
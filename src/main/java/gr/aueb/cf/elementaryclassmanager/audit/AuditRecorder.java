@@ -0,0 +1,65 @@
+package gr.aueb.cf.elementaryclassmanager.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
+import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.model.Teacher;
+import gr.aueb.cf.elementaryclassmanager.serialization.ObjectMapperProvider;
+import gr.aueb.cf.elementaryclassmanager.service.events.ChangeType;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.TeacherChangedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the committed change events into audit records.
+ * Only the diff is computed on the request thread; persisting is left to the {@link AuditWriter}.
+ * Updates that did not change any field are not recorded.
+ */
+@ApplicationScoped
+@Slf4j
+public class AuditRecorder {
+
+    @Inject
+    ObjectMapperProvider objectMapperProvider;
+
+    @Inject
+    AuditWriter auditWriter;
+
+    public void onStudentChanged(@Observes StudentChangedEvent event) {
+        Long id = event.getAfter() != null ? event.getAfter().getId() : event.getBefore().getId();
+        record(Student.class, id, event.getType(), event.getBefore(), event.getAfter());
+    }
+
+    public void onTeacherChanged(@Observes TeacherChangedEvent event) {
+        Long id = event.getAfter() != null ? event.getAfter().getId() : event.getBefore().getId();
+        record(Teacher.class, id, event.getType(), event.getBefore(), event.getAfter());
+    }
+
+    public void onClassGroupChanged(@Observes ClassGroupChangedEvent event) {
+        Long id = event.getAfter() != null ? event.getAfter().getId() : event.getBefore().getId();
+        record(ClassGroup.class, id, event.getType(), event.getBefore(), event.getAfter());
+    }
+
+    private void record(Class<?> entityType, Long id, ChangeType type, Object before, Object after) {
+        if (!auditWriter.isEnabled()) {
+            return;
+        }
+        Map<String, List<Object>> changes = AuditDiff.of(before, after);
+        if (type == ChangeType.UPDATED && changes.isEmpty()) {
+            return;
+        }
+        try {
+            auditWriter.enqueue(new AuditRecord(entityType.getSimpleName(), id, type, AuditContext.getActor(),
+                    System.currentTimeMillis(), objectMapperProvider.getObjectMapper().writeValueAsString(changes)));
+        } catch (JsonProcessingException e) {
+            log.error("Audit record of {} with id {} could not be serialized", entityType.getSimpleName(), id, e);
+        }
+    }
+}
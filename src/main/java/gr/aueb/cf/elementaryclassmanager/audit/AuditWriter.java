@@ -0,0 +1,169 @@
+package gr.aueb.cf.elementaryclassmanager.audit;
+
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer of the audit trail.
+ * <p>
+ * Request threads hand their records to a bounded lock-free ring buffer and return immediately.
+ * A single daemon thread drains the buffer and writes each batch with one JDBC batch insert into
+ * {@code audit_log}, in its own transaction, so auditing never adds a round trip to the audited
+ * transaction. A failed batch is retried a few times before it is dropped. When the buffer is full
+ * a producer waits up to {@code audit.offerTimeoutMillis} for room before the record is dropped;
+ * every drop is logged.
+ * <p>
+ * Settings are read from system properties: {@code audit.enabled} (default true),
+ * {@code audit.bufferCapacity}, {@code audit.batchSize} and {@code audit.flushIntervalMillis}.
+ */
+@ApplicationScoped
+@Slf4j
+public class AuditWriter {
+
+    private static final String INSERT_SQL = "insert into audit_log "
+            + "(entity_type, entity_id, action, actor, occurred_at, changes) values (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final boolean enabled = Boolean.parseBoolean(System.getProperty("audit.enabled", "true"));
+    private final int batchSize = Integer.getInteger("audit.batchSize", 500);
+    private final long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("audit.flushIntervalMillis", 200L));
+    private final long offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("audit.offerTimeoutMillis", 50L));
+
+    private final MpscRingBuffer<AuditRecord> buffer = new MpscRingBuffer<>(Integer.getInteger("audit.bufferCapacity", 8192));
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the writer after it has flushed what is still queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a record for writing. Never blocks longer than {@code audit.offerTimeoutMillis}.
+     *
+     * @param record the record to write
+     */
+    public void enqueue(AuditRecord record) {
+        if (!buffer.offer(record)) {
+            long deadline = System.nanoTime() + offerTimeoutNanos;
+            LockSupport.unpark(worker);
+            while (!buffer.offer(record)) {
+                if (System.nanoTime() - deadline >= 0L || !running) {
+                    dropped.increment();
+                    log.error("Audit buffer full, dropped {} record of {} with id {} ({} dropped so far)",
+                            record.getAction(), record.getEntityType(), record.getEntityId(), dropped.sum());
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        int attempts = 0;
+        while (running || buffer.size() > 0 || !batch.isEmpty()) {
+            if (batch.isEmpty()) {
+                buffer.drainTo(batch, batchSize);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            if (flush(batch)) {
+                written.add(batch.size());
+                batch.clear();
+                attempts = 0;
+            } else if (++attempts >= MAX_ATTEMPTS || !running) {
+                dropped.add(batch.size());
+                log.error("Dropped a batch of {} audit records after {} failed attempts", batch.size(), attempts);
+                batch.clear();
+                attempts = 0;
+            } else {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private boolean flush(List<AuditRecord> batch) {
+        try {
+            JPAHelper.beginTransaction();
+            JPAHelper.getEntityManager().unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                    for (AuditRecord record : batch) {
+                        statement.setString(1, record.getEntityType());
+                        statement.setLong(2, record.getEntityId());
+                        statement.setString(3, record.getAction().name());
+                        statement.setString(4, record.getActor());
+                        statement.setTimestamp(5, new Timestamp(record.getOccurredAtMillis()));
+                        statement.setString(6, record.getChanges());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+            JPAHelper.commitTransaction();
+            return true;
+        } catch (RuntimeException e) {
+            if (JPAHelper.getEntityManager().getTransaction().isActive()) {
+                JPAHelper.rollbackTransaction();
+            }
+            log.error("Audit batch of {} records could not be written", batch.size(), e);
+            return false;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package gr.aueb.cf.elementaryclassmanager.cdi;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.spi.AnnotatedType;
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.enterprise.inject.spi.InjectionTarget;
+import jakarta.enterprise.inject.spi.ProcessInjectionTarget;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the beans with a class level interceptor binding, e.g. {@code @Timed}, interceptable.
+ * Jersey replaces the injection target of every CDI bean with its own, which only supports
+ * interceptors for the beans Jersey registers itself, so the original target of an intercepted
+ * bean is put back once Jersey is done. Such beans therefore get {@code @Inject} but no
+ * {@code @Context} injection.
+ */
+public class InterceptedBeanExtension implements Extension {
+
+    private final Map<AnnotatedType<?>, InjectionTarget<?>> originalTargets = new HashMap<>();
+
+    <T> void keepOriginalTarget(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE)
+                                ProcessInjectionTarget<T> event) {
+        boolean intercepted = event.getAnnotatedType().getAnnotations().stream()
+                .anyMatch(annotation -> annotation.annotationType().isAnnotationPresent(InterceptorBinding.class));
+        if (intercepted) {
+            originalTargets.put(event.getAnnotatedType(), event.getInjectionTarget());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> void restoreOriginalTarget(@Observes @Priority(Interceptor.Priority.PLATFORM_AFTER + 1000)
+                                   ProcessInjectionTarget<T> event) {
+        InjectionTarget<?> original = originalTargets.remove(event.getAnnotatedType());
+        if (original != null) {
+            event.setInjectionTarget((InjectionTarget<T>) original);
+        }
+    }
+}
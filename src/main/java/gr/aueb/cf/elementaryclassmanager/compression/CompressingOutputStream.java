@@ -0,0 +1,138 @@
+package gr.aueb.cf.elementaryclassmanager.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Output stream that compresses the body once it grows past a threshold.
+ * The first {@code threshold} bytes are held back; a body that ends before reaching it is written
+ * as is. Otherwise {@code onCompress} runs before the first byte reaches the wire, while the
+ * response headers can still be changed, and everything is compressed with a pooled deflater.
+ * Flushes before the decision are ignored, since they would force it early.
+ */
+class CompressingOutputStream extends OutputStream {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int DEFLATE_BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final ContentCoding coding;
+    private final DeflaterPool pool;
+    private final Runnable onCompress;
+
+    private byte[] pending;
+    private int pendingLength;
+
+    private Deflater deflater;
+    private DeflaterOutputStream deflaterStream;
+    private final CRC32 crc = new CRC32();
+    private long uncompressedLength;
+    private boolean finished;
+
+    CompressingOutputStream(OutputStream out, ContentCoding coding, DeflaterPool pool, int threshold, Runnable onCompress) {
+        this.out = out;
+        this.coding = coding;
+        this.pool = pool;
+        this.onCompress = onCompress;
+        this.pending = new byte[Math.max(threshold, 1)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (deflaterStream == null) {
+            if (pendingLength + len <= pending.length) {
+                System.arraycopy(b, off, pending, pendingLength, len);
+                pendingLength += len;
+                return;
+            }
+            startCompressing();
+        }
+        compress(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (deflaterStream != null) {
+            deflaterStream.flush();
+        }
+    }
+
+    /**
+     * Writes whatever is held back or still buffered in the deflater, and returns the deflater
+     * to the pool. Does not close the underlying stream. Safe to call more than once.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            if (deflaterStream == null) {
+                out.write(pending, 0, pendingLength);
+            } else {
+                deflaterStream.finish();
+                if (coding == ContentCoding.GZIP) {
+                    writeIntLittleEndian((int) crc.getValue());
+                    writeIntLittleEndian((int) uncompressedLength);
+                }
+            }
+        } finally {
+            releaseDeflater();
+        }
+    }
+
+    /**
+     * Returns the deflater to the pool without writing anything, after a failed write.
+     */
+    void abandon() {
+        finished = true;
+        releaseDeflater();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private void startCompressing() throws IOException {
+        onCompress.run();
+        deflater = pool.borrow();
+        if (coding == ContentCoding.GZIP) {
+            out.write(GZIP_HEADER);
+        }
+        deflaterStream = new DeflaterOutputStream(out, deflater, DEFLATE_BUFFER_SIZE);
+        compress(pending, 0, pendingLength);
+        pending = null;
+    }
+
+    private void compress(byte[] b, int off, int len) throws IOException {
+        if (coding == ContentCoding.GZIP) {
+            crc.update(b, off, len);
+        }
+        uncompressedLength += len;
+        deflaterStream.write(b, off, len);
+    }
+
+    private void writeIntLittleEndian(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+        out.write((value >>> 16) & 0xff);
+        out.write((value >>> 24) & 0xff);
+    }
+
+    private void releaseDeflater() {
+        if (deflater != null) {
+            pool.release(deflater);
+            deflater = null;
+        }
+    }
+}
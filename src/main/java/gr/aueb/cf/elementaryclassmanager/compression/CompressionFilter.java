@@ -0,0 +1,167 @@
+package gr.aueb.cf.elementaryclassmanager.compression;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compresses textual response bodies with gzip or deflate, as negotiated with {@code Accept-Encoding}.
+ * The filter picks the coding and the interceptor applies it while the entity is written, so
+ * bodies below {@code compression.minSize} bytes are still sent uncompressed without knowing their
+ * size in advance. Deflaters come from a pool per coding.
+ * <p>
+ * A compressed body is a representation of its own, so a strong {@code ETag} gets the coding
+ * appended when the body is compressed, e.g. {@code "3"} becomes {@code "3-gzip"}; weak tags are left
+ * as they are. The suffix is removed again from {@code If-None-Match} and {@code If-Match} before the
+ * resources compare the tags, and a 304 answering a coded tag carries that tag back. Every
+ * compressible response varies on {@code Accept-Encoding}, so caches keep the codings apart.
+ * <p>
+ * Settings: {@code compression.enabled} (default {@code true}), {@code compression.minSize}
+ * (default 1024), {@code compression.level} (default 6) and {@code compression.poolSize}
+ * (default twice the number of processors).
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class CompressionFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    private static final String CODING_PROPERTY = CompressionFilter.class.getName() + ".coding";
+    private static final String CONDITION_CODING_PROPERTY = CompressionFilter.class.getName() + ".conditionCoding";
+
+    private static final Pattern CODED_TAG = Pattern.compile("-(gzip|deflate)\"");
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("compression.enabled", "true"));
+    private static final int MIN_SIZE = Integer.getInteger("compression.minSize", 1024);
+    private static final int LEVEL = Integer.getInteger("compression.level", 6);
+    private static final int POOL_SIZE = Integer.getInteger("compression.poolSize", Runtime.getRuntime().availableProcessors() * 2);
+
+    private final Map<ContentCoding, DeflaterPool> pools = new EnumMap<>(ContentCoding.class);
+
+    public CompressionFilter() {
+        for (ContentCoding coding : ContentCoding.values()) {
+            pools.put(coding, new DeflaterPool(LEVEL, coding.isNowrap(), POOL_SIZE));
+        }
+    }
+
+    /**
+     * Strips the coding suffix from the tags of the conditional headers, so that the resources
+     * compare them with the tags they know.
+     */
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!ENABLED) {
+            return;
+        }
+        for (String header : List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MATCH)) {
+            List<String> values = requestContext.getHeaders().get(header);
+            if (values == null) {
+                continue;
+            }
+            for (int i = 0; i < values.size(); i++) {
+                Matcher matcher = CODED_TAG.matcher(values.get(i));
+                if (matcher.find()) {
+                    requestContext.setProperty(CONDITION_CODING_PROPERTY, matcher.group(1));
+                    values.set(i, matcher.replaceAll("\""));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object conditionCoding = requestContext.getProperty(CONDITION_CODING_PROPERTY);
+        if (conditionCoding != null
+                && responseContext.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            codeEntityTag(responseContext.getHeaders(), (String) conditionCoding);
+            return;
+        }
+        if (!ENABLED || !responseContext.hasEntity()
+                || responseContext.getStatus() == Response.Status.NO_CONTENT.getStatusCode()
+                || responseContext.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()
+                || responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)
+                || !isCompressible(responseContext.getMediaType())) {
+            return;
+        }
+
+        responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ContentCoding coding = ContentCoding.negotiate(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (coding != null) {
+            requestContext.setProperty(CODING_PROPERTY, coding);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        ContentCoding coding = (ContentCoding) context.getProperty(CODING_PROPERTY);
+        if (coding == null) {
+            context.proceed();
+            return;
+        }
+
+        CompressingOutputStream compressing = new CompressingOutputStream(context.getOutputStream(), coding,
+                pools.get(coding), MIN_SIZE, () -> {
+                    context.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+                    context.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    codeEntityTag(context.getHeaders(), coding.getToken());
+                });
+        context.setOutputStream(compressing);
+        boolean written = false;
+        try {
+            context.proceed();
+            compressing.finish();
+            written = true;
+        } finally {
+            if (!written) {
+                compressing.abandon();
+            }
+        }
+    }
+
+    /**
+     * Appends a coding to the strong {@code ETag} of a response, if it has one.
+     */
+    private static void codeEntityTag(MultivaluedMap<String, Object> headers, String coding) {
+        Object value = headers.getFirst(HttpHeaders.ETAG);
+        if (value == null) {
+            return;
+        }
+        EntityTag tag = value instanceof EntityTag
+                ? (EntityTag) value
+                : RuntimeDelegate.getInstance().createHeaderDelegate(EntityTag.class).fromString(value.toString());
+        if (!tag.isWeak()) {
+            headers.putSingle(HttpHeaders.ETAG, new EntityTag(tag.getValue() + "-" + coding));
+        }
+    }
+
+    /**
+     * Text formats compress well; binary formats are usually compressed already, and event
+     * streams must reach the client as soon as each event is flushed.
+     */
+    private static boolean isCompressible(MediaType mediaType) {
+        if (mediaType == null || MediaType.SERVER_SENT_EVENTS_TYPE.isCompatible(mediaType)) {
+            return false;
+        }
+        String subtype = mediaType.getSubtype();
+        return "text".equals(mediaType.getType())
+                || "json".equals(subtype) || subtype.endsWith("+json")
+                || "xml".equals(subtype) || subtype.endsWith("+xml");
+    }
+}
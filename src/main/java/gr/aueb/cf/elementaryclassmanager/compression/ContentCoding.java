@@ -0,0 +1,93 @@
+package gr.aueb.cf.elementaryclassmanager.compression;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Content codings the server can apply to a response body.
+ * Listed in order of preference when the client accepts several with the same weight.
+ */
+public enum ContentCoding {
+
+    GZIP("gzip", true),
+    DEFLATE("deflate", false);
+
+    private final String token;
+    private final boolean nowrap;
+
+    ContentCoding(String token, boolean nowrap) {
+        this.token = token;
+        this.nowrap = nowrap;
+    }
+
+    /**
+     * @return the token used in the {@code Accept-Encoding} and {@code Content-Encoding} headers
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return whether the deflate stream is raw, without the zlib header and checksum.
+     * gzip adds its own framing around a raw stream; HTTP {@code deflate} is the zlib format.
+     */
+    boolean isNowrap() {
+        return nowrap;
+    }
+
+    /**
+     * Picks the coding with the highest weight in an {@code Accept-Encoding} header.
+     *
+     * @param acceptEncoding the header value, may be {@code null}
+     * @return the coding to use, or {@code null} if the client accepts none of them
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+
+        // -1 marks a coding the header does not list
+        double[] weights = new double[values().length];
+        Arrays.fill(weights, -1);
+        double wildcard = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double weight = weightOf(parts);
+            if ("*".equals(coding)) {
+                wildcard = weight;
+                continue;
+            }
+            for (ContentCoding candidate : values()) {
+                if (candidate.token.equals(coding) || (candidate == GZIP && "x-gzip".equals(coding))) {
+                    weights[candidate.ordinal()] = Math.max(weights[candidate.ordinal()], weight);
+                }
+            }
+        }
+
+        ContentCoding best = null;
+        double bestWeight = 0;
+        for (ContentCoding candidate : values()) {
+            double weight = weights[candidate.ordinal()] >= 0 ? weights[candidate.ordinal()] : wildcard;
+            if (weight > bestWeight) {
+                best = candidate;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    private static double weightOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
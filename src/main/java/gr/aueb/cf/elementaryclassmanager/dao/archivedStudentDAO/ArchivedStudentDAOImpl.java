@@ -0,0 +1,119 @@
+package gr.aueb.cf.elementaryclassmanager.dao.archivedStudentDAO;
+
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.model.ArchivedStudent;
+import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import jakarta.ws.rs.ext.Provider;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Moves archived students from the hot {@code students} table to {@code archived_students}.
+ * The move is two set-based statements per chunk, an insert-select and a delete, so no
+ * student entity is loaded.
+ */
+@Provider
+@ApplicationScoped
+@Traced
+public class ArchivedStudentDAOImpl implements IArchivedStudentDAO {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String COPY_TO_ARCHIVE =
+            "insert into ArchivedStudent (studentId, firstname, lastname, ssn, grade, archivedAt) "
+                    + "select s.id, s.firstname, s.lastname, s.ssn, s.grade, instant "
+                    + "from Student s where s.archived = true and s.id in :ids";
+
+    private static final String DELETE_FROM_STUDENTS =
+            "delete from Student s where s.archived = true and s.id in :ids";
+
+    @Override
+    public List<StudentSnapshot> getArchivedStudentsToMove(int maxResults) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<StudentSnapshot> selectQuery = builder.createQuery(StudentSnapshot.class);
+        Root<Student> root = selectQuery.from(Student.class);
+
+        selectQuery.select(builder.construct(StudentSnapshot.class,
+                        root.get("id"),
+                        root.get("firstname"),
+                        root.get("lastname"),
+                        root.get("ssn"),
+                        root.get("grade"),
+                        builder.nullLiteral(Long.class),
+                        root.get("archived")))
+                .where(builder.isTrue(root.get("archived")))
+                .orderBy(builder.asc(root.get("id")));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    @Override
+    public int moveToArchive(Collection<Long> studentIds) {
+        int copied = getEntityManager()
+                .createQuery(COPY_TO_ARCHIVE)
+                .setParameter("ids", studentIds)
+                .executeUpdate();
+        int deleted = getEntityManager()
+                .createQuery(DELETE_FROM_STUDENTS)
+                .setParameter("ids", studentIds)
+                .executeUpdate();
+        if (copied != deleted) {
+            throw new IllegalStateException("Copied " + copied + " students to the archive but deleted " + deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    public Optional<ArchivedStudent> getBySsn(String ssn) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<ArchivedStudent> query = builder.createQuery(ArchivedStudent.class);
+        Root<ArchivedStudent> root = query.from(ArchivedStudent.class);
+
+        ParameterExpression<String> ssnParam = builder.parameter(String.class);
+        query.select(root).where(builder.equal(root.get("ssn"), ssnParam));
+
+        return getEntityManager()
+                .createQuery(query)
+                .setParameter(ssnParam, ssn)
+                .getResultStream()
+                .findAny();
+    }
+
+    @Override
+    public Stream<String> streamSsns() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<String> selectQuery = builder.createQuery(String.class);
+        Root<ArchivedStudent> root = selectQuery.from(ArchivedStudent.class);
+        selectQuery.select(root.get("ssn"));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public long count() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        countQuery.select(builder.count(countQuery.from(ArchivedStudent.class)));
+        return getEntityManager().createQuery(countQuery).getSingleResult();
+    }
+
+    private EntityManager getEntityManager() {
+        return JPAHelper.getEntityManager();
+    }
+}
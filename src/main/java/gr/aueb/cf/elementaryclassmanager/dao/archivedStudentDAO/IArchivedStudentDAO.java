@@ -0,0 +1,17 @@
+package gr.aueb.cf.elementaryclassmanager.dao.archivedStudentDAO;
+
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.model.ArchivedStudent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface IArchivedStudentDAO {
+    List<StudentSnapshot> getArchivedStudentsToMove(int maxResults);
+    int moveToArchive(Collection<Long> studentIds);
+    Optional<ArchivedStudent> getBySsn(String ssn);
+    Stream<String> streamSsns();
+    long count();
+}
@@ -0,0 +1,64 @@
+package gr.aueb.cf.elementaryclassmanager.dao.auditDAO;
+
+import gr.aueb.cf.elementaryclassmanager.model.AuditEntry;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read side of the audit trail. Rows are written in batches by the audit writer, not through this DAO.
+ * A {@code null} entity type or id matches every value.
+ */
+@Provider
+@ApplicationScoped
+@Traced
+public class AuditDAOImpl implements IAuditDAO {
+
+    @Override
+    public List<AuditEntry> getByEntity(String entityType, Long entityId, int firstResult, int maxResults) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<AuditEntry> selectQuery = builder.createQuery(AuditEntry.class);
+        Root<AuditEntry> root = selectQuery.from(AuditEntry.class);
+
+        selectQuery.select(root)
+                .where(entityFilter(builder, root, entityType, entityId))
+                .orderBy(builder.desc(root.get("id")));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setFirstResult(firstResult)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    @Override
+    public long countByEntity(String entityType, Long entityId) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        Root<AuditEntry> root = countQuery.from(AuditEntry.class);
+
+        countQuery.select(builder.count(root)).where(entityFilter(builder, root, entityType, entityId));
+        return getEntityManager().createQuery(countQuery).getSingleResult();
+    }
+
+    private Predicate[] entityFilter(CriteriaBuilder builder, Root<AuditEntry> root, String entityType, Long entityId) {
+        List<Predicate> predicates = new ArrayList<>(2);
+        if (entityType != null) {
+            predicates.add(builder.equal(root.get("entityType"), entityType));
+        }
+        if (entityId != null) {
+            predicates.add(builder.equal(root.get("entityId"), entityId));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private EntityManager getEntityManager() {
+        return JPAHelper.getEntityManager();
+    }
+}
@@ -0,0 +1,10 @@
+package gr.aueb.cf.elementaryclassmanager.dao.auditDAO;
+
+import gr.aueb.cf.elementaryclassmanager.model.AuditEntry;
+
+import java.util.List;
+
+public interface IAuditDAO {
+    List<AuditEntry> getByEntity(String entityType, Long entityId, int firstResult, int maxResults);
+    long countByEntity(String entityType, Long entityId);
+}
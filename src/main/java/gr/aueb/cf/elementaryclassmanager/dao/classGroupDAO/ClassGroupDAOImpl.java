@@ -1,20 +1,41 @@
 package gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO;
 
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
 import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
 import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import gr.aueb.cf.elementaryclassmanager.model.Teacher;
 import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.*;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.ext.Provider;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.stream.Stream;
 
 @Provider
 @ApplicationScoped
+@Traced
 public class ClassGroupDAOImpl implements IClassGroupDAO {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String CLEAR_TEACHERS =
+            "update ClassGroup c set c.teacher = null where c.id in :ids";
+
+    private static final String ASSIGN_TEACHER_SQL =
+            "update class_group set teacher_id = ? where id = ?";
+
     @Override
     public ClassGroup insertClassGroup(ClassGroup classGroup) {
         getEntityManager().persist(classGroup);
@@ -30,6 +51,10 @@ public class ClassGroupDAOImpl implements IClassGroupDAO {
     @Override
     public void deleteClassGroup(Long id) {
         ClassGroup classGroupToDelete = getEntityManager().find(ClassGroup.class, id);
+        if (classGroupToDelete.getTeacher() != null) {
+            // the teacher's representation loses its class group
+            classGroupToDelete.getTeacher().touch();
+        }
         getEntityManager().remove(classGroupToDelete);
     }
 
@@ -62,9 +87,105 @@ public class ClassGroupDAOImpl implements IClassGroupDAO {
                 .findAny();
     }
 
+    @Override
+    public List<ClassGroup> getByIds(Collection<Long> ids) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<ClassGroup> selectQuery = builder.createQuery(ClassGroup.class);
+        Root<ClassGroup> root = selectQuery.from(ClassGroup.class);
+        selectQuery.select(root).where(root.get("id").in(ids));
 
+        return getEntityManager().createQuery(selectQuery).getResultList();
+    }
 
+    @Override
+    public List<ClassGroup> getByTeacherIds(Collection<Long> teacherIds) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<ClassGroup> selectQuery = builder.createQuery(ClassGroup.class);
+        Root<ClassGroup> root = selectQuery.from(ClassGroup.class);
+        selectQuery.select(root).where(root.get("teacher").get("id").in(teacherIds));
 
+        return getEntityManager().createQuery(selectQuery).getResultList();
+    }
+
+    /**
+     * Detaches the teacher from every given class group with a single set-based update.
+     * Run before {@link #assignTeachers(SortedMap)} so that no intermediate state of a swap
+     * violates the unique {@code teacher_id} column.
+     * <p>
+     * The update bypasses the persistence context: pending changes are flushed first, and the
+     * context is cleared afterwards so that later reads in the transaction see the new rows.
+     */
+    @Override
+    public int clearTeachers(Collection<Long> ids) {
+        EntityManager em = getEntityManager();
+        em.flush();
+        int cleared = em.createQuery(CLEAR_TEACHERS)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        em.clear();
+        return cleared;
+    }
+
+    /**
+     * Sets the teacher foreign key of each class group as one JDBC batch, in class group id order
+     * so that concurrent reassignments lock the rows in the same order.
+     * <p>
+     * Like {@link #clearTeachers(Collection)}, the batch bypasses the persistence context, which is
+     * flushed before and cleared after it.
+     */
+    @Override
+    public void assignTeachers(SortedMap<Long, Long> teacherIdsByClassGroupId) {
+        if (teacherIdsByClassGroupId.isEmpty()) {
+            return;
+        }
+        EntityManager em = getEntityManager();
+        em.flush();
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(ASSIGN_TEACHER_SQL)) {
+                for (Map.Entry<Long, Long> entry : teacherIdsByClassGroupId.entrySet()) {
+                    statement.setLong(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                    statement.addBatch();
+                }
+                for (int count : statement.executeBatch()) {
+                    if (count != 1 && count != Statement.SUCCESS_NO_INFO) {
+                        throw new IllegalStateException("Teacher assignment updated " + count + " rows instead of 1");
+                    }
+                }
+            }
+        });
+        em.clear();
+    }
+
+    @Override
+    public Stream<ClassGroupSnapshot> streamAll() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<ClassGroupSnapshot> selectQuery = builder.createQuery(ClassGroupSnapshot.class);
+        Root<ClassGroup> root = selectQuery.from(ClassGroup.class);
+        Join<ClassGroup, Teacher> teacher = root.join("teacher", JoinType.LEFT);
+
+        selectQuery.select(builder.construct(ClassGroupSnapshot.class,
+                        root.get("id"),
+                        root.get("name"),
+                        root.get("grade"),
+                        teacher.get("id"),
+                        root.get("archived")))
+                .orderBy(builder.asc(root.get("id")));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public long count() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        countQuery.select(builder.count(countQuery.from(ClassGroup.class)));
+        return getEntityManager().createQuery(countQuery).getSingleResult();
+    }
 
     private EntityManager getEntityManager() {
         return JPAHelper.getEntityManager();
@@ -1,10 +1,14 @@
 package gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO;
 
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
 import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
 import gr.aueb.cf.elementaryclassmanager.model.Grade;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.stream.Stream;
 
 public interface IClassGroupDAO {
     ClassGroup insertClassGroup(ClassGroup classGroup);
@@ -12,5 +16,11 @@ public interface IClassGroupDAO {
     void deleteClassGroup(Long id);
     Optional<ClassGroup> getById(Long id);
     Optional<ClassGroup> getByNameAndGrade(Character name, Grade grade);
+    List<ClassGroup> getByIds(Collection<Long> ids);
+    List<ClassGroup> getByTeacherIds(Collection<Long> teacherIds);
+    int clearTeachers(Collection<Long> ids);
+    void assignTeachers(SortedMap<Long, Long> teacherIdsByClassGroupId);
+    Stream<ClassGroupSnapshot> streamAll();
+    long count();
 
 }
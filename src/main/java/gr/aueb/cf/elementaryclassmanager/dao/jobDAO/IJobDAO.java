@@ -0,0 +1,13 @@
+package gr.aueb.cf.elementaryclassmanager.dao.jobDAO;
+
+import gr.aueb.cf.elementaryclassmanager.model.Job;
+import gr.aueb.cf.elementaryclassmanager.model.JobStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface IJobDAO {
+    Job insertJob(Job job);
+    Optional<Job> getById(Long id);
+    List<Job> getByStatus(JobStatus status);
+}
@@ -0,0 +1,53 @@
+package gr.aueb.cf.elementaryclassmanager.dao.jobDAO;
+
+import gr.aueb.cf.elementaryclassmanager.model.Job;
+import gr.aueb.cf.elementaryclassmanager.model.JobStatus;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Root;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.List;
+import java.util.Optional;
+
+@Provider
+@ApplicationScoped
+public class JobDAOImpl implements IJobDAO {
+
+    @Override
+    public Job insertJob(Job job) {
+        getEntityManager().persist(job);
+        return job;
+    }
+
+    @Override
+    public Optional<Job> getById(Long id) {
+        Job jobToReturn = getEntityManager().find(Job.class, id);
+        return Optional.ofNullable(jobToReturn);
+    }
+
+    @Override
+    public List<Job> getByStatus(JobStatus status) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Job> selectQuery = builder.createQuery(Job.class);
+        Root<Job> root = selectQuery.from(Job.class);
+
+        ParameterExpression<JobStatus> statusParam = builder.parameter(JobStatus.class);
+        selectQuery.select(root)
+                .where(builder.equal(root.get("status"), statusParam))
+                .orderBy(builder.asc(root.get("id")));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(statusParam, status)
+                .getResultList();
+    }
+
+    private EntityManager getEntityManager() {
+        return JPAHelper.getEntityManager();
+    }
+}
@@ -0,0 +1,12 @@
+package gr.aueb.cf.elementaryclassmanager.dao.statisticsDAO;
+
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+
+import java.util.Map;
+
+public interface IStatisticsDAO {
+    Map<Grade, Long> countActiveStudentsByGrade();
+    Map<Long, Long> countStudentsByClassGroup();
+    long countUnassignedActiveStudents();
+    long countArchivedStudents();
+}
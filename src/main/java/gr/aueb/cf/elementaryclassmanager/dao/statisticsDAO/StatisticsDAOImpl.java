@@ -0,0 +1,90 @@
+package gr.aueb.cf.elementaryclassmanager.dao.statisticsDAO;
+
+import gr.aueb.cf.elementaryclassmanager.model.ArchivedStudent;
+import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregate queries behind the school statistics. Each method is a single GROUP BY or COUNT
+ * query, so no entity is loaded.
+ */
+@Provider
+@ApplicationScoped
+@Traced
+public class StatisticsDAOImpl implements IStatisticsDAO {
+
+    @Override
+    public Map<Grade, Long> countActiveStudentsByGrade() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> selectQuery = builder.createTupleQuery();
+        Root<Student> root = selectQuery.from(Student.class);
+
+        selectQuery.multiselect(root.get("grade"), builder.count(root))
+                .where(builder.isFalse(root.get("archived")))
+                .groupBy(root.get("grade"));
+
+        Map<Grade, Long> counts = new EnumMap<>(Grade.class);
+        for (Tuple row : getEntityManager().createQuery(selectQuery).getResultList()) {
+            counts.put(row.get(0, Grade.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Long, Long> countStudentsByClassGroup() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> selectQuery = builder.createTupleQuery();
+        Root<Student> root = selectQuery.from(Student.class);
+        Join<Student, ClassGroup> classGroup = root.join("classGroup");
+
+        selectQuery.multiselect(classGroup.get("id"), builder.count(root))
+                .groupBy(classGroup.get("id"));
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (Tuple row : getEntityManager().createQuery(selectQuery).getResultList()) {
+            counts.put(row.get(0, Long.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public long countUnassignedActiveStudents() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        Root<Student> root = countQuery.from(Student.class);
+
+        countQuery.select(builder.count(root))
+                .where(builder.and(builder.isNull(root.get("classGroup")), builder.isFalse(root.get("archived"))));
+        return getEntityManager().createQuery(countQuery).getSingleResult();
+    }
+
+    @Override
+    public long countArchivedStudents() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        Root<Student> root = countQuery.from(Student.class);
+
+        countQuery.select(builder.count(root)).where(builder.isTrue(root.get("archived")));
+        long notYetMoved = getEntityManager().createQuery(countQuery).getSingleResult();
+
+        CriteriaQuery<Long> archiveCountQuery = builder.createQuery(Long.class);
+        archiveCountQuery.select(builder.count(archiveCountQuery.from(ArchivedStudent.class)));
+        return notYetMoved + getEntityManager().createQuery(archiveCountQuery).getSingleResult();
+    }
+
+    private EntityManager getEntityManager() {
+        return JPAHelper.getEntityManager();
+    }
+}
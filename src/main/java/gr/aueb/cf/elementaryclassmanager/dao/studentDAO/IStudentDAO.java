@@ -1,9 +1,14 @@
 package gr.aueb.cf.elementaryclassmanager.dao.studentDAO;
 
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
 import gr.aueb.cf.elementaryclassmanager.model.Student;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IStudentDAO {
     Student insertStudent(Student student);
@@ -11,8 +16,17 @@ public interface IStudentDAO {
     void deleteStudent(Long id);
     List<Student> getByLastName(String lastName);
     Optional<Student> getById(Long id);
+    Optional<EntityVersion> getVersionById(Long id);
     Optional<Student> getBySsn(String ssn);
     List<Student> getByClassGroupId(Long classGroupId);
+    List<Student> getByClassGroupIdAfter(Long classGroupId, Long afterId, int maxResults);
     void archiveStudent(Long studentId);
     Optional<Student> getActiveById(Long id);
+    Optional<Map<String, Object>> getFieldsById(Long id, FieldSelection fields);
+    Optional<Map<String, Object>> getFieldsBySsn(String ssn, FieldSelection fields);
+    List<Map<String, Object>> getFieldsByLastname(String lastname, FieldSelection fields);
+    List<Map<String, Object>> getFieldsByClassGroupId(Long classGroupId, FieldSelection fields);
+    Stream<StudentSnapshot> streamAll();
+    Stream<String> streamSsns();
+    long count();
 }
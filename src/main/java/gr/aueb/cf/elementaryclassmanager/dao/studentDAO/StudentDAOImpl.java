@@ -1,20 +1,35 @@
 package gr.aueb.cf.elementaryclassmanager.dao.studentDAO;
 
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
+import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
 import gr.aueb.cf.elementaryclassmanager.model.Student;
 import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
 import jakarta.ws.rs.ext.Provider;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Provider
 @ApplicationScoped
+@Traced
 public class StudentDAOImpl implements IStudentDAO {
 
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     @Override
     public Student insertStudent(Student student) {
         getEntityManager().persist(student);
@@ -40,7 +55,7 @@ public class StudentDAOImpl implements IStudentDAO {
         Root<Student> root = selectQuery.from(Student.class);
 
         ParameterExpression<String> lastnameParam = builder.parameter(String.class);
-        selectQuery.select(root).where(builder.like(root.get("lastName"),lastName));
+        selectQuery.select(root).where(builder.like(root.get("lastname"), lastnameParam));
         return getEntityManager()
                 .createQuery(selectQuery)
                 .setParameter(lastnameParam, lastName + "%")
@@ -62,6 +77,26 @@ public class StudentDAOImpl implements IStudentDAO {
                 .getResultList();
     }
 
+    @Override
+    public List<Student> getByClassGroupIdAfter(Long classGroupId, Long afterId, int maxResults) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Student> selectQuery = builder.createQuery(Student.class);
+        Root<Student> root = selectQuery.from(Student.class);
+
+        ParameterExpression<Long> classGroupIdParam = builder.parameter(Long.class);
+        ParameterExpression<Long> afterIdParam = builder.parameter(Long.class);
+        selectQuery.select(root)
+                .where(builder.equal(root.get("classGroup").get("id"), classGroupIdParam),
+                        builder.greaterThan(root.get("id"), afterIdParam))
+                .orderBy(builder.asc(root.get("id")));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(classGroupIdParam, classGroupId)
+                .setParameter(afterIdParam, afterId != null ? afterId : 0L)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
 
     @Override
     public Optional<Student> getById(Long id) {
@@ -70,6 +105,23 @@ public class StudentDAOImpl implements IStudentDAO {
 
     }
 
+    @Override
+    public Optional<EntityVersion> getVersionById(Long id) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<EntityVersion> selectQuery = builder.createQuery(EntityVersion.class);
+        Root<Student> root = selectQuery.from(Student.class);
+
+        ParameterExpression<Long> idParam = builder.parameter(Long.class);
+        selectQuery.select(builder.construct(EntityVersion.class, root.get("version"), root.get("updatedAt")))
+                .where(builder.equal(root.get("id"), idParam));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(idParam, id)
+                .getResultStream()
+                .findAny();
+    }
+
     @Override
     public Optional<Student> getBySsn(String ssn) {
         CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
@@ -112,6 +164,144 @@ public class StudentDAOImpl implements IStudentDAO {
                 .findAny();
     }
 
+    @Override
+    public Stream<StudentSnapshot> streamAll() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<StudentSnapshot> selectQuery = builder.createQuery(StudentSnapshot.class);
+        Root<Student> root = selectQuery.from(Student.class);
+        Join<Student, ClassGroup> classGroup = root.join("classGroup", JoinType.LEFT);
+
+        selectQuery.select(builder.construct(StudentSnapshot.class,
+                        root.get("id"),
+                        root.get("firstname"),
+                        root.get("lastname"),
+                        root.get("ssn"),
+                        root.get("grade"),
+                        classGroup.get("id"),
+                        root.get("archived")))
+                .orderBy(builder.asc(root.get("id")));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<String> streamSsns() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<String> selectQuery = builder.createQuery(String.class);
+        Root<Student> root = selectQuery.from(Student.class);
+        selectQuery.select(root.get("ssn"));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public long count() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        countQuery.select(builder.count(countQuery.from(Student.class)));
+        return getEntityManager().createQuery(countQuery).getSingleResult();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getFieldsById(Long id, FieldSelection fields) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> selectQuery = builder.createTupleQuery();
+        Root<Student> root = selectQuery.from(Student.class);
+
+        ParameterExpression<Long> idParam = builder.parameter(Long.class);
+        selectQuery.multiselect(selectFields(root, fields))
+                .where(builder.equal(root.get("id"), idParam));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(idParam, id)
+                .getResultStream()
+                .findAny()
+                .map(tuple -> toMap(tuple, fields));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getFieldsBySsn(String ssn, FieldSelection fields) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> selectQuery = builder.createTupleQuery();
+        Root<Student> root = selectQuery.from(Student.class);
+
+        ParameterExpression<String> ssnParam = builder.parameter(String.class);
+        selectQuery.multiselect(selectFields(root, fields))
+                .where(builder.equal(root.get("ssn"), ssnParam));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(ssnParam, ssn)
+                .getResultStream()
+                .findAny()
+                .map(tuple -> toMap(tuple, fields));
+    }
+
+    @Override
+    public List<Map<String, Object>> getFieldsByLastname(String lastname, FieldSelection fields) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> selectQuery = builder.createTupleQuery();
+        Root<Student> root = selectQuery.from(Student.class);
+
+        ParameterExpression<String> lastnameParam = builder.parameter(String.class);
+        selectQuery.multiselect(selectFields(root, fields))
+                .where(builder.like(root.get("lastname"), lastnameParam));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(lastnameParam, lastname + "%")
+                .getResultStream()
+                .map(tuple -> toMap(tuple, fields))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Map<String, Object>> getFieldsByClassGroupId(Long classGroupId, FieldSelection fields) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> selectQuery = builder.createTupleQuery();
+        Root<Student> root = selectQuery.from(Student.class);
+
+        ParameterExpression<Long> classGroupIdParam = builder.parameter(Long.class);
+        selectQuery.multiselect(selectFields(root, fields))
+                .where(builder.equal(root.get("classGroup").get("id"), classGroupIdParam))
+                .orderBy(builder.asc(root.get("id")));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(classGroupIdParam, classGroupId)
+                .getResultStream()
+                .map(tuple -> toMap(tuple, fields))
+                .collect(Collectors.toList());
+    }
+    /**
+     * Selects the column of each requested field, aliased by the field name.
+     * The class group is only joined when its id is requested.
+     */
+    private static List<Selection<?>> selectFields(Root<Student> root, FieldSelection fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.getFields().size());
+        for (String field : fields.getFields()) {
+            Path<?> path = "classGroupId".equals(field) ? root.get("classGroup").get("id") : root.get(field);
+            selections.add(path.alias(field));
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, FieldSelection fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields.getFields()) {
+            values.put(field, tuple.get(field));
+        }
+        return values;
+    }
 
     private EntityManager getEntityManager() {
         return JPAHelper.getEntityManager();
@@ -1,9 +1,15 @@
 package gr.aueb.cf.elementaryclassmanager.dao.teacherDAO;
 
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
 import gr.aueb.cf.elementaryclassmanager.model.Teacher;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ITeacherDAO {
 
@@ -12,7 +18,15 @@ public interface ITeacherDAO {
     void deleteTeacher(Long id);
     List<Teacher> getByLastname(String lastname);
     Optional<Teacher> getById(Long id);
+    List<Teacher> getByIds(Collection<Long> ids);
+    Optional<EntityVersion> getVersionById(Long id);
+    int touchTeachers(Collection<Long> ids);
     Optional<Teacher> getByRegistrationNumber(String registrationNumber);
+    Optional<Map<String, Object>> getFieldsById(Long id, FieldSelection fields);
+    List<Map<String, Object>> getFieldsByLastname(String lastname, FieldSelection fields);
+    Stream<TeacherSnapshot> streamAll();
+    Stream<String> streamRegistrationNumbers();
+    long count();
 }
 
 
@@ -1,22 +1,41 @@
 package gr.aueb.cf.elementaryclassmanager.dao.teacherDAO;
 
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
 import gr.aueb.cf.elementaryclassmanager.model.Teacher;
 import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import jakarta.ws.rs.ext.Provider;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Provider
 @ApplicationScoped
+@Traced
 public class TeacherDAOImpl implements ITeacherDAO {
 
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     @Override
     public Teacher insertTeacher(Teacher teacher) {
         getEntityManager().persist(teacher);
@@ -55,6 +74,49 @@ public class TeacherDAOImpl implements ITeacherDAO {
         return Optional.ofNullable(teacherToReturn);
     }
 
+    @Override
+    public List<Teacher> getByIds(Collection<Long> ids) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Teacher> selectQuery = builder.createQuery(Teacher.class);
+        Root<Teacher> root = selectQuery.from(Teacher.class);
+        selectQuery.select(root).where(root.get("id").in(ids));
+
+        return getEntityManager().createQuery(selectQuery).getResultList();
+    }
+
+    @Override
+    public Optional<EntityVersion> getVersionById(Long id) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<EntityVersion> selectQuery = builder.createQuery(EntityVersion.class);
+        Root<Teacher> root = selectQuery.from(Teacher.class);
+
+        ParameterExpression<Long> idParam = builder.parameter(Long.class);
+        selectQuery.select(builder.construct(EntityVersion.class, root.get("version"), root.get("updatedAt")))
+                .where(builder.equal(root.get("id"), idParam));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(idParam, id)
+                .getResultStream()
+                .findAny();
+    }
+
+    /**
+     * Marks the given teachers as modified, so that their version and modification time are bumped
+     * on the next flush. Used when their class group assignment changes, which is stored on the
+     * class group row only. The teachers are touched as managed entities rather than with a bulk
+     * update, which would leave the versions held by the persistence context behind the database.
+     */
+    @Override
+    public int touchTeachers(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Teacher> teachers = getByIds(ids);
+        teachers.forEach(Teacher::touch);
+        return teachers.size();
+    }
+
     @Override
     public Optional<Teacher> getByRegistrationNumber(String registrationNumber) {
         CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
@@ -73,6 +135,105 @@ public class TeacherDAOImpl implements ITeacherDAO {
 
     }
 
+    @Override
+    public Stream<TeacherSnapshot> streamAll() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<TeacherSnapshot> selectQuery = builder.createQuery(TeacherSnapshot.class);
+        Root<Teacher> root = selectQuery.from(Teacher.class);
+
+        selectQuery.select(builder.construct(TeacherSnapshot.class,
+                        root.get("id"),
+                        root.get("firstname"),
+                        root.get("lastname"),
+                        root.get("registrationNumber"),
+                        root.get("email")))
+                .orderBy(builder.asc(root.get("id")));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<String> streamRegistrationNumbers() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<String> selectQuery = builder.createQuery(String.class);
+        Root<Teacher> root = selectQuery.from(Teacher.class);
+        selectQuery.select(root.get("registrationNumber"));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public long count() {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        countQuery.select(builder.count(countQuery.from(Teacher.class)));
+        return getEntityManager().createQuery(countQuery).getSingleResult();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getFieldsById(Long id, FieldSelection fields) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> selectQuery = builder.createTupleQuery();
+        Root<Teacher> root = selectQuery.from(Teacher.class);
+
+        ParameterExpression<Long> idParam = builder.parameter(Long.class);
+        selectQuery.multiselect(selectFields(root, fields))
+                .where(builder.equal(root.get("id"), idParam));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(idParam, id)
+                .getResultStream()
+                .findAny()
+                .map(tuple -> toMap(tuple, fields));
+    }
+
+    @Override
+    public List<Map<String, Object>> getFieldsByLastname(String lastname, FieldSelection fields) {
+        CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> selectQuery = builder.createTupleQuery();
+        Root<Teacher> root = selectQuery.from(Teacher.class);
+
+        ParameterExpression<String> lastnameParam = builder.parameter(String.class);
+        selectQuery.multiselect(selectFields(root, fields))
+                .where(builder.like(root.get("lastname"), lastnameParam));
+
+        return getEntityManager()
+                .createQuery(selectQuery)
+                .setParameter(lastnameParam, lastname + "%")
+                .getResultStream()
+                .map(tuple -> toMap(tuple, fields))
+                .collect(Collectors.toList());
+    }
+    /**
+     * Selects the column of each requested field, aliased by the field name.
+     * The class group is only joined when its id is requested.
+     */
+    private static List<Selection<?>> selectFields(Root<Teacher> root, FieldSelection fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.getFields().size());
+        for (String field : fields.getFields()) {
+            Path<?> path = "classGroupId".equals(field) ? root.join("classgroup", JoinType.LEFT).get("id") : root.get(field);
+            selections.add(path.alias(field));
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, FieldSelection fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields.getFields()) {
+            values.put(field, tuple.get(field));
+        }
+        return values;
+    }
+
     private EntityManager getEntityManager() {
         return JPAHelper.getEntityManager();
     }
@@ -0,0 +1,36 @@
+package gr.aueb.cf.elementaryclassmanager.diagnostics;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query diagnostics settings, read once from system properties.
+ * <ul>
+ *     <li>{@code diagnostics.enabled} - turns the statement diagnostics on or off (default {@code true})</li>
+ *     <li>{@code diagnostics.slowQueryMillis} - duration from which a statement is logged as slow (default 200)</li>
+ *     <li>{@code diagnostics.repeatThreshold} - executions of the same statement in one request from which
+ *     it is reported as a likely N+1 query (default 5)</li>
+ *     <li>{@code diagnostics.strict} - answers 500 to requests over their {@link StatementBudget},
+ *     for test runs (default {@code false})</li>
+ * </ul>
+ */
+@Getter
+public class DiagnosticsConfig {
+
+    private final boolean enabled;
+    private final long slowQueryNanos;
+    private final int repeatThreshold;
+    private final boolean strict;
+
+    private DiagnosticsConfig() {
+        this.enabled = Boolean.parseBoolean(System.getProperty("diagnostics.enabled", "true"));
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("diagnostics.slowQueryMillis", 200L));
+        this.repeatThreshold = Integer.getInteger("diagnostics.repeatThreshold", 5);
+        this.strict = Boolean.parseBoolean(System.getProperty("diagnostics.strict", "false"));
+    }
+
+    public static DiagnosticsConfig fromSystemProperties() {
+        return new DiagnosticsConfig();
+    }
+}
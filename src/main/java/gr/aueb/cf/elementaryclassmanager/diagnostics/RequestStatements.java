@@ -0,0 +1,46 @@
+package gr.aueb.cf.elementaryclassmanager.diagnostics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The statements executed by one request, grouped by their SQL text. Hibernate binds every value
+ * as a parameter, so statements with the same text only differ in their parameters, which is
+ * the shape of an N+1 query. Used by the request thread only.
+ */
+class RequestStatements {
+
+    private final Map<String, Repetition> repetitions = new HashMap<>();
+    private int count;
+
+    /**
+     * Counts an execution.
+     *
+     * @return the executions of this SQL text so far in the request
+     */
+    int record(String sql) {
+        count++;
+        Repetition repetition = repetitions.computeIfAbsent(sql, key -> new Repetition());
+        return ++repetition.count;
+    }
+
+    /**
+     * Keeps the caller of a repeated statement, looked up once it reaches the repeat threshold.
+     */
+    void setCaller(String sql, String caller) {
+        repetitions.get(sql).caller = caller;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    Map<String, Repetition> getRepetitions() {
+        return repetitions;
+    }
+
+    static final class Repetition {
+        int count;
+        String caller;
+    }
+}
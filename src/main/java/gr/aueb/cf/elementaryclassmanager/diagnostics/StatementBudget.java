@@ -0,0 +1,16 @@
+package gr.aueb.cf.elementaryclassmanager.diagnostics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a request to the annotated resource method may execute. Requests over
+ * the budget are logged, and answered with 500 when {@code diagnostics.strict} is set.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
@@ -0,0 +1,117 @@
+package gr.aueb.cf.elementaryclassmanager.diagnostics;
+
+import gr.aueb.cf.elementaryclassmanager.jdbc.StatementExecution;
+import gr.aueb.cf.elementaryclassmanager.jdbc.StatementListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the statements of the application: logs the slow ones with their bind parameters and
+ * the application method that issued them, and counts the statements of each request into the
+ * {@link RequestStatements} bound to the request thread by {@link StatementDiagnosticsFilter}.
+ * Statements outside a request, e.g. of background jobs, are only checked for slowness.
+ */
+@Slf4j
+public final class StatementDiagnostics {
+
+    private static final String BASE_PACKAGE = "gr.aueb.cf.elementaryclassmanager.";
+    private static final String[] INSTRUMENTATION_PACKAGES = {
+            BASE_PACKAGE + "jdbc.", BASE_PACKAGE + "diagnostics.", BASE_PACKAGE + "tracing."
+    };
+
+    private static final DiagnosticsConfig CONFIG = DiagnosticsConfig.fromSystemProperties();
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final StatementListener LISTENER = new DiagnosticsListener();
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private StatementDiagnostics() {}
+
+    public static boolean isEnabled() {
+        return CONFIG.isEnabled();
+    }
+
+    static DiagnosticsConfig getConfig() {
+        return CONFIG;
+    }
+
+    /**
+     * @return the listener to install on the connections
+     */
+    public static StatementListener listener() {
+        return LISTENER;
+    }
+
+    /**
+     * Starts counting the statements of the current thread.
+     */
+    static RequestStatements begin() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    /**
+     * Stops counting into {@code statements}, if the current thread still counts into them.
+     */
+    static void end(RequestStatements statements) {
+        if (CURRENT.get() == statements) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return the innermost application method on the stack outside the instrumentation and the
+     * CDI proxies, usually a DAO method, e.g. {@code StudentDAOImpl.getById:42}
+     */
+    static String caller() {
+        Optional<StackWalker.StackFrame> frame = STACK_WALKER.walk(frames -> frames
+                .filter(StatementDiagnostics::isApplicationFrame)
+                .findFirst());
+        return frame.map(f -> simpleName(f.getClassName()) + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown");
+    }
+
+    private static boolean isApplicationFrame(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        if (!className.startsWith(BASE_PACKAGE) || className.contains("$Proxy$")) {
+            return false;
+        }
+        for (String instrumentation : INSTRUMENTATION_PACKAGES) {
+            if (className.startsWith(instrumentation)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static final class DiagnosticsListener implements StatementListener {
+
+        @Override
+        public Object beforeExecute(String sql) {
+            return null;
+        }
+
+        @Override
+        public void afterExecute(Object token, StatementExecution execution) {
+            String sql = execution.getSql();
+            RequestStatements statements = CURRENT.get();
+            if (statements != null && statements.record(sql) == CONFIG.getRepeatThreshold()) {
+                statements.setCaller(sql, caller());
+            }
+            if (execution.getElapsedNanos() >= CONFIG.getSlowQueryNanos()) {
+                log.warn("Slow query took {} ms in {}: {} with parameters {}",
+                        TimeUnit.NANOSECONDS.toMillis(execution.getElapsedNanos()), caller(), sql,
+                        execution.getParameters());
+            }
+        }
+    }
+}
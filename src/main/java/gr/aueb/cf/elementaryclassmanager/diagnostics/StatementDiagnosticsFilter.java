@@ -0,0 +1,86 @@
+package gr.aueb.cf.elementaryclassmanager.diagnostics;
+
+import gr.aueb.cf.elementaryclassmanager.problem.ProblemResponses;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the statements of each request to a resource method and checks them once the method
+ * returned: statements repeated {@code diagnostics.repeatThreshold} times or more are reported as
+ * a likely N+1 query, and a request over the {@link StatementBudget} of its method is logged, or
+ * answered with 500 in strict mode so that a test run fails on it.
+ * <p>
+ * Only the statements of the request thread are counted, not those of the jobs it starts.
+ */
+@Provider
+@Priority(Priorities.USER)
+@Slf4j
+public class StatementDiagnosticsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String STATEMENTS_PROPERTY = StatementDiagnosticsFilter.class.getName() + ".statements";
+
+    private static final int NO_BUDGET = -1;
+
+    private static final Map<Method, Integer> BUDGETS = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (resourceInfo.getResourceMethod() == null || !StatementDiagnostics.isEnabled()) {
+            return;
+        }
+        requestContext.setProperty(STATEMENTS_PROPERTY, StatementDiagnostics.begin());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        RequestStatements statements = (RequestStatements) requestContext.getProperty(STATEMENTS_PROPERTY);
+        if (statements == null) {
+            return;
+        }
+        StatementDiagnostics.end(statements);
+        Method method = resourceInfo.getResourceMethod();
+        String route = resourceInfo.getResourceClass().getSimpleName() + "#" + method.getName();
+
+        int threshold = StatementDiagnostics.getConfig().getRepeatThreshold();
+        statements.getRepetitions().forEach((sql, repetition) -> {
+            if (repetition.count >= threshold) {
+                log.warn("Likely N+1 query in {}: executed {} times from {}: {}", route, repetition.count,
+                        repetition.caller, sql);
+            }
+        });
+
+        int budget = BUDGETS.computeIfAbsent(method, StatementDiagnosticsFilter::budgetOf);
+        if (budget == NO_BUDGET || statements.getCount() <= budget) {
+            return;
+        }
+        String detail = route + " executed " + statements.getCount() + " statements, its budget is " + budget;
+        log.warn("Statement budget exceeded: {}", detail);
+        if (StatementDiagnostics.getConfig().isStrict()) {
+            Response problem = ProblemResponses.of(Response.Status.INTERNAL_SERVER_ERROR, detail).build();
+            responseContext.getHeaders().clear();
+            responseContext.setStatus(problem.getStatus());
+            responseContext.setEntity(problem.getEntity(), null, ProblemResponses.APPLICATION_PROBLEM_JSON_TYPE);
+        }
+    }
+
+    private static int budgetOf(Method method) {
+        StatementBudget budget = method.getAnnotation(StatementBudget.class);
+        return budget != null ? budget.value() : NO_BUDGET;
+    }
+}
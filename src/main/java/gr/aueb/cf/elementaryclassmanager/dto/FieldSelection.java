@@ -0,0 +1,81 @@
+package gr.aueb.cf.elementaryclassmanager.dto;
+
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.InvalidFieldSelectionException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * The fields a client asked for with {@code ?fields=}, in the order the resource declares them.
+ * Read endpoints return only these fields, and the DAOs select only their columns.
+ */
+public final class FieldSelection {
+
+    private final List<String> fields;
+
+    private FieldSelection(List<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a comma separated list of field names.
+     *
+     * @param fields  the value of the {@code fields} query parameter
+     * @param allowed the fields of the resource, in declaration order
+     * @return the selection
+     * @throws InvalidFieldSelectionException if a field is unknown or no field is given
+     */
+    public static FieldSelection parse(String fields, List<String> allowed) {
+        Set<String> requested = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new InvalidFieldSelectionException("Unknown field '" + name + "', expected one of " + allowed);
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new InvalidFieldSelectionException("At least one field is required, expected some of " + allowed);
+        }
+
+        List<String> ordered = new ArrayList<>(requested.size());
+        for (String name : allowed) {
+            if (requested.contains(name)) {
+                ordered.add(name);
+            }
+        }
+        return new FieldSelection(Collections.unmodifiableList(ordered));
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public boolean contains(String field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Copies the selected fields of an already loaded DTO.
+     *
+     * @param dto      the full DTO
+     * @param accessor returns the value of a named field of the DTO
+     * @return the selected fields and their values
+     */
+    public <T> Map<String, Object> project(T dto, BiFunction<T, String, Object> accessor) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, accessor.apply(dto, field));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,25 @@
+package gr.aueb.cf.elementaryclassmanager.dto.admissionDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class AdmissionRouteReadOnlyDTO {
+
+    private String route;
+
+    private int limit;
+
+    private int inFlight;
+
+    private int waiting;
+
+    private long admitted;
+
+    private long rejected;
+}
@@ -0,0 +1,35 @@
+package gr.aueb.cf.elementaryclassmanager.dto.auditDTO;
+
+import gr.aueb.cf.elementaryclassmanager.dto.BaseDTO;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class AuditEntryReadOnlyDTO extends BaseDTO {
+
+    private String entityType;
+
+    private Long entityId;
+
+    private String action;
+
+    private String actor;
+
+    private long occurredAtMillis;
+
+    private String changes;
+
+    public AuditEntryReadOnlyDTO(Long id, String entityType, Long entityId, String action, String actor,
+                                 long occurredAtMillis, String changes) {
+        this.setId(id);
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.actor = actor;
+        this.occurredAtMillis = occurredAtMillis;
+        this.changes = changes;
+    }
+}
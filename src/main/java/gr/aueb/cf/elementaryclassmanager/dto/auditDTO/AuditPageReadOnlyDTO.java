@@ -0,0 +1,23 @@
+package gr.aueb.cf.elementaryclassmanager.dto.auditDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class AuditPageReadOnlyDTO {
+
+    private int page;
+
+    private int size;
+
+    private long totalEntries;
+
+    private List<AuditEntryReadOnlyDTO> entries;
+}
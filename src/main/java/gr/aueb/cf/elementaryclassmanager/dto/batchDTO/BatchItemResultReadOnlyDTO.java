@@ -0,0 +1,19 @@
+package gr.aueb.cf.elementaryclassmanager.dto.batchDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BatchItemResultReadOnlyDTO {
+
+    private int status;
+
+    private String location;
+
+    private Object body;
+}
@@ -0,0 +1,26 @@
+package gr.aueb.cf.elementaryclassmanager.dto.batchDTO;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BatchOperationDTO {
+
+    @NotNull(message = "Method should not be null")
+    @Pattern(regexp = "GET|POST|PUT|DELETE", message = "Method should be one of GET, POST, PUT, DELETE")
+    private String method;
+
+    @NotBlank(message = "Path should not be blank")
+    private String path;
+
+    private JsonNode body;
+}
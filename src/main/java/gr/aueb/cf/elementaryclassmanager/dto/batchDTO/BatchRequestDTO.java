@@ -0,0 +1,24 @@
+package gr.aueb.cf.elementaryclassmanager.dto.batchDTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BatchRequestDTO {
+
+    private boolean atomic;
+
+    @NotEmpty(message = "Operations should not be empty")
+    @Size(max = 100, message = "A batch holds at most 100 operations")
+    private List<@Valid BatchOperationDTO> operations;
+}
@@ -0,0 +1,21 @@
+package gr.aueb.cf.elementaryclassmanager.dto.batchDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BatchResultReadOnlyDTO {
+
+    private boolean atomic;
+
+    private boolean committed;
+
+    private List<BatchItemResultReadOnlyDTO> results;
+}
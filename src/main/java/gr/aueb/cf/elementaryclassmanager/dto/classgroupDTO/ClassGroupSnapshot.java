@@ -0,0 +1,23 @@
+package gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO;
+
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable view of a class group row, used by the change events and the in-memory read model.
+ */
+@AllArgsConstructor
+@Getter
+public class ClassGroupSnapshot {
+
+    private final Long id;
+
+    private final Character name;
+
+    private final Grade grade;
+
+    private final Long teacherId;
+
+    private final boolean archived;
+}
@@ -0,0 +1,19 @@
+package gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TeacherAssignmentChangeReadOnlyDTO {
+
+    private Long classGroupId;
+
+    private Long previousTeacherId;
+
+    private Long newTeacherId;
+}
@@ -0,0 +1,23 @@
+package gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One entry of a teacher reassignment: the class group and the teacher it should end up with.
+ * A {@code null} teacher id leaves the class group without a teacher.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class TeacherAssignmentDTO {
+
+    @NotNull(message = "Class group id should not be null")
+    private Long classGroupId;
+
+    private Long teacherId;
+}
@@ -0,0 +1,21 @@
+package gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class TeacherReassignmentDTO {
+
+    // the entries are validated one by one, in parallel for long lists, by ValidatorUtil.validateEach
+    @NotEmpty(message = "Assignments should not be empty")
+    private List<@NotNull(message = "Assignment should not be null") TeacherAssignmentDTO> assignments;
+}
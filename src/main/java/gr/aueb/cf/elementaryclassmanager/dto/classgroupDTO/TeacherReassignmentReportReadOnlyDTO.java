@@ -0,0 +1,19 @@
+package gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TeacherReassignmentReportReadOnlyDTO {
+
+    private List<TeacherAssignmentChangeReadOnlyDTO> changes;
+
+    private int unchanged;
+}
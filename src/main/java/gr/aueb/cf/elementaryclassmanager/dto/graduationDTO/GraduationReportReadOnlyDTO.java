@@ -0,0 +1,19 @@
+package gr.aueb.cf.elementaryclassmanager.dto.graduationDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class GraduationReportReadOnlyDTO {
+
+    private long movedStudents;
+
+    private int chunks;
+
+    private long durationMillis;
+}
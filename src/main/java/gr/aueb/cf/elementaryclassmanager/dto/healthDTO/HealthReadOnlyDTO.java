@@ -0,0 +1,15 @@
+package gr.aueb.cf.elementaryclassmanager.dto.healthDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class HealthReadOnlyDTO {
+
+    private String status;
+}
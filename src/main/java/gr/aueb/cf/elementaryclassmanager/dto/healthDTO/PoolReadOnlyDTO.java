@@ -0,0 +1,27 @@
+package gr.aueb.cf.elementaryclassmanager.dto.healthDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class PoolReadOnlyDTO {
+
+    private int active;
+
+    private int idle;
+
+    private int total;
+
+    private int waiting;
+
+    private int minimumIdle;
+
+    private int maximumPoolSize;
+
+    private boolean saturated;
+}
@@ -0,0 +1,23 @@
+package gr.aueb.cf.elementaryclassmanager.dto.healthDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ReadinessReadOnlyDTO {
+
+    private String status;
+
+    private boolean persistence;
+
+    private boolean database;
+
+    private boolean warmedUp;
+
+    private PoolReadOnlyDTO pool;
+}
@@ -0,0 +1,33 @@
+package gr.aueb.cf.elementaryclassmanager.dto.jobDTO;
+
+import gr.aueb.cf.elementaryclassmanager.dto.BaseDTO;
+import gr.aueb.cf.elementaryclassmanager.model.JobStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class JobReadOnlyDTO extends BaseDTO {
+
+    private String type;
+
+    private Long targetId;
+
+    private JobStatus status;
+
+    private long processed;
+
+    private Long total;
+
+    private int attempts;
+
+    private String error;
+
+    private Long createdAtMillis;
+
+    private Long startedAtMillis;
+
+    private Long finishedAtMillis;
+}
@@ -0,0 +1,36 @@
+package gr.aueb.cf.elementaryclassmanager.dto.notificationDTO;
+
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class RosterNotificationReadOnlyDTO {
+
+    private long id;
+
+    private RosterNotificationType type;
+
+    private Long classGroupId;
+
+    /**
+     * The student concerned, {@code null} for notifications about the class group itself.
+     */
+    private Long studentId;
+
+    private Grade grade;
+
+    private Long teacherId;
+
+    private Long previousTeacherId;
+
+    /**
+     * Commit time, in milliseconds since the epoch.
+     */
+    private long timestamp;
+}
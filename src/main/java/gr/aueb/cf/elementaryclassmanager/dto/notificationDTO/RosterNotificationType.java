@@ -0,0 +1,11 @@
+package gr.aueb.cf.elementaryclassmanager.dto.notificationDTO;
+
+public enum RosterNotificationType {
+    STUDENT_ASSIGNED,
+    STUDENT_REMOVED,
+    STUDENT_UPDATED,
+    GRADE_CHANGED,
+    TEACHER_CHANGED,
+    CLASSGROUP_CREATED,
+    CLASSGROUP_DELETED
+}
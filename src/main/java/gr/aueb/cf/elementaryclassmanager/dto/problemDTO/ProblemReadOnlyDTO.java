@@ -0,0 +1,24 @@
+package gr.aueb.cf.elementaryclassmanager.dto.problemDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An error response body in the problem details format of RFC 9457.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProblemReadOnlyDTO {
+
+    private String type;
+
+    private String title;
+
+    private int status;
+
+    private String detail;
+}
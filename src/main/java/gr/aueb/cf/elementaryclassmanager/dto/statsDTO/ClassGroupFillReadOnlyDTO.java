@@ -0,0 +1,35 @@
+package gr.aueb.cf.elementaryclassmanager.dto.statsDTO;
+
+import gr.aueb.cf.elementaryclassmanager.dto.BaseDTO;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class ClassGroupFillReadOnlyDTO extends BaseDTO {
+
+    private Character name;
+
+    private Grade grade;
+
+    private long students;
+
+    private int capacity;
+
+    private double fillRate;
+
+    private boolean hasTeacher;
+
+    public ClassGroupFillReadOnlyDTO(Long id, Character name, Grade grade, long students, int capacity, boolean hasTeacher) {
+        this.setId(id);
+        this.name = name;
+        this.grade = grade;
+        this.students = students;
+        this.capacity = capacity;
+        this.fillRate = capacity > 0 ? (double) students / capacity : 0.0;
+        this.hasTeacher = hasTeacher;
+    }
+}
@@ -0,0 +1,29 @@
+package gr.aueb.cf.elementaryclassmanager.dto.statsDTO;
+
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SchoolStatsReadOnlyDTO {
+
+    private Map<Grade, Long> enrollmentByGrade;
+
+    private List<ClassGroupFillReadOnlyDTO> classGroups;
+
+    private long classGroupsWithoutTeacher;
+
+    private long unassignedStudents;
+
+    private long archivedStudents;
+
+    private long computedAtMillis;
+}
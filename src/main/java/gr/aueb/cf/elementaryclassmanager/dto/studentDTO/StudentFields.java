@@ -0,0 +1,34 @@
+package gr.aueb.cf.elementaryclassmanager.dto.studentDTO;
+
+import java.util.List;
+
+/**
+ * The fields of a {@link StudentReadOnlyDTO} that can be selected with {@code ?fields=}.
+ */
+public final class StudentFields {
+
+    public static final List<String> ALL = List.of("id", "firstname", "lastname", "ssn", "grade", "classGroupId");
+
+    private StudentFields() {
+
+    }
+
+    public static Object valueOf(StudentReadOnlyDTO dto, String field) {
+        switch (field) {
+            case "id":
+                return dto.getId();
+            case "firstname":
+                return dto.getFirstname();
+            case "lastname":
+                return dto.getLastname();
+            case "ssn":
+                return dto.getSsn();
+            case "grade":
+                return dto.getGrade();
+            case "classGroupId":
+                return dto.getClassGroupId();
+            default:
+                throw new IllegalArgumentException("Unknown student field " + field);
+        }
+    }
+}
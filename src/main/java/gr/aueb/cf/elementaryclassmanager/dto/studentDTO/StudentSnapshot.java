@@ -0,0 +1,27 @@
+package gr.aueb.cf.elementaryclassmanager.dto.studentDTO;
+
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable view of a student row, used by the change events and the in-memory read model.
+ */
+@AllArgsConstructor
+@Getter
+public class StudentSnapshot {
+
+    private final Long id;
+
+    private final String firstname;
+
+    private final String lastname;
+
+    private final String ssn;
+
+    private final Grade grade;
+
+    private final Long classGroupId;
+
+    private final boolean archived;
+}
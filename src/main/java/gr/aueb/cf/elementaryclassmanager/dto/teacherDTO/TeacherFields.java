@@ -0,0 +1,34 @@
+package gr.aueb.cf.elementaryclassmanager.dto.teacherDTO;
+
+import java.util.List;
+
+/**
+ * The fields of a {@link TeacherReadOnlyDTO} that can be selected with {@code ?fields=}.
+ */
+public final class TeacherFields {
+
+    public static final List<String> ALL = List.of("id", "firstname", "lastname", "registrationNumber", "email", "classGroupId");
+
+    private TeacherFields() {
+
+    }
+
+    public static Object valueOf(TeacherReadOnlyDTO dto, String field) {
+        switch (field) {
+            case "id":
+                return dto.getId();
+            case "firstname":
+                return dto.getFirstname();
+            case "lastname":
+                return dto.getLastname();
+            case "registrationNumber":
+                return dto.getRegistrationNumber();
+            case "email":
+                return dto.getEmail();
+            case "classGroupId":
+                return dto.getClassGroupId();
+            default:
+                throw new IllegalArgumentException("Unknown teacher field " + field);
+        }
+    }
+}
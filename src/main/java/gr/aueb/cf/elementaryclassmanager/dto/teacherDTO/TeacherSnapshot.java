@@ -0,0 +1,24 @@
+package gr.aueb.cf.elementaryclassmanager.dto.teacherDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable view of a teacher row, used by the change events and the in-memory read model.
+ * The class group of a teacher is owned by the class group side, see
+ * {@link gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot#getTeacherId()}.
+ */
+@AllArgsConstructor
+@Getter
+public class TeacherSnapshot {
+
+    private final Long id;
+
+    private final String firstname;
+
+    private final String lastname;
+
+    private final String registrationNumber;
+
+    private final String email;
+}
@@ -0,0 +1,18 @@
+package gr.aueb.cf.elementaryclassmanager.dto.versionDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Version and last modification time of an entity, read without loading the entity itself.
+ */
+@AllArgsConstructor
+@Getter
+public class EntityVersion {
+
+    private final Long version;
+
+    private final Instant updatedAt;
+}
@@ -0,0 +1,34 @@
+package gr.aueb.cf.elementaryclassmanager.health;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health and readiness settings, read once from system properties.
+ * <ul>
+ *     <li>{@code health.checkIntervalSeconds} - how often the database and the pool are checked once ready (default 5)</li>
+ *     <li>{@code health.databaseTimeoutSeconds} - how long a connection may take to validate (default 2)</li>
+ *     <li>{@code health.warmup.iterations} - rounds of DAO queries and serialization before the first ready (default 200, 0 to skip)</li>
+ *     <li>{@code health.warmup.maxSeconds} - the warm-up stops early after this time (default 30)</li>
+ * </ul>
+ */
+@Getter
+public class HealthConfig {
+
+    private final long checkIntervalSeconds;
+    private final int databaseTimeoutSeconds;
+    private final int warmUpIterations;
+    private final long warmUpMaxNanos;
+
+    private HealthConfig() {
+        this.checkIntervalSeconds = Long.getLong("health.checkIntervalSeconds", 5L);
+        this.databaseTimeoutSeconds = Integer.getInteger("health.databaseTimeoutSeconds", 2);
+        this.warmUpIterations = Integer.getInteger("health.warmup.iterations", 200);
+        this.warmUpMaxNanos = TimeUnit.SECONDS.toNanos(Long.getLong("health.warmup.maxSeconds", 30L));
+    }
+
+    public static HealthConfig fromSystemProperties() {
+        return new HealthConfig();
+    }
+}
@@ -0,0 +1,171 @@
+package gr.aueb.cf.elementaryclassmanager.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import gr.aueb.cf.elementaryclassmanager.dto.healthDTO.PoolReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.healthDTO.ReadinessReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether the instance may receive traffic.
+ * <p>
+ * At startup a background thread builds the persistence unit, waits until the connection pool
+ * holds its minimum idle connections and runs the {@link WarmUp}; the instance is not ready
+ * before all three are done. From then on the database is validated every
+ * {@code health.checkIntervalSeconds}, and the instance is not ready while it is unreachable or
+ * while the pool is saturated, i.e. all its connections are in use and requests wait for one.
+ * The probes only read the state kept here and never touch the database themselves.
+ */
+@ApplicationScoped
+@Slf4j
+public class HealthMonitor {
+
+    private static final long STARTUP_POLL_MILLIS = 100L;
+
+    private final HealthConfig config = HealthConfig.fromSystemProperties();
+
+    @Inject
+    private WarmUp warmUp;
+
+    private volatile HikariDataSource pool;
+    private volatile boolean persistence;
+    private volatile boolean database;
+    private volatile boolean warmedUp;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Starts the startup checks in the background once the application scope is up.
+     */
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::start);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the state of every readiness check
+     */
+    public ReadinessReadOnlyDTO getReadiness() {
+        PoolReadOnlyDTO poolState = poolState();
+        boolean ready = persistence && database && warmedUp && (poolState == null || !poolState.isSaturated());
+        return new ReadinessReadOnlyDTO(ready ? "UP" : "DOWN", persistence, database, warmedUp, poolState);
+    }
+
+    private void start() {
+        try {
+            while (!persistence || !database || !isPoolFilled()) {
+                check();
+                TimeUnit.MILLISECONDS.sleep(persistence
+                        ? STARTUP_POLL_MILLIS
+                        : TimeUnit.SECONDS.toMillis(config.getCheckIntervalSeconds()));
+            }
+            long warmUpStart = System.nanoTime();
+            int rounds = warmUp.run(config.getWarmUpIterations(), config.getWarmUpMaxNanos());
+            warmedUp = true;
+            log.info("Ready {} ms after JVM start, warm-up ran {} rounds in {} ms",
+                    ManagementFactory.getRuntimeMXBean().getUptime(), rounds,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - warmUpStart));
+            executor.scheduleWithFixedDelay(this::check, config.getCheckIntervalSeconds(),
+                    config.getCheckIntervalSeconds(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void check() {
+        try {
+            if (!persistence) {
+                EntityManagerFactory factory = JPAHelper.getEntityManagerFactory();
+                pool = hikariDataSourceOf(factory);
+                persistence = true;
+            }
+            PoolReadOnlyDTO poolState = poolState();
+            // a saturated pool has no connection to spare, the last result stands until it drains
+            if (poolState == null || !poolState.isSaturated()) {
+                setDatabase(isDatabaseReachable());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Health check failed", e);
+        }
+    }
+
+    private boolean isDatabaseReachable() {
+        try (Connection connection = pool != null ? pool.getConnection() : null) {
+            return connection == null || connection.isValid(config.getDatabaseTimeoutSeconds());
+        } catch (SQLException e) {
+            log.debug("Database validation failed", e);
+            return false;
+        }
+    }
+
+    private void setDatabase(boolean reachable) {
+        if (database != reachable && warmedUp) {
+            if (reachable) {
+                log.info("Database is reachable again");
+            } else {
+                log.warn("Database is unreachable, the instance is not ready");
+            }
+        }
+        database = reachable;
+    }
+
+    private boolean isPoolFilled() {
+        PoolReadOnlyDTO poolState = poolState();
+        return poolState == null || poolState.getTotal() >= poolState.getMinimumIdle();
+    }
+
+    /**
+     * @return the pool counters, {@code null} before the persistence unit is up or if the
+     * connections are not pooled by HikariCP
+     */
+    private PoolReadOnlyDTO poolState() {
+        HikariDataSource dataSource = pool;
+        HikariPoolMXBean mxBean = dataSource != null ? dataSource.getHikariPoolMXBean() : null;
+        if (mxBean == null) {
+            return null;
+        }
+        int active = mxBean.getActiveConnections();
+        int waiting = mxBean.getThreadsAwaitingConnection();
+        int maximumPoolSize = dataSource.getMaximumPoolSize();
+        return new PoolReadOnlyDTO(active, mxBean.getIdleConnections(), mxBean.getTotalConnections(), waiting,
+                Math.min(dataSource.getMinimumIdle(), maximumPoolSize), maximumPoolSize,
+                active >= maximumPoolSize && waiting > 0);
+    }
+
+    private static HikariDataSource hikariDataSourceOf(EntityManagerFactory factory) {
+        ConnectionProvider provider = factory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(ConnectionProvider.class);
+        if (provider == null || !provider.isUnwrappableAs(HikariDataSource.class)) {
+            log.info("Connections are not pooled by HikariCP, the pool is not checked");
+            return null;
+        }
+        return provider.unwrap(HikariDataSource.class);
+    }
+}
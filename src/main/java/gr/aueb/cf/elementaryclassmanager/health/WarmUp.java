@@ -0,0 +1,109 @@
+package gr.aueb.cf.elementaryclassmanager.health;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO.IClassGroupDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.studentDAO.IStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.teacherDAO.ITeacherDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentFields;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import gr.aueb.cf.elementaryclassmanager.serialization.ObjectMapperProvider;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the queries of the main read paths and serializes their results before the instance
+ * reports ready, so that the first requests find Hibernate's query plans cached and the hot
+ * code already compiled. Only reads are issued; the ids cycle through the first few rows, and
+ * a missing row still runs its query.
+ */
+@ApplicationScoped
+@Slf4j
+public class WarmUp {
+
+    private static final int IDS = 10;
+    private static final FieldSelection STUDENT_FIELDS = FieldSelection.parse("id,lastname,classGroupId", StudentFields.ALL);
+
+    @Inject
+    private IStudentDAO studentDAO;
+
+    @Inject
+    private ITeacherDAO teacherDAO;
+
+    @Inject
+    private IClassGroupDAO classGroupDAO;
+
+    @Inject
+    private ObjectMapperProvider objectMapperProvider;
+
+    /**
+     * @param iterations the rounds to run
+     * @param maxNanos   the time after which the warm-up stops even if rounds are left
+     * @return the rounds that were run
+     */
+    int run(int iterations, long maxNanos) {
+        long start = System.nanoTime();
+        int round = 0;
+        while (round < iterations && System.nanoTime() - start < maxNanos && !Thread.currentThread().isInterrupted()) {
+            long id = round % IDS + 1;
+            serialize(query(id));
+            round++;
+        }
+        return round;
+    }
+
+    private List<Object> query(long id) {
+        List<Object> results = new ArrayList<>();
+        try {
+            JPAHelper.beginTransaction();
+            studentDAO.getVersionById(id);
+            studentDAO.getById(id).map(Mapper::mapToStudentReadOnlyDTO).ifPresent(results::add);
+            studentDAO.getFieldsById(id, STUDENT_FIELDS).ifPresent(results::add);
+            teacherDAO.getVersionById(id);
+            teacherDAO.getById(id).map(Mapper::mapToTeacherReadOnlyDTO).ifPresent(results::add);
+            classGroupDAO.getById(id).map(Mapper::mapToClassGroupReadOnlyDTO).ifPresent(results::add);
+            studentDAO.getByClassGroupId(id).forEach(student -> results.add(Mapper.mapToStudentReadOnlyDTO(student)));
+            JPAHelper.commitTransaction();
+        } catch (RuntimeException e) {
+            log.debug("Warm-up query for id {} failed", id, e);
+            rollback();
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+        if (results.isEmpty()) {
+            // an empty database still warms up the serializers of the main bodies
+            results.add(new StudentReadOnlyDTO("Warm", "Up", "WARMUP001", Grade.GRADE_1, null));
+            results.add(new TeacherReadOnlyDTO("Warm", "Up", "WARMUP001", "warm.up@example.com", null));
+        }
+        return results;
+    }
+
+    private void serialize(List<Object> results) {
+        for (ObjectMapper mapper : List.of(objectMapperProvider.getObjectMapper(),
+                objectMapperProvider.getCborMapper(), objectMapperProvider.getSmileMapper())) {
+            try {
+                mapper.writeValue(OutputStream.nullOutputStream(), results);
+            } catch (IOException e) {
+                log.debug("Warm-up serialization failed", e);
+            }
+        }
+    }
+
+    private static void rollback() {
+        EntityManager em = JPAHelper.getEntityManager();
+        if (em.getTransaction().isActive()) {
+            em.getTransaction().rollback();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package gr.aueb.cf.elementaryclassmanager.jdbc;
+
+import gr.aueb.cf.elementaryclassmanager.diagnostics.StatementDiagnostics;
+import gr.aueb.cf.elementaryclassmanager.tracing.Tracing;
+import gr.aueb.cf.elementaryclassmanager.tracing.TracingStatementListener;
+import org.hibernate.hikaricp.internal.HikariCPConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The HikariCP connection provider of Hibernate, handing out connections that report their
+ * statements to the tracing and the query diagnostics, when either is on. With both off the
+ * pooled connections are handed out as they are.
+ */
+public class InstrumentedConnectionProvider extends HikariCPConnectionProvider {
+
+    private volatile StatementListener[] listeners;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        StatementListener[] current = listenersFor(connection);
+        return current.length == 0 ? connection : JdbcProxies.wrap(connection, current);
+    }
+
+    /**
+     * @return the listeners, built on the first connection which tells the database product
+     */
+    private StatementListener[] listenersFor(Connection connection) throws SQLException {
+        StatementListener[] current = listeners;
+        if (current == null) {
+            List<StatementListener> enabled = new ArrayList<>();
+            if (Tracing.isEnabled()) {
+                String dbSystem = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+                enabled.add(new TracingStatementListener(dbSystem));
+            }
+            if (StatementDiagnostics.isEnabled()) {
+                enabled.add(StatementDiagnostics.listener());
+            }
+            current = enabled.toArray(new StatementListener[0]);
+            listeners = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,157 @@
+package gr.aueb.cf.elementaryclassmanager.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Wraps JDBC connections so that the {@link StatementListener}s see every statement execution,
+ * together with its bind parameters and duration. Any other call is only forwarded.
+ */
+final class JdbcProxies {
+
+    private static final int INITIAL_PARAMETERS = 8;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private JdbcProxies() {}
+
+    /**
+     * @param connection the pooled connection
+     * @param listeners  the listeners to notify, in order
+     * @return a connection whose statements report their executions
+     */
+    static Connection wrap(Connection connection, StatementListener[] listeners) {
+        return proxy(Connection.class, new ConnectionHandler(connection, listeners));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Keeps the identity of the wrapper, as Hibernate tracks statements in hash maps.
+     */
+    private abstract static class ForwardingHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return forward(method, args);
+            }
+        }
+
+        abstract Object forward(Method method, Object[] args) throws Throwable;
+    }
+
+    private static final class ConnectionHandler extends ForwardingHandler {
+
+        private final Connection connection;
+        private final StatementListener[] listeners;
+
+        private ConnectionHandler(Connection connection, StatementListener[] listeners) {
+            this.connection = connection;
+            this.listeners = listeners;
+        }
+
+        @Override
+        Object forward(Method method, Object[] args) throws Throwable {
+            Object result = JdbcProxies.invoke(connection, method, args);
+            if (!(result instanceof Statement)) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            StatementHandler handler = new StatementHandler((Statement) result, sql, listeners);
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, handler);
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, handler);
+            }
+            return proxy(Statement.class, handler);
+        }
+    }
+
+    private static final class StatementHandler extends ForwardingHandler {
+
+        private final Statement statement;
+        private final String sql;
+        private final StatementListener[] listeners;
+        private Object[] parameters;
+
+        private StatementHandler(Statement statement, String sql, StatementListener[] listeners) {
+            this.statement = statement;
+            this.sql = sql;
+            this.listeners = listeners;
+        }
+
+        @Override
+        Object forward(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                // setLong(1, 42), setNull(2, Types.BIGINT), ...
+                setParameter((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters = null;
+            }
+            return JdbcProxies.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String text = sql != null ? sql
+                    : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : "";
+            Object[] tokens = new Object[listeners.length];
+            for (int i = 0; i < listeners.length; i++) {
+                tokens[i] = listeners[i].beforeExecute(text);
+            }
+            long start = System.nanoTime();
+            Throwable failure = null;
+            try {
+                return JdbcProxies.invoke(statement, method, args);
+            } catch (Throwable e) {
+                failure = e;
+                throw e;
+            } finally {
+                StatementExecution execution = new StatementExecution(text, parameters, System.nanoTime() - start, failure);
+                for (int i = 0; i < listeners.length; i++) {
+                    listeners[i].afterExecute(tokens[i], execution);
+                }
+            }
+        }
+
+        private void setParameter(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (parameters == null) {
+                parameters = new Object[Math.max(INITIAL_PARAMETERS, index)];
+            } else if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package gr.aueb.cf.elementaryclassmanager.jdbc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One execution of a statement, as seen by the {@link StatementListener}s. It is only valid
+ * during the {@link StatementListener#afterExecute} call it was passed to.
+ */
+public final class StatementExecution {
+
+    private final String sql;
+    private final Object[] parameters;
+    private final long elapsedNanos;
+    private final Throwable failure;
+
+    StatementExecution(String sql, Object[] parameters, long elapsedNanos, Throwable failure) {
+        this.sql = sql;
+        this.parameters = parameters;
+        this.elapsedNanos = elapsedNanos;
+        this.failure = failure;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return a copy of the bind parameters in index order, {@code null} for the unset ones
+     */
+    public List<Object> getParameters() {
+        if (parameters == null) {
+            return Collections.emptyList();
+        }
+        int count = parameters.length;
+        while (count > 0 && parameters[count - 1] == null) {
+            count--;
+        }
+        return new ArrayList<>(Arrays.asList(parameters).subList(0, count));
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the exception the statement failed with, {@code null} if it succeeded
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+}
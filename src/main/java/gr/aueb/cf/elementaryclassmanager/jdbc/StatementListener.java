@@ -0,0 +1,24 @@
+package gr.aueb.cf.elementaryclassmanager.jdbc;
+
+/**
+ * Observes the statement executions on the connections of {@link InstrumentedConnectionProvider}.
+ * Both methods are called on the thread that executes the statement.
+ */
+public interface StatementListener {
+
+    /**
+     * Called before a statement is executed.
+     *
+     * @param sql the SQL of the statement
+     * @return a value handed back to {@link #afterExecute}, e.g. a span; may be {@code null}
+     */
+    Object beforeExecute(String sql);
+
+    /**
+     * Called after a statement was executed, also when it failed.
+     *
+     * @param token     the value returned by {@link #beforeExecute}
+     * @param execution the statement, its bind parameters, duration and failure
+     */
+    void afterExecute(Object token, StatementExecution execution);
+}
@@ -0,0 +1,91 @@
+package gr.aueb.cf.elementaryclassmanager.jobs;
+
+import gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO.IClassGroupDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.studentDAO.IStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
+import gr.aueb.cf.elementaryclassmanager.model.Job;
+import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Background deletion of a class group. Its students are released from the class group in
+ * chunks and the class group is deleted once it is empty.
+ */
+@ApplicationScoped
+public class DeleteClassGroupJobHandler implements JobHandler {
+
+    public static final String TYPE = "delete-class-group";
+
+    private final int chunkSize = Integer.getInteger("jobs.chunkSize", 200);
+
+    @Inject
+    IClassGroupDAO classGroupDAO;
+
+    @Inject
+    IStudentDAO studentDAO;
+
+    @Inject
+    Event<StudentChangedEvent> studentChanged;
+
+    @Inject
+    Event<ClassGroupChangedEvent> classGroupChanged;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public JobPlan prepare(Long classGroupId) throws EntityNotFoundException {
+        ClassGroup classGroup = classGroupDAO.getById(classGroupId)
+                .orElseThrow(() -> new EntityNotFoundException(ClassGroup.class, classGroupId));
+        return new JobPlan(null, (long) classGroup.getStudents().size());
+    }
+
+    @Override
+    public JobChunkResult processChunk(Job job) {
+        Optional<ClassGroup> found = classGroupDAO.getById(job.getTargetId());
+        if (found.isEmpty()) {
+            return new JobChunkResult(job.getCheckpoint(), 0, true, null);
+        }
+        ClassGroup classGroup = found.get();
+
+        List<Student> students = studentDAO.getByClassGroupIdAfter(classGroup.getId(), job.getCheckpoint(), chunkSize);
+        List<StudentChangedEvent> studentEvents = new ArrayList<>(students.size());
+        Long checkpoint = job.getCheckpoint();
+        for (Student student : students) {
+            StudentSnapshot before = Mapper.mapToStudentSnapshot(student);
+            classGroup.removeStudent(student);
+            studentDAO.updateStudent(student);
+            studentEvents.add(StudentChangedEvent.updated(before, Mapper.mapToStudentSnapshot(student)));
+            checkpoint = student.getId();
+        }
+
+        boolean done = students.size() < chunkSize;
+        ClassGroupSnapshot deleted = null;
+        if (done) {
+            deleted = Mapper.mapToClassGroupSnapshot(classGroup);
+            classGroupDAO.deleteClassGroup(classGroup.getId());
+        }
+        ClassGroupSnapshot deletedClassGroup = deleted;
+
+        return new JobChunkResult(checkpoint, students.size(), done, () -> {
+            studentEvents.forEach(studentChanged::fire);
+            if (deletedClassGroup != null) {
+                classGroupChanged.fire(ClassGroupChangedEvent.deleted(deletedClassGroup));
+            }
+        });
+    }
+}
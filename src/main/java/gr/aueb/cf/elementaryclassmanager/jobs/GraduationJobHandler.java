@@ -0,0 +1,53 @@
+package gr.aueb.cf.elementaryclassmanager.jobs;
+
+import gr.aueb.cf.elementaryclassmanager.dao.archivedStudentDAO.IArchivedStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.model.Job;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Background version of the graduation pipeline: moves archived students to the archive table,
+ * one chunk per transaction, until none is left.
+ */
+@ApplicationScoped
+public class GraduationJobHandler implements JobHandler {
+
+    public static final String TYPE = "graduation";
+
+    private final int chunkSize = Integer.getInteger("jobs.chunkSize", 200);
+
+    @Inject
+    IArchivedStudentDAO archivedStudentDAO;
+
+    @Inject
+    Event<StudentChangedEvent> studentChanged;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public JobPlan prepare(Long targetId) {
+        return new JobPlan(null, null);
+    }
+
+    @Override
+    public JobChunkResult processChunk(Job job) {
+        List<StudentSnapshot> students = archivedStudentDAO.getArchivedStudentsToMove(chunkSize);
+        Long checkpoint = job.getCheckpoint();
+        if (!students.isEmpty()) {
+            archivedStudentDAO.moveToArchive(students.stream().map(StudentSnapshot::getId).collect(Collectors.toList()));
+            checkpoint = students.get(students.size() - 1).getId();
+        }
+
+        return new JobChunkResult(checkpoint, students.size(), students.size() < chunkSize,
+                () -> students.forEach(student -> studentChanged.fire(StudentChangedEvent.archived(student))));
+    }
+}
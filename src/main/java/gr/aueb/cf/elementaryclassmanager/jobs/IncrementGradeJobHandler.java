@@ -0,0 +1,112 @@
+package gr.aueb.cf.elementaryclassmanager.jobs;
+
+import gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO.IClassGroupDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.studentDAO.IStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import gr.aueb.cf.elementaryclassmanager.model.Job;
+import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Background version of the grade increment of a class group.
+ * The target grade is fixed when the job is submitted, so a restarted job never increments twice.
+ * Students are moved to the target grade in chunks and the class group itself last. For a class
+ * group in the final grade the students are archived instead and the class group is deleted.
+ */
+@ApplicationScoped
+public class IncrementGradeJobHandler implements JobHandler {
+
+    public static final String TYPE = "increment-grade";
+
+    private static final String GRADUATE = "GRADUATE";
+
+    private final int chunkSize = Integer.getInteger("jobs.chunkSize", 200);
+
+    @Inject
+    IClassGroupDAO classGroupDAO;
+
+    @Inject
+    IStudentDAO studentDAO;
+
+    @Inject
+    Event<StudentChangedEvent> studentChanged;
+
+    @Inject
+    Event<ClassGroupChangedEvent> classGroupChanged;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public JobPlan prepare(Long classGroupId) throws EntityNotFoundException {
+        ClassGroup classGroup = classGroupDAO.getById(classGroupId)
+                .orElseThrow(() -> new EntityNotFoundException(ClassGroup.class, classGroupId));
+        Grade[] grades = Grade.values();
+        int nextIndex = classGroup.getGrade().ordinal() + 1;
+        String targetGrade = nextIndex < grades.length ? grades[nextIndex].name() : GRADUATE;
+        return new JobPlan(targetGrade, (long) classGroup.getStudents().size());
+    }
+
+    @Override
+    public JobChunkResult processChunk(Job job) {
+        Optional<ClassGroup> found = classGroupDAO.getById(job.getTargetId());
+        if (found.isEmpty()) {
+            return new JobChunkResult(job.getCheckpoint(), 0, true, null);
+        }
+        ClassGroup classGroup = found.get();
+        boolean graduate = GRADUATE.equals(job.getParameters());
+        Grade targetGrade = graduate ? null : Grade.valueOf(job.getParameters());
+
+        List<Student> students = studentDAO.getByClassGroupIdAfter(classGroup.getId(), job.getCheckpoint(), chunkSize);
+        List<StudentChangedEvent> studentEvents = new ArrayList<>(students.size());
+        Long checkpoint = job.getCheckpoint();
+        for (Student student : students) {
+            StudentSnapshot before = Mapper.mapToStudentSnapshot(student);
+            if (graduate) {
+                student.setArchived(true);
+                classGroup.removeStudent(student);
+            } else {
+                student.setGrade(targetGrade);
+            }
+            studentDAO.updateStudent(student);
+            studentEvents.add(StudentChangedEvent.updated(before, Mapper.mapToStudentSnapshot(student)));
+            checkpoint = student.getId();
+        }
+
+        boolean done = students.size() < chunkSize;
+        ClassGroupChangedEvent classGroupEvent = done ? finish(classGroup, targetGrade) : null;
+
+        return new JobChunkResult(checkpoint, students.size(), done, () -> {
+            studentEvents.forEach(studentChanged::fire);
+            if (classGroupEvent != null) {
+                classGroupChanged.fire(classGroupEvent);
+            }
+        });
+    }
+
+    private ClassGroupChangedEvent finish(ClassGroup classGroup, Grade targetGrade) {
+        ClassGroupSnapshot before = Mapper.mapToClassGroupSnapshot(classGroup);
+        if (targetGrade == null) {
+            classGroupDAO.deleteClassGroup(classGroup.getId());
+            return ClassGroupChangedEvent.deleted(before);
+        }
+        classGroup.setGrade(targetGrade);
+        classGroupDAO.updateClassGroup(classGroup);
+        return ClassGroupChangedEvent.updated(before, Mapper.mapToClassGroupSnapshot(classGroup));
+    }
+}
@@ -0,0 +1,21 @@
+package gr.aueb.cf.elementaryclassmanager.jobs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one chunk. {@code afterCommit} runs once the chunk and the new checkpoint have been
+ * committed; handlers use it to fire the change events of the rows they touched.
+ */
+@AllArgsConstructor
+@Getter
+public class JobChunkResult {
+
+    private final Long checkpoint;
+
+    private final int processed;
+
+    private final boolean done;
+
+    private final Runnable afterCommit;
+}
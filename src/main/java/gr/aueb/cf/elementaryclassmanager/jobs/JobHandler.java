@@ -0,0 +1,32 @@
+package gr.aueb.cf.elementaryclassmanager.jobs;
+
+import gr.aueb.cf.elementaryclassmanager.model.Job;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+
+/**
+ * One kind of background job. Implementations are {@code @ApplicationScoped} beans and are
+ * looked up by {@link #getType()}.
+ * Both methods run inside a transaction opened by the caller and must only use the DAOs.
+ */
+public interface JobHandler {
+
+    String getType();
+
+    /**
+     * Validates the target of a new job while it is being submitted.
+     *
+     * @param targetId the entity the job works on, may be {@code null} for jobs without one
+     * @return the parameters and expected size of the job
+     * @throws EntityNotFoundException if the target does not exist
+     */
+    JobPlan prepare(Long targetId) throws EntityNotFoundException;
+
+    /**
+     * Processes the next chunk after {@link Job#getCheckpoint()}. Must be idempotent for rows
+     * before the checkpoint, since the chunk is retried as a whole if its transaction fails.
+     *
+     * @param job the job, as persisted after the previous chunk
+     * @return the new checkpoint, the number of rows processed and whether the job is done
+     */
+    JobChunkResult processChunk(Job job);
+}
@@ -0,0 +1,17 @@
+package gr.aueb.cf.elementaryclassmanager.jobs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of {@link JobHandler#prepare(Long)}: the parameters fixed at submission time, so that
+ * a restarted job does the same work, and the number of rows it is expected to process.
+ */
+@AllArgsConstructor
+@Getter
+public class JobPlan {
+
+    private final String parameters;
+
+    private final Long total;
+}
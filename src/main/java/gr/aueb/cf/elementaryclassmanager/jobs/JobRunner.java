@@ -0,0 +1,276 @@
+package gr.aueb.cf.elementaryclassmanager.jobs;
+
+import gr.aueb.cf.elementaryclassmanager.dao.jobDAO.IJobDAO;
+import gr.aueb.cf.elementaryclassmanager.model.Job;
+import gr.aueb.cf.elementaryclassmanager.model.JobStatus;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes persisted jobs on a bounded worker pool.
+ * <p>
+ * A job is claimed by moving it from QUEUED to RUNNING, then processed chunk by chunk; every chunk
+ * commits its work together with the job's new checkpoint. A failed chunk is rolled back and the
+ * job is re-queued until {@code jobs.maxAttempts} is reached. When the pool's queue is full a job
+ * simply stays QUEUED: a poller dispatches queued jobs every {@code jobs.pollIntervalSeconds}.
+ * At startup jobs left RUNNING by a previous process are re-queued and resume from their
+ * checkpoint. This assumes a single application instance per database.
+ */
+@ApplicationScoped
+@Slf4j
+public class JobRunner {
+
+    private final int workers = Integer.getInteger("jobs.workers", 2);
+    private final int queueCapacity = Integer.getInteger("jobs.queueCapacity", 100);
+    private final int maxAttempts = Integer.getInteger("jobs.maxAttempts", 3);
+    private final long pollIntervalSeconds = Long.getLong("jobs.pollIntervalSeconds", 5L);
+
+    @Inject
+    IJobDAO jobDAO;
+
+    @Inject
+    @Any
+    Instance<JobHandler> handlerInstances;
+
+    private final Map<String, JobHandler> handlers = new HashMap<>();
+    private final Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor pool;
+    private ScheduledExecutorService poller;
+
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        for (JobHandler handler : handlerInstances) {
+            handlers.put(handler.getType(), handler);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "job-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.execute(this::requeueInterrupted);
+        poller.scheduleWithFixedDelay(this::dispatchQueued, 0L, pollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Looks up the handler of a job type.
+     *
+     * @param type the job type
+     * @return the handler
+     * @throws IllegalArgumentException if no handler is registered for the type
+     */
+    public JobHandler getHandler(String type) {
+        JobHandler handler = handlers.get(type);
+        if (handler == null) {
+            throw new IllegalArgumentException("No handler for job type " + type);
+        }
+        return handler;
+    }
+
+    /**
+     * Hands a committed QUEUED job to the worker pool. If the pool is saturated the job stays
+     * queued and is picked up by the poller.
+     *
+     * @param jobId the ID of the job
+     */
+    public void dispatch(Long jobId) {
+        if (pool == null || !dispatched.add(jobId)) {
+            return;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    dispatched.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dispatched.remove(jobId);
+            log.warn("Job worker pool is saturated, job {} stays queued", jobId);
+        }
+    }
+
+    private void requeueInterrupted() {
+        try {
+            JPAHelper.beginTransaction();
+            List<Job> interrupted = jobDAO.getByStatus(JobStatus.RUNNING);
+            interrupted.forEach(job -> job.setStatus(JobStatus.QUEUED));
+            JPAHelper.commitTransaction();
+            if (!interrupted.isEmpty()) {
+                log.info("Re-queued {} jobs interrupted by the previous shutdown", interrupted.size());
+            }
+        } catch (RuntimeException e) {
+            JPAHelper.rollbackTransaction();
+            log.error("Interrupted jobs could not be re-queued", e);
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+    }
+
+    private void dispatchQueued() {
+        try {
+            List<Job> queued;
+            try {
+                JPAHelper.beginTransaction();
+                queued = jobDAO.getByStatus(JobStatus.QUEUED);
+                JPAHelper.commitTransaction();
+            } finally {
+                JPAHelper.closeEntityManager();
+            }
+            queued.forEach(job -> dispatch(job.getId()));
+        } catch (RuntimeException e) {
+            log.error("Queued jobs could not be dispatched", e);
+        }
+    }
+
+    private void run(Long jobId) {
+        Optional<Job> claimed = claim(jobId);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        JobHandler handler = handlers.get(claimed.get().getType());
+        if (handler == null) {
+            finish(jobId, JobStatus.FAILED, "No handler for job type " + claimed.get().getType());
+            return;
+        }
+        log.info("Job {} ({}) started", jobId, handler.getType());
+
+        boolean done = false;
+        while (!done && !Thread.currentThread().isInterrupted()) {
+            JobChunkResult result;
+            try {
+                JPAHelper.beginTransaction();
+                Job job = jobDAO.getById(jobId).orElseThrow();
+                result = handler.processChunk(job);
+                job.setCheckpoint(result.getCheckpoint());
+                job.setProcessed(job.getProcessed() + result.getProcessed());
+                if (result.isDone()) {
+                    job.setStatus(JobStatus.SUCCEEDED);
+                    job.setFinishedAt(Instant.now());
+                }
+                JPAHelper.commitTransaction();
+            } catch (RuntimeException e) {
+                if (JPAHelper.getEntityManager().getTransaction().isActive()) {
+                    JPAHelper.rollbackTransaction();
+                }
+                log.error("Job {} failed", jobId, e);
+                fail(jobId, e);
+                return;
+            } finally {
+                JPAHelper.closeEntityManager();
+            }
+
+            if (result.getAfterCommit() != null) {
+                result.getAfterCommit().run();
+            }
+            done = result.isDone();
+        }
+        if (done) {
+            log.info("Job {} ({}) succeeded", jobId, handler.getType());
+        }
+    }
+
+    private Optional<Job> claim(Long jobId) {
+        try {
+            JPAHelper.beginTransaction();
+            Optional<Job> job = jobDAO.getById(jobId)
+                    .filter(candidate -> candidate.getStatus() == JobStatus.QUEUED);
+            job.ifPresent(candidate -> {
+                candidate.setStatus(JobStatus.RUNNING);
+                candidate.setAttempts(candidate.getAttempts() + 1);
+                if (candidate.getStartedAt() == null) {
+                    candidate.setStartedAt(Instant.now());
+                }
+            });
+            JPAHelper.commitTransaction();
+            return job;
+        } catch (RuntimeException e) {
+            JPAHelper.rollbackTransaction();
+            log.error("Job {} could not be claimed", jobId, e);
+            return Optional.empty();
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+    }
+
+    private void fail(Long jobId, RuntimeException cause) {
+        try {
+            JPAHelper.beginTransaction();
+            jobDAO.getById(jobId).ifPresent(job -> {
+                job.setError(truncate(String.valueOf(cause.getMessage())));
+                if (job.getAttempts() >= maxAttempts) {
+                    job.setStatus(JobStatus.FAILED);
+                    job.setFinishedAt(Instant.now());
+                } else {
+                    job.setStatus(JobStatus.QUEUED);
+                }
+            });
+            JPAHelper.commitTransaction();
+        } catch (RuntimeException e) {
+            JPAHelper.rollbackTransaction();
+            log.error("Failure of job {} could not be recorded", jobId, e);
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+    }
+
+    private void finish(Long jobId, JobStatus status, String error) {
+        try {
+            JPAHelper.beginTransaction();
+            jobDAO.getById(jobId).ifPresent(job -> {
+                job.setStatus(status);
+                job.setError(error);
+                job.setFinishedAt(Instant.now());
+            });
+            JPAHelper.commitTransaction();
+        } catch (RuntimeException e) {
+            JPAHelper.rollbackTransaction();
+            log.error("Job {} could not be finished", jobId, e);
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1024 ? message.substring(0, 1024) : message;
+    }
+}
@@ -0,0 +1,114 @@
+package gr.aueb.cf.elementaryclassmanager.keyfilter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over strings with 4-bit counters packed sixteen to a {@code long}.
+ * <p>
+ * {@link #mightContain(String)} never answers {@code false} for a key that was added and not
+ * removed, so a negative answer is definite. Counters that reach 15 stick there and are never
+ * decremented, and removing a key that was never added is not supported, so removals can only
+ * ever leave false positives behind. All operations are lock-free.
+ */
+public final class CountingBloomFilter {
+
+    private static final int MAX_COUNT = 0xF;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+
+    /**
+     * @param expectedKeys      the number of keys the filter is sized for
+     * @param falsePositiveRate the target false positive rate at {@code expectedKeys}
+     */
+    public CountingBloomFilter(long expectedKeys, double falsePositiveRate) {
+        long n = Math.max(1L, expectedKeys);
+        double ln2 = Math.log(2);
+        this.counters = Math.max(64L, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        this.hashes = Math.max(1, (int) Math.round((double) counters / n * ln2));
+        this.words = new AtomicLongArray(Math.toIntExact((counters + 15) / 16));
+    }
+
+    public void add(String key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        for (int i = 0; i < hashes; i++) {
+            update(index(h1, h2, i), 1);
+        }
+    }
+
+    public void remove(String key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        for (int i = 0; i < hashes; i++) {
+            update(index(h1, h2, i), -1);
+        }
+    }
+
+    /**
+     * @return {@code false} if the key is definitely absent, {@code true} if it may be present
+     */
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        for (int i = 0; i < hashes; i++) {
+            if (count(index(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    private int count(long index) {
+        return (int) (words.get((int) (index >>> 4)) >>> shift(index)) & MAX_COUNT;
+    }
+
+    private void update(long index, int delta) {
+        int word = (int) (index >>> 4);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            int count = (int) (current >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT || (delta < 0 && count == 0)) {
+                return;
+            }
+            long updated = (current & ~((long) MAX_COUNT << shift)) | ((long) (count + delta) << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(long index) {
+        return (int) (index & 15) << 2;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer.
+     */
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long secondHash(long h1) {
+        return mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,217 @@
+package gr.aueb.cf.elementaryclassmanager.keyfilter;
+
+import gr.aueb.cf.elementaryclassmanager.dao.archivedStudentDAO.IArchivedStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.studentDAO.IStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.teacherDAO.ITeacherDAO;
+import gr.aueb.cf.elementaryclassmanager.service.events.ChangeType;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.TeacherChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Fast path for the uniqueness checks of {@code insertStudent} and {@code insertTeacher}.
+ * <p>
+ * Holds a counting Bloom filter over every SSN (active and graduated students) and every teacher
+ * registration number. The filters are built by a streaming scan at startup and kept current from
+ * the committed insert and delete events. A definite "absent" lets the services skip the lookup
+ * query; the unique constraints of the database stay the final arbiter for the short window
+ * between a commit and its event. Until the filters are built every key "might be present", so
+ * the services simply keep doing the lookup.
+ * <p>
+ * Settings are read from system properties: {@code keyfilter.enabled} (default true),
+ * {@code keyfilter.expectedKeys} (default 100000) and {@code keyfilter.falsePositiveRate}
+ * (default 0.01). A filter is rebuilt with twice the size once it holds more keys than it was
+ * sized for.
+ */
+@ApplicationScoped
+@Slf4j
+public class UniqueKeyFilter {
+
+    private final boolean enabled = Boolean.parseBoolean(System.getProperty("keyfilter.enabled", "true"));
+    private final long expectedKeys = Long.getLong("keyfilter.expectedKeys", 100_000L);
+    private final double falsePositiveRate = Double.parseDouble(System.getProperty("keyfilter.falsePositiveRate", "0.01"));
+
+    @Inject
+    IStudentDAO studentDAO;
+
+    @Inject
+    IArchivedStudentDAO archivedStudentDAO;
+
+    @Inject
+    ITeacherDAO teacherDAO;
+
+    private volatile CountingBloomFilter ssns;
+    private volatile CountingBloomFilter registrationNumbers;
+
+    private final Object writeLock = new Object();
+    private CountingBloomFilter buildingSsns;
+    private CountingBloomFilter buildingRegistrationNumbers;
+
+    private final AtomicLong ssnCount = new AtomicLong();
+    private final AtomicLong registrationNumberCount = new AtomicLong();
+    private volatile long capacity;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private ExecutorService executor;
+
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "unique-key-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuildScheduled.set(true);
+        executor.execute(this::build);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return {@code false} only if no student, active or graduated, has this SSN
+     */
+    public boolean mightContainSsn(String ssn) {
+        CountingBloomFilter filter = ssns;
+        return filter == null || filter.mightContain(ssn);
+    }
+
+    /**
+     * @return {@code false} only if no teacher has this registration number
+     */
+    public boolean mightContainRegistrationNumber(String registrationNumber) {
+        CountingBloomFilter filter = registrationNumbers;
+        return filter == null || filter.mightContain(registrationNumber);
+    }
+
+    public void onStudentChanged(@Observes StudentChangedEvent event) {
+        if (event.getType() == ChangeType.INSERTED) {
+            synchronized (writeLock) {
+                add(ssns, buildingSsns, event.getAfter().getSsn(), ssnCount);
+            }
+        } else if (event.getType() == ChangeType.DELETED) {
+            synchronized (writeLock) {
+                remove(ssns, event.getBefore().getSsn(), ssnCount);
+            }
+        }
+    }
+
+    public void onTeacherChanged(@Observes TeacherChangedEvent event) {
+        if (event.getType() == ChangeType.INSERTED) {
+            synchronized (writeLock) {
+                add(registrationNumbers, buildingRegistrationNumbers, event.getAfter().getRegistrationNumber(),
+                        registrationNumberCount);
+            }
+        } else if (event.getType() == ChangeType.DELETED) {
+            synchronized (writeLock) {
+                remove(registrationNumbers, event.getBefore().getRegistrationNumber(), registrationNumberCount);
+            }
+        }
+    }
+
+    /**
+     * Adds a key to the serving filter and to the one being built, if any.
+     * Must be called while holding {@link #writeLock}.
+     */
+    private void add(CountingBloomFilter serving, CountingBloomFilter building, String key, AtomicLong count) {
+        if (serving != null) {
+            serving.add(key);
+        }
+        if (building != null) {
+            building.add(key);
+        }
+        if (count.incrementAndGet() > capacity && serving != null && rebuildScheduled.compareAndSet(false, true)) {
+            executor.execute(this::build);
+        }
+    }
+
+    /**
+     * Removes a key from the serving filter only. A filter being built may still receive the key
+     * from its scan, so removing it there could clear counters the key never set; leaving it in
+     * only costs a false positive until the next rebuild.
+     * Must be called while holding {@link #writeLock}.
+     */
+    private void remove(CountingBloomFilter serving, String key, AtomicLong count) {
+        if (serving != null) {
+            serving.remove(key);
+            count.decrementAndGet();
+        }
+    }
+
+    /**
+     * Builds new filters from a streaming scan and swaps them in.
+     */
+    void build() {
+        long start = System.nanoTime();
+        try {
+            try {
+                JPAHelper.beginTransaction();
+                long students = studentDAO.count() + archivedStudentDAO.count();
+                long teachers = teacherDAO.count();
+                long newCapacity = Math.max(expectedKeys, 2 * Math.max(students, teachers));
+                CountingBloomFilter newSsns = new CountingBloomFilter(newCapacity, falsePositiveRate);
+                CountingBloomFilter newRegistrationNumbers = new CountingBloomFilter(newCapacity, falsePositiveRate);
+                synchronized (writeLock) {
+                    buildingSsns = newSsns;
+                    buildingRegistrationNumbers = newRegistrationNumbers;
+                }
+
+                long ssnKeys = fill(newSsns, studentDAO.streamSsns()) + fill(newSsns, archivedStudentDAO.streamSsns());
+                long registrationNumberKeys = fill(newRegistrationNumbers, teacherDAO.streamRegistrationNumbers());
+                JPAHelper.commitTransaction();
+
+                synchronized (writeLock) {
+                    ssns = newSsns;
+                    registrationNumbers = newRegistrationNumbers;
+                    buildingSsns = null;
+                    buildingRegistrationNumbers = null;
+                    capacity = newCapacity;
+                    ssnCount.set(ssnKeys);
+                    registrationNumberCount.set(registrationNumberKeys);
+                }
+                log.info("Unique key filters built over {} SSNs and {} registration numbers in {} ms",
+                        ssnKeys, registrationNumberKeys, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } finally {
+                JPAHelper.closeEntityManager();
+            }
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                buildingSsns = null;
+                buildingRegistrationNumbers = null;
+            }
+            log.error("Unique key filters could not be built, uniqueness checks keep querying the database", e);
+        } finally {
+            rebuildScheduled.set(false);
+        }
+    }
+
+    private static long fill(CountingBloomFilter filter, Stream<String> keys) {
+        long[] count = new long[1];
+        try (keys) {
+            keys.forEach(key -> {
+                filter.add(key);
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+}
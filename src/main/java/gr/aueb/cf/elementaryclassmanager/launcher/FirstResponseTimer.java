@@ -0,0 +1,27 @@
+package gr.aueb.cf.elementaryclassmanager.launcher;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs the time from JVM start to the first response, the time-to-first-request of a new instance.
+ * Registered by {@link StandaloneLauncher} only, since in a servlet container the JVM outlives
+ * the deployment.
+ */
+@Slf4j
+class FirstResponseTimer implements ContainerResponseFilter {
+
+    private final AtomicBoolean responded = new AtomicBoolean();
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (!responded.get() && responded.compareAndSet(false, true)) {
+            log.info("First response ({} {}) sent {} ms after JVM start", requestContext.getMethod(),
+                    requestContext.getUriInfo().getPath(), StandaloneLauncher.jvmUptime());
+        }
+    }
+}
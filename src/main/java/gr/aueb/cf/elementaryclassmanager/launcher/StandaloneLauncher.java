@@ -0,0 +1,117 @@
+package gr.aueb.cf.elementaryclassmanager.launcher;
+
+import gr.aueb.cf.elementaryclassmanager.ElementaryClassManagerApplication;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.persistence.PersistenceException;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.UriBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+
+/**
+ * Runs the application on an embedded Grizzly server instead of an external servlet container.
+ * Jersey boots Weld SE itself; in the standalone JAR the bean archive is limited to the classes
+ * listed in its Jandex index, so Weld never scans the bundled libraries.
+ * <p>
+ * Every startup phase is timed and logged, and so is the first response, measured from the start
+ * of the JVM. Settings: {@code server.host} (default {@code 0.0.0.0}) and {@code server.port}
+ * (default 8080).
+ * <p>
+ * With {@code appcds.training=true} the launcher runs the {@link TrainingRun} against itself once
+ * it is up and exits, so that a JVM started with {@code -XX:ArchiveClassesAtExit} writes a
+ * class-data sharing archive of every class the application needs to serve requests.
+ */
+@Slf4j
+public class StandaloneLauncher {
+
+    private static final String BASE_PACKAGE = "gr.aueb.cf.elementaryclassmanager";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StandaloneLauncher() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        log.info("Startup phase jvm took {} ms, class data sharing archive: {}", jvmUptime(), sharedArchive());
+
+        long phaseStart = System.nanoTime();
+        try {
+            JPAHelper.getEntityManagerFactory();
+            logPhase("persistence", phaseStart);
+        } catch (PersistenceException e) {
+            log.warn("Persistence could not start, it is retried on first use", e);
+        }
+
+        phaseStart = System.nanoTime();
+        ResourceConfig config = resourceConfig().register(new FirstResponseTimer());
+        HttpServer server = GrizzlyHttpServerFactory.createHttpServer(baseUri(), config, false);
+        logPhase("jersey and weld", phaseStart);
+
+        phaseStart = System.nanoTime();
+        server.start();
+        logPhase("http", phaseStart);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.shutdownNow();
+            JPAHelper.closeEntityManagerFactory();
+        }, "shutdown"));
+        String path = ElementaryClassManagerApplication.class.getAnnotation(ApplicationPath.class).value();
+        URI apiUri = baseUri().resolve(path + "/");
+        log.info("Listening on {}, ready {} ms after JVM start", apiUri, jvmUptime());
+
+        if (Boolean.getBoolean("appcds.training")) {
+            new TrainingRun(URI.create("http://localhost:" + apiUri.getPort() + apiUri.getPath())).run();
+            System.exit(0);
+        }
+    }
+
+    /**
+     * @return the configuration of the application, with its providers and resources found by package scanning
+     */
+    static ResourceConfig resourceConfig() {
+        return ResourceConfig.forApplication(new ElementaryClassManagerApplication()).packages(true, BASE_PACKAGE);
+    }
+
+    /**
+     * @return the milliseconds since the JVM started
+     */
+    static long jvmUptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /**
+     * @return the server root; Jersey serves the application under its {@code @ApplicationPath}
+     */
+    private static URI baseUri() {
+        String host = System.getProperty("server.host", "0.0.0.0");
+        int port = Integer.getInteger("server.port", 8080);
+        return UriBuilder.fromPath("/").scheme("http").host(host).port(port).build();
+    }
+
+    /**
+     * @return the archive given with {@code -XX:SharedArchiveFile}, the JDK's default archive
+     * or {@code none} when class data sharing is off
+     */
+    private static String sharedArchive() {
+        if (!System.getProperty("java.vm.info", "").contains("sharing")) {
+            return "none";
+        }
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(argument -> argument.startsWith("-XX:SharedArchiveFile="))
+                .map(argument -> argument.substring("-XX:SharedArchiveFile=".length()))
+                .findFirst()
+                .orElse("JDK default");
+    }
+
+    private static void logPhase(String phase, long startNanos) {
+        log.info("Startup phase {} took {} ms", phase, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
@@ -0,0 +1,198 @@
+package gr.aueb.cf.elementaryclassmanager.launcher;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The workload of the class-data sharing training run: goes once through every endpoint, so that
+ * the classes of each request path are loaded and end up in the archive written at JVM exit.
+ * Statuses are not checked; a failing request still loads most of the classes of its path.
+ */
+@Slf4j
+class TrainingRun {
+
+    private static final String JSON = "application/json";
+
+    // HTTP/1.1 as Grizzly does not answer the h2c upgrade the client would ask for
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final URI apiUri;
+    private int requests;
+    private int failures;
+
+    /**
+     * @param apiUri the root of the API, ending with a slash
+     */
+    TrainingRun(URI apiUri) {
+        this.apiUri = apiUri;
+    }
+
+    void run() {
+        long start = System.nanoTime();
+
+        String teacherId = created("POST", "teachers", "{\"firstname\": \"Training\", \"lastname\": \"Teacher\", "
+                + "\"registrationNumber\": \"TR0000001\", \"email\": \"training@example.com\"}");
+        String otherTeacherId = created("POST", "teachers", "{\"firstname\": \"Other\", \"lastname\": \"Teacher\", "
+                + "\"registrationNumber\": \"TR0000002\", \"email\": \"other@example.com\"}");
+        send("GET", "teachers/" + teacherId, null, JSON);
+        send("GET", "teachers/" + teacherId + "?fields=id,lastname,classGroupId", null, JSON);
+        send("GET", "teachers?lastname=Teacher", null, JSON);
+        send("GET", "teachers?lastname=Teacher&fields=id,email", null, JSON);
+        send("PUT", "teachers/" + teacherId, "{\"firstname\": \"Trained\", \"lastname\": \"Teacher\", "
+                + "\"email\": \"trained@example.com\"}", JSON);
+
+        String classGroupId = created("POST", "classgroups", "{\"name\": \"T\", \"grade\": \"GRADE_1\"}");
+        String otherClassGroupId = created("POST", "classgroups", "{\"name\": \"U\", \"grade\": \"GRADE_1\"}");
+        send("PUT", "classgroups/" + classGroupId, "{\"name\": \"T\", \"grade\": \"GRADE_1\"}", JSON);
+        send("PUT", "classgroups/" + classGroupId + "/assign-teacher/" + teacherId, null, JSON);
+        send("PUT", "classgroups/teachers", "{\"assignments\": [{\"classGroupId\": " + classGroupId
+                + ", \"teacherId\": " + otherTeacherId + "}, {\"classGroupId\": " + otherClassGroupId
+                + ", \"teacherId\": " + teacherId + "}]}", JSON);
+
+        String studentId = created("POST", "students", "{\"firstname\": \"Training\", \"lastname\": \"Student\", "
+                + "\"ssn\": \"TR0000001\", \"grade\": \"GRADE_1\"}");
+        String otherStudentId = created("POST", "students", "{\"firstname\": \"Other\", \"lastname\": \"Student\", "
+                + "\"ssn\": \"TR0000002\", \"grade\": \"GRADE_1\"}");
+        send("GET", "students/" + studentId, null, JSON);
+        send("GET", "students/" + studentId + "?fields=id,lastname", null, JSON);
+        send("GET", "students?lastname=Student", null, JSON);
+        send("GET", "students/ssn/TR0000001", null, JSON);
+        send("GET", "students/ssn/TR0000001?fields=id,ssn", null, JSON);
+        send("PUT", "students/" + studentId, "{\"firstname\": \"Trained\", \"lastname\": \"Student\"}", JSON);
+        send("PUT", "classgroups/" + classGroupId + "/assign-student/" + studentId, null, JSON);
+        send("PUT", "classgroups/" + classGroupId + "/assign-student/" + otherStudentId, null, JSON);
+
+        // each body format and encoding of the roster
+        send("GET", "classgroups/" + classGroupId + "/students", null, JSON);
+        send("GET", "classgroups/" + classGroupId + "/students?fields=id,grade", null, JSON);
+        send("GET", "classgroups/" + classGroupId + "/students", null, "application/cbor");
+        send("GET", "classgroups/" + classGroupId + "/students", null, "application/x-jackson-smile");
+        sendCompressed("classgroups/" + classGroupId + "/students");
+        send("GET", "teachers/" + teacherId, null, "application/cbor");
+        send("GET", "students/" + studentId, null, "application/x-jackson-smile");
+
+        send("POST", "batch", "{\"atomic\": true, \"operations\": ["
+                + "{\"method\": \"GET\", \"path\": \"/students/" + studentId + "\"}, "
+                + "{\"method\": \"PUT\", \"path\": \"/students/" + otherStudentId + "\", "
+                + "\"body\": {\"firstname\": \"Batched\", \"lastname\": \"Student\"}}]}", JSON);
+        send("POST", "batch", "{\"atomic\": false, \"operations\": ["
+                + "{\"method\": \"GET\", \"path\": \"/classgroups/" + classGroupId + "/students\"}]}", JSON);
+
+        openEventStream("classgroups/events");
+        openEventStream("classgroups/" + classGroupId + "/events");
+
+        send("PUT", "classgroups/" + classGroupId + "/increment-grade", null, JSON);
+        String jobId = created("PUT", "classgroups/" + otherClassGroupId + "/increment-grade?async=true", null);
+        send("GET", "jobs/" + jobId, null, JSON);
+
+        send("GET", "stats", null, JSON);
+        send("POST", "stats/refresh", null, JSON);
+        send("GET", "admission", null, JSON);
+        send("GET", "metrics", null, "text/plain");
+        send("GET", "health/live", null, JSON);
+        send("GET", "health/ready", null, JSON);
+        send("GET", "audit?entityType=Student&page=0&size=10", null, JSON);
+        send("POST", "graduation", null, JSON);
+
+        send("DELETE", "students/" + otherStudentId, null, JSON);
+        send("DELETE", "classgroups/" + otherClassGroupId + "?async=true", null, JSON);
+        send("DELETE", "teachers/" + otherTeacherId, null, JSON);
+        send("GET", "students/0", null, JSON);
+
+        log.info("Training run sent {} requests, {} failed, in {} ms", requests, failures,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Sends a request and returns the id at the end of its {@code Location} header, {@code 0} if there is none.
+     */
+    private String created(String method, String path, String body) {
+        HttpResponse<byte[]> response = send(method, path, body, JSON);
+        if (response == null) {
+            return "0";
+        }
+        return response.headers().firstValue("Location")
+                .map(location -> location.substring(location.lastIndexOf('/') + 1))
+                .orElse("0");
+    }
+
+    private HttpResponse<byte[]> send(String method, String path, String body, String accept) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(apiUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", accept);
+        if (body != null) {
+            request.header("Content-Type", JSON).method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return execute(request.build());
+    }
+
+    private void sendCompressed(String path) {
+        HttpResponse<byte[]> response = execute(HttpRequest.newBuilder(apiUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", JSON)
+                .header("Accept-Encoding", "gzip")
+                .build());
+        if (response == null) {
+            return;
+        }
+        response.headers().firstValue("ETag").ifPresent(etag -> execute(HttpRequest.newBuilder(apiUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", JSON)
+                .header("If-None-Match", etag)
+                .build()));
+    }
+
+    /**
+     * Opens an event stream with an unknown {@code Last-Event-ID}, which is answered at once with a
+     * {@code reset} event, and closes it after the first bytes.
+     */
+    private void openEventStream(String path) {
+        requests++;
+        HttpRequest request = HttpRequest.newBuilder(apiUri.resolve(path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Accept", "text/event-stream")
+                .header("Last-Event-ID", Long.toString(Long.MAX_VALUE))
+                .build();
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream events = response.body()) {
+                events.read();
+            }
+        } catch (IOException e) {
+            failures++;
+            log.debug("Training request {} failed", path, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpResponse<byte[]> execute(HttpRequest request) {
+        requests++;
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 500) {
+                failures++;
+            }
+            log.debug("{} {} answered {}", request.method(), request.uri(), response.statusCode());
+            return response;
+        } catch (IOException e) {
+            failures++;
+            log.debug("Training request {} {} failed", request.method(), request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
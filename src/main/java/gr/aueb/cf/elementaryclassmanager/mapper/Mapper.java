@@ -1,14 +1,22 @@
 package gr.aueb.cf.elementaryclassmanager.mapper;
 
+import gr.aueb.cf.elementaryclassmanager.dto.auditDTO.AuditEntryReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.jobDTO.JobReadOnlyDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherSnapshot;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherUpdateDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentUpdateDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.model.ArchivedStudent;
+import gr.aueb.cf.elementaryclassmanager.model.AuditEntry;
+import gr.aueb.cf.elementaryclassmanager.model.Job;
 import gr.aueb.cf.elementaryclassmanager.model.Teacher;
 import gr.aueb.cf.elementaryclassmanager.model.Student;
 import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
@@ -74,6 +82,40 @@ public class Mapper {
         );
     }
 
+    /**
+     * Maps a Teacher entity to an immutable TeacherSnapshot.
+     *
+     * @param teacher the Teacher entity to be mapped
+     * @return a TeacherSnapshot holding the teacher's current column values
+     */
+    public static TeacherSnapshot mapToTeacherSnapshot(Teacher teacher) {
+        return new TeacherSnapshot(
+                teacher.getId(),
+                teacher.getFirstname(),
+                teacher.getLastname(),
+                teacher.getRegistrationNumber(),
+                teacher.getEmail()
+        );
+    }
+
+    /**
+     * Maps a TeacherSnapshot to a TeacherReadOnlyDTO.
+     *
+     * @param snapshot     the TeacherSnapshot to be mapped
+     * @param classGroupId the ID of the class group the teacher is assigned to, or {@code null}
+     * @return a TeacherReadOnlyDTO containing the teacher's details
+     */
+    public static TeacherReadOnlyDTO mapToTeacherReadOnlyDTO(TeacherSnapshot snapshot, Long classGroupId) {
+        return new TeacherReadOnlyDTO(
+                snapshot.getId(),
+                snapshot.getFirstname(),
+                snapshot.getLastname(),
+                snapshot.getRegistrationNumber(),
+                snapshot.getEmail(),
+                classGroupId
+        );
+    }
+
     // --- Student Mappings ---
 
     /**
@@ -128,6 +170,65 @@ public class Mapper {
 
         return dto;
     }
+
+    /**
+     * Maps a Student entity to an immutable StudentSnapshot.
+     *
+     * @param student the Student entity to be mapped
+     * @return a StudentSnapshot holding the student's current column values
+     */
+    public static StudentSnapshot mapToStudentSnapshot(Student student) {
+        Long classGroupId = (student.getClassGroup() != null) ? student.getClassGroup().getId() : null;
+        return new StudentSnapshot(
+                student.getId(),
+                student.getFirstname(),
+                student.getLastname(),
+                student.getSsn(),
+                student.getGrade(),
+                classGroupId,
+                student.isArchived()
+        );
+    }
+
+    /**
+     * Maps a StudentSnapshot to a StudentReadOnlyDTO.
+     *
+     * @param snapshot the StudentSnapshot to be mapped
+     * @return a StudentReadOnlyDTO containing the student's details
+     */
+    public static StudentReadOnlyDTO mapToStudentReadOnlyDTO(StudentSnapshot snapshot) {
+        StudentReadOnlyDTO dto = new StudentReadOnlyDTO(
+                snapshot.getFirstname(),
+                snapshot.getLastname(),
+                snapshot.getSsn(),
+                snapshot.getGrade(),
+                snapshot.getClassGroupId());
+
+        dto.setId(snapshot.getId());
+
+        return dto;
+    }
+
+    /**
+     * Maps an ArchivedStudent to a StudentReadOnlyDTO.
+     * The DTO carries the student's original ID and no ClassGroup.
+     *
+     * @param archivedStudent the ArchivedStudent to be mapped
+     * @return a StudentReadOnlyDTO containing the student's details
+     */
+    public static StudentReadOnlyDTO mapToStudentReadOnlyDTO(ArchivedStudent archivedStudent) {
+        StudentReadOnlyDTO dto = new StudentReadOnlyDTO(
+                archivedStudent.getFirstname(),
+                archivedStudent.getLastname(),
+                archivedStudent.getSsn(),
+                archivedStudent.getGrade(),
+                null);
+
+        dto.setId(archivedStudent.getStudentId());
+
+        return dto;
+    }
+
     // --- ClassGroup Mappings ---
 
     /**
@@ -172,4 +273,75 @@ public class Mapper {
       );
 
     }
+
+    /**
+     * Maps a ClassGroup entity to an immutable ClassGroupSnapshot.
+     *
+     * @param classGroup the ClassGroup entity to be mapped
+     * @return a ClassGroupSnapshot holding the class group's current column values
+     */
+    public static ClassGroupSnapshot mapToClassGroupSnapshot(ClassGroup classGroup) {
+        Long teacherId = (classGroup.getTeacher() != null) ? classGroup.getTeacher().getId() : null;
+        return new ClassGroupSnapshot(
+                classGroup.getId(),
+                classGroup.getName(),
+                classGroup.getGrade(),
+                teacherId,
+                classGroup.isArchived()
+        );
+    }
+
+    /**
+     * Maps a ClassGroupSnapshot to a ClassGroupReadOnlyDTO.
+     *
+     * @param snapshot the ClassGroupSnapshot to be mapped
+     * @return a ClassGroupReadOnlyDTO containing the class group's details
+     */
+    public static ClassGroupReadOnlyDTO mapToClassGroupReadOnlyDTO(ClassGroupSnapshot snapshot) {
+        return new ClassGroupReadOnlyDTO(
+                snapshot.getId(),
+                snapshot.getName(),
+                snapshot.getGrade()
+        );
+    }
+
+    /**
+     * Maps an AuditEntry entity to an AuditEntryReadOnlyDTO.
+     *
+     * @param entry the AuditEntry entity to be mapped
+     * @return an AuditEntryReadOnlyDTO containing the audit entry's details
+     */
+    public static AuditEntryReadOnlyDTO mapToAuditEntryReadOnlyDTO(AuditEntry entry) {
+        return new AuditEntryReadOnlyDTO(
+                entry.getId(),
+                entry.getEntityType(),
+                entry.getEntityId(),
+                entry.getAction(),
+                entry.getActor(),
+                entry.getOccurredAt().toEpochMilli(),
+                entry.getChanges()
+        );
+    }
+
+    /**
+     * Maps a Job entity to a JobReadOnlyDTO.
+     *
+     * @param job the Job entity to be mapped
+     * @return a JobReadOnlyDTO containing the job's status and progress
+     */
+    public static JobReadOnlyDTO mapToJobReadOnlyDTO(Job job) {
+        JobReadOnlyDTO dto = new JobReadOnlyDTO();
+        dto.setId(job.getId());
+        dto.setType(job.getType());
+        dto.setTargetId(job.getTargetId());
+        dto.setStatus(job.getStatus());
+        dto.setProcessed(job.getProcessed());
+        dto.setTotal(job.getTotal());
+        dto.setAttempts(job.getAttempts());
+        dto.setError(job.getError());
+        dto.setCreatedAtMillis(job.getCreatedAt() != null ? job.getCreatedAt().toEpochMilli() : null);
+        dto.setStartedAtMillis(job.getStartedAt() != null ? job.getStartedAt().toEpochMilli() : null);
+        dto.setFinishedAtMillis(job.getFinishedAt() != null ? job.getFinishedAt().toEpochMilli() : null);
+        return dto;
+    }
 }
@@ -0,0 +1,109 @@
+package gr.aueb.cf.elementaryclassmanager.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latencies of one route or service method.
+ * Recording never blocks: the latency goes into an HdrHistogram {@link Recorder} and the totals
+ * into {@link LongAdder}s. A scrape takes the values recorded since the previous scrape and adds
+ * them to the current window, so the quantiles cover at most the last {@code metrics.windowSeconds};
+ * the counts and the sum cover the whole uptime.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    /**
+     * 1% precision keeps a histogram at about 20 KB.
+     */
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final String labels;
+    private final String[] outcomes;
+    private final LongAdder[] outcomeCounts;
+    private final LongAdder sumNanos = new LongAdder();
+    private final Recorder recorder = new Recorder(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    // only accessed by snapshot()
+    private Histogram interval;
+    private final Histogram window = new Histogram(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private long windowStart = System.nanoTime();
+
+    /**
+     * @param labels   the Prometheus labels of the recorder, e.g. {@code method="GET",route="/students"}
+     * @param outcomes the values of the outcome label, indexed by the outcome passed to {@link #record}
+     */
+    LatencyRecorder(String labels, String... outcomes) {
+        this.labels = labels;
+        this.outcomes = outcomes;
+        this.outcomeCounts = new LongAdder[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomeCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param nanos   the latency
+     * @param outcome the index of the outcome in the labels given to the constructor
+     */
+    public void record(long nanos, int outcome) {
+        recorder.recordValue(Math.max(1L, Math.min(nanos / 1000L, HIGHEST_TRACKABLE_MICROS)));
+        sumNanos.add(nanos);
+        outcomeCounts[outcome].increment();
+    }
+
+    /**
+     * Moves the values recorded since the previous call into the window, starting a new window
+     * first when the current one is older than the given length.
+     *
+     * @param windowNanos the length of a window
+     * @return the quantiles of the window and the totals
+     */
+    synchronized Snapshot snapshot(long windowNanos) {
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos) {
+            window.reset();
+            windowStart = now;
+        }
+        interval = recorder.getIntervalHistogram(interval);
+        window.add(interval);
+
+        long[] counts = new long[outcomeCounts.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = outcomeCounts[i].sum();
+        }
+        return new Snapshot(labels, outcomes, counts, sumNanos.sum(), window.copy());
+    }
+
+    /**
+     * The state of a recorder at one scrape.
+     */
+    static final class Snapshot {
+
+        final String labels;
+        final String[] outcomes;
+        final long[] outcomeCounts;
+        final long sumNanos;
+        final Histogram window;
+
+        private Snapshot(String labels, String[] outcomes, long[] outcomeCounts, long sumNanos, Histogram window) {
+            this.labels = labels;
+            this.outcomes = outcomes;
+            this.outcomeCounts = outcomeCounts;
+            this.sumNanos = sumNanos;
+            this.window = window;
+        }
+
+        long count() {
+            long count = 0;
+            for (long outcomeCount : outcomeCounts) {
+                count += outcomeCount;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package gr.aueb.cf.elementaryclassmanager.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the {@link LatencyRecorder}s of the REST routes and the timed service methods.
+ * Recorders are created the first time a route or method is hit and are looked up by
+ * {@link Method}, so recording builds no strings. Resource methods that share a path and an HTTP
+ * method, e.g. the representations of one resource, share a recorder.
+ * <p>
+ * Settings: {@code metrics.windowSeconds} - the age after which the quantiles start over (default 60).
+ */
+@ApplicationScoped
+public class MetricsRegistry {
+
+    static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+    static final String[] SERVICE_OUTCOMES = {"ok", "exception"};
+    public static final int OK = 0;
+    public static final int EXCEPTION = 1;
+
+    private final long windowNanos = TimeUnit.SECONDS.toNanos(Integer.getInteger("metrics.windowSeconds", 60));
+
+    private final Map<Method, Optional<LatencyRecorder>> routesByMethod = new ConcurrentHashMap<>();
+    private final Map<String, LatencyRecorder> routes = new ConcurrentHashMap<>();
+    private final Map<Method, LatencyRecorder> servicesByMethod = new ConcurrentHashMap<>();
+    private final Map<String, LatencyRecorder> services = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the recorder of the route served by the given resource method, creating it on first use.
+     * Event streams have none, since their requests last as long as the client stays connected.
+     *
+     * @param resourceMethod the matched resource method
+     * @param httpMethod     the HTTP method of the request
+     * @return the route's recorder, empty for event streams
+     */
+    public Optional<LatencyRecorder> getRouteRecorder(Method resourceMethod, String httpMethod) {
+        Optional<LatencyRecorder> recorder = routesByMethod.get(resourceMethod);
+        if (recorder == null) {
+            recorder = routesByMethod.computeIfAbsent(resourceMethod, method -> isEventStream(method)
+                    ? Optional.empty()
+                    : Optional.of(routes.computeIfAbsent(
+                            labels("method", httpMethod, "route", RouteTemplates.of(method)),
+                            key -> new LatencyRecorder(key, STATUS_CLASSES))));
+        }
+        return recorder;
+    }
+
+    /**
+     * Returns the recorder of the given service method, creating it on first use.
+     * Overloads share a recorder.
+     *
+     * @param serviceMethod the intercepted method
+     * @return the method's recorder
+     */
+    public LatencyRecorder getServiceRecorder(Method serviceMethod) {
+        LatencyRecorder recorder = servicesByMethod.get(serviceMethod);
+        if (recorder == null) {
+            recorder = servicesByMethod.computeIfAbsent(serviceMethod, method -> services.computeIfAbsent(
+                    labels("service", method.getDeclaringClass().getSimpleName(), "method", method.getName()),
+                    key -> new LatencyRecorder(key, SERVICE_OUTCOMES)));
+        }
+        return recorder;
+    }
+
+    /**
+     * @return every recorder in the Prometheus text exposition format
+     */
+    public String scrape() {
+        StringBuilder text = new StringBuilder(4096);
+        PrometheusText.summary(text, "http_server_request_duration_seconds",
+                "Duration of the requests per route; quantiles over the last window", snapshots(routes));
+        PrometheusText.counter(text, "http_server_requests_total",
+                "Requests per route and status class", "status", snapshots(routes));
+        PrometheusText.summary(text, "service_method_duration_seconds",
+                "Duration of the service method calls; quantiles over the last window", snapshots(services));
+        PrometheusText.counter(text, "service_method_calls_total",
+                "Service method calls per outcome", "outcome", snapshots(services));
+        return text.toString();
+    }
+
+    private List<LatencyRecorder.Snapshot> snapshots(Map<String, LatencyRecorder> recorders) {
+        return recorders.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getValue().snapshot(windowNanos))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isEventStream(Method method) {
+        Produces produces = method.getAnnotation(Produces.class);
+        return produces != null && Arrays.asList(produces.value()).contains(MediaType.SERVER_SENT_EVENTS);
+    }
+
+    private static String labels(String name, String value, String otherName, String otherValue) {
+        return name + "=\"" + PrometheusText.escape(value) + "\"," + otherName + "=\"" + PrometheusText.escape(otherValue) + "\"";
+    }
+}
@@ -0,0 +1,73 @@
+package gr.aueb.cf.elementaryclassmanager.metrics;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+
+/**
+ * Writes {@link LatencyRecorder.Snapshot}s in the Prometheus text exposition format 0.0.4.
+ */
+final class PrometheusText {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double MICROS_PER_SECOND = 1e6;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private PrometheusText() {}
+
+    /**
+     * Writes a summary: the quantiles of the current window and the count and sum since startup.
+     * An empty window has {@code NaN} quantiles.
+     */
+    static void summary(StringBuilder text, String name, String help, List<LatencyRecorder.Snapshot> snapshots) {
+        header(text, name, help, "summary");
+        for (LatencyRecorder.Snapshot snapshot : snapshots) {
+            Histogram window = snapshot.window;
+            for (double quantile : QUANTILES) {
+                double seconds = window.getTotalCount() == 0
+                        ? Double.NaN
+                        : window.getValueAtPercentile(quantile * 100) / MICROS_PER_SECOND;
+                text.append(name).append('{').append(snapshot.labels)
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds).append('\n');
+            }
+            text.append(name).append("_sum{").append(snapshot.labels).append("} ")
+                    .append(snapshot.sumNanos / NANOS_PER_SECOND).append('\n');
+            text.append(name).append("_count{").append(snapshot.labels).append("} ")
+                    .append(snapshot.count()).append('\n');
+        }
+    }
+
+    /**
+     * Writes a counter per recorder and outcome, leaving out the outcomes that never happened.
+     */
+    static void counter(StringBuilder text, String name, String help, String outcomeLabel,
+                        List<LatencyRecorder.Snapshot> snapshots) {
+        header(text, name, help, "counter");
+        for (LatencyRecorder.Snapshot snapshot : snapshots) {
+            for (int i = 0; i < snapshot.outcomes.length; i++) {
+                if (snapshot.outcomeCounts[i] == 0) {
+                    continue;
+                }
+                text.append(name).append('{').append(snapshot.labels).append(',')
+                        .append(outcomeLabel).append("=\"").append(snapshot.outcomes[i]).append("\"} ")
+                        .append(snapshot.outcomeCounts[i]).append('\n');
+            }
+        }
+    }
+
+    /**
+     * @return the label value with backslashes, double quotes and line feeds escaped
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void header(StringBuilder text, String name, String help, String type) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+}
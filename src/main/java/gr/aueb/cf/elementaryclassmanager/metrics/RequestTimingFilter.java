@@ -0,0 +1,43 @@
+package gr.aueb.cf.elementaryclassmanager.metrics;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.reflect.Method;
+
+/**
+ * Starts the clock of a request once it is matched to a resource method. It runs before the
+ * admission filter, so the time spent waiting for admission and the requests it sheds are
+ * measured as well. The duration is recorded by {@link RequestTimingListener}.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 200)
+public class RequestTimingFilter implements ContainerRequestFilter {
+
+    static final String RECORDER_PROPERTY = RequestTimingFilter.class.getName() + ".recorder";
+    static final String START_PROPERTY = RequestTimingFilter.class.getName() + ".start";
+
+    @Inject
+    private MetricsRegistry metricsRegistry;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return;
+        }
+        metricsRegistry.getRouteRecorder(method, requestContext.getMethod()).ifPresent(recorder -> {
+            requestContext.setProperty(RECORDER_PROPERTY, recorder);
+            requestContext.setProperty(START_PROPERTY, System.nanoTime());
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package gr.aueb.cf.elementaryclassmanager.metrics;
+
+import jakarta.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Records the duration of a request once Jersey has completely finished with it, that is after
+ * the response body has been written. The {@link RequestEvent.Type#FINISHED} event fires exactly
+ * once per request, also when the resource method throws; a request without a response failed
+ * on an unmapped exception and counts as a 500.
+ */
+@Provider
+public class RequestTimingListener implements ApplicationEventListener {
+
+    private static final RequestEventListener RECORD_ON_FINISH = event -> {
+        if (event.getType() != RequestEvent.Type.FINISHED) {
+            return;
+        }
+        ContainerRequest request = event.getContainerRequest();
+        Object recorder = request.getProperty(RequestTimingFilter.RECORDER_PROPERTY);
+        if (recorder != null) {
+            long start = (Long) request.getProperty(RequestTimingFilter.START_PROPERTY);
+            ContainerResponse response = event.getContainerResponse();
+            int status = response != null ? response.getStatus() : 500;
+            ((LatencyRecorder) recorder).record(System.nanoTime() - start, statusClassOf(status));
+        }
+    };
+
+    @Override
+    public void onEvent(ApplicationEvent event) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        return RECORD_ON_FINISH;
+    }
+
+    /**
+     * @return the index of the status class in {@link MetricsRegistry#STATUS_CLASSES}
+     */
+    private static int statusClassOf(int status) {
+        return Math.max(0, Math.min(status / 100 - 1, MetricsRegistry.STATUS_CLASSES.length - 1));
+    }
+}
@@ -0,0 +1,39 @@
+package gr.aueb.cf.elementaryclassmanager.metrics;
+
+import jakarta.ws.rs.Path;
+
+import java.lang.reflect.Method;
+
+/**
+ * Derives the route of a resource method from its {@code @Path} annotations, the low
+ * cardinality name under which requests are measured and traced.
+ */
+public final class RouteTemplates {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private RouteTemplates() {}
+
+    /**
+     * @param resourceMethod the resource method
+     * @return the path template of the method, e.g. {@code /classgroups/{classGroupId}/students}
+     */
+    public static String of(Method resourceMethod) {
+        StringBuilder route = new StringBuilder();
+        appendPath(route, resourceMethod.getDeclaringClass().getAnnotation(Path.class));
+        appendPath(route, resourceMethod.getAnnotation(Path.class));
+        return route.length() == 0 ? "/" : route.toString();
+    }
+
+    private static void appendPath(StringBuilder route, Path path) {
+        if (path == null) {
+            return;
+        }
+        String value = path.value();
+        if (!value.startsWith("/")) {
+            route.append('/');
+        }
+        route.append(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+    }
+}
@@ -0,0 +1,34 @@
+package gr.aueb.cf.elementaryclassmanager.metrics;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Times the methods of {@link Timed} beans. A call that throws is recorded with the
+ * {@code exception} outcome, whether or not the exception is an expected domain error.
+ */
+@Timed
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class TimedInterceptor {
+
+    @Inject
+    private MetricsRegistry metricsRegistry;
+
+    @AroundInvoke
+    public Object time(InvocationContext context) throws Exception {
+        LatencyRecorder recorder = metricsRegistry.getServiceRecorder(context.getMethod());
+        long start = System.nanoTime();
+        int outcome = MetricsRegistry.EXCEPTION;
+        try {
+            Object result = context.proceed();
+            outcome = MetricsRegistry.OK;
+            return result;
+        } finally {
+            recorder.record(System.nanoTime() - start, outcome);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package gr.aueb.cf.elementaryclassmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Graduated student moved out of the hot {@code students} table.
+ * The row keeps only what is needed to look the student up again, without any foreign key.
+ */
+@Entity
+@Table(name = "archived_students", indexes = @Index(name = "idx_archived_students_student_id", columnList = "student_id"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ArchivedStudent extends IdentifiableEntity {
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(nullable = false)
+    private String firstname;
+
+    @Column(nullable = false)
+    private String lastname;
+
+    @Column(nullable = false, unique = true)
+    private String ssn;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Grade grade;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
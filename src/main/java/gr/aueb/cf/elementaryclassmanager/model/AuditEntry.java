@@ -0,0 +1,37 @@
+package gr.aueb.cf.elementaryclassmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "audit_log", indexes = @Index(name = "idx_audit_entity", columnList = "entity_type, entity_id"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AuditEntry extends IdentifiableEntity {
+
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "action", nullable = false, length = 16)
+    private String action;
+
+    @Column(name = "actor", nullable = false, length = 128)
+    private String actor;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Lob
+    @Column(name = "changes")
+    private String changes;
+}
@@ -58,7 +58,7 @@ public class ClassGroup extends IdentifiableEntity {
     }
 
     public void removeTeacher(Teacher teacher) {
-        this.teacher = teacher;
+        this.teacher = null;
         teacher.setClassgroup(null);
     }
 
@@ -0,0 +1,69 @@
+package gr.aueb.cf.elementaryclassmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A long-running administrative operation executed in the background.
+ * {@code checkpoint} is the id of the last row the job has processed; it is committed together
+ * with the work of each chunk, so a restarted job continues right after it.
+ */
+@Entity
+@Table(name = "jobs", indexes = @Index(name = "idx_jobs_status", columnList = "status"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class Job extends IdentifiableEntity {
+
+    @Column(name = "type", nullable = false, length = 64)
+    private String type;
+
+    @Column(name = "target_id")
+    private Long targetId;
+
+    @Column(name = "parameters", length = 255)
+    private String parameters;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private JobStatus status;
+
+    @Column(name = "checkpoint")
+    private Long checkpoint;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "total")
+    private Long total;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "error", length = 1024)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public Job(String type, Long targetId, String parameters, Long total) {
+        this.type = type;
+        this.targetId = targetId;
+        this.parameters = parameters;
+        this.total = total;
+        this.status = JobStatus.QUEUED;
+        this.createdAt = Instant.now();
+    }
+}
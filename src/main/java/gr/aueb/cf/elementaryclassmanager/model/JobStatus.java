@@ -0,0 +1,8 @@
+package gr.aueb.cf.elementaryclassmanager.model;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
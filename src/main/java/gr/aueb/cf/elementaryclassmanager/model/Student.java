@@ -12,7 +12,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @Getter
 @Setter
-public class Student extends IdentifiableEntity{
+public class Student extends VersionedEntity {
 
     @Column(nullable = false)
     private String firstname;
@@ -14,7 +14,7 @@ import java.util.Set;
 @NoArgsConstructor
 @Getter
 @Setter
-public class Teacher extends IdentifiableEntity {
+public class Teacher extends VersionedEntity {
 
 
     @Column(name = "firstname", nullable = false)
@@ -0,0 +1,38 @@
+package gr.aueb.cf.elementaryclassmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Entity with an optimistic lock version and a last modification time.
+ * Both are served to HTTP clients as {@code ETag} and {@code Last-Modified}.
+ */
+@Getter
+@Setter
+@MappedSuperclass
+public abstract class VersionedEntity extends IdentifiableEntity {
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    /**
+     * Marks the entity as modified, which also bumps its version on the next flush.
+     * Used when a change elsewhere alters the entity's representation.
+     */
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,253 @@
+package gr.aueb.cf.elementaryclassmanager.notification;
+
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.notificationDTO.RosterNotificationReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.notificationDTO.RosterNotificationType;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.service.events.ChangeType;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+import jakarta.ws.rs.sse.SseEventSink;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns the committed student and class group changes into roster notifications and pushes them
+ * to the subscribed Server-Sent Events streams, school-wide or per class group.
+ * <p>
+ * The observers only hand the notifications to a single dispatcher thread, so a slow client never
+ * holds up a committing request. The dispatcher numbers the notifications, keeps the last
+ * {@code sse.replaySize} of them in a ring buffer and broadcasts them. New subscriptions are
+ * handled by the same thread: the notifications after the client's {@code Last-Event-ID} are
+ * replayed before the stream is registered, so a reconnecting client sees every notification
+ * exactly once. A client that missed more than the buffer holds first gets a {@code reset} event
+ * and should reload the roster.
+ */
+@ApplicationScoped
+@Slf4j
+public class RosterNotificationHub {
+
+    public static final String NOTIFICATION_EVENT = "roster";
+    public static final String RESET_EVENT = "reset";
+
+    private static final long RECONNECT_DELAY_MILLIS = 3000L;
+
+    private final int replaySize = Integer.getInteger("sse.replaySize", 1024);
+    private final long heartbeatSeconds = Long.getLong("sse.heartbeatSeconds", 30L);
+
+    private ScheduledExecutorService dispatcher;
+    private volatile Sse sse;
+
+    // only accessed from the dispatcher thread
+    private RosterNotificationReadOnlyDTO[] replay;
+    private long lastId;
+    private SseBroadcaster schoolBroadcaster;
+    private final Map<Long, SseBroadcaster> classGroupBroadcasters = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        replay = new RosterNotificationReadOnlyDTO[replaySize];
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "roster-notifications");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        if (schoolBroadcaster != null) {
+            schoolBroadcaster.close();
+        }
+        classGroupBroadcasters.values().forEach(SseBroadcaster::close);
+    }
+
+    /**
+     * Subscribes a stream to the notifications of one class group, or of the whole school.
+     *
+     * @param sse          the SSE context of the request
+     * @param sink         the stream of the client
+     * @param classGroupId the class group to follow, {@code null} for all of them
+     * @param lastEventId  the {@code Last-Event-ID} of a reconnecting client, {@code null} otherwise
+     */
+    public void subscribe(Sse sse, SseEventSink sink, Long classGroupId, String lastEventId) {
+        this.sse = sse;
+        // the first write commits the response, which Jersey can only do on the request thread
+        sink.send(sse.newEventBuilder().comment("connected").build());
+        dispatcher.execute(() -> {
+            Long resumeAfter = parseEventId(lastEventId);
+            if (resumeAfter != null) {
+                replay(sse, sink, classGroupId, resumeAfter);
+            }
+            broadcasterOf(sse, classGroupId).register(sink);
+        });
+    }
+
+    public void onStudentChanged(@Observes StudentChangedEvent event) {
+        dispatch(toNotifications(event.getBefore(), event.getAfter()));
+    }
+
+    public void onClassGroupChanged(@Observes ClassGroupChangedEvent event) {
+        dispatch(toNotifications(event.getType(), event.getBefore(), event.getAfter()));
+    }
+
+    private void dispatch(List<RosterNotificationReadOnlyDTO> notifications) {
+        if (!notifications.isEmpty()) {
+            dispatcher.execute(() -> notifications.forEach(this::publish));
+        }
+    }
+
+    private void publish(RosterNotificationReadOnlyDTO notification) {
+        notification.setId(++lastId);
+        replay[(int) (lastId % replaySize)] = notification;
+
+        Sse current = sse;
+        if (current == null) {
+            return;
+        }
+        OutboundSseEvent event = toEvent(current, notification);
+        broadcasterOf(current, null).broadcast(event);
+        SseBroadcaster classGroupBroadcaster = classGroupBroadcasters.get(notification.getClassGroupId());
+        if (classGroupBroadcaster != null) {
+            classGroupBroadcaster.broadcast(event);
+            if (notification.getType() == RosterNotificationType.CLASSGROUP_DELETED) {
+                classGroupBroadcasters.remove(notification.getClassGroupId()).close();
+            }
+        }
+    }
+
+    private void replay(Sse sse, SseEventSink sink, Long classGroupId, long resumeAfter) {
+        long oldestId = Math.max(1L, lastId - replaySize + 1);
+        if (resumeAfter + 1 < oldestId || resumeAfter > lastId) {
+            // missed notifications are gone, or the id is from before a restart
+            sink.send(sse.newEventBuilder()
+                    .id(Long.toString(lastId))
+                    .name(RESET_EVENT)
+                    .reconnectDelay(RECONNECT_DELAY_MILLIS)
+                    .data("")
+                    .build());
+            return;
+        }
+        for (long id = resumeAfter + 1; id <= lastId; id++) {
+            RosterNotificationReadOnlyDTO notification = replay[(int) (id % replaySize)];
+            if (classGroupId == null || classGroupId.equals(notification.getClassGroupId())) {
+                sink.send(toEvent(sse, notification));
+            }
+        }
+    }
+
+    private void heartbeat() {
+        Sse current = sse;
+        if (current == null) {
+            return;
+        }
+        OutboundSseEvent keepAlive = current.newEventBuilder().comment("keep-alive").build();
+        broadcasterOf(current, null).broadcast(keepAlive);
+        classGroupBroadcasters.values().forEach(broadcaster -> broadcaster.broadcast(keepAlive));
+    }
+
+    private SseBroadcaster broadcasterOf(Sse sse, Long classGroupId) {
+        if (classGroupId == null) {
+            if (schoolBroadcaster == null) {
+                schoolBroadcaster = sse.newBroadcaster();
+            }
+            return schoolBroadcaster;
+        }
+        return classGroupBroadcasters.computeIfAbsent(classGroupId, id -> sse.newBroadcaster());
+    }
+
+    private static OutboundSseEvent toEvent(Sse sse, RosterNotificationReadOnlyDTO notification) {
+        return sse.newEventBuilder()
+                .id(Long.toString(notification.getId()))
+                .name(NOTIFICATION_EVENT)
+                .reconnectDelay(RECONNECT_DELAY_MILLIS)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(RosterNotificationReadOnlyDTO.class, notification)
+                .build();
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static List<RosterNotificationReadOnlyDTO> toNotifications(StudentSnapshot before, StudentSnapshot after) {
+        List<RosterNotificationReadOnlyDTO> notifications = new ArrayList<>(2);
+        Long previousClassGroupId = before != null ? before.getClassGroupId() : null;
+        Long classGroupId = after != null ? after.getClassGroupId() : null;
+
+        if (!Objects.equals(previousClassGroupId, classGroupId)) {
+            if (previousClassGroupId != null) {
+                notifications.add(studentNotification(RosterNotificationType.STUDENT_REMOVED, previousClassGroupId, before));
+            }
+            if (classGroupId != null) {
+                notifications.add(studentNotification(RosterNotificationType.STUDENT_ASSIGNED, classGroupId, after));
+            }
+        } else if (classGroupId != null) {
+            if (before.getGrade() != after.getGrade()) {
+                notifications.add(studentNotification(RosterNotificationType.GRADE_CHANGED, classGroupId, after));
+            } else if (!Objects.equals(before.getFirstname(), after.getFirstname())
+                    || !Objects.equals(before.getLastname(), after.getLastname())
+                    || !Objects.equals(before.getSsn(), after.getSsn())) {
+                notifications.add(studentNotification(RosterNotificationType.STUDENT_UPDATED, classGroupId, after));
+            }
+        }
+        return notifications;
+    }
+
+    private static List<RosterNotificationReadOnlyDTO> toNotifications(ChangeType type, ClassGroupSnapshot before,
+                                                                       ClassGroupSnapshot after) {
+        if (type == ChangeType.INSERTED) {
+            return List.of(classGroupNotification(RosterNotificationType.CLASSGROUP_CREATED, after, null));
+        }
+        if (after == null) {
+            return List.of(classGroupNotification(RosterNotificationType.CLASSGROUP_DELETED, before, null));
+        }
+
+        List<RosterNotificationReadOnlyDTO> notifications = new ArrayList<>(2);
+        if (!Objects.equals(before.getTeacherId(), after.getTeacherId())) {
+            notifications.add(classGroupNotification(RosterNotificationType.TEACHER_CHANGED, after, before.getTeacherId()));
+        }
+        if (before.getGrade() != after.getGrade()) {
+            notifications.add(classGroupNotification(RosterNotificationType.GRADE_CHANGED, after, null));
+        }
+        return notifications;
+    }
+
+    private static RosterNotificationReadOnlyDTO studentNotification(RosterNotificationType type, Long classGroupId,
+                                                                     StudentSnapshot student) {
+        return new RosterNotificationReadOnlyDTO(0L, type, classGroupId, student.getId(), student.getGrade(),
+                null, null, System.currentTimeMillis());
+    }
+
+    private static RosterNotificationReadOnlyDTO classGroupNotification(RosterNotificationType type,
+                                                                        ClassGroupSnapshot classGroup,
+                                                                        Long previousTeacherId) {
+        return new RosterNotificationReadOnlyDTO(0L, type, classGroup.getId(), null, classGroup.getGrade(),
+                classGroup.getTeacherId(), previousTeacherId, System.currentTimeMillis());
+    }
+}
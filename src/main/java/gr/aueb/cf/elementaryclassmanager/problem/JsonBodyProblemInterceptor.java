@@ -0,0 +1,34 @@
+package gr.aueb.cf.elementaryclassmanager.problem;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.ReaderInterceptor;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+
+import java.io.IOException;
+
+/**
+ * Turns a request body Jackson cannot read into a 400 problem while the body is read. The mappers
+ * Jersey registers for the Jackson exceptions would otherwise answer with the plain text Jackson
+ * message, which names the DTO classes, and they take precedence over {@link ProblemExceptionMapper}.
+ * Jersey hands the reader's exception up wrapped in a {@link ProcessingException}.
+ */
+@Provider
+public class JsonBodyProblemInterceptor implements ReaderInterceptor {
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+        try {
+            return context.proceed();
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException(JsonProblems.toResponse(e), e);
+        } catch (ProcessingException e) {
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw new BadRequestException(JsonProblems.toResponse((JsonProcessingException) e.getCause()), e.getCause());
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package gr.aueb.cf.elementaryclassmanager.problem;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+
+/**
+ * Describes an unreadable JSON body as a 400 problem. The Jackson messages name the DTO classes,
+ * so the detail is rebuilt from the location of the error in the document instead.
+ */
+public final class JsonProblems {
+
+    private JsonProblems() {
+
+    }
+
+    /**
+     * @param exception the error Jackson reported for the body
+     * @return the 400 problem response describing it
+     */
+    public static Response toResponse(JsonProcessingException exception) {
+        return ProblemResponses.of(Response.Status.BAD_REQUEST, detailOf(exception)).build();
+    }
+
+    private static String detailOf(JsonProcessingException exception) {
+        if (!(exception instanceof JsonMappingException)) {
+            return "The request body is not well-formed JSON";
+        }
+        String path = pathOf(((JsonMappingException) exception).getPath());
+        if (path.isEmpty()) {
+            return "The request body does not have the expected structure";
+        }
+        return exception instanceof UnrecognizedPropertyException
+                ? "Unknown field '" + path + "'"
+                : "Invalid value for field '" + path + "'";
+    }
+
+    private static String pathOf(List<JsonMappingException.Reference> references) {
+        StringBuilder path = new StringBuilder();
+        for (JsonMappingException.Reference reference : references) {
+            if (reference.getFieldName() != null) {
+                if (path.length() > 0) {
+                    path.append('.');
+                }
+                path.append(reference.getFieldName());
+            } else if (reference.getIndex() >= 0) {
+                path.append('[').append(reference.getIndex()).append(']');
+            }
+        }
+        return path.toString();
+    }
+}
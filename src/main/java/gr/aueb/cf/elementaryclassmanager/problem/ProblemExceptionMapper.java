@@ -0,0 +1,72 @@
+package gr.aueb.cf.elementaryclassmanager.problem;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.ClassGroupAlreadyExists;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.ClassGroupFullException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityVersionMismatchException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.InvalidFieldSelectionException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.InvalidTeacherAssignmentException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.StudentAlreadyExists;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.StudentGradeDoesNotMatchClassGroup;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.TeacherAlreadyExists;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.RollbackException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+
+/**
+ * Turns the exceptions that reach Jersey into problem details responses, so that the controllers
+ * do not have to catch them. The domain exceptions are expected outcomes: they carry no stack
+ * trace, get the status of their kind and are only logged at debug level. Any other exception
+ * is a bug or an outage, answered with 500 and logged with its stack trace; its message is not
+ * exposed. A concurrent change detected on flush or commit is a conflict (409). An unreadable JSON
+ * body is a 400 that names the offending field but none of the classes. JAX-RS exceptions keep the
+ * response they were built with, with a problem body added if it has none.
+ */
+@Provider
+@Slf4j
+public class ProblemExceptionMapper implements ExceptionMapper<Exception> {
+
+    private static final Map<Class<? extends Exception>, Response.Status> STATUSES = Map.of(
+            EntityNotFoundException.class, Response.Status.NOT_FOUND,
+            StudentAlreadyExists.class, Response.Status.CONFLICT,
+            TeacherAlreadyExists.class, Response.Status.CONFLICT,
+            ClassGroupAlreadyExists.class, Response.Status.CONFLICT,
+            ClassGroupFullException.class, Response.Status.CONFLICT,
+            StudentGradeDoesNotMatchClassGroup.class, Response.Status.CONFLICT,
+            EntityVersionMismatchException.class, Response.Status.CONFLICT,
+            OptimisticLockException.class, Response.Status.CONFLICT,
+            InvalidFieldSelectionException.class, Response.Status.BAD_REQUEST,
+            InvalidTeacherAssignmentException.class, Response.Status.BAD_REQUEST
+    );
+
+    @Override
+    public Response toResponse(Exception exception) {
+        if (exception instanceof WebApplicationException) {
+            Response response = ((WebApplicationException) exception).getResponse();
+            return response.hasEntity() || response.getStatus() < 400
+                    ? response
+                    : ProblemResponses.of(response, exception.getMessage()).build();
+        }
+        if (exception instanceof JsonProcessingException) {
+            return JsonProblems.toResponse((JsonProcessingException) exception);
+        }
+        if (exception instanceof RollbackException && exception.getCause() instanceof Exception) {
+            // a failed commit, answered after the conflict that failed it
+            exception = (Exception) exception.getCause();
+        }
+        Response.Status status = STATUSES.get(exception.getClass());
+        if (status != null) {
+            log.debug("{}: {}", status.getStatusCode(), exception.getMessage());
+            return ProblemResponses.of(status, exception.getMessage()).build();
+        }
+        log.error("Request failed with an unexpected exception", exception);
+        return ProblemResponses.of(Response.Status.INTERNAL_SERVER_ERROR, "The request could not be processed").build();
+    }
+}
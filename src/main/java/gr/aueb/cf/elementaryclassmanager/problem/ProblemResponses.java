@@ -0,0 +1,46 @@
+package gr.aueb.cf.elementaryclassmanager.problem;
+
+import gr.aueb.cf.elementaryclassmanager.dto.problemDTO.ProblemReadOnlyDTO;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Builds error responses with a problem details body.
+ */
+public final class ProblemResponses {
+
+    public static final String APPLICATION_PROBLEM_JSON = "application/problem+json";
+    public static final MediaType APPLICATION_PROBLEM_JSON_TYPE = MediaType.valueOf(APPLICATION_PROBLEM_JSON);
+
+    /**
+     * The problem type of errors that are fully described by their status code.
+     */
+    private static final String ABOUT_BLANK = "about:blank";
+
+    private ProblemResponses() {
+
+    }
+
+    /**
+     * @param status the status of the response
+     * @param detail the explanation of this occurrence of the problem
+     * @return a builder for the response, which may still be given headers
+     */
+    public static Response.ResponseBuilder of(Response.StatusType status, String detail) {
+        return Response.status(status).type(APPLICATION_PROBLEM_JSON_TYPE).entity(problem(status, detail));
+    }
+
+    /**
+     * @param response an error response without a body
+     * @param detail   the explanation of this occurrence of the problem
+     * @return a builder for the response with its status and headers and a problem body
+     */
+    public static Response.ResponseBuilder of(Response response, String detail) {
+        return Response.fromResponse(response).type(APPLICATION_PROBLEM_JSON_TYPE)
+                .entity(problem(response.getStatusInfo(), detail));
+    }
+
+    private static ProblemReadOnlyDTO problem(Response.StatusType status, String detail) {
+        return new ProblemReadOnlyDTO(ABOUT_BLANK, status.getReasonPhrase(), status.getStatusCode(), detail);
+    }
+}
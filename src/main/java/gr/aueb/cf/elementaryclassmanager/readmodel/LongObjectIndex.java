@@ -0,0 +1,157 @@
+package gr.aueb.cf.elementaryclassmanager.readmodel;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable map from primitive {@code long} keys to values, stored as two parallel arrays
+ * sorted by key. Lookups are a binary search without boxing; updates return a copy, which
+ * makes the index safe to share between threads without locking.
+ *
+ * @param <V> the value type
+ */
+public final class LongObjectIndex<V> {
+
+    private static final LongObjectIndex<?> EMPTY = new LongObjectIndex<>(new long[0], new Object[0]);
+
+    private final long[] keys;
+    private final Object[] values;
+
+    private LongObjectIndex(long[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> LongObjectIndex<V> empty() {
+        return (LongObjectIndex<V>) EMPTY;
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key the key to look up
+     * @return the value, or {@code null} if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    /**
+     * Returns a copy of this index with the key mapped to the value.
+     *
+     * @param key   the key
+     * @param value the new value
+     * @return the updated copy
+     */
+    public LongObjectIndex<V> with(long key, V value) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) {
+            Object[] newValues = values.clone();
+            newValues[index] = value;
+            return new LongObjectIndex<>(keys, newValues);
+        }
+
+        int insertAt = -index - 1;
+        long[] newKeys = new long[keys.length + 1];
+        Object[] newValues = new Object[values.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertAt);
+        System.arraycopy(values, 0, newValues, 0, insertAt);
+        newKeys[insertAt] = key;
+        newValues[insertAt] = value;
+        System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+        System.arraycopy(values, insertAt, newValues, insertAt + 1, values.length - insertAt);
+        return new LongObjectIndex<>(newKeys, newValues);
+    }
+
+    /**
+     * Returns a copy of this index without the key.
+     *
+     * @param key the key to remove
+     * @return the updated copy, or this index if the key was absent
+     */
+    public LongObjectIndex<V> without(long key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return this;
+        }
+
+        long[] newKeys = new long[keys.length - 1];
+        Object[] newValues = new Object[values.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+        return new LongObjectIndex<>(newKeys, newValues);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return a read-only list view of the values, in key order
+     */
+    public List<V> values() {
+        return new AbstractList<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public V get(int index) {
+                return (V) values[index];
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    /**
+     * Accumulates entries for a new index. Entries added in ascending key order, as produced by
+     * the {@code order by id} streaming loads, are stored without sorting.
+     *
+     * @param <V> the value type
+     */
+    public static final class Builder<V> {
+
+        private long[] keys = new long[64];
+        private Object[] values = new Object[64];
+        private int size;
+        private boolean sorted = true;
+
+        public Builder<V> put(long key, V value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            if (size > 0 && keys[size - 1] >= key) {
+                sorted = false;
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public LongObjectIndex<V> build() {
+            long[] builtKeys = Arrays.copyOf(keys, size);
+            Object[] builtValues = Arrays.copyOf(values, size);
+            if (!sorted) {
+                Integer[] order = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+                for (int i = 0; i < size; i++) {
+                    builtKeys[i] = keys[order[i]];
+                    builtValues[i] = values[order[i]];
+                }
+            }
+            return new LongObjectIndex<>(builtKeys, builtValues);
+        }
+    }
+}
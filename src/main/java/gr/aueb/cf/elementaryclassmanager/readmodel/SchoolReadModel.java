@@ -0,0 +1,301 @@
+package gr.aueb.cf.elementaryclassmanager.readmodel;
+
+import gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO.IClassGroupDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.studentDAO.IStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.teacherDAO.ITeacherDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherSnapshot;
+import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.TeacherChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory read model of the whole school (CQRS read side).
+ * <p>
+ * When {@code readmodel.enabled} is set, all students, teachers and class groups are streamed
+ * into a {@link SchoolSnapshot} at startup. The services keep it current by firing change events
+ * after each commit; changes are applied by a single writer that swaps in a new copy-on-write
+ * snapshot, so readers never lock. Every {@code readmodel.verifyIntervalSeconds} the row counts
+ * are checked against the database and the model is reloaded on a mismatch.
+ * <p>
+ * While the model is disabled, loading or inconsistent, every lookup returns empty and the
+ * services fall back to the DAO path. Misses also fall back, so a lookup answered from memory
+ * is never a false "not found".
+ */
+@ApplicationScoped
+@Slf4j
+public class SchoolReadModel {
+
+    private final boolean enabled = Boolean.getBoolean("readmodel.enabled");
+    private final long verifyIntervalSeconds = Long.getLong("readmodel.verifyIntervalSeconds", 300L);
+
+    @Inject
+    private IStudentDAO studentDAO;
+
+    @Inject
+    private ITeacherDAO teacherDAO;
+
+    @Inject
+    private IClassGroupDAO classGroupDAO;
+
+    private volatile SchoolSnapshot snapshot;
+    private volatile boolean serving;
+
+    private final Object writeLock = new Object();
+    private boolean loading;
+    private final List<UnaryOperator<SchoolSnapshot>> pendingChanges = new ArrayList<>();
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Starts the initial load in the background once the application scope is up.
+     */
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "school-read-model");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::load);
+        executor.scheduleWithFixedDelay(this::verify, verifyIntervalSeconds, verifyIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public boolean isServing() {
+        return serving;
+    }
+
+    // --- Queries ---
+
+    public Optional<StudentReadOnlyDTO> findStudentById(Long id) {
+        SchoolSnapshot current = servingSnapshot();
+        if (current == null || id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.getStudent(id)).map(Mapper::mapToStudentReadOnlyDTO);
+    }
+
+    public Optional<StudentReadOnlyDTO> findStudentBySsn(String ssn) {
+        SchoolSnapshot current = servingSnapshot();
+        if (current == null || ssn == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.getStudentBySsn(ssn)).map(Mapper::mapToStudentReadOnlyDTO);
+    }
+
+    public List<StudentReadOnlyDTO> findStudentsByLastname(String lastname) {
+        SchoolSnapshot current = servingSnapshot();
+        if (current == null || lastname == null) {
+            return List.of();
+        }
+        return current.getStudents().values().stream()
+                .filter(student -> startsWithIgnoreCase(student.getLastname(), lastname))
+                .map(Mapper::mapToStudentReadOnlyDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<StudentReadOnlyDTO> findStudentsByClassGroupId(Long classGroupId) {
+        SchoolSnapshot current = servingSnapshot();
+        if (current == null || classGroupId == null) {
+            return List.of();
+        }
+        long[] ids = current.getRosterIds(classGroupId);
+        List<StudentReadOnlyDTO> students = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            students.add(Mapper.mapToStudentReadOnlyDTO(current.getStudent(id)));
+        }
+        return students;
+    }
+
+    public Optional<TeacherReadOnlyDTO> findTeacherById(Long id) {
+        SchoolSnapshot current = servingSnapshot();
+        if (current == null || id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.getTeacher(id))
+                .map(teacher -> Mapper.mapToTeacherReadOnlyDTO(teacher, current.getClassGroupIdOfTeacher(id)));
+    }
+
+    public List<TeacherReadOnlyDTO> findTeachersByLastname(String lastname) {
+        SchoolSnapshot current = servingSnapshot();
+        if (current == null || lastname == null) {
+            return List.of();
+        }
+        return current.getTeachers().values().stream()
+                .filter(teacher -> startsWithIgnoreCase(teacher.getLastname(), lastname))
+                .map(teacher -> Mapper.mapToTeacherReadOnlyDTO(teacher, current.getClassGroupIdOfTeacher(teacher.getId())))
+                .collect(Collectors.toList());
+    }
+
+    public Optional<ClassGroupReadOnlyDTO> findClassGroupById(Long id) {
+        SchoolSnapshot current = servingSnapshot();
+        if (current == null || id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.getClassGroup(id)).map(Mapper::mapToClassGroupReadOnlyDTO);
+    }
+
+    // --- Change application ---
+
+    public void onStudentChanged(@Observes StudentChangedEvent event) {
+        apply(current -> current.withStudentChange(event.getBefore(), event.getAfter()));
+    }
+
+    public void onTeacherChanged(@Observes TeacherChangedEvent event) {
+        apply(current -> current.withTeacherChange(event.getBefore(), event.getAfter()));
+    }
+
+    public void onClassGroupChanged(@Observes ClassGroupChangedEvent event) {
+        apply(current -> current.withClassGroupChange(event.getBefore(), event.getAfter()));
+    }
+
+    private void apply(UnaryOperator<SchoolSnapshot> change) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (loading) {
+                pendingChanges.add(change);
+            } else if (snapshot != null) {
+                snapshot = change.apply(snapshot);
+            }
+        }
+    }
+
+    // --- Loading and verification ---
+
+    /**
+     * Streams every row into a new snapshot. Changes committed while the load runs are queued
+     * and replayed on top of it; replaying a change the load already saw is harmless because
+     * each change carries the full row state.
+     */
+    void load() {
+        synchronized (writeLock) {
+            loading = true;
+            pendingChanges.clear();
+        }
+        serving = false;
+
+        long start = System.nanoTime();
+        try {
+            SchoolSnapshot loaded;
+            try {
+                JPAHelper.beginTransaction();
+                loaded = SchoolSnapshot.of(
+                        index(studentDAO.streamAll(), StudentSnapshot::getId),
+                        index(teacherDAO.streamAll(), TeacherSnapshot::getId),
+                        index(classGroupDAO.streamAll(), ClassGroupSnapshot::getId));
+                JPAHelper.commitTransaction();
+            } finally {
+                JPAHelper.closeEntityManager();
+            }
+
+            synchronized (writeLock) {
+                for (UnaryOperator<SchoolSnapshot> change : pendingChanges) {
+                    loaded = change.apply(loaded);
+                }
+                pendingChanges.clear();
+                snapshot = loaded;
+                loading = false;
+            }
+            serving = true;
+            log.info("Read model loaded {} students, {} teachers and {} class groups in {} ms",
+                    loaded.getStudents().size(), loaded.getTeachers().size(), loaded.getClassGroups().size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingChanges.clear();
+                snapshot = null;
+                loading = false;
+            }
+            log.error("Read model could not be loaded, reads fall back to the database", e);
+        }
+    }
+
+    /**
+     * Compares the row counts of the snapshot with the database and reloads on a mismatch.
+     */
+    void verify() {
+        SchoolSnapshot current = snapshot;
+        if (current == null) {
+            load();
+            return;
+        }
+        try {
+            long students;
+            long teachers;
+            long classGroups;
+            try {
+                JPAHelper.beginTransaction();
+                students = studentDAO.count();
+                teachers = teacherDAO.count();
+                classGroups = classGroupDAO.count();
+                JPAHelper.commitTransaction();
+            } finally {
+                JPAHelper.closeEntityManager();
+            }
+
+            SchoolSnapshot latest = snapshot;
+            if (latest.getStudents().size() != students
+                    || latest.getTeachers().size() != teachers
+                    || latest.getClassGroups().size() != classGroups) {
+                log.warn("Read model is out of sync with the database, reloading");
+                load();
+            }
+        } catch (RuntimeException e) {
+            log.error("Read model consistency check failed", e);
+        }
+    }
+
+    /**
+     * @return the snapshot to answer from, or {@code null} while not serving or inside a unit
+     * of work, whose uncommitted changes the snapshot does not reflect
+     */
+    private SchoolSnapshot servingSnapshot() {
+        return serving && !JPAHelper.isInUnitOfWork() ? snapshot : null;
+    }
+
+    private static <T> LongObjectIndex<T> index(Stream<T> rows, ToLongFunction<T> idOf) {
+        LongObjectIndex.Builder<T> builder = new LongObjectIndex.Builder<>();
+        try (rows) {
+            rows.forEach(row -> builder.put(idOf.applyAsLong(row), row));
+        }
+        return builder.build();
+    }
+
+    private static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value != null && value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+}
@@ -0,0 +1,246 @@
+package gr.aueb.cf.elementaryclassmanager.readmodel;
+
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherSnapshot;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable copy of the whole school: students, teachers and class groups keyed by id,
+ * plus the secondary indexes the read endpoints need (students by SSN, roster member ids by
+ * class group and class group by teacher).
+ * Every change produces a new snapshot that shares all untouched structures with this one.
+ */
+public final class SchoolSnapshot {
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final LongObjectIndex<StudentSnapshot> students;
+    private final LongObjectIndex<TeacherSnapshot> teachers;
+    private final LongObjectIndex<ClassGroupSnapshot> classGroups;
+    private final Map<String, Long> studentIdsBySsn;
+    private final LongObjectIndex<long[]> rosterIds;
+    private final LongObjectIndex<Long> classGroupIdsByTeacher;
+
+    private SchoolSnapshot(LongObjectIndex<StudentSnapshot> students,
+                           LongObjectIndex<TeacherSnapshot> teachers,
+                           LongObjectIndex<ClassGroupSnapshot> classGroups,
+                           Map<String, Long> studentIdsBySsn,
+                           LongObjectIndex<long[]> rosterIds,
+                           LongObjectIndex<Long> classGroupIdsByTeacher) {
+        this.students = students;
+        this.teachers = teachers;
+        this.classGroups = classGroups;
+        this.studentIdsBySsn = studentIdsBySsn;
+        this.rosterIds = rosterIds;
+        this.classGroupIdsByTeacher = classGroupIdsByTeacher;
+    }
+
+    /**
+     * Builds a snapshot and its secondary indexes from freshly loaded primary indexes.
+     */
+    public static SchoolSnapshot of(LongObjectIndex<StudentSnapshot> students,
+                                    LongObjectIndex<TeacherSnapshot> teachers,
+                                    LongObjectIndex<ClassGroupSnapshot> classGroups) {
+        Map<String, Long> bySsn = new HashMap<>(students.size() * 2);
+        Map<Long, long[]> rosters = new HashMap<>();
+        for (StudentSnapshot student : students.values()) {
+            bySsn.put(student.getSsn(), student.getId());
+            if (student.getClassGroupId() != null) {
+                rosters.merge(student.getClassGroupId(), new long[] {student.getId()}, SchoolSnapshot::concat);
+            }
+        }
+
+        LongObjectIndex.Builder<long[]> rosterIds = new LongObjectIndex.Builder<>();
+        rosters.forEach((classGroupId, ids) -> rosterIds.put(classGroupId, ids));
+
+        LongObjectIndex.Builder<Long> byTeacher = new LongObjectIndex.Builder<>();
+        for (ClassGroupSnapshot classGroup : classGroups.values()) {
+            if (classGroup.getTeacherId() != null) {
+                byTeacher.put(classGroup.getTeacherId(), classGroup.getId());
+            }
+        }
+
+        return new SchoolSnapshot(students, teachers, classGroups, Collections.unmodifiableMap(bySsn),
+                rosterIds.build(), byTeacher.build());
+    }
+
+    public static SchoolSnapshot empty() {
+        return of(LongObjectIndex.empty(), LongObjectIndex.empty(), LongObjectIndex.empty());
+    }
+
+    public StudentSnapshot getStudent(long id) {
+        return students.get(id);
+    }
+
+    public StudentSnapshot getStudentBySsn(String ssn) {
+        Long id = studentIdsBySsn.get(ssn);
+        return id != null ? students.get(id) : null;
+    }
+
+    public TeacherSnapshot getTeacher(long id) {
+        return teachers.get(id);
+    }
+
+    public ClassGroupSnapshot getClassGroup(long id) {
+        return classGroups.get(id);
+    }
+
+    /**
+     * @return the ids of the students of a class group, in ascending order
+     */
+    public long[] getRosterIds(long classGroupId) {
+        long[] ids = rosterIds.get(classGroupId);
+        return ids != null ? ids : NO_IDS;
+    }
+
+    public Long getClassGroupIdOfTeacher(long teacherId) {
+        return classGroupIdsByTeacher.get(teacherId);
+    }
+
+    public LongObjectIndex<StudentSnapshot> getStudents() {
+        return students;
+    }
+
+    public LongObjectIndex<TeacherSnapshot> getTeachers() {
+        return teachers;
+    }
+
+    public LongObjectIndex<ClassGroupSnapshot> getClassGroups() {
+        return classGroups;
+    }
+
+    /**
+     * Applies a committed student change.
+     *
+     * @param before the student before the change, {@code null} for inserts
+     * @param after  the student after the change, {@code null} for deletes
+     * @return the new snapshot
+     */
+    public SchoolSnapshot withStudentChange(StudentSnapshot before, StudentSnapshot after) {
+        long id = after != null ? after.getId() : before.getId();
+        StudentSnapshot current = students.get(id);
+
+        LongObjectIndex<StudentSnapshot> newStudents = after != null ? students.with(id, after) : students.without(id);
+
+        Map<String, Long> newBySsn = studentIdsBySsn;
+        String oldSsn = current != null ? current.getSsn() : null;
+        String newSsn = after != null ? after.getSsn() : null;
+        if (!Objects.equals(oldSsn, newSsn)) {
+            Map<String, Long> copy = new HashMap<>(studentIdsBySsn);
+            if (oldSsn != null) {
+                copy.remove(oldSsn);
+            }
+            if (newSsn != null) {
+                copy.put(newSsn, id);
+            }
+            newBySsn = Collections.unmodifiableMap(copy);
+        }
+
+        LongObjectIndex<long[]> newRosterIds = rosterIds;
+        Long oldClassGroupId = current != null ? current.getClassGroupId() : null;
+        Long newClassGroupId = after != null ? after.getClassGroupId() : null;
+        if (!Objects.equals(oldClassGroupId, newClassGroupId)) {
+            if (oldClassGroupId != null) {
+                newRosterIds = withoutMember(newRosterIds, oldClassGroupId, id);
+            }
+            if (newClassGroupId != null) {
+                newRosterIds = withMember(newRosterIds, newClassGroupId, id);
+            }
+        }
+
+        return new SchoolSnapshot(newStudents, teachers, classGroups, newBySsn, newRosterIds, classGroupIdsByTeacher);
+    }
+
+    /**
+     * Applies a committed teacher change.
+     *
+     * @param before the teacher before the change, {@code null} for inserts
+     * @param after  the teacher after the change, {@code null} for deletes
+     * @return the new snapshot
+     */
+    public SchoolSnapshot withTeacherChange(TeacherSnapshot before, TeacherSnapshot after) {
+        long id = after != null ? after.getId() : before.getId();
+        LongObjectIndex<TeacherSnapshot> newTeachers = after != null ? teachers.with(id, after) : teachers.without(id);
+        LongObjectIndex<Long> newByTeacher = after != null ? classGroupIdsByTeacher : classGroupIdsByTeacher.without(id);
+        return new SchoolSnapshot(students, newTeachers, classGroups, studentIdsBySsn, rosterIds, newByTeacher);
+    }
+
+    /**
+     * Applies a committed class group change.
+     *
+     * @param before the class group before the change, {@code null} for inserts
+     * @param after  the class group after the change, {@code null} for deletes
+     * @return the new snapshot
+     */
+    public SchoolSnapshot withClassGroupChange(ClassGroupSnapshot before, ClassGroupSnapshot after) {
+        long id = after != null ? after.getId() : before.getId();
+        ClassGroupSnapshot current = classGroups.get(id);
+
+        LongObjectIndex<ClassGroupSnapshot> newClassGroups = after != null
+                ? classGroups.with(id, after)
+                : classGroups.without(id);
+
+        LongObjectIndex<Long> newByTeacher = classGroupIdsByTeacher;
+        Long oldTeacherId = current != null ? current.getTeacherId() : null;
+        Long newTeacherId = after != null ? after.getTeacherId() : null;
+        if (!Objects.equals(oldTeacherId, newTeacherId)) {
+            if (oldTeacherId != null && Long.valueOf(id).equals(newByTeacher.get(oldTeacherId))) {
+                newByTeacher = newByTeacher.without(oldTeacherId);
+            }
+            if (newTeacherId != null) {
+                newByTeacher = newByTeacher.with(newTeacherId, id);
+            }
+        }
+
+        LongObjectIndex<long[]> newRosterIds = after != null ? rosterIds : rosterIds.without(id);
+
+        return new SchoolSnapshot(students, teachers, newClassGroups, studentIdsBySsn, newRosterIds, newByTeacher);
+    }
+
+    private static LongObjectIndex<long[]> withMember(LongObjectIndex<long[]> index, long classGroupId, long studentId) {
+        long[] ids = index.get(classGroupId);
+        if (ids == null) {
+            return index.with(classGroupId, new long[] {studentId});
+        }
+        int position = Arrays.binarySearch(ids, studentId);
+        if (position >= 0) {
+            return index;
+        }
+        int insertAt = -position - 1;
+        long[] newIds = new long[ids.length + 1];
+        System.arraycopy(ids, 0, newIds, 0, insertAt);
+        newIds[insertAt] = studentId;
+        System.arraycopy(ids, insertAt, newIds, insertAt + 1, ids.length - insertAt);
+        return index.with(classGroupId, newIds);
+    }
+
+    private static LongObjectIndex<long[]> withoutMember(LongObjectIndex<long[]> index, long classGroupId, long studentId) {
+        long[] ids = index.get(classGroupId);
+        if (ids == null) {
+            return index;
+        }
+        int position = Arrays.binarySearch(ids, studentId);
+        if (position < 0) {
+            return index;
+        }
+        if (ids.length == 1) {
+            return index.without(classGroupId);
+        }
+        long[] newIds = new long[ids.length - 1];
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(ids, position + 1, newIds, position, ids.length - position - 1);
+        return index.with(classGroupId, newIds);
+    }
+
+    private static long[] concat(long[] ids, long[] more) {
+        long[] result = Arrays.copyOf(ids, ids.length + more.length);
+        System.arraycopy(more, 0, result, ids.length, more.length);
+        return result;
+    }
+}
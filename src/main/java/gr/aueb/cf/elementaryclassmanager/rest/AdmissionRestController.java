@@ -0,0 +1,36 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import gr.aueb.cf.elementaryclassmanager.admission.AdmissionController;
+import gr.aueb.cf.elementaryclassmanager.dto.admissionDTO.AdmissionRouteReadOnlyDTO;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the state of the admission layer.
+ * Provides the current concurrency limit, in-flight and waiting requests, and the
+ * admitted/rejected counters of every route.
+ */
+@Path("/admission")
+public class AdmissionRestController {
+
+    @Inject
+    private AdmissionController admissionController;
+
+    /**
+     * Retrieves the admission metrics of all routes.
+     *
+     * @return a Response containing one entry per route
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getAdmissionMetrics() {
+        List<AdmissionRouteReadOnlyDTO> routes = admissionController.getSnapshots();
+        return Response.ok().entity(routes).build();
+    }
+}
@@ -0,0 +1,45 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import gr.aueb.cf.elementaryclassmanager.dto.auditDTO.AuditPageReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.service.IAuditService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST controller for the audit trail.
+ * Provides a paginated view of who changed which student, teacher or class group, and how.
+ */
+@Path("/audit")
+public class AuditRestController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    @Inject
+    private IAuditService auditService;
+
+    /**
+     * Retrieves audit entries, newest first.
+     *
+     * @param entityType the entity type to filter by ({@code Student}, {@code Teacher} or {@code ClassGroup})
+     * @param entityId   the entity ID to filter by
+     * @param page       the zero-based page number
+     * @param size       the page size, at most 200
+     * @return a Response containing the requested page
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getAuditEntries(@QueryParam("entityType") String entityType,
+                                    @QueryParam("entityId") Long entityId,
+                                    @QueryParam("page") @DefaultValue("0") int page,
+                                    @QueryParam("size") @DefaultValue("50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE)
+                    .build();
+        }
+        AuditPageReadOnlyDTO auditPage = auditService.getAuditEntries(entityType, entityId, page, size);
+        return Response.ok().entity(auditPage).build();
+    }
+}
@@ -0,0 +1,55 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The request of one batch operation. A batch operation has no headers of its own, and those of
+ * the batch request are not meant for it, so every precondition holds and no variant is selected.
+ */
+class BatchItemRequest implements Request {
+
+    private final String method;
+
+    /**
+     * @param method the HTTP method of the operation
+     */
+    BatchItemRequest(String method) {
+        this.method = method;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public Variant selectVariant(List<Variant> variants) {
+        return null;
+    }
+
+    @Override
+    public Response.ResponseBuilder evaluatePreconditions(EntityTag eTag) {
+        return null;
+    }
+
+    @Override
+    public Response.ResponseBuilder evaluatePreconditions(Date lastModified) {
+        return null;
+    }
+
+    @Override
+    public Response.ResponseBuilder evaluatePreconditions(Date lastModified, EntityTag eTag) {
+        return null;
+    }
+
+    @Override
+    public Response.ResponseBuilder evaluatePreconditions() {
+        return null;
+    }
+}
@@ -0,0 +1,156 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.PathSegment;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+import org.glassfish.jersey.uri.UriComponent;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * URI information of one batch operation, so that controllers build links against the
+ * operation's own path rather than the batch endpoint. Matching information is not available,
+ * since batch operations are routed by {@link BatchOperations} and not by Jersey.
+ */
+class BatchItemUriInfo implements UriInfo {
+
+    private final URI baseUri;
+    private final URI requestUri;
+
+    /**
+     * @param baseUri      the base URI of the application
+     * @param relativePath the operation path relative to the base URI, query included
+     */
+    BatchItemUriInfo(URI baseUri, String relativePath) {
+        this.baseUri = baseUri;
+        this.requestUri = UriBuilder.fromUri(baseUri).path(rawPath(relativePath))
+                .replaceQuery(rawQuery(relativePath)).build();
+    }
+
+    @Override
+    public String getPath() {
+        return getPath(true);
+    }
+
+    @Override
+    public String getPath(boolean decode) {
+        String path = baseUri.relativize(requestUri).getRawPath();
+        return decode ? decode(path) : path;
+    }
+
+    @Override
+    public List<PathSegment> getPathSegments() {
+        return getPathSegments(true);
+    }
+
+    @Override
+    public List<PathSegment> getPathSegments(boolean decode) {
+        return UriComponent.decodePath(getPath(false), decode);
+    }
+
+    @Override
+    public URI getRequestUri() {
+        return requestUri;
+    }
+
+    @Override
+    public UriBuilder getRequestUriBuilder() {
+        return UriBuilder.fromUri(requestUri);
+    }
+
+    @Override
+    public URI getAbsolutePath() {
+        return getAbsolutePathBuilder().build();
+    }
+
+    @Override
+    public UriBuilder getAbsolutePathBuilder() {
+        return UriBuilder.fromUri(requestUri).replaceQuery(null);
+    }
+
+    @Override
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    @Override
+    public UriBuilder getBaseUriBuilder() {
+        return UriBuilder.fromUri(baseUri);
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getPathParameters() {
+        return getPathParameters(true);
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getPathParameters(boolean decode) {
+        return new MultivaluedHashMap<>();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getQueryParameters() {
+        return getQueryParameters(true);
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getQueryParameters(boolean decode) {
+        MultivaluedMap<String, String> parameters = new MultivaluedHashMap<>();
+        String query = requestUri.getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator >= 0 ? pair.substring(0, separator) : pair;
+            String value = separator >= 0 ? pair.substring(separator + 1) : "";
+            parameters.add(decode ? decode(name) : name, decode ? decode(value) : value);
+        }
+        return parameters;
+    }
+
+    @Override
+    public List<String> getMatchedURIs() {
+        return getMatchedURIs(true);
+    }
+
+    @Override
+    public List<String> getMatchedURIs(boolean decode) {
+        return List.of();
+    }
+
+    @Override
+    public List<Object> getMatchedResources() {
+        return List.of();
+    }
+
+    @Override
+    public URI resolve(URI uri) {
+        return baseUri.resolve(uri);
+    }
+
+    @Override
+    public URI relativize(URI uri) {
+        URI absolute = uri.isAbsolute() ? uri : resolve(uri);
+        return requestUri.relativize(absolute);
+    }
+
+    private static String rawPath(String relativePath) {
+        int query = relativePath.indexOf('?');
+        return query >= 0 ? relativePath.substring(0, query) : relativePath;
+    }
+
+    private static String rawQuery(String relativePath) {
+        int query = relativePath.indexOf('?');
+        return query >= 0 ? relativePath.substring(query + 1) : null;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,208 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.elementaryclassmanager.dto.batchDTO.BatchOperationDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupInsertDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherReassignmentDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentInsertDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherInsertDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.problem.JsonProblems;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Routes batch operations onto the controller methods of the resources they name, so that an
+ * operation behaves exactly like the equivalent single request: same validation, same service
+ * call, same status codes. Exceptions a controller method throws are turned into responses by the
+ * same exception mappers as for single requests. Conditional headers do not apply to batch operations.
+ */
+final class BatchOperations {
+
+    private static final String ID = "(\\d+)";
+
+    private static final List<Route> ROUTES = List.of(
+            new Route("POST", "/students", call -> call.resource(StudentRestController.class)
+                    .addStudent(call.body(StudentInsertDTO.class), call.uriInfo())),
+            new Route("PUT", "/students/" + ID, call -> call.resource(StudentRestController.class)
+                    .updateStudent(call.id(1), call.body(StudentUpdateDTO.class), null, call.request())),
+            new Route("DELETE", "/students/" + ID, call -> call.resource(StudentRestController.class)
+                    .deleteStudent(call.id(1))),
+            new Route("GET", "/students/" + ID, call -> call.resource(StudentRestController.class)
+                    .getStudentsById(call.id(1), call.query("fields"), call.request())),
+            new Route("GET", "/students", call -> call.resource(StudentRestController.class)
+                    .getStudentsByLastname(call.query("lastname"), call.query("fields"))),
+            new Route("GET", "/students/ssn/([^/]+)", call -> call.resource(StudentRestController.class)
+                    .getStudentsBySsn(call.segment(1), call.query("fields"))),
+
+            new Route("POST", "/teachers", call -> call.resource(TeacherRestController.class)
+                    .addTeacher(call.body(TeacherInsertDTO.class), call.uriInfo())),
+            new Route("PUT", "/teachers/" + ID, call -> call.resource(TeacherRestController.class)
+                    .updateTeacher(call.id(1), call.body(TeacherUpdateDTO.class), null, call.request())),
+            new Route("DELETE", "/teachers/" + ID, call -> call.resource(TeacherRestController.class)
+                    .deleteTeacher(call.id(1))),
+            new Route("GET", "/teachers/" + ID, call -> call.resource(TeacherRestController.class)
+                    .getTeacherById(call.id(1), call.query("fields"), call.request())),
+            new Route("GET", "/teachers", call -> call.resource(TeacherRestController.class)
+                    .getTeachersByLastname(call.query("lastname"), call.query("fields"))),
+
+            new Route("POST", "/classgroups", call -> call.resource(ClassGroupRestController.class)
+                    .addClassGroup(call.body(ClassGroupInsertDTO.class), call.uriInfo())),
+            new Route("PUT", "/classgroups/teachers", call -> call.resource(ClassGroupRestController.class)
+                    .reassignTeachers(call.body(TeacherReassignmentDTO.class))),
+            new Route("PUT", "/classgroups/" + ID, call -> call.resource(ClassGroupRestController.class)
+                    .updateClassGroup(call.id(1), call.body(ClassGroupUpdateDTO.class))),
+            new Route("DELETE", "/classgroups/" + ID, call -> call.resource(ClassGroupRestController.class)
+                    .deleteClassGroup(call.id(1), call.flag("async"), call.uriInfo())),
+            new Route("GET", "/classgroups/" + ID + "/students", call -> call.resource(ClassGroupRestController.class)
+                    .getStudentsByClassGroupId(call.id(1), call.query("fields"), call.request())),
+            new Route("PUT", "/classgroups/" + ID + "/assign-student/" + ID, call -> call.resource(ClassGroupRestController.class)
+                    .assignStudentToClassGroup(call.id(1), call.id(2))),
+            new Route("PUT", "/classgroups/" + ID + "/assign-teacher/" + ID, call -> call.resource(ClassGroupRestController.class)
+                    .assignTeacherToClassGroup(call.id(1), call.id(2))),
+            new Route("PUT", "/classgroups/" + ID + "/increment-grade", call -> call.resource(ClassGroupRestController.class)
+                    .incrementGradeForClassGroup(call.id(1), call.flag("async"), call.uriInfo()))
+    );
+
+    private BatchOperations() {
+
+    }
+
+    /**
+     * Runs one batch operation through the matching controller method.
+     *
+     * @param operation       the operation
+     * @param resourceContext creates the controller instances
+     * @param baseUri         the base URI of the application
+     * @param mapper          converts the operation body to the controller's DTO
+     * @param errors          turns an exception thrown by the controller method into its response
+     * @return the controller's response, 404 for an unknown path, 405 for an unsupported method
+     * or 400 for a body that does not fit the DTO
+     */
+    static Response execute(BatchOperationDTO operation, ResourceContext resourceContext, URI baseUri,
+                            ObjectMapper mapper, Function<Exception, Response> errors) {
+        String path = operation.getPath().startsWith("/") ? operation.getPath() : "/" + operation.getPath();
+        BatchItemUriInfo uriInfo = new BatchItemUriInfo(baseUri, path);
+        Request request = new BatchItemRequest(operation.getMethod());
+        String rawPath = "/" + baseUri.relativize(uriInfo.getAbsolutePath()).getRawPath();
+
+        boolean pathKnown = false;
+        for (Route route : ROUTES) {
+            Matcher matcher = route.pattern.matcher(rawPath);
+            if (!matcher.matches()) {
+                continue;
+            }
+            pathKnown = true;
+            if (route.method.equals(operation.getMethod())) {
+                try {
+                    return route.handler.handle(new Call(matcher, operation.getBody(), resourceContext, uriInfo, request, mapper));
+                } catch (BadRequestException e) {
+                    return e.getResponse().hasEntity()
+                            ? e.getResponse()
+                            : Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+                } catch (Exception e) {
+                    return errors.apply(e);
+                }
+            }
+        }
+        return pathKnown
+                ? Response.status(Response.Status.METHOD_NOT_ALLOWED).build()
+                : Response.status(Response.Status.NOT_FOUND).entity("No batch operation for " + rawPath).build();
+    }
+
+    private static final class Route {
+
+        private final String method;
+        private final Pattern pattern;
+        private final Handler handler;
+
+        private Route(String method, String pathPattern, Handler handler) {
+            this.method = method;
+            this.pattern = Pattern.compile(pathPattern);
+            this.handler = handler;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        Response handle(Call call) throws Exception;
+    }
+
+    /**
+     * The inputs of one routed operation, converted on demand to controller arguments.
+     */
+    private static final class Call {
+
+        private final Matcher matcher;
+        private final JsonNode body;
+        private final ResourceContext resourceContext;
+        private final UriInfo uriInfo;
+        private final Request request;
+        private final ObjectMapper mapper;
+
+        private Call(Matcher matcher, JsonNode body, ResourceContext resourceContext, UriInfo uriInfo,
+                     Request request, ObjectMapper mapper) {
+            this.matcher = matcher;
+            this.body = body;
+            this.resourceContext = resourceContext;
+            this.uriInfo = uriInfo;
+            this.request = request;
+            this.mapper = mapper;
+        }
+
+        <T> T resource(Class<T> controllerClass) {
+            return resourceContext.getResource(controllerClass);
+        }
+
+        Long id(int group) {
+            return Long.valueOf(matcher.group(group));
+        }
+
+        String segment(int group) {
+            return URLDecoder.decode(matcher.group(group), StandardCharsets.UTF_8);
+        }
+
+        String query(String name) {
+            return uriInfo.getQueryParameters().getFirst(name);
+        }
+
+        boolean flag(String name) {
+            return Boolean.parseBoolean(query(name));
+        }
+
+        <T> T body(Class<T> type) {
+            if (body == null || body.isNull()) {
+                throw new BadRequestException("Body should not be empty");
+            }
+            try {
+                return mapper.treeToValue(body, type);
+            } catch (JsonProcessingException e) {
+                throw new BadRequestException(JsonProblems.toResponse(e), e);
+            }
+        }
+
+        UriInfo uriInfo() {
+            return uriInfo;
+        }
+
+        Request request() {
+            return request;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.elementaryclassmanager.dto.batchDTO.BatchItemResultReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.batchDTO.BatchOperationDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.batchDTO.BatchRequestDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.batchDTO.BatchResultReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.serialization.BinaryMediaTypes;
+import gr.aueb.cf.elementaryclassmanager.serialization.ObjectMapperProvider;
+import gr.aueb.cf.elementaryclassmanager.service.IBatchService;
+import gr.aueb.cf.elementaryclassmanager.validator.ValidatorUtil;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Providers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for running several operations in one round trip.
+ * Each operation names a method and a path of the other controllers, relative to the API root,
+ * and is executed by the same controller method as the equivalent single request.
+ */
+@Path("/batch")
+public class BatchRestController {
+
+    private static final int NOT_EXECUTED = 424;
+
+    @Inject
+    private IBatchService batchService;
+
+    @Inject
+    private ObjectMapperProvider objectMapperProvider;
+
+    @Context
+    private ResourceContext resourceContext;
+
+    @Context
+    private Providers providers;
+
+    /**
+     * Executes the operations of a batch in order.
+     * Atomic batches run in one transaction and stop at the first operation that fails; nothing
+     * is committed then, and the operations after it are reported as not executed (424).
+     * An atomic batch whose commit fails after every operation succeeded is answered with the
+     * problem of the failed commit instead, e.g. 409 for a concurrent change.
+     * Otherwise every operation commits on its own and the batch goes on after failures.
+     * Validation errors are keyed by the invalid field, e.g. {@code operations[2].method}.
+     *
+     * @param dto     the operations and the execution mode
+     * @param uriInfo the URI info used to resolve the operation paths
+     * @return a Response containing the status and body of every operation
+     */
+    @POST
+    @Consumes({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response executeBatch(BatchRequestDTO dto, @Context UriInfo uriInfo) {
+        Map<String, List<String>> errors = ValidatorUtil.validateFields(dto);
+
+        if (!errors.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(errors).build();
+        }
+
+        List<BatchItemResultReadOnlyDTO> results = new ArrayList<>(dto.getOperations().size());
+        boolean committed;
+        if (dto.isAtomic()) {
+            committed = batchService.runInOneTransaction(() -> {
+                for (BatchOperationDTO operation : dto.getOperations()) {
+                    BatchItemResultReadOnlyDTO result = execute(operation, uriInfo);
+                    results.add(result);
+                    if (result.getStatus() >= 400) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            while (results.size() < dto.getOperations().size()) {
+                results.add(new BatchItemResultReadOnlyDTO(NOT_EXECUTED, null, "Not executed, an earlier operation failed"));
+            }
+        } else {
+            for (BatchOperationDTO operation : dto.getOperations()) {
+                results.add(execute(operation, uriInfo));
+            }
+            committed = true;
+        }
+        return Response.ok().entity(new BatchResultReadOnlyDTO(dto.isAtomic(), committed, results)).build();
+    }
+
+    private BatchItemResultReadOnlyDTO execute(BatchOperationDTO operation, UriInfo uriInfo) {
+        ObjectMapper mapper = objectMapperProvider.getObjectMapper();
+        Response response;
+        try {
+            response = BatchOperations.execute(operation, resourceContext, uriInfo.getBaseUri(), mapper,
+                    this::toResponse);
+        } catch (IllegalArgumentException e) {
+            return new BatchItemResultReadOnlyDTO(Response.Status.BAD_REQUEST.getStatusCode(), null,
+                    "Invalid path " + operation.getPath());
+        }
+
+        Object body = response.getEntity();
+        if (body instanceof byte[]) {
+            // pre-serialized JSON, such as a cached roster
+            try {
+                body = mapper.readTree((byte[]) body);
+            } catch (IOException e) {
+                return new BatchItemResultReadOnlyDTO(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), null,
+                        e.getMessage());
+            }
+        }
+        String location = response.getLocation() != null ? response.getLocation().toString() : null;
+        return new BatchItemResultReadOnlyDTO(response.getStatus(), location, body);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> Response toResponse(E exception) {
+        ExceptionMapper<E> exceptionMapper = providers.getExceptionMapper((Class<E>) exception.getClass());
+        return exceptionMapper.toResponse(exception);
+    }
+}
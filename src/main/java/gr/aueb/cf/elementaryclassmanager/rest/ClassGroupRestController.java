@@ -1,17 +1,34 @@
 package gr.aueb.cf.elementaryclassmanager.rest;
 
+import gr.aueb.cf.elementaryclassmanager.admission.Admission;
+import gr.aueb.cf.elementaryclassmanager.admission.AdmissionPriority;
+import gr.aueb.cf.elementaryclassmanager.diagnostics.StatementBudget;
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupReadOnlyDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupUpdateDTO;
-import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherReassignmentDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherReassignmentReportReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.jobDTO.JobReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentFields;
+import gr.aueb.cf.elementaryclassmanager.jobs.DeleteClassGroupJobHandler;
+import gr.aueb.cf.elementaryclassmanager.jobs.IncrementGradeJobHandler;
+import gr.aueb.cf.elementaryclassmanager.notification.RosterNotificationHub;
+import gr.aueb.cf.elementaryclassmanager.serialization.BinaryMediaTypes;
 import gr.aueb.cf.elementaryclassmanager.service.IClassGroupService;
-import gr.aueb.cf.elementaryclassmanager.service.exceptions.*;
+import gr.aueb.cf.elementaryclassmanager.service.IJobService;
+import gr.aueb.cf.elementaryclassmanager.service.cache.RosterSnapshot;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.StudentGradeDoesNotMatchClassGroup;
 import gr.aueb.cf.elementaryclassmanager.validator.ValidatorUtil;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for managing class groups.
@@ -24,6 +41,12 @@ public class ClassGroupRestController {
     @Inject
     private IClassGroupService classGroupService;
 
+    @Inject
+    private IJobService jobService;
+
+    @Inject
+    private RosterNotificationHub notificationHub;
+
     /**
      * Adds a new class group.
      *
@@ -32,23 +55,19 @@ public class ClassGroupRestController {
      * @return a Response containing the created class group or an error message.
      */
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
     public Response addClassGroup(ClassGroupInsertDTO dto, @Context UriInfo uriInfo) {
         List<String> errors = ValidatorUtil.validateDTO(dto);
 
         if (!errors.isEmpty()) {
             return Response.status(Response.Status.BAD_REQUEST).entity(errors).build();
         }
-        try {
-            ClassGroupReadOnlyDTO readOnlyDTO = classGroupService.insertClassGroup(dto);
-            UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder().path(Long.toString(readOnlyDTO.getId()));
-            return Response.created(uriBuilder.build())
-                    .entity(readOnlyDTO)
-                    .build();
-        } catch (ClassGroupAlreadyExists e) {
-            return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).build();
-        }
+        ClassGroupReadOnlyDTO readOnlyDTO = classGroupService.insertClassGroup(dto);
+        UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder().path(Long.toString(readOnlyDTO.getId()));
+        return Response.created(uriBuilder.build())
+                .entity(readOnlyDTO)
+                .build();
     }
 
     /**
@@ -60,9 +79,9 @@ public class ClassGroupRestController {
      */
     @Path("/{id}")
     @PUT
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response updateClassGroup(@PathParam("id") Long id, ClassGroupUpdateDTO dto) {
+    @Consumes({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response updateClassGroup(@PathParam("id") Long id, ClassGroupUpdateDTO dto) throws EntityNotFoundException {
         List<String> errors = ValidatorUtil.validateDTO(dto);
 
         if (!errors.isEmpty()) {
@@ -71,53 +90,136 @@ public class ClassGroupRestController {
 
         dto.setId(id);
 
-        try {
-            ClassGroupReadOnlyDTO readOnlyDTO = classGroupService.updateClassGroup(dto);
-            return Response.ok().entity(readOnlyDTO).build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+        ClassGroupReadOnlyDTO readOnlyDTO = classGroupService.updateClassGroup(dto);
+        return Response.ok().entity(readOnlyDTO).build();
     }
 
     /**
      * Deletes an existing class group by its ID.
+     * With {@code async=true} the deletion runs as a background job and 202 is returned at once.
      *
-     * @param id the ID of the class group to delete.
-     * @return a Response containing the deleted class group or an error message.
+     * @param id      the ID of the class group to delete.
+     * @param async   whether to run the deletion as a background job.
+     * @param uriInfo the URI info used to link to the job.
+     * @return a Response containing the deleted class group, the queued job or an error message.
      */
     @Path("/{id}")
     @DELETE
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response deleteClassGroup(@PathParam("id") Long id) {
-        try {
-            ClassGroupReadOnlyDTO readOnlyDTO = classGroupService.getClassGroupById(id);
-            classGroupService.deleteClassGroup(readOnlyDTO.getId());
-            return Response.ok().entity(readOnlyDTO).build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response deleteClassGroup(@PathParam("id") Long id,
+                                     @QueryParam("async") @DefaultValue("false") boolean async,
+                                     @Context UriInfo uriInfo) throws EntityNotFoundException {
+        if (async) {
+            JobReadOnlyDTO job = jobService.submitJob(DeleteClassGroupJobHandler.TYPE, id);
+            return JobRestController.accepted(job, uriInfo);
         }
+        ClassGroupReadOnlyDTO readOnlyDTO = classGroupService.getClassGroupById(id);
+        classGroupService.deleteClassGroup(readOnlyDTO.getId());
+        return Response.ok().entity(readOnlyDTO).build();
+    }
+
+    /**
+     * Streams the roster changes of the whole school as Server-Sent Events.
+     * A reconnecting client gets the changes it missed since its {@code Last-Event-ID}.
+     *
+     * @param lastEventId the ID of the last event the client received, if reconnecting.
+     * @param sink        the event stream of the client.
+     * @param sse         the SSE context used to build the events.
+     */
+    @Path("/events")
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamSchoolEvents(@HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+                                   @Context SseEventSink sink, @Context Sse sse) {
+        notificationHub.subscribe(sse, sink, null, lastEventId);
+    }
+
+    /**
+     * Streams the roster changes of a specific class group as Server-Sent Events.
+     * A reconnecting client gets the changes it missed since its {@code Last-Event-ID}.
+     *
+     * @param classGroupId the ID of the class group.
+     * @param lastEventId  the ID of the last event the client received, if reconnecting.
+     * @param sink         the event stream of the client.
+     * @param sse          the SSE context used to build the events.
+     */
+    @Path("/{classGroupId}/events")
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamClassGroupEvents(@PathParam("classGroupId") Long classGroupId,
+                                       @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+                                       @Context SseEventSink sink, @Context Sse sse) throws EntityNotFoundException {
+        classGroupService.getClassGroupById(classGroupId);
+        notificationHub.subscribe(sse, sink, classGroupId, lastEventId);
     }
 
     /**
      * Retrieves all students in a specific class group by the class group ID.
+     * The roster is written from its cached, pre-serialized snapshot. The roster version is the
+     * {@code ETag} of the JSON roster, so a matching {@code If-None-Match} is answered with 304 without any lookup.
+     * With {@code fields} only the listed fields are selected, bypassing the cached snapshot.
      *
      * @param classGroupId the ID of the class group.
+     * @param fields       the comma separated fields to return, or {@code null} for all of them.
+     * @param request      the request used to evaluate the preconditions.
      * @return a Response containing the list of students or an error message.
      */
     @Path("/{classGroupId}/students")
     @GET
+    @StatementBudget(2)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getStudentsByClassGroupId(@PathParam("classGroupId") Long classGroupId) {
-        try {
-            List<StudentReadOnlyDTO> students = classGroupService.getStudentsByClassGroupId(classGroupId);
-            return Response.ok().entity(students).build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+    public Response getStudentsByClassGroupId(@PathParam("classGroupId") Long classGroupId, @QueryParam("fields") String fields,
+                                              @Context Request request) throws EntityNotFoundException {
+        String rosterTag = classGroupService.getRosterTag(classGroupId);
+        Response.ResponseBuilder notModified = ConditionalRequests.evaluate(request, rosterTag);
+        if (notModified != null) {
+            return notModified.build();
         }
+        if (fields != null) {
+            List<Map<String, Object>> students = classGroupService.getStudentsByClassGroupId(classGroupId,
+                    FieldSelection.parse(fields, StudentFields.ALL));
+            return ConditionalRequests.varyOnAccept(Response.ok().entity(students)
+                    .tag(ConditionalRequests.representationTag(rosterTag, request))).build();
+        }
+        RosterSnapshot roster = classGroupService.getRosterSnapshot(classGroupId);
+        return ConditionalRequests.varyOnAccept(Response.ok(roster.getJson(), MediaType.APPLICATION_JSON_TYPE)
+                .tag(new EntityTag(roster.getTag()))).build();
+    }
+
+    /**
+     * Retrieves all students in a specific class group in a binary encoding.
+     * The cached roster snapshot is JSON, so the students are loaded and encoded per request;
+     * the {@code ETag} is the roster version with the format appended. The binary types are ranked below JSON, so
+     * clients that accept anything keep getting the cached JSON roster.
+     *
+     * @param classGroupId the ID of the class group.
+     * @param fields       the comma separated fields to return, or {@code null} for all of them.
+     * @param request      the request used to evaluate the preconditions.
+     * @return a Response containing the list of students or an error message.
+     */
+    @Path("/{classGroupId}/students")
+    @GET
+    @Produces({BinaryMediaTypes.APPLICATION_CBOR + ";qs=0.9", BinaryMediaTypes.APPLICATION_SMILE + ";qs=0.9"})
+    @StatementBudget(2)
+    public Response getStudentsByClassGroupIdBinary(@PathParam("classGroupId") Long classGroupId,
+                                                    @QueryParam("fields") String fields, @Context Request request)
+            throws EntityNotFoundException {
+        String rosterTag = classGroupService.getRosterTag(classGroupId);
+        Response.ResponseBuilder notModified = ConditionalRequests.evaluate(request, rosterTag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        List<?> students = fields == null
+                ? classGroupService.getStudentsByClassGroupId(classGroupId)
+                : classGroupService.getStudentsByClassGroupId(classGroupId, FieldSelection.parse(fields, StudentFields.ALL));
+        return ConditionalRequests.varyOnAccept(Response.ok().entity(students)
+                .tag(ConditionalRequests.representationTag(rosterTag, request))).build();
     }
 
     /**
      * Assigns a student to a class group.
+     * An unknown student or class group is answered with 404, a full class group or a student of
+     * another grade with 409.
      *
      * @param classGroupId the ID of the class group.
      * @param studentId    the ID of the student to assign.
@@ -125,13 +227,11 @@ public class ClassGroupRestController {
      */
     @Path("/{classGroupId}/assign-student/{studentId}")
     @PUT
-    public Response assignStudentToClassGroup(@PathParam("classGroupId") Long classGroupId, @PathParam("studentId") Long studentId) {
-        try {
-            classGroupService.assignStudentToClassGroup(studentId, classGroupId);
-            return Response.noContent().build();
-        } catch (EntityNotFoundException | ClassGroupFullException | StudentGradeDoesNotMatchClassGroup e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+    @StatementBudget(4)
+    public Response assignStudentToClassGroup(@PathParam("classGroupId") Long classGroupId, @PathParam("studentId") Long studentId)
+            throws EntityNotFoundException, StudentGradeDoesNotMatchClassGroup {
+        classGroupService.assignStudentToClassGroup(studentId, classGroupId);
+        return Response.noContent().build();
     }
 
     /**
@@ -143,30 +243,57 @@ public class ClassGroupRestController {
      */
     @Path("/{classGroupId}/assign-teacher/{teacherId}")
     @PUT
-    public Response assignTeacherToClassGroup(@PathParam("classGroupId") Long classGroupId, @PathParam("teacherId") Long teacherId) {
-        try {
-            classGroupService.assignTeacherToClassGroup(teacherId, classGroupId);
-            return Response.noContent().build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+    public Response assignTeacherToClassGroup(@PathParam("classGroupId") Long classGroupId, @PathParam("teacherId") Long teacherId)
+            throws EntityNotFoundException {
+        classGroupService.assignTeacherToClassGroup(teacherId, classGroupId);
+        return Response.noContent().build();
+    }
+
+    /**
+     * Applies a full teacher to class group mapping, swaps included, in one transaction.
+     * Validation errors are keyed by the invalid field, e.g. {@code assignments[3].classGroupId}.
+     *
+     * @param dto the assignments to apply.
+     * @return a Response containing the reassignment report or an error message.
+     */
+    @Path("/teachers")
+    @PUT
+    @Consumes({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response reassignTeachers(TeacherReassignmentDTO dto) throws EntityNotFoundException {
+        Map<String, List<String>> errors = ValidatorUtil.validateFields(dto);
+        if (errors.isEmpty()) {
+            errors = ValidatorUtil.validateEach("assignments", dto.getAssignments());
+        }
+
+        if (!errors.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(errors).build();
         }
+        TeacherReassignmentReportReadOnlyDTO report = classGroupService.reassignTeachers(dto);
+        return Response.ok().entity(report).build();
     }
 
     /**
      * Increments the grade for all students in a specific class group.
+     * With {@code async=true} the increment runs as a background job and 202 is returned at once.
      *
      * @param classGroupId the ID of the class group.
+     * @param async        whether to run the increment as a background job.
+     * @param uriInfo      the URI info used to link to the job.
      * @return a Response indicating the outcome of the operation.
      */
     @Path("/{classGroupId}/increment-grade")
     @PUT
-    public Response incrementGradeForClassGroup(@PathParam("classGroupId") Long classGroupId) {
-        try {
-            classGroupService.incrementGradeForClassGroup(classGroupId);
-            return Response.noContent().build();
-        } catch (EntityNotFoundException | GradeIncrementNotAllowedException e) {
-            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+    @Admission(AdmissionPriority.BULK)
+    public Response incrementGradeForClassGroup(@PathParam("classGroupId") Long classGroupId,
+                                                @QueryParam("async") @DefaultValue("false") boolean async,
+                                                @Context UriInfo uriInfo) throws EntityNotFoundException {
+        if (async) {
+            JobReadOnlyDTO job = jobService.submitJob(IncrementGradeJobHandler.TYPE, classGroupId);
+            return JobRestController.accepted(job, uriInfo);
         }
+        classGroupService.incrementGradeForClassGroup(classGroupId);
+        return Response.noContent().build();
     }
 
 }
@@ -0,0 +1,114 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
+import gr.aueb.cf.elementaryclassmanager.serialization.BinaryMediaTypes;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Helpers for conditional requests driven by entity versions.
+ * The entity version is the {@code ETag}, the modification time (to the second, as HTTP dates go)
+ * is the {@code Last-Modified} date.
+ * <p>
+ * The resources are served as JSON, CBOR or Smile, as negotiated with {@code Accept}. Each format
+ * is a representation of its own with a strong tag of its own: JSON gets the plain version, the
+ * binary formats the version with the format appended, e.g. {@code "3-cbor"}. The responses vary
+ * on {@code Accept}, so that caches keep the formats apart.
+ */
+final class ConditionalRequests {
+
+    /**
+     * The formats of the resources, JSON first as the one chosen when the client accepts any.
+     */
+    private static final List<Variant> VARIANTS = Variant.mediaTypes(MediaType.APPLICATION_JSON_TYPE,
+            BinaryMediaTypes.APPLICATION_CBOR_TYPE, BinaryMediaTypes.APPLICATION_SMILE_TYPE).build();
+
+    private ConditionalRequests() {
+
+    }
+
+    static EntityTag entityTag(EntityVersion version, Request request) {
+        return representationTag(Long.toString(version.getVersion()), request);
+    }
+
+    /**
+     * @param tag     the tag of the resource state, e.g. its version
+     * @param request the current request, whose {@code Accept} header selects the format
+     * @return the tag of the representation served for the request
+     */
+    static EntityTag representationTag(String tag, Request request) {
+        Variant variant = request.selectVariant(VARIANTS);
+        MediaType mediaType = variant != null ? variant.getMediaType() : MediaType.APPLICATION_JSON_TYPE;
+        if (BinaryMediaTypes.APPLICATION_CBOR_TYPE.isCompatible(mediaType)) {
+            return new EntityTag(tag + "-cbor");
+        }
+        if (BinaryMediaTypes.APPLICATION_SMILE_TYPE.isCompatible(mediaType)) {
+            return new EntityTag(tag + "-smile");
+        }
+        return new EntityTag(tag);
+    }
+
+    /**
+     * Evaluates the preconditions of a request against the tag of its representation.
+     *
+     * @param request the current request
+     * @param tag     the tag of the resource state
+     * @return a builder for the 304 or 412 response, or {@code null} if the request should proceed
+     */
+    static Response.ResponseBuilder evaluate(Request request, String tag) {
+        Response.ResponseBuilder failed = request.evaluatePreconditions(representationTag(tag, request));
+        return failed != null ? varyOnAccept(failed) : null;
+    }
+
+    /**
+     * Evaluates {@code If-Match}, {@code If-None-Match} and their date counterparts.
+     *
+     * @param request the current request
+     * @param version the current version of the resource
+     * @return a builder for the 304 or 412 response, or {@code null} if the request should proceed
+     */
+    static Response.ResponseBuilder evaluate(Request request, EntityVersion version) {
+        Date lastModified = lastModified(version);
+        Response.ResponseBuilder failed = lastModified != null
+                ? request.evaluatePreconditions(lastModified, entityTag(version, request))
+                : request.evaluatePreconditions(entityTag(version, request));
+        return failed != null ? varyOnAccept(failed) : null;
+    }
+
+    /**
+     * Adds the {@code ETag} and {@code Last-Modified} headers of a version to a response.
+     */
+    static Response.ResponseBuilder withValidators(Response.ResponseBuilder builder, EntityVersion version,
+                                                   Request request) {
+        return varyOnAccept(builder.tag(entityTag(version, request)).lastModified(lastModified(version)));
+    }
+
+    /**
+     * Marks a response as depending on the {@code Accept} header.
+     */
+    static Response.ResponseBuilder varyOnAccept(Response.ResponseBuilder builder) {
+        return builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * @return the version to check inside the update transaction, or {@code null} when the request
+     * carries no {@code If-Match} header or matches any version
+     */
+    static Long expectedVersion(String ifMatch, EntityVersion version) {
+        return ifMatch != null && !"*".equals(ifMatch.trim()) ? version.getVersion() : null;
+    }
+
+    private static Date lastModified(EntityVersion version) {
+        return version.getUpdatedAt() != null
+                ? Date.from(version.getUpdatedAt().truncatedTo(ChronoUnit.SECONDS))
+                : null;
+    }
+}
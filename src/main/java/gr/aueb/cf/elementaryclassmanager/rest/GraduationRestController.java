@@ -0,0 +1,51 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import gr.aueb.cf.elementaryclassmanager.admission.Admission;
+import gr.aueb.cf.elementaryclassmanager.admission.AdmissionPriority;
+import gr.aueb.cf.elementaryclassmanager.dto.graduationDTO.GraduationReportReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.jobDTO.JobReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.jobs.GraduationJobHandler;
+import gr.aueb.cf.elementaryclassmanager.service.IGraduationService;
+import gr.aueb.cf.elementaryclassmanager.service.IJobService;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+/**
+ * REST controller for the graduation pipeline, which moves archived students out of the
+ * hot students table into the archive.
+ */
+@Path("/graduation")
+public class GraduationRestController {
+
+    @Inject
+    private IGraduationService graduationService;
+
+    @Inject
+    private IJobService jobService;
+
+    /**
+     * Moves all archived students to the archive.
+     * With {@code async=true} the move runs as a background job and 202 is returned at once.
+     *
+     * @param async   whether to run the move as a background job
+     * @param uriInfo the URI info used to link to the job
+     * @return a Response containing the number of students moved, or the queued job
+     */
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    @Admission(AdmissionPriority.BULK)
+    public Response moveArchivedStudents(@QueryParam("async") @DefaultValue("false") boolean async,
+                                         @Context UriInfo uriInfo) throws EntityNotFoundException {
+        if (async) {
+            JobReadOnlyDTO job = jobService.submitJob(GraduationJobHandler.TYPE, null);
+            return JobRestController.accepted(job, uriInfo);
+        }
+        GraduationReportReadOnlyDTO report = graduationService.moveArchivedStudents();
+        return Response.ok().entity(report).build();
+    }
+}
@@ -0,0 +1,59 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import gr.aueb.cf.elementaryclassmanager.dto.healthDTO.HealthReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.healthDTO.ReadinessReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.health.HealthMonitor;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST controller for the liveness and readiness probes of load balancers and orchestrators.
+ * Neither probe touches the database; readiness reports the state kept by {@link HealthMonitor}.
+ */
+@Path("/health")
+public class HealthRestController {
+
+    private static final CacheControl NO_STORE = noStore();
+
+    @Inject
+    private HealthMonitor healthMonitor;
+
+    /**
+     * Answers as long as the process serves requests.
+     *
+     * @return a Response with status UP
+     */
+    @Path("/live")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response live() {
+        return Response.ok().entity(new HealthReadOnlyDTO("UP")).cacheControl(NO_STORE).build();
+    }
+
+    /**
+     * Tells whether the instance may receive traffic.
+     *
+     * @return a Response with 200 when ready, 503 otherwise, and the state of every check
+     */
+    @Path("/ready")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response ready() {
+        ReadinessReadOnlyDTO readiness = healthMonitor.getReadiness();
+        Response.Status status = "UP".equals(readiness.getStatus())
+                ? Response.Status.OK
+                : Response.Status.SERVICE_UNAVAILABLE;
+        return Response.status(status).entity(readiness).cacheControl(NO_STORE).build();
+    }
+
+    private static CacheControl noStore() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoStore(true);
+        return cacheControl;
+    }
+}
@@ -0,0 +1,54 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import gr.aueb.cf.elementaryclassmanager.dto.jobDTO.JobReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.service.IJobService;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+/**
+ * REST controller for background jobs.
+ * Long operations started with {@code ?async=true} answer 202 with a link to their job here.
+ */
+@Path("/jobs")
+public class JobRestController {
+
+    @Inject
+    private IJobService jobService;
+
+    /**
+     * Retrieves the status and progress of a job.
+     *
+     * @param id the ID of the job
+     * @return a Response containing the job or an error message
+     */
+    @Path("/{id}")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getJobById(@PathParam("id") Long id) throws EntityNotFoundException {
+        JobReadOnlyDTO job = jobService.getJobById(id);
+        return Response.ok().entity(job).build();
+    }
+
+    /**
+     * Builds the 202 answer of an operation that was queued as a job.
+     *
+     * @param job     the queued job
+     * @param uriInfo the URI info of the current request
+     * @return a 202 Response pointing to the job
+     */
+    static Response accepted(JobReadOnlyDTO job, UriInfo uriInfo) {
+        return Response.accepted(job)
+                .location(uriInfo.getBaseUriBuilder()
+                        .path(JobRestController.class)
+                        .path(Long.toString(job.getId()))
+                        .build())
+                .build();
+    }
+}
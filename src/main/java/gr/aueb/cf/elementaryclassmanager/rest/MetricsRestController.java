@@ -0,0 +1,29 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import gr.aueb.cf.elementaryclassmanager.metrics.MetricsRegistry;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST controller exposing the request and service latencies for Prometheus.
+ */
+@Path("/metrics")
+public class MetricsRestController {
+
+    @Inject
+    private MetricsRegistry metricsRegistry;
+
+    /**
+     * Retrieves the latency quantiles and counters of every route and timed service method.
+     *
+     * @return a Response containing the metrics in the Prometheus text exposition format
+     */
+    @GET
+    @Produces("text/plain; version=0.0.4; charset=utf-8")
+    public Response getMetrics() {
+        return Response.ok().entity(metricsRegistry.scrape()).build();
+    }
+}
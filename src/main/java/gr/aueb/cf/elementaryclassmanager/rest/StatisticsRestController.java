@@ -0,0 +1,47 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import gr.aueb.cf.elementaryclassmanager.dto.statsDTO.SchoolStatsReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.service.IStatisticsService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST controller exposing the aggregated school statistics: enrollment per grade, fill rate per
+ * class group, class groups without a teacher, unassigned students and archived students.
+ */
+@Path("/stats")
+public class StatisticsRestController {
+
+    @Inject
+    private IStatisticsService statisticsService;
+
+    /**
+     * Retrieves the current school statistics.
+     *
+     * @return a Response containing the statistics
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStatistics() {
+        SchoolStatsReadOnlyDTO stats = statisticsService.getStatistics();
+        return Response.ok().entity(stats).build();
+    }
+
+    /**
+     * Recomputes the school statistics from the database.
+     *
+     * @return a Response containing the recomputed statistics
+     */
+    @POST
+    @Path("/refresh")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response refreshStatistics() {
+        SchoolStatsReadOnlyDTO stats = statisticsService.refreshStatistics();
+        return Response.ok().entity(stats).build();
+    }
+}
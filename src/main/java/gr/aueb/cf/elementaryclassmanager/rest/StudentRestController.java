@@ -1,17 +1,24 @@
 package gr.aueb.cf.elementaryclassmanager.rest;
 
+import gr.aueb.cf.elementaryclassmanager.diagnostics.StatementBudget;
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentFields;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
+import gr.aueb.cf.elementaryclassmanager.problem.ProblemResponses;
+import gr.aueb.cf.elementaryclassmanager.serialization.BinaryMediaTypes;
 import gr.aueb.cf.elementaryclassmanager.service.IStudentService;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
-import gr.aueb.cf.elementaryclassmanager.service.exceptions.StudentAlreadyExists;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityVersionMismatchException;
 import gr.aueb.cf.elementaryclassmanager.validator.ValidatorUtil;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST controller for managing students.
@@ -31,37 +38,38 @@ public class StudentRestController {
      * @return a Response indicating the outcome of the operation
      */
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
     public Response addStudent(StudentInsertDTO dto, @Context UriInfo uriInfo) {
         List<String> errors = ValidatorUtil.validateDTO(dto);
 
         if (!errors.isEmpty()) {
             return Response.status(Response.Status.BAD_REQUEST).entity(errors).build();
         }
-        try {
-            StudentReadOnlyDTO readOnlyDTO = studentService.insertStudent(dto);
-            UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder().path(Long.toString(readOnlyDTO.getId()));
-            return Response.created(uriBuilder.build())
-                    .entity(readOnlyDTO)
-                    .build();
-        } catch (StudentAlreadyExists e) {
-            return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).build();
-        }
+        StudentReadOnlyDTO readOnlyDTO = studentService.insertStudent(dto);
+        UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder().path(Long.toString(readOnlyDTO.getId()));
+        return Response.created(uriBuilder.build())
+                .entity(readOnlyDTO)
+                .build();
     }
 
     /**
      * Updates an existing student.
+     * With an {@code If-Match} header the update only succeeds if the student is still at that version.
      *
-     * @param id  the ID of the student to update
-     * @param dto the data transfer object containing updated student details
+     * @param id      the ID of the student to update
+     * @param dto     the data transfer object containing updated student details
+     * @param ifMatch the {@code If-Match} header, if any
+     * @param request the request used to evaluate the preconditions
      * @return a Response indicating the outcome of the operation
      */
     @Path("/{id}")
     @PUT
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response updateStudent(@PathParam("id") Long id, StudentUpdateDTO dto) {
+    @Consumes({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response updateStudent(@PathParam("id") Long id, StudentUpdateDTO dto,
+                                  @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch, @Context Request request)
+            throws EntityNotFoundException {
         List<String> errors = ValidatorUtil.validateDTO(dto);
 
         if (!errors.isEmpty()) {
@@ -71,10 +79,24 @@ public class StudentRestController {
         dto.setId(id);
 
         try {
-            StudentReadOnlyDTO readOnlyDTO = studentService.updateStudent(dto);
+            Long expectedVersion = null;
+            if (ifMatch != null) {
+                Optional<EntityVersion> version = studentService.getStudentVersion(id);
+                if (version.isPresent()) {
+                    Response.ResponseBuilder preconditionFailed = ConditionalRequests.evaluate(request, version.get());
+                    if (preconditionFailed != null) {
+                        return preconditionFailed.build();
+                    }
+                    expectedVersion = ConditionalRequests.expectedVersion(ifMatch, version.get());
+                }
+            }
+            StudentReadOnlyDTO readOnlyDTO = studentService.updateStudent(dto, expectedVersion);
             return Response.ok().entity(readOnlyDTO).build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        } catch (EntityVersionMismatchException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            return ProblemResponses.of(Response.Status.PRECONDITION_FAILED, e.getMessage()).build();
         }
     }
 
@@ -86,75 +108,86 @@ public class StudentRestController {
      */
     @Path("/{id}")
     @DELETE
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response deleteStudent(@PathParam("id") Long id) {
-        try {
-            StudentReadOnlyDTO readOnlyDTO = studentService.getStudentById(id);
-            studentService.deleteStudent(readOnlyDTO.getId());
-            return Response.ok().entity(readOnlyDTO).build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response deleteStudent(@PathParam("id") Long id) throws EntityNotFoundException {
+        StudentReadOnlyDTO readOnlyDTO = studentService.getStudentById(id);
+        studentService.deleteStudent(readOnlyDTO.getId());
+        return Response.ok().entity(readOnlyDTO).build();
     }
 
     /**
      * Retrieves a student by ID.
+     * The response carries the student's version as {@code ETag}; a matching {@code If-None-Match}
+     * is answered with 304 from the version cache, without loading the student.
+     *
+     * With {@code fields} only the listed fields are selected and returned.
      *
-     * @param id  the ID of the student to retrieve
+     * @param id      the ID of the student to retrieve
+     * @param fields  the comma separated fields to return, or {@code null} for all of them
+     * @param request the request used to evaluate the preconditions
      * @return a Response containing the student details
      */
     @Path("/{id}")
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response getStudentsById(@PathParam("id") Long id) {
-        try {
-            StudentReadOnlyDTO readOnlyDTO = studentService.getStudentById(id);
-            return Response.ok().entity(readOnlyDTO).build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @StatementBudget(2)
+    public Response getStudentsById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                                    @Context Request request) throws EntityNotFoundException {
+        Optional<EntityVersion> version = studentService.getStudentVersion(id);
+        if (version.isPresent()) {
+            Response.ResponseBuilder notModified = ConditionalRequests.evaluate(request, version.get());
+            if (notModified != null) {
+                return notModified.build();
+            }
         }
+        Object entity = fields == null
+                ? studentService.getStudentById(id)
+                : studentService.getStudentById(id, FieldSelection.parse(fields, StudentFields.ALL));
+        Response.ResponseBuilder ok = Response.ok().entity(entity);
+        return version.map(current -> ConditionalRequests.withValidators(ok, current, request))
+                .orElseGet(() -> ConditionalRequests.varyOnAccept(ok)).build();
     }
 
     /**
      * Searches for students by their last name.
      *
      * @param lastname  the last name of the students to search for
+     * @param fields    the comma separated fields to return, or {@code null} for all of them
      * @return a Response containing a list of students that match the last name
      */
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response getStudentsByLastname(@QueryParam("lastname") String lastname) {
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response getStudentsByLastname(@QueryParam("lastname") String lastname, @QueryParam("fields") String fields)
+            throws EntityNotFoundException {
         if (lastname == null || lastname.trim().isEmpty()) {
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
 
-        try {
-            List<StudentReadOnlyDTO> students = studentService.getStudentByLastname(lastname);
-            return Response.ok().entity(students).build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+        List<?> students = fields == null
+                ? studentService.getStudentByLastname(lastname)
+                : studentService.getStudentsByLastname(lastname, FieldSelection.parse(fields, StudentFields.ALL));
+        return Response.ok().entity(students).build();
     }
 
     /**
      * Retrieves a student by their Social Security Number (SSN).
      *
-     * @param ssn  the SSN of the student to retrieve
+     * @param ssn     the SSN of the student to retrieve
+     * @param fields  the comma separated fields to return, or {@code null} for all of them
      * @return a Response containing the student details
      */
     @Path("/ssn/{ssn}")
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response getStudentsBySsn(@PathParam("ssn") String ssn) {
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response getStudentsBySsn(@PathParam("ssn") String ssn, @QueryParam("fields") String fields)
+            throws EntityNotFoundException {
         if (ssn == null || ssn.trim().isEmpty()) {
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
 
-        try {
-            StudentReadOnlyDTO readOnlyDTO = studentService.getStudentBySsn(ssn);
-            return Response.ok().entity(readOnlyDTO).build();
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+        Object entity = fields == null
+                ? studentService.getStudentBySsn(ssn)
+                : studentService.getStudentBySsn(ssn, FieldSelection.parse(fields, StudentFields.ALL));
+        return Response.ok().entity(entity).build();
     }
 }
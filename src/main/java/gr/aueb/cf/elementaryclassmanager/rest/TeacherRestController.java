@@ -1,17 +1,24 @@
 package gr.aueb.cf.elementaryclassmanager.rest;
 
+import gr.aueb.cf.elementaryclassmanager.diagnostics.StatementBudget;
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherFields;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherReadOnlyDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
+import gr.aueb.cf.elementaryclassmanager.problem.ProblemResponses;
+import gr.aueb.cf.elementaryclassmanager.serialization.BinaryMediaTypes;
 import gr.aueb.cf.elementaryclassmanager.service.ITeacherService;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
-import gr.aueb.cf.elementaryclassmanager.service.exceptions.TeacherAlreadyExists;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityVersionMismatchException;
 import gr.aueb.cf.elementaryclassmanager.validator.ValidatorUtil;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST controller for managing teachers.
@@ -31,8 +38,8 @@ public class TeacherRestController {
      * @return a Response containing the newly created teacher details or an error if the teacher already exists
      */
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
     public Response addTeacher(TeacherInsertDTO dto, @Context UriInfo uriInfo) {
         List<String> errors = ValidatorUtil.validateDTO(dto);
 
@@ -40,30 +47,31 @@ public class TeacherRestController {
             return Response.status(Response.Status.BAD_REQUEST).entity(errors).build();
         }
 
-        try {
-            TeacherReadOnlyDTO readOnlyDTO = teacherService.insertTeacher(dto);
-            UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder().path(Long.toString(readOnlyDTO.getId()));
-            return Response.created(uriBuilder.build())
-                    .entity(readOnlyDTO)
-                    .build();
-
-        } catch (TeacherAlreadyExists e) {
-            return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).build();
-        }
+        TeacherReadOnlyDTO readOnlyDTO = teacherService.insertTeacher(dto);
+        UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder().path(Long.toString(readOnlyDTO.getId()));
+        return Response.created(uriBuilder.build())
+                .entity(readOnlyDTO)
+                .build();
     }
 
     /**
      * Updates an existing teacher.
      *
-     * @param id  the ID of the teacher to update
-     * @param dto the data transfer object containing updated teacher details
+     * With an {@code If-Match} header the update only succeeds if the teacher is still at that version.
+     *
+     * @param id      the ID of the teacher to update
+     * @param dto     the data transfer object containing updated teacher details
+     * @param ifMatch the {@code If-Match} header, if any
+     * @param request the request used to evaluate the preconditions
      * @return a Response containing the updated teacher details or an error if the teacher is not found
      */
     @Path("/{id}")
     @PUT
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response updateTeacher(@PathParam("id") Long id, TeacherUpdateDTO dto) {
+    @Consumes({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response updateTeacher(@PathParam("id") Long id, TeacherUpdateDTO dto,
+                                  @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch, @Context Request request)
+            throws EntityNotFoundException {
         List<String> errors = ValidatorUtil.validateDTO(dto);
 
         if (!errors.isEmpty()) {
@@ -73,11 +81,25 @@ public class TeacherRestController {
         dto.setId(id);
 
         try {
-            TeacherReadOnlyDTO readOnlyDTO = teacherService.updateTeacher(dto);
+            Long expectedVersion = null;
+            if (ifMatch != null) {
+                Optional<EntityVersion> version = teacherService.getTeacherVersion(id);
+                if (version.isPresent()) {
+                    Response.ResponseBuilder preconditionFailed = ConditionalRequests.evaluate(request, version.get());
+                    if (preconditionFailed != null) {
+                        return preconditionFailed.build();
+                    }
+                    expectedVersion = ConditionalRequests.expectedVersion(ifMatch, version.get());
+                }
+            }
+            TeacherReadOnlyDTO readOnlyDTO = teacherService.updateTeacher(dto, expectedVersion);
             return Response.ok().entity(readOnlyDTO).build();
 
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        } catch (EntityVersionMismatchException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            return ProblemResponses.of(Response.Status.PRECONDITION_FAILED, e.getMessage()).build();
         }
     }
 
@@ -89,57 +111,65 @@ public class TeacherRestController {
      */
     @Path("/{id}")
     @DELETE
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response deleteTeacher(@PathParam("id") Long id) {
-        try {
-            TeacherReadOnlyDTO readOnlyDTO = teacherService.getTeacherById(id);
-            teacherService.deleteTeacher(id);
-            return Response.ok().entity(readOnlyDTO).build();
-
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response deleteTeacher(@PathParam("id") Long id) throws EntityNotFoundException {
+        TeacherReadOnlyDTO readOnlyDTO = teacherService.getTeacherById(id);
+        teacherService.deleteTeacher(id);
+        return Response.ok().entity(readOnlyDTO).build();
     }
 
     /**
      * Retrieves a teacher by ID.
+     * The response carries the teacher's version as {@code ETag}; a matching {@code If-None-Match}
+     * is answered with 304 from the version cache, without loading the teacher.
      *
-     * @param id the ID of the teacher to retrieve
+     * With {@code fields} only the listed fields are selected and returned.
+     *
+     * @param id      the ID of the teacher to retrieve
+     * @param fields  the comma separated fields to return, or {@code null} for all of them
+     * @param request the request used to evaluate the preconditions
      * @return a Response containing the teacher details or an error if the teacher is not found
      */
     @Path("/{id}")
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response getTeacherById(@PathParam("id") Long id) {
-        try {
-            TeacherReadOnlyDTO teacherDTO = teacherService.getTeacherById(id);
-            return Response.ok().entity(teacherDTO).build();
-
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    @StatementBudget(2)
+    public Response getTeacherById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                                   @Context Request request) throws EntityNotFoundException {
+        Optional<EntityVersion> version = teacherService.getTeacherVersion(id);
+        if (version.isPresent()) {
+            Response.ResponseBuilder notModified = ConditionalRequests.evaluate(request, version.get());
+            if (notModified != null) {
+                return notModified.build();
+            }
         }
+        Object teacher = fields == null
+                ? teacherService.getTeacherById(id)
+                : teacherService.getTeacherById(id, FieldSelection.parse(fields, TeacherFields.ALL));
+        Response.ResponseBuilder ok = Response.ok().entity(teacher);
+        return version.map(current -> ConditionalRequests.withValidators(ok, current, request))
+                .orElseGet(() -> ConditionalRequests.varyOnAccept(ok)).build();
     }
 
     /**
      * Searches for teachers by their last name.
      *
      * @param lastname the last name of the teachers to search for
+     * @param fields   the comma separated fields to return, or {@code null} for all of them
      * @return a Response containing a list of teachers that match the last name or an error if no teachers are found
      */
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response getTeachersByLastname(@QueryParam("lastname") String lastname) {
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE})
+    public Response getTeachersByLastname(@QueryParam("lastname") String lastname, @QueryParam("fields") String fields)
+            throws EntityNotFoundException {
         if (lastname == null || lastname.trim().isEmpty()) {
             return Response.status(Response.Status.BAD_REQUEST).entity("Lastname is required").build();
         }
 
-        try {
-            List<TeacherReadOnlyDTO> teachers = teacherService.getTeachersByLastname(lastname);
-            return Response.ok().entity(teachers).build();
-
-        } catch (EntityNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+        List<?> teachers = fields == null
+                ? teacherService.getTeachersByLastname(lastname)
+                : teacherService.getTeachersByLastname(lastname, FieldSelection.parse(fields, TeacherFields.ALL));
+        return Response.ok().entity(teachers).build();
     }
 
 }
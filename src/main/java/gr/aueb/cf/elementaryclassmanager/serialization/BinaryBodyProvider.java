@@ -0,0 +1,76 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Reads and writes request and response bodies in a binary Jackson format.
+ * Like Jersey's JSON provider, it leaves strings, byte arrays and streams to the built-in
+ * providers, so plain text error messages are still written as text.
+ */
+abstract class BinaryBodyProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    private static final Set<Class<?>> UNTOUCHABLES = Set.of(String.class, byte[].class, char[].class,
+            InputStream.class, OutputStream.class, Reader.class, Writer.class, StreamingOutput.class);
+
+    /**
+     * @return the mapper of the format, resolved per call since CDI injects it after construction
+     */
+    protected abstract ObjectMapper mapper();
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isHandled(type);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        JavaType javaType = mapper().getTypeFactory().constructType(genericType != null ? genericType : type);
+        try {
+            return mapper().readerFor(javaType).readValue(entityStream);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed " + mediaType + " body", e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isHandled(type);
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        ObjectWriter writer = genericType != null && genericType != type
+                ? mapper().writerFor(mapper().getTypeFactory().constructType(genericType))
+                : mapper().writer();
+        writer.writeValue(entityStream, value);
+    }
+
+    private static boolean isHandled(Class<?> type) {
+        for (Class<?> untouchable : UNTOUCHABLES) {
+            if (untouchable.isAssignableFrom(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
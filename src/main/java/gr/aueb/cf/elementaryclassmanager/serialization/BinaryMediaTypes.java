@@ -0,0 +1,19 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Media types of the binary wire formats, offered next to JSON by the resource controllers.
+ */
+public final class BinaryMediaTypes {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+    public static final MediaType APPLICATION_CBOR_TYPE = MediaType.valueOf(APPLICATION_CBOR);
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE_TYPE = MediaType.valueOf(APPLICATION_SMILE);
+
+    private BinaryMediaTypes() {
+
+    }
+}
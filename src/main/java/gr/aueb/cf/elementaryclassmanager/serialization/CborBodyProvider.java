@@ -0,0 +1,26 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Reads and writes {@code application/cbor} bodies in CBOR (RFC 8949) encoding.
+ */
+@Provider
+@ApplicationScoped
+@Consumes(BinaryMediaTypes.APPLICATION_CBOR)
+@Produces(BinaryMediaTypes.APPLICATION_CBOR)
+public class CborBodyProvider extends BinaryBodyProvider {
+
+    @Inject
+    private ObjectMapperProvider objectMapperProvider;
+
+    @Override
+    protected ObjectMapper mapper() {
+        return objectMapperProvider.getCborMapper();
+    }
+}
@@ -0,0 +1,23 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.ContextResolver;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Hands the shared {@link ObjectMapper} to Jersey's JSON provider.
+ * Kept apart from {@link ObjectMapperProvider} because Jersey takes the classes it registers as
+ * providers out of CDI, and the mapper must stay injectable into the other components.
+ */
+@Provider
+public class JacksonContextResolver implements ContextResolver<ObjectMapper> {
+
+    @Inject
+    private ObjectMapperProvider objectMapperProvider;
+
+    @Override
+    public ObjectMapper getContext(Class<?> type) {
+        return objectMapperProvider.getObjectMapper();
+    }
+}
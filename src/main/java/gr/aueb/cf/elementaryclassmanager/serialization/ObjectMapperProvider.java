@@ -0,0 +1,150 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import gr.aueb.cf.elementaryclassmanager.dto.BaseDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * The one {@link ObjectMapper} of the application, used by Jersey for JSON bodies (through
+ * {@link JacksonContextResolver}) and by the components that serialize on their own (roster cache,
+ * audit trail), plus its CBOR and Smile counterparts used by the binary body providers. All three
+ * share the same configuration.
+ * <p>
+ * Bean properties are read and written through Blackbird's generated lambdas instead of
+ * reflection. Flushing after every value and closing the target stream are turned off, since
+ * Jersey owns the entity stream. At startup the serializers and deserializers of every class
+ * in the {@code dto} packages are resolved, so the first requests do not pay for introspection.
+ */
+@ApplicationScoped
+@Slf4j
+public class ObjectMapperProvider {
+
+    private static final String DTO_PACKAGE = BaseDTO.class.getPackageName();
+
+    private final ObjectMapper objectMapper = configure(new ObjectMapper());
+    private final ObjectMapper cborMapper = configure(new CBORMapper());
+    private final ObjectMapper smileMapper = configure(new SmileMapper());
+
+    /**
+     * Warms up the mapper once the application scope is up.
+     */
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        long start = System.nanoTime();
+        int warmed = 0;
+        for (Class<?> dtoClass : findDtoClasses()) {
+            try {
+                for (ObjectMapper mapper : List.of(objectMapper, cborMapper, smileMapper)) {
+                    mapper.writerFor(dtoClass);
+                    mapper.readerFor(dtoClass);
+                }
+                warmed++;
+            } catch (RuntimeException e) {
+                log.debug("Could not pre-warm serializers of {}", dtoClass.getName(), e);
+            }
+        }
+        log.info("Pre-warmed serializers of {} DTO classes in {} ms", warmed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public ObjectMapper getCborMapper() {
+        return cborMapper;
+    }
+
+    public ObjectMapper getSmileMapper() {
+        return smileMapper;
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.registerModule(new BlackbirdModule())
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    /**
+     * Lists the concrete classes of the {@code dto} packages, from an exploded directory or a JAR.
+     */
+    private static List<Class<?>> findDtoClasses() {
+        List<String> classNames = new ArrayList<>();
+        String path = DTO_PACKAGE.replace('.', '/');
+        ClassLoader classLoader = ObjectMapperProvider.class.getClassLoader();
+        try {
+            Enumeration<URL> roots = classLoader.getResources(path);
+            for (URL root : Collections.list(roots)) {
+                if ("file".equals(root.getProtocol())) {
+                    collectFromDirectory(new File(root.toURI()), DTO_PACKAGE, classNames);
+                } else if ("jar".equals(root.getProtocol())) {
+                    collectFromJar(((JarURLConnection) root.openConnection()).getJarFile(), path, classNames);
+                } else {
+                    log.warn("Cannot list DTO classes from {}, serializers are resolved on first use", root);
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            log.warn("Could not list DTO classes, serializers are resolved on first use", e);
+        }
+
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                Class<?> candidate = Class.forName(className, false, classLoader);
+                if (!candidate.isInterface() && !candidate.isEnum() && !candidate.isAnonymousClass()
+                        && !Modifier.isAbstract(candidate.getModifiers())) {
+                    classes.add(candidate);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.debug("Skipping {}", className, e);
+            }
+        }
+        return classes;
+    }
+
+    private static void collectFromDirectory(File directory, String packageName, List<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectFromDirectory(file, packageName + "." + file.getName(), classNames);
+            } else if (file.getName().endsWith(".class")) {
+                classNames.add(packageName + "." + file.getName().substring(0, file.getName().length() - ".class".length()));
+            }
+        }
+    }
+
+    private static void collectFromJar(JarFile jar, String path, List<String> classNames) {
+        for (JarEntry entry : Collections.list(jar.entries())) {
+            String name = entry.getName();
+            if (name.startsWith(path + "/") && name.endsWith(".class")) {
+                classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Reads and writes {@code application/x-jackson-smile} bodies in Jackson Smile encoding.
+ */
+@Provider
+@ApplicationScoped
+@Consumes(BinaryMediaTypes.APPLICATION_SMILE)
+@Produces(BinaryMediaTypes.APPLICATION_SMILE)
+public class SmileBodyProvider extends BinaryBodyProvider {
+
+    @Inject
+    private ObjectMapperProvider objectMapperProvider;
+
+    @Override
+    protected ObjectMapper mapper() {
+        return objectMapperProvider.getSmileMapper();
+    }
+}
@@ -0,0 +1,57 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dao.auditDAO.IAuditDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.auditDTO.AuditEntryReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.auditDTO.AuditPageReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.model.AuditEntry;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service implementation for querying the audit trail.
+ * Entries are returned newest first. Records still queued in the audit writer are not visible yet.
+ */
+@Provider
+@ApplicationScoped
+@Slf4j
+public class AuditServiceImpl implements IAuditService {
+
+    @Inject
+    IAuditDAO auditDAO;
+
+    /**
+     * Retrieves one page of audit entries.
+     *
+     * @param entityType the simple entity name (e.g. {@code Student}), or {@code null} for all
+     * @param entityId   the entity ID, or {@code null} for all
+     * @param page       the zero-based page number
+     * @param size       the page size
+     * @return the requested page
+     */
+    @Override
+    public AuditPageReadOnlyDTO getAuditEntries(String entityType, Long entityId, int page, int size) {
+        List<AuditEntry> entries;
+        long total;
+
+        try {
+            JPAHelper.beginTransaction();
+            total = auditDAO.countByEntity(entityType, entityId);
+            entries = auditDAO.getByEntity(entityType, entityId, page * size, size);
+            JPAHelper.commitTransaction();
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+
+        List<AuditEntryReadOnlyDTO> dtos = entries.stream()
+                .map(Mapper::mapToAuditEntryReadOnlyDTO)
+                .collect(Collectors.toList());
+        return new AuditPageReadOnlyDTO(page, size, total, dtos);
+    }
+}
@@ -0,0 +1,50 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.PersistenceException;
+import jakarta.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Service implementation for running several service calls as one all-or-nothing unit.
+ */
+@Provider
+@ApplicationScoped
+@Slf4j
+public class BatchServiceImpl implements IBatchService {
+
+    /**
+     * Runs service calls in a single unit of work. The calls join its transaction, and their
+     * change events are only fired once the whole unit has been committed.
+     *
+     * Every call flushes its changes, so conflicts surface in the call that caused them.
+     *
+     * @param operations runs the calls and reports whether all of them succeeded
+     * @return {@code true} if the calls were committed, {@code false} if they were rolled back
+     * because one of them failed or marked the unit for rollback
+     * @throws PersistenceException if the commit itself failed; the unit is rolled back then
+     */
+    @Override
+    public boolean runInOneTransaction(BooleanSupplier operations) {
+        try {
+            JPAHelper.beginUnitOfWork();
+            if (!operations.getAsBoolean()) {
+                log.info("Batch rolled back after a failed operation");
+                return false;
+            }
+            boolean committed = JPAHelper.commitUnitOfWork();
+            if (!committed) {
+                log.info("Batch rolled back, an operation marked it for rollback");
+            }
+            return committed;
+        } catch (PersistenceException e) {
+            log.warn("Batch could not be committed: {}", e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.endUnitOfWork();
+        }
+    }
+}
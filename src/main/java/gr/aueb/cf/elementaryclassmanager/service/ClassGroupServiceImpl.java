@@ -3,24 +3,48 @@ package gr.aueb.cf.elementaryclassmanager.service;
 import gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO.IClassGroupDAO;
 import gr.aueb.cf.elementaryclassmanager.dao.studentDAO.IStudentDAO;
 import gr.aueb.cf.elementaryclassmanager.dao.teacherDAO.ITeacherDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherAssignmentChangeReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherAssignmentDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherReassignmentDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherReassignmentReportReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentFields;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
 import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.metrics.Timed;
 import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
 import gr.aueb.cf.elementaryclassmanager.model.Grade;
 import gr.aueb.cf.elementaryclassmanager.model.Student;
 import gr.aueb.cf.elementaryclassmanager.model.Teacher;
+import gr.aueb.cf.elementaryclassmanager.readmodel.SchoolReadModel;
+import gr.aueb.cf.elementaryclassmanager.service.cache.RosterCache;
+import gr.aueb.cf.elementaryclassmanager.service.cache.RosterSnapshot;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.*;
 import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.ext.Provider;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +54,8 @@ import java.util.stream.Collectors;
  */
 @Provider
 @ApplicationScoped
+@Timed
+@Traced
 @Slf4j
 public class ClassGroupServiceImpl implements IClassGroupService {
 
@@ -42,6 +68,18 @@ public class ClassGroupServiceImpl implements IClassGroupService {
     @Inject
     private ITeacherDAO teacherDAO;
 
+    @Inject
+    private RosterCache rosterCache;
+
+    @Inject
+    private SchoolReadModel readModel;
+
+    @Inject
+    private Event<ClassGroupChangedEvent> classGroupChanged;
+
+    @Inject
+    private Event<StudentChangedEvent> studentChanged;
+
     /**
      * Checks if a ClassGroup is full.
      *
@@ -84,13 +122,15 @@ public class ClassGroupServiceImpl implements IClassGroupService {
             classGroupToInsert = Mapper.mapToClassGroup(dto);
             classGroupDAO.insertClassGroup(classGroupToInsert);
             JPAHelper.commitTransaction();
-            log.info("ClassGroup with name " + classGroupToInsert.getName() + " and grade " + classGroupToInsert.getGrade() + " was inserted successfully.");
+            ClassGroupChangedEvent inserted = ClassGroupChangedEvent.inserted(Mapper.mapToClassGroupSnapshot(classGroupToInsert));
+            JPAHelper.runAfterCommit(() -> classGroupChanged.fire(inserted));
+            log.info("ClassGroup with name {} and grade {} was inserted successfully.", classGroupToInsert.getName(), classGroupToInsert.getGrade());
         } catch (ClassGroupAlreadyExists e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
 
         return Mapper.mapToClassGroupReadOnlyDTO(classGroupToInsert);
@@ -112,6 +152,8 @@ public class ClassGroupServiceImpl implements IClassGroupService {
             JPAHelper.beginTransaction();
             classGroupToUpdate = classGroupDAO.getById(dto.getId())
                     .orElseThrow(() -> new EntityNotFoundException(ClassGroup.class, dto.getId()));
+            ClassGroupSnapshot before = Mapper.mapToClassGroupSnapshot(classGroupToUpdate);
+            Map<Long, StudentSnapshot> studentsBefore = snapshotStudents(classGroupToUpdate);
 
             updatedClassGroup = Mapper.mapToClassGroup(classGroupToUpdate, dto);
 
@@ -122,13 +164,16 @@ public class ClassGroupServiceImpl implements IClassGroupService {
 
             classGroupDAO.updateClassGroup(updatedClassGroup);
             JPAHelper.commitTransaction();
-            log.info("ClassGroup with id " + updatedClassGroup.getId() + " was updated successfully.");
+            fireStudentChanges(studentsBefore, updatedClassGroup.getStudents());
+            ClassGroupChangedEvent updated = ClassGroupChangedEvent.updated(before, Mapper.mapToClassGroupSnapshot(updatedClassGroup));
+            JPAHelper.runAfterCommit(() -> classGroupChanged.fire(updated));
+            log.info("ClassGroup with id {} was updated successfully.", updatedClassGroup.getId());
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
 
         return Mapper.mapToClassGroupReadOnlyDTO(updatedClassGroup);
@@ -146,16 +191,18 @@ public class ClassGroupServiceImpl implements IClassGroupService {
             JPAHelper.beginTransaction();
             ClassGroup classGroupToDelete = classGroupDAO.getById(id)
                     .orElseThrow(() -> new EntityNotFoundException(ClassGroup.class, id));
+            ClassGroupSnapshot before = Mapper.mapToClassGroupSnapshot(classGroupToDelete);
 
             classGroupDAO.deleteClassGroup(id);
             JPAHelper.commitTransaction();
-            log.info("ClassGroup with id " + classGroupToDelete.getId() + " was deleted successfully.");
+            JPAHelper.runAfterCommit(() -> classGroupChanged.fire(ClassGroupChangedEvent.deleted(before)));
+            log.info("ClassGroup with id {} was deleted successfully.", classGroupToDelete.getId());
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
     }
 
@@ -168,6 +215,11 @@ public class ClassGroupServiceImpl implements IClassGroupService {
      */
     @Override
     public ClassGroupReadOnlyDTO getClassGroupById(Long id) throws EntityNotFoundException {
+        Optional<ClassGroupReadOnlyDTO> fromReadModel = readModel.findClassGroupById(id);
+        if (fromReadModel.isPresent()) {
+            return fromReadModel.get();
+        }
+
         ClassGroup classGroupToGet;
 
         try {
@@ -175,13 +227,13 @@ public class ClassGroupServiceImpl implements IClassGroupService {
             classGroupToGet = classGroupDAO.getById(id)
                     .orElseThrow(() -> new EntityNotFoundException(ClassGroup.class, id));
             JPAHelper.commitTransaction();
-            log.info("ClassGroup with id " + classGroupToGet.getId() + " was retrieved successfully.");
+            log.info("ClassGroup with id {} was retrieved successfully.", classGroupToGet.getId());
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
         return Mapper.mapToClassGroupReadOnlyDTO(classGroupToGet);
     }
@@ -195,6 +247,11 @@ public class ClassGroupServiceImpl implements IClassGroupService {
      */
     @Override
     public List<StudentReadOnlyDTO> getStudentsByClassGroupId(Long classGroupId) throws EntityNotFoundException {
+        List<StudentReadOnlyDTO> fromReadModel = readModel.findStudentsByClassGroupId(classGroupId);
+        if (!fromReadModel.isEmpty()) {
+            return fromReadModel;
+        }
+
         List<Student> students;
 
         try {
@@ -204,13 +261,13 @@ public class ClassGroupServiceImpl implements IClassGroupService {
                 throw new EntityNotFoundException(ClassGroup.class, classGroupId);
             }
             JPAHelper.commitTransaction();
-            log.info("Students found for ClassGroup with id " + classGroupId + ".");
+            log.info("Students found for ClassGroup with id {}.", classGroupId);
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
 
         return students.stream()
@@ -218,6 +275,76 @@ public class ClassGroupServiceImpl implements IClassGroupService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves the selected fields of the students of a ClassGroup, bypassing the roster cache.
+     *
+     * @param classGroupId the ID of the ClassGroup.
+     * @param fields the fields to return
+     * @return the selected fields of each student found
+     * @throws EntityNotFoundException if no students are found
+     */
+    @Override
+    public List<Map<String, Object>> getStudentsByClassGroupId(Long classGroupId, FieldSelection fields) throws EntityNotFoundException {
+        List<StudentReadOnlyDTO> fromReadModel = readModel.findStudentsByClassGroupId(classGroupId);
+        if (!fromReadModel.isEmpty()) {
+            return fromReadModel.stream()
+                    .map(dto -> fields.project(dto, StudentFields::valueOf))
+                    .collect(Collectors.toList());
+        }
+
+        List<Map<String, Object>> fieldsToReturn;
+
+        try {
+            JPAHelper.beginTransaction();
+            fieldsToReturn = studentDAO.getFieldsByClassGroupId(classGroupId, fields);
+            if (fieldsToReturn.isEmpty()) {
+                throw new EntityNotFoundException(ClassGroup.class, classGroupId);
+            }
+            JPAHelper.commitTransaction();
+            log.info("Fields {} of students found for ClassGroup with id {}.", fields.getFields(), classGroupId);
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+        return fieldsToReturn;
+    }
+
+    /**
+     * Retrieves the serialized roster of a ClassGroup, served from the roster cache when possible.
+     * On a miss the students are loaded and serialized once, and the result is cached until the
+     * next membership change of the ClassGroup.
+     *
+     * @param classGroupId the ID of the ClassGroup.
+     * @return the roster snapshot holding the JSON array of read-only student DTOs.
+     * @throws EntityNotFoundException if no students are found for the given ClassGroup ID.
+     */
+    @Override
+    public RosterSnapshot getRosterSnapshot(Long classGroupId) throws EntityNotFoundException {
+        RosterSnapshot cached = rosterCache.get(classGroupId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = rosterCache.currentVersion(classGroupId);
+        List<StudentReadOnlyDTO> students = getStudentsByClassGroupId(classGroupId);
+        return rosterCache.put(classGroupId, version, students);
+    }
+
+    /**
+     * Returns the {@code ETag} value of the current roster of a ClassGroup without loading it.
+     * It changes whenever a student joins, leaves or changes within the ClassGroup.
+     *
+     * @param classGroupId the ID of the ClassGroup.
+     * @return the tag of the current roster version.
+     */
+    @Override
+    public String getRosterTag(Long classGroupId) {
+        return rosterCache.tagOf(rosterCache.currentVersion(classGroupId));
+    }
+
     /**
      * Assigns a student to a ClassGroup.
      *
@@ -244,6 +371,7 @@ public class ClassGroupServiceImpl implements IClassGroupService {
                 throw new ClassGroupFullException(classGroupId);
             }
 
+            StudentSnapshot before = Mapper.mapToStudentSnapshot(studentToAssign);
             if (studentToAssign.getClassGroup() != null) {
                 studentToAssign.getClassGroup().removeStudent(studentToAssign);
             }
@@ -251,18 +379,21 @@ public class ClassGroupServiceImpl implements IClassGroupService {
             classGroupToAssign.addStudent(studentToAssign);
             classGroupDAO.updateClassGroup(classGroupToAssign);
             JPAHelper.commitTransaction();
-            log.info("Student with id " + studentId + " assigned to ClassGroup with id " + classGroupId);
+            StudentChangedEvent updated = StudentChangedEvent.updated(before, Mapper.mapToStudentSnapshot(studentToAssign));
+            JPAHelper.runAfterCommit(() -> studentChanged.fire(updated));
+            log.info("Student with id {} assigned to ClassGroup with id {}", studentId, classGroupId);
         } catch (EntityNotFoundException | ClassGroupFullException | StudentGradeDoesNotMatchClassGroup e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
     }
 
     /**
      * Assigns a teacher to a ClassGroup.
+     * The teacher's previous ClassGroup, if any, is left without a teacher.
      *
      * @param teacherId    the ID of the teacher to assign.
      * @param classGroupId the ID of the ClassGroup to assign the teacher to.
@@ -272,37 +403,164 @@ public class ClassGroupServiceImpl implements IClassGroupService {
     public void assignTeacherToClassGroup(Long teacherId, Long classGroupId) throws EntityNotFoundException {
         try {
             JPAHelper.beginTransaction();
-            Teacher teacherToAssign = teacherDAO.getById(teacherId)
-                    .orElseThrow(() -> new EntityNotFoundException(Teacher.class, teacherId));
-            ClassGroup classGroupToAssign = classGroupDAO.getById(classGroupId)
-                    .orElseThrow(() -> new EntityNotFoundException(ClassGroup.class, classGroupId));
+            List<ClassGroupChangedEvent> changes = applyTeacherAssignments(Map.of(classGroupId, teacherId));
+            JPAHelper.commitTransaction();
+            JPAHelper.runAfterCommit(() -> changes.forEach(classGroupChanged::fire));
+            log.info("Teacher with id {} assigned to ClassGroup with id {}", teacherId, classGroupId);
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+    }
 
-            if (classGroupToAssign.getTeacher() != null) {
-                classGroupToAssign.removeTeacher(classGroupToAssign.getTeacher());
-            }
-            if (teacherToAssign.getClassgroup() != null) {
-                teacherToAssign.getClassgroup().removeTeacher(teacherToAssign);
-            }
+    /**
+     * Applies a full teacher to ClassGroup mapping, swaps included, in one transaction.
+     * Every listed ClassGroup ends up with the given teacher, or with none for a {@code null} teacher id.
+     * ClassGroups that currently hold one of the listed teachers and are not listed themselves
+     * are left without a teacher.
+     *
+     * @param dto the assignments to apply.
+     * @return the ClassGroups whose teacher changed and the number of listed assignments already in place.
+     * @throws EntityNotFoundException if a listed teacher or ClassGroup does not exist.
+     * @throws InvalidTeacherAssignmentException if a ClassGroup or a teacher is listed more than once.
+     */
+    @Override
+    public TeacherReassignmentReportReadOnlyDTO reassignTeachers(TeacherReassignmentDTO dto)
+            throws EntityNotFoundException, InvalidTeacherAssignmentException {
+        Map<Long, Long> requested = toTeacherAssignmentMap(dto.getAssignments());
+        List<ClassGroupChangedEvent> changes;
 
-            classGroupToAssign.addTeacher(teacherToAssign);
-            classGroupDAO.updateClassGroup(classGroupToAssign);
+        try {
+            JPAHelper.beginTransaction();
+            changes = applyTeacherAssignments(requested);
             JPAHelper.commitTransaction();
-            log.info("Teacher with id " + teacherId + " assigned to ClassGroup with id " + classGroupId);
+            JPAHelper.runAfterCommit(() -> changes.forEach(classGroupChanged::fire));
+            log.info("Teacher reassignment of {} ClassGroups changed {} ClassGroups.", requested.size(), changes.size());
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
+        }
+
+        List<TeacherAssignmentChangeReadOnlyDTO> changed = new ArrayList<>(changes.size());
+        int changedRequested = 0;
+        for (ClassGroupChangedEvent change : changes) {
+            changed.add(new TeacherAssignmentChangeReadOnlyDTO(change.getAfter().getId(),
+                    change.getBefore().getTeacherId(), change.getAfter().getTeacherId()));
+            if (requested.containsKey(change.getAfter().getId())) {
+                changedRequested++;
+            }
+        }
+        return new TeacherReassignmentReportReadOnlyDTO(changed, requested.size() - changedRequested);
+    }
+
+    /**
+     * Collects the assignments into a ClassGroup id to teacher id map.
+     *
+     * @param assignments the requested assignments.
+     * @return the teacher id of each listed ClassGroup, {@code null} meaning no teacher.
+     * @throws InvalidTeacherAssignmentException if a ClassGroup or a teacher is listed more than once.
+     */
+    private Map<Long, Long> toTeacherAssignmentMap(List<TeacherAssignmentDTO> assignments) {
+        Map<Long, Long> requested = new HashMap<>();
+        Set<Long> teacherIds = new HashSet<>();
+        for (TeacherAssignmentDTO assignment : assignments) {
+            if (requested.containsKey(assignment.getClassGroupId())) {
+                throw new InvalidTeacherAssignmentException("ClassGroup with id " + assignment.getClassGroupId() + " is listed more than once");
+            }
+            if (assignment.getTeacherId() != null && !teacherIds.add(assignment.getTeacherId())) {
+                throw new InvalidTeacherAssignmentException("Teacher with id " + assignment.getTeacherId() + " is assigned to more than one ClassGroup");
+            }
+            requested.put(assignment.getClassGroupId(), assignment.getTeacherId());
+        }
+        return requested;
+    }
+
+    /**
+     * Moves teachers between ClassGroups without loading or merging the object graph.
+     * The affected rows are first cleared with one update and then given their new teacher
+     * with one batch ordered by ClassGroup id, so a swap never trips the unique teacher column.
+     * Must run inside a transaction. The persistence context is cleared on the way, so entities
+     * loaded before the call are detached afterwards.
+     *
+     * @param requested the teacher id of each listed ClassGroup, {@code null} meaning no teacher.
+     * @return the change events to fire once the transaction has been committed.
+     * @throws EntityNotFoundException if a listed teacher or ClassGroup does not exist.
+     */
+    private List<ClassGroupChangedEvent> applyTeacherAssignments(Map<Long, Long> requested) throws EntityNotFoundException {
+        Map<Long, ClassGroup> affected = new HashMap<>();
+        for (ClassGroup classGroup : classGroupDAO.getByIds(requested.keySet())) {
+            affected.put(classGroup.getId(), classGroup);
+        }
+        for (Long classGroupId : requested.keySet()) {
+            if (!affected.containsKey(classGroupId)) {
+                throw new EntityNotFoundException(ClassGroup.class, classGroupId);
+            }
+        }
+
+        Set<Long> teacherIds = requested.values().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        SortedMap<Long, Long> target = new TreeMap<>();
+        if (!teacherIds.isEmpty()) {
+            Set<Long> foundTeacherIds = teacherDAO.getByIds(teacherIds).stream()
+                    .map(Teacher::getId)
+                    .collect(Collectors.toSet());
+            for (Long teacherId : teacherIds) {
+                if (!foundTeacherIds.contains(teacherId)) {
+                    throw new EntityNotFoundException(Teacher.class, teacherId);
+                }
+            }
+            // ClassGroups losing a teacher to a listed ClassGroup
+            for (ClassGroup holder : classGroupDAO.getByTeacherIds(teacherIds)) {
+                affected.putIfAbsent(holder.getId(), holder);
+                target.put(holder.getId(), null);
+            }
+        }
+        target.putAll(requested);
+
+        List<Long> changedIds = new ArrayList<>();
+        Set<Long> movedTeacherIds = new HashSet<>();
+        SortedMap<Long, Long> newTeacherIds = new TreeMap<>();
+        List<ClassGroupChangedEvent> changes = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : target.entrySet()) {
+            ClassGroup classGroup = affected.get(entry.getKey());
+            ClassGroupSnapshot before = Mapper.mapToClassGroupSnapshot(classGroup);
+            if (Objects.equals(before.getTeacherId(), entry.getValue())) {
+                continue;
+            }
+            changedIds.add(entry.getKey());
+            if (before.getTeacherId() != null) {
+                movedTeacherIds.add(before.getTeacherId());
+            }
+            if (entry.getValue() != null) {
+                newTeacherIds.put(entry.getKey(), entry.getValue());
+                movedTeacherIds.add(entry.getValue());
+            }
+            changes.add(ClassGroupChangedEvent.updated(before, new ClassGroupSnapshot(before.getId(),
+                    before.getName(), before.getGrade(), entry.getValue(), before.isArchived())));
         }
+
+        if (!changedIds.isEmpty()) {
+            classGroupDAO.clearTeachers(changedIds);
+            classGroupDAO.assignTeachers(newTeacherIds);
+            teacherDAO.touchTeachers(movedTeacherIds);
+        }
+        return changes;
     }
 
     /**
      * Increments the grade for a ClassGroup.
+     * A ClassGroup already at the final grade graduates instead: its students are archived and
+     * the ClassGroup is deleted.
      *
      * @param classGroupId the ID of the ClassGroup to increment the grade for.
      * @throws EntityNotFoundException if the ClassGroup with the specified ID does not exist.
-     * @throws GradeIncrementNotAllowedException if the ClassGroup is already at the final grade.
      */
     @Override
     public void incrementGradeForClassGroup(Long classGroupId) throws EntityNotFoundException {
@@ -313,6 +571,9 @@ public class ClassGroupServiceImpl implements IClassGroupService {
 
             ClassGroup classGroupToIncrement = classGroupDAO.getById(classGroupId)
                     .orElseThrow(() -> new EntityNotFoundException(ClassGroup.class, classGroupId));
+            ClassGroupSnapshot before = Mapper.mapToClassGroupSnapshot(classGroupToIncrement);
+            Map<Long, StudentSnapshot> studentsBefore = snapshotStudents(classGroupToIncrement);
+            List<Student> students = new ArrayList<>(classGroupToIncrement.getStudents());
 
             Optional<Grade> nextGradeOpt = getNextGradeIfNotFinal(classGroupToIncrement.getGrade());
 
@@ -323,27 +584,27 @@ public class ClassGroupServiceImpl implements IClassGroupService {
                 updateStudentGradesForClassGroup(classGroupToIncrement, nextGrade);
                 classGroupDAO.updateClassGroup(classGroupToIncrement);
 
-                log.info("ClassGroup with ID " + classGroupId + " was incremented to grade " + nextGrade + ".");
+                log.info("ClassGroup with ID {} was incremented to grade {}.", classGroupId, nextGrade);
                 gradeIncremented = true;
             } else {
                 // Archive students and delete class group, no further grade increments possible
                 archiveStudentsAndDeleteClassGroup(classGroupToIncrement);
 
-                log.info("ClassGroup with ID " + classGroupId + " has been archived and deleted.");
+                log.info("ClassGroup with ID {} has been archived and deleted.", classGroupId);
             }
 
             JPAHelper.commitTransaction();
-
-            if (!gradeIncremented) {
-                throw new GradeIncrementNotAllowedException();
-            }
-
-        } catch (EntityNotFoundException | GradeIncrementNotAllowedException e) {
+            fireStudentChanges(studentsBefore, students);
+            ClassGroupChangedEvent classGroupChange = gradeIncremented
+                    ? ClassGroupChangedEvent.updated(before, Mapper.mapToClassGroupSnapshot(classGroupToIncrement))
+                    : ClassGroupChangedEvent.deleted(before);
+            JPAHelper.runAfterCommit(() -> classGroupChanged.fire(classGroupChange));
+        } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
     }
 
@@ -357,11 +618,11 @@ public class ClassGroupServiceImpl implements IClassGroupService {
             student.setArchived(true);
             student.setClassGroup(null);
             studentDAO.updateStudent(student);
-            log.info("Student with ID " + student.getId() + " has been archived.");
+            log.info("Student with ID {} has been archived.", student.getId());
         });
 
         classGroupDAO.deleteClassGroup(classGroup.getId());
-        log.info("ClassGroup with ID " + classGroup.getId() + " has been deleted because all students have graduated.");
+        log.info("ClassGroup with ID {} has been deleted because all students have graduated.", classGroup.getId());
     }
 
     /**
@@ -388,4 +649,35 @@ public class ClassGroupServiceImpl implements IClassGroupService {
         int nextIndex = currentGrade.ordinal() + 1;
         return (nextIndex < grades.length) ? Optional.of(grades[nextIndex]) : Optional.empty();
     }
+
+    /**
+     * Takes a snapshot of every student of a ClassGroup before it is modified.
+     *
+     * @param classGroup the ClassGroup whose students are about to change.
+     * @return the student snapshots keyed by student id.
+     */
+    private Map<Long, StudentSnapshot> snapshotStudents(ClassGroup classGroup) {
+        return classGroup.getStudents().stream()
+                .collect(Collectors.toMap(Student::getId, Mapper::mapToStudentSnapshot));
+    }
+
+    /**
+     * Fires a change event for every student whose state differs from its snapshot, once the
+     * transaction is committed. The events are built right away from the current state.
+     *
+     * @param before   the snapshots taken before the change, keyed by student id.
+     * @param students the students after the change.
+     */
+    private void fireStudentChanges(Map<Long, StudentSnapshot> before, Iterable<Student> students) {
+        for (Student student : students) {
+            StudentSnapshot previous = before.get(student.getId());
+            StudentSnapshot current = Mapper.mapToStudentSnapshot(student);
+            if (previous != null && (previous.getGrade() != current.getGrade()
+                    || previous.isArchived() != current.isArchived()
+                    || !Objects.equals(previous.getClassGroupId(), current.getClassGroupId()))) {
+                StudentChangedEvent updated = StudentChangedEvent.updated(previous, current);
+                JPAHelper.runAfterCommit(() -> studentChanged.fire(updated));
+            }
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dao.archivedStudentDAO.IArchivedStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.graduationDTO.GraduationReportReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service implementation of the graduation pipeline.
+ * Moves archived students from the hot {@code students} table to {@code archived_students} in
+ * chunks of {@code graduation.chunkSize} rows (default 500). Each chunk is its own transaction, so
+ * an interrupted run keeps what it has moved and the next run continues with the rest.
+ */
+@Provider
+@ApplicationScoped
+@Slf4j
+public class GraduationServiceImpl implements IGraduationService {
+
+    private final int chunkSize = Integer.getInteger("graduation.chunkSize", 500);
+
+    @Inject
+    IArchivedStudentDAO archivedStudentDAO;
+
+    @Inject
+    Event<StudentChangedEvent> studentChanged;
+
+    /**
+     * Moves every archived student to the archive table.
+     *
+     * @return the number of students moved and chunks used
+     */
+    @Override
+    public GraduationReportReadOnlyDTO moveArchivedStudents() {
+        long start = System.nanoTime();
+        long moved = 0L;
+        int chunks = 0;
+
+        List<StudentSnapshot> chunk;
+        do {
+            chunk = moveChunk();
+            moved += chunk.size();
+            if (!chunk.isEmpty()) {
+                chunks++;
+            }
+        } while (chunk.size() == chunkSize);
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Graduation moved {} archived students to the archive in {} chunks ({} ms)", moved, chunks, durationMillis);
+        return new GraduationReportReadOnlyDTO(moved, chunks, durationMillis);
+    }
+
+    /**
+     * Moves one chunk in a single transaction.
+     *
+     * @return the students moved
+     */
+    private List<StudentSnapshot> moveChunk() {
+        List<StudentSnapshot> students;
+
+        try {
+            JPAHelper.beginTransaction();
+            students = archivedStudentDAO.getArchivedStudentsToMove(chunkSize);
+            if (!students.isEmpty()) {
+                archivedStudentDAO.moveToArchive(students.stream().map(StudentSnapshot::getId).collect(Collectors.toList()));
+            }
+            JPAHelper.commitTransaction();
+        } catch (RuntimeException e) {
+            JPAHelper.rollbackTransaction();
+            log.error("Graduation chunk could not be moved to the archive", e);
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+
+        students.forEach(student -> studentChanged.fire(StudentChangedEvent.archived(student)));
+        return students;
+    }
+}
@@ -0,0 +1,8 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dto.auditDTO.AuditPageReadOnlyDTO;
+
+public interface IAuditService {
+
+    AuditPageReadOnlyDTO getAuditEntries(String entityType, Long entityId, int page, int size);
+}
@@ -0,0 +1,8 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import java.util.function.BooleanSupplier;
+
+public interface IBatchService {
+
+    boolean runInOneTransaction(BooleanSupplier operations);
+}
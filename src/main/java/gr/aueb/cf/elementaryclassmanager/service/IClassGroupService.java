@@ -1,15 +1,21 @@
 package gr.aueb.cf.elementaryclassmanager.service;
 
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupReadOnlyDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherReassignmentDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.TeacherReassignmentReportReadOnlyDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.service.cache.RosterSnapshot;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.ClassGroupAlreadyExists;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.ClassGroupFullException;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.InvalidTeacherAssignmentException;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.StudentGradeDoesNotMatchClassGroup;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IClassGroupService {
     ClassGroupReadOnlyDTO insertClassGroup(ClassGroupInsertDTO dto) throws ClassGroupAlreadyExists;
@@ -17,8 +23,13 @@ public interface IClassGroupService {
     void deleteClassGroup(Long id) throws EntityNotFoundException;
     ClassGroupReadOnlyDTO getClassGroupById(Long id) throws EntityNotFoundException;
     List<StudentReadOnlyDTO> getStudentsByClassGroupId(Long classGroupId) throws EntityNotFoundException;
+    List<Map<String, Object>> getStudentsByClassGroupId(Long classGroupId, FieldSelection fields) throws EntityNotFoundException;
+    RosterSnapshot getRosterSnapshot(Long classGroupId) throws EntityNotFoundException;
+    String getRosterTag(Long classGroupId);
     void assignStudentToClassGroup(Long studentId, Long classGroupId) throws EntityNotFoundException, ClassGroupFullException, StudentGradeDoesNotMatchClassGroup;
     void assignTeacherToClassGroup(Long teacherId, Long classGroupId) throws EntityNotFoundException;
+    TeacherReassignmentReportReadOnlyDTO reassignTeachers(TeacherReassignmentDTO dto)
+            throws EntityNotFoundException, InvalidTeacherAssignmentException;
     void incrementGradeForClassGroup(Long classGroupId) throws EntityNotFoundException;
 
 }
\ No newline at end of file
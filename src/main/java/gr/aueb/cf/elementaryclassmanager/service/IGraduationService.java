@@ -0,0 +1,8 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dto.graduationDTO.GraduationReportReadOnlyDTO;
+
+public interface IGraduationService {
+
+    GraduationReportReadOnlyDTO moveArchivedStudents();
+}
@@ -0,0 +1,10 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dto.jobDTO.JobReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+
+public interface IJobService {
+
+    JobReadOnlyDTO submitJob(String type, Long targetId) throws EntityNotFoundException;
+    JobReadOnlyDTO getJobById(Long id) throws EntityNotFoundException;
+}
@@ -0,0 +1,9 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dto.statsDTO.SchoolStatsReadOnlyDTO;
+
+public interface IStatisticsService {
+
+    SchoolStatsReadOnlyDTO getStatistics();
+    SchoolStatsReadOnlyDTO refreshStatistics();
+}
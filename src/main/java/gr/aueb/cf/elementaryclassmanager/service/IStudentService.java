@@ -1,21 +1,30 @@
 package gr.aueb.cf.elementaryclassmanager.service;
 
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.StudentAlreadyExists;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface IStudentService {
 
     StudentReadOnlyDTO insertStudent(StudentInsertDTO student) throws StudentAlreadyExists;
     StudentReadOnlyDTO updateStudent(StudentUpdateDTO student) throws EntityNotFoundException;
+    StudentReadOnlyDTO updateStudent(StudentUpdateDTO student, Long expectedVersion) throws EntityNotFoundException;
     void deleteStudent(Long id) throws EntityNotFoundException;
     List<StudentReadOnlyDTO> getStudentByLastname(String lastName) throws EntityNotFoundException;
     StudentReadOnlyDTO getStudentById(Long id) throws EntityNotFoundException;
+    Optional<EntityVersion> getStudentVersion(Long id);
     StudentReadOnlyDTO getStudentBySsn(String ssn) throws EntityNotFoundException;
+    Map<String, Object> getStudentById(Long id, FieldSelection fields) throws EntityNotFoundException;
+    List<Map<String, Object>> getStudentsByLastname(String lastName, FieldSelection fields) throws EntityNotFoundException;
+    Map<String, Object> getStudentBySsn(String ssn, FieldSelection fields) throws EntityNotFoundException;
 
 
 
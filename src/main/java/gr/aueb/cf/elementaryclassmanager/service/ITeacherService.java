@@ -1,19 +1,27 @@
 package gr.aueb.cf.elementaryclassmanager.service;
 
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherReadOnlyDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.TeacherAlreadyExists;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 
 public interface ITeacherService {
 
     TeacherReadOnlyDTO insertTeacher(TeacherInsertDTO dto) throws TeacherAlreadyExists;
     TeacherReadOnlyDTO updateTeacher(TeacherUpdateDTO dto) throws EntityNotFoundException;
+    TeacherReadOnlyDTO updateTeacher(TeacherUpdateDTO dto, Long expectedVersion) throws EntityNotFoundException;
     void deleteTeacher(Long id) throws EntityNotFoundException;
     List<TeacherReadOnlyDTO> getTeachersByLastname(String lastname) throws EntityNotFoundException;
     TeacherReadOnlyDTO getTeacherById(Long id) throws EntityNotFoundException;
+    Map<String, Object> getTeacherById(Long id, FieldSelection fields) throws EntityNotFoundException;
+    List<Map<String, Object>> getTeachersByLastname(String lastname, FieldSelection fields) throws EntityNotFoundException;
+    Optional<EntityVersion> getTeacherVersion(Long id);
 }
@@ -0,0 +1,89 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dao.jobDAO.IJobDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.jobDTO.JobReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.jobs.JobHandler;
+import gr.aueb.cf.elementaryclassmanager.jobs.JobPlan;
+import gr.aueb.cf.elementaryclassmanager.jobs.JobRunner;
+import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.model.Job;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service implementation for submitting and tracking background jobs.
+ */
+@Provider
+@ApplicationScoped
+@Slf4j
+public class JobServiceImpl implements IJobService {
+
+    @Inject
+    IJobDAO jobDAO;
+
+    @Inject
+    JobRunner jobRunner;
+
+    /**
+     * Persists a new job and hands it to the worker pool once it is committed.
+     *
+     * @param type     the job type, e.g. {@code increment-grade}
+     * @param targetId the ID of the entity the job works on, may be {@code null}
+     * @return the queued job as a read-only DTO
+     * @throws EntityNotFoundException if the target of the job does not exist
+     */
+    @Override
+    public JobReadOnlyDTO submitJob(String type, Long targetId) throws EntityNotFoundException {
+        JobHandler handler = jobRunner.getHandler(type);
+        Job job;
+
+        try {
+            JPAHelper.beginTransaction();
+            JobPlan plan = handler.prepare(targetId);
+            job = jobDAO.insertJob(new Job(type, targetId, plan.getParameters(), plan.getTotal()));
+            JPAHelper.commitTransaction();
+            log.info("Job with id {} ({}) was queued successfully.", job.getId(), type);
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+
+        Long jobId = job.getId();
+        JPAHelper.runAfterCommit(() -> jobRunner.dispatch(jobId));
+        return Mapper.mapToJobReadOnlyDTO(job);
+    }
+
+    /**
+     * Retrieves the status and progress of a job.
+     *
+     * @param id the ID of the job
+     * @return the job as a read-only DTO
+     * @throws EntityNotFoundException if the job does not exist
+     */
+    @Override
+    public JobReadOnlyDTO getJobById(Long id) throws EntityNotFoundException {
+        Job job;
+
+        try {
+            JPAHelper.beginTransaction();
+            job = jobDAO.getById(id)
+                    .orElseThrow(() -> new EntityNotFoundException(Job.class, id));
+            JPAHelper.commitTransaction();
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+
+        return Mapper.mapToJobReadOnlyDTO(job);
+    }
+}
@@ -0,0 +1,309 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO.IClassGroupDAO;
+import gr.aueb.cf.elementaryclassmanager.dao.statisticsDAO.IStatisticsDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
+import gr.aueb.cf.elementaryclassmanager.dto.statsDTO.ClassGroupFillReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.statsDTO.SchoolStatsReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.model.ClassGroup;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import gr.aueb.cf.elementaryclassmanager.service.events.ChangeType;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation for the aggregated school statistics.
+ * <p>
+ * The counters are computed by GROUP BY queries on first use and from then on maintained
+ * incrementally from the change events the other services fire after each commit. Reads return
+ * a published immutable snapshot; a change only discards it, and the next read rebuilds it from
+ * the counters without touching the database. {@link #refreshStatistics()} recomputes everything
+ * from the database, which is how the incremental counters can be verified.
+ * <p>
+ * A change that commits while the counts are being queried may or may not be part of them, so its
+ * delta can be applied neither on top of the result nor left out. Changes that arrive during a
+ * recompute are therefore not applied; the recompute runs again instead, until one completes
+ * without any change arriving or {@link #MAX_RECOMPUTE_ATTEMPTS} is reached.
+ */
+@Provider
+@ApplicationScoped
+@Slf4j
+public class StatisticsServiceImpl implements IStatisticsService {
+
+    @Inject
+    IStatisticsDAO statisticsDAO;
+
+    @Inject
+    IClassGroupDAO classGroupDAO;
+
+    static final int MAX_RECOMPUTE_ATTEMPTS = 3;
+
+    private final Object lock = new Object();
+    private final Object recomputeLock = new Object();
+    private boolean initialized;
+    private boolean recomputing;
+    private boolean changedWhileRecomputing;
+    private final long[] activeByGrade = new long[Grade.values().length];
+    private long unassignedStudents;
+    private long archivedStudents;
+    private final Map<Long, ClassGroupCounter> classGroups = new TreeMap<>();
+
+    private volatile SchoolStatsReadOnlyDTO published;
+
+    /**
+     * Retrieves the current statistics, computing them from the database on first use.
+     *
+     * @return the statistics as a read-only DTO
+     */
+    @Override
+    public SchoolStatsReadOnlyDTO getStatistics() {
+        SchoolStatsReadOnlyDTO current = published;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (initialized) {
+                return currentSnapshot();
+            }
+        }
+        synchronized (recomputeLock) {
+            synchronized (lock) {
+                if (initialized) {
+                    return currentSnapshot();
+                }
+            }
+            return recompute();
+        }
+    }
+
+    /**
+     * Discards the incrementally maintained counters and recomputes them from the database.
+     *
+     * @return the recomputed statistics as a read-only DTO
+     */
+    @Override
+    public SchoolStatsReadOnlyDTO refreshStatistics() {
+        synchronized (recomputeLock) {
+            SchoolStatsReadOnlyDTO recomputed = recompute();
+            log.info("School statistics recomputed from the database");
+            return recomputed;
+        }
+    }
+
+    public void onStudentChanged(@Observes StudentChangedEvent event) {
+        if (event.getType() == ChangeType.ARCHIVED) {
+            // moved from the hot table to the archive, still counted as archived
+            return;
+        }
+        synchronized (lock) {
+            if (!isTracking()) {
+                return;
+            }
+            count(event.getBefore(), -1);
+            count(event.getAfter(), 1);
+            published = null;
+        }
+    }
+
+    public void onClassGroupChanged(@Observes ClassGroupChangedEvent event) {
+        synchronized (lock) {
+            if (!isTracking()) {
+                return;
+            }
+            ClassGroupSnapshot after = event.getAfter();
+            if (after == null) {
+                classGroups.remove(event.getBefore().getId());
+            } else {
+                ClassGroupCounter counter = classGroups.get(after.getId());
+                long students = counter != null ? counter.students : 0L;
+                classGroups.put(after.getId(), new ClassGroupCounter(after, students));
+            }
+            published = null;
+        }
+    }
+
+    /**
+     * Tells whether a change must be applied to the counters, and notes a change that arrives
+     * during a recompute instead. Must be called while holding {@link #lock}.
+     */
+    private boolean isTracking() {
+        if (recomputing) {
+            changedWhileRecomputing = true;
+            return false;
+        }
+        return initialized;
+    }
+
+    /**
+     * Adds ({@code sign = 1}) or removes ({@code sign = -1}) the contribution of one student.
+     */
+    private void count(StudentSnapshot student, int sign) {
+        if (student == null) {
+            return;
+        }
+        if (student.isArchived()) {
+            archivedStudents += sign;
+        } else {
+            activeByGrade[student.getGrade().ordinal()] += sign;
+            if (student.getClassGroupId() == null) {
+                unassignedStudents += sign;
+            }
+        }
+        if (student.getClassGroupId() != null) {
+            ClassGroupCounter counter = classGroups.get(student.getClassGroupId());
+            if (counter != null) {
+                counter.students += sign;
+            }
+        }
+    }
+
+    /**
+     * Reloads every counter from the database and publishes the result, repeating the queries
+     * while changes arrive in the meantime. Must be called while holding {@link #recomputeLock}
+     * and not {@link #lock}, so that change events are not held up by the queries.
+     */
+    private SchoolStatsReadOnlyDTO recompute() {
+        for (int attempt = 1; ; attempt++) {
+            synchronized (lock) {
+                recomputing = true;
+                changedWhileRecomputing = false;
+            }
+            Counts counts;
+            try {
+                counts = loadCounts();
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    recomputing = false;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                if (changedWhileRecomputing && attempt < MAX_RECOMPUTE_ATTEMPTS) {
+                    continue;
+                }
+                if (changedWhileRecomputing) {
+                    log.warn("School statistics changed during {} recomputes, the counters may be off until the next refresh",
+                            attempt);
+                }
+                install(counts);
+                recomputing = false;
+                published = null;
+                return currentSnapshot();
+            }
+        }
+    }
+
+    private Counts loadCounts() {
+        try {
+            JPAHelper.beginTransaction();
+            Counts counts = new Counts();
+            counts.byGrade = statisticsDAO.countActiveStudentsByGrade();
+            counts.byClassGroup = statisticsDAO.countStudentsByClassGroup();
+            counts.unassigned = statisticsDAO.countUnassignedActiveStudents();
+            counts.archived = statisticsDAO.countArchivedStudents();
+            try (Stream<ClassGroupSnapshot> rows = classGroupDAO.streamAll()) {
+                rows.forEach(counts.groups::add);
+            }
+            JPAHelper.commitTransaction();
+            return counts;
+        } catch (RuntimeException e) {
+            JPAHelper.rollbackTransaction();
+            log.error("School statistics could not be computed", e);
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+    }
+
+    /**
+     * Replaces every counter with freshly loaded counts. Must be called while holding {@link #lock}.
+     */
+    private void install(Counts counts) {
+        for (Grade grade : Grade.values()) {
+            activeByGrade[grade.ordinal()] = counts.byGrade.getOrDefault(grade, 0L);
+        }
+        unassignedStudents = counts.unassigned;
+        archivedStudents = counts.archived;
+        classGroups.clear();
+        for (ClassGroupSnapshot group : counts.groups) {
+            classGroups.put(group.getId(), new ClassGroupCounter(group, counts.byClassGroup.getOrDefault(group.getId(), 0L)));
+        }
+        initialized = true;
+    }
+
+    /**
+     * Returns the published snapshot, rebuilding it after a change. Must be called while holding {@link #lock}.
+     */
+    private SchoolStatsReadOnlyDTO currentSnapshot() {
+        if (published == null) {
+            published = buildSnapshot();
+        }
+        return published;
+    }
+
+    /**
+     * Builds the immutable DTO served to readers. Must be called while holding {@link #lock}.
+     */
+    private SchoolStatsReadOnlyDTO buildSnapshot() {
+        Map<Grade, Long> enrollment = new EnumMap<>(Grade.class);
+        for (Grade grade : Grade.values()) {
+            enrollment.put(grade, activeByGrade[grade.ordinal()]);
+        }
+
+        List<ClassGroupFillReadOnlyDTO> fill = new ArrayList<>(classGroups.size());
+        long withoutTeacher = 0L;
+        for (Map.Entry<Long, ClassGroupCounter> entry : classGroups.entrySet()) {
+            ClassGroupCounter counter = entry.getValue();
+            if (counter.archived) {
+                continue;
+            }
+            if (!counter.hasTeacher) {
+                withoutTeacher++;
+            }
+            fill.add(new ClassGroupFillReadOnlyDTO(entry.getKey(), counter.name, counter.grade, counter.students,
+                    ClassGroup.getMaxStudents(), counter.hasTeacher));
+        }
+
+        return new SchoolStatsReadOnlyDTO(Collections.unmodifiableMap(enrollment), Collections.unmodifiableList(fill),
+                withoutTeacher, unassignedStudents, archivedStudents, System.currentTimeMillis());
+    }
+
+    private static final class Counts {
+        private Map<Grade, Long> byGrade;
+        private Map<Long, Long> byClassGroup;
+        private long unassigned;
+        private long archived;
+        private final List<ClassGroupSnapshot> groups = new ArrayList<>();
+    }
+
+    private static final class ClassGroupCounter {
+        private final Character name;
+        private final Grade grade;
+        private final boolean hasTeacher;
+        private final boolean archived;
+        private long students;
+
+        private ClassGroupCounter(ClassGroupSnapshot classGroup, long students) {
+            this.name = classGroup.getName();
+            this.grade = classGroup.getGrade();
+            this.hasTeacher = classGroup.getTeacherId() != null;
+            this.archived = classGroup.isArchived();
+            this.students = students;
+        }
+    }
+}
@@ -1,20 +1,37 @@
 package gr.aueb.cf.elementaryclassmanager.service;
 
+import gr.aueb.cf.elementaryclassmanager.dao.archivedStudentDAO.IArchivedStudentDAO;
 import gr.aueb.cf.elementaryclassmanager.dao.studentDAO.IStudentDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentFields;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
 import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
+import gr.aueb.cf.elementaryclassmanager.keyfilter.UniqueKeyFilter;
 import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.metrics.Timed;
 import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.readmodel.SchoolReadModel;
+import gr.aueb.cf.elementaryclassmanager.service.cache.EntityVersionCache;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityVersionMismatchException;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.StudentAlreadyExists;
 import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.service.util.PersistenceErrors;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
 import jakarta.ws.rs.ext.Provider;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -23,16 +40,35 @@ import java.util.stream.Collectors;
  */
 @Provider
 @ApplicationScoped
+@Timed
+@Traced
 @Slf4j
 public class StudentServiceImpl implements IStudentService {
 
     @Inject
     IStudentDAO studentDAO;
 
+    @Inject
+    IArchivedStudentDAO archivedStudentDAO;
+
+    @Inject
+    SchoolReadModel readModel;
+
+    @Inject
+    UniqueKeyFilter uniqueKeyFilter;
+
+    @Inject
+    EntityVersionCache versionCache;
+
+    @Inject
+    Event<StudentChangedEvent> studentChanged;
+
     /**
      * Inserts a new student into the system.
      *
-     * This method checks if a student with the given SSN already exists and inserts a new student if not.
+     * This method checks if a student with the given SSN already exists, among the active and the
+     * graduated students, and inserts a new student if not. The lookup is skipped when the unique key
+     * filter knows the SSN is new; the unique constraint on the SSN column still rejects duplicates.
      *
      * @param dto the data transfer object containing student details (e.g., first name, last name, SSN, etc.)
      * @return the inserted student as a read-only DTO
@@ -44,35 +80,68 @@ public class StudentServiceImpl implements IStudentService {
 
         try {
             JPAHelper.beginTransaction();
-            studentDAO.getBySsn(dto.getSsn())
-                    .ifPresent(existingStudent -> {
-                        throw new StudentAlreadyExists(dto.getSsn());
-                    });
+            if (uniqueKeyFilter.mightContainSsn(dto.getSsn())) {
+                studentDAO.getBySsn(dto.getSsn())
+                        .ifPresent(existingStudent -> {
+                            throw new StudentAlreadyExists(dto.getSsn());
+                        });
+                archivedStudentDAO.getBySsn(dto.getSsn())
+                        .ifPresent(archivedStudent -> {
+                            throw new StudentAlreadyExists(dto.getSsn());
+                        });
+            }
 
             studentToInsert = studentDAO.insertStudent(Mapper.mapToStudent(dto));
             JPAHelper.commitTransaction();
-            log.info("Student with SSN " + dto.getSsn() + " inserted successfully");
+            StudentChangedEvent inserted = StudentChangedEvent.inserted(Mapper.mapToStudentSnapshot(studentToInsert));
+            JPAHelper.runAfterCommit(() -> studentChanged.fire(inserted));
+            log.info("Student with SSN {} inserted successfully", dto.getSsn());
         } catch (StudentAlreadyExists e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
+            throw e;
+        } catch (PersistenceException e) {
+            if (JPAHelper.getEntityManager().getTransaction().isActive()) {
+                JPAHelper.rollbackTransaction();
+            }
+            if (PersistenceErrors.isConstraintViolation(e)) {
+                // the SSN is the only unique column besides the id
+                log.debug("Student with SSN {} was rejected by the unique constraint", dto.getSsn());
+                throw new StudentAlreadyExists(dto.getSsn());
+            }
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
         return Mapper.mapToStudentReadOnlyDTO(studentToInsert);
     }
 
+    /**
+     * Updates an existing student without checking its version.
+     *
+     * @param dto the data transfer object containing the updated student details.
+     * @return the updated student as a read-only DTO
+     * @throws EntityNotFoundException if the student with the specified ID does not exist.
+     */
+    @Override
+    public StudentReadOnlyDTO updateStudent(StudentUpdateDTO dto) throws EntityNotFoundException {
+        return updateStudent(dto, null);
+    }
+
     /**
      * Updates an existing student's information based on the provided data transfer object.
      * If the student's grade changes, the student is removed from their current ClassGroup
      * to ensure consistency. The grade change is then applied to the student.
      *
      * @param dto the data transfer object containing the updated student details.
+     * @param expectedVersion the version the client last saw, {@code null} to skip the check
      * @return the updated student as a read-only DTO
+     * @throws EntityVersionMismatchException if the student is not at the expected version,
+     * or was changed by a concurrent transaction.
      * @throws EntityNotFoundException if the student with the specified ID does not exist.
      */
     @Override
-    public StudentReadOnlyDTO updateStudent(StudentUpdateDTO dto) throws EntityNotFoundException {
+    public StudentReadOnlyDTO updateStudent(StudentUpdateDTO dto, Long expectedVersion) throws EntityNotFoundException {
         Student studentToUpdate;
         Student updatedStudent;
 
@@ -80,26 +149,42 @@ public class StudentServiceImpl implements IStudentService {
             JPAHelper.beginTransaction();
             studentToUpdate = studentDAO.getActiveById(dto.getId())
                     .orElseThrow(() -> new EntityNotFoundException(Student.class, dto.getId()));
+            if (expectedVersion != null && expectedVersion != studentToUpdate.getVersion()) {
+                throw new EntityVersionMismatchException(Student.class, dto.getId());
+            }
+            StudentSnapshot before = Mapper.mapToStudentSnapshot(studentToUpdate);
 
             // Check if the grade has changed and remove the student from the current ClassGroup if necessary
             if (!studentToUpdate.getGrade().equals(dto.getGrade())) {
                 if (studentToUpdate.getClassGroup() != null) {
                     studentToUpdate.getClassGroup().removeStudent(studentToUpdate);
                 }
-                log.info("Student with id " + dto.getId() + " was removed from their previous ClassGroup due to grade change.");
+                log.info("Student with id {} was removed from their previous ClassGroup due to grade change.", dto.getId());
             }
 
             // Map the updates and save
             updatedStudent = Mapper.mapToStudent(studentToUpdate, dto);
             studentDAO.updateStudent(updatedStudent);
             JPAHelper.commitTransaction();
-            log.info("Student with id " + dto.getId() + " updated successfully");
-        } catch (EntityNotFoundException e) {
+            StudentChangedEvent updated = StudentChangedEvent.updated(before, Mapper.mapToStudentSnapshot(updatedStudent));
+            JPAHelper.runAfterCommit(() -> studentChanged.fire(updated));
+            log.info("Student with id {} updated successfully", dto.getId());
+        } catch (EntityNotFoundException | EntityVersionMismatchException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
+            throw e;
+        } catch (PersistenceException e) {
+            if (JPAHelper.getEntityManager().getTransaction().isActive()) {
+                JPAHelper.rollbackTransaction();
+            }
+            if (PersistenceErrors.isOptimisticLockFailure(e)) {
+                EntityVersionMismatchException mismatch = new EntityVersionMismatchException(Student.class, dto.getId());
+                log.debug(mismatch.getMessage());
+                throw mismatch;
+            }
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
 
         return Mapper.mapToStudentReadOnlyDTO(studentToUpdate);
@@ -117,16 +202,18 @@ public class StudentServiceImpl implements IStudentService {
             JPAHelper.beginTransaction();
             Student studentToDelete = studentDAO.getById(id)
                     .orElseThrow(() -> new EntityNotFoundException(Student.class, id));
+            StudentSnapshot before = Mapper.mapToStudentSnapshot(studentToDelete);
 
             studentDAO.deleteStudent(id);
             JPAHelper.commitTransaction();
-            log.info("Student with id " + id + " deleted successfully");
+            JPAHelper.runAfterCommit(() -> studentChanged.fire(StudentChangedEvent.deleted(before)));
+            log.info("Student with id {} deleted successfully", id);
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
     }
 
@@ -139,6 +226,11 @@ public class StudentServiceImpl implements IStudentService {
      */
     @Override
     public List<StudentReadOnlyDTO> getStudentByLastname(String lastName) throws EntityNotFoundException {
+        List<StudentReadOnlyDTO> fromReadModel = readModel.findStudentsByLastname(lastName);
+        if (!fromReadModel.isEmpty()) {
+            return fromReadModel;
+        }
+
         List<Student> students;
 
         try {
@@ -148,13 +240,13 @@ public class StudentServiceImpl implements IStudentService {
                 throw new EntityNotFoundException(Student.class, "lastname", lastName);
             }
             JPAHelper.commitTransaction();
-            log.info("Students with lastname " + lastName + " found successfully");
+            log.info("Students with lastname {} found successfully", lastName);
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
         return students.stream()
                 .map(Mapper::mapToStudentReadOnlyDTO)
@@ -170,6 +262,11 @@ public class StudentServiceImpl implements IStudentService {
      */
     @Override
     public StudentReadOnlyDTO getStudentById(Long id) throws EntityNotFoundException {
+        Optional<StudentReadOnlyDTO> fromReadModel = readModel.findStudentById(id);
+        if (fromReadModel.isPresent()) {
+            return fromReadModel.get();
+        }
+
         Student studentToReturn;
 
         try {
@@ -177,20 +274,42 @@ public class StudentServiceImpl implements IStudentService {
             studentToReturn = studentDAO.getById(id)
                     .orElseThrow(() -> new EntityNotFoundException(Student.class, id));
             JPAHelper.commitTransaction();
-            log.info("Student with id " + studentToReturn.getId() + " found successfully");
+            log.info("Student with id {} found successfully", studentToReturn.getId());
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
 
         return Mapper.mapToStudentReadOnlyDTO(studentToReturn);
     }
 
+    /**
+     * Retrieves the version of a student for conditional requests.
+     * Served from the version cache when possible; a miss reads only the version columns.
+     *
+     * @param id the ID of the student
+     * @return the version, or empty if the student does not exist
+     */
+    @Override
+    public Optional<EntityVersion> getStudentVersion(Long id) {
+        return versionCache.get(Student.class, id, () -> {
+            try {
+                JPAHelper.beginTransaction();
+                Optional<EntityVersion> version = studentDAO.getVersionById(id);
+                JPAHelper.commitTransaction();
+                return version;
+            } finally {
+                JPAHelper.closeEntityManager();
+            }
+        });
+    }
+
     /**
      * Retrieves a student by their SSN.
+     * Students that have been moved to the archive by the graduation pipeline are found as well.
      *
      * @param ssn the SSN of the student to retrieve
      * @return the read-only DTO of the student found
@@ -198,22 +317,138 @@ public class StudentServiceImpl implements IStudentService {
      */
     @Override
     public StudentReadOnlyDTO getStudentBySsn(String ssn) throws EntityNotFoundException {
-        Student studentToReturn;
+        Optional<StudentReadOnlyDTO> fromReadModel = readModel.findStudentBySsn(ssn);
+        if (fromReadModel.isPresent()) {
+            return fromReadModel.get();
+        }
+
+        StudentReadOnlyDTO studentToReturn;
 
         try {
             JPAHelper.beginTransaction();
-            studentToReturn = studentDAO.getBySsn(ssn)
-                    .orElseThrow(() -> new EntityNotFoundException(Student.class, "SSN", ssn));
+            Optional<Student> student = studentDAO.getBySsn(ssn);
+            studentToReturn = student.isPresent()
+                    ? Mapper.mapToStudentReadOnlyDTO(student.get())
+                    : archivedStudentDAO.getBySsn(ssn)
+                            .map(Mapper::mapToStudentReadOnlyDTO)
+                            .orElseThrow(() -> new EntityNotFoundException(Student.class, "SSN", ssn));
             JPAHelper.commitTransaction();
-            log.info("Student with SSN " + ssn + " found successfully");
+            log.info("Student with SSN {} found successfully", ssn);
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
 
-        return Mapper.mapToStudentReadOnlyDTO(studentToReturn);
+        return studentToReturn;
+    }
+
+    /**
+     * Retrieves the selected fields of a student by their ID, selecting only their columns.
+     *
+     * @param id the ID of the student to retrieve
+     * @param fields the fields to return
+     * @return the selected fields of the student
+     * @throws EntityNotFoundException if the student does not exist
+     */
+    @Override
+    public Map<String, Object> getStudentById(Long id, FieldSelection fields) throws EntityNotFoundException {
+        Optional<StudentReadOnlyDTO> fromReadModel = readModel.findStudentById(id);
+        if (fromReadModel.isPresent()) {
+            return fields.project(fromReadModel.get(), StudentFields::valueOf);
+        }
+
+        Map<String, Object> fieldsToReturn;
+
+        try {
+            JPAHelper.beginTransaction();
+            fieldsToReturn = studentDAO.getFieldsById(id, fields)
+                    .orElseThrow(() -> new EntityNotFoundException(Student.class, id));
+            JPAHelper.commitTransaction();
+            log.info("Fields {} of student with id {} found successfully", fields.getFields(), id);
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+        return fieldsToReturn;
+    }
+
+    /**
+     * Retrieves the selected fields of the students whose last name starts with the given one.
+     *
+     * @param lastName the last name of the students to search for
+     * @param fields the fields to return
+     * @return the selected fields of each student found
+     * @throws EntityNotFoundException if no students are found
+     */
+    @Override
+    public List<Map<String, Object>> getStudentsByLastname(String lastName, FieldSelection fields) throws EntityNotFoundException {
+        List<StudentReadOnlyDTO> fromReadModel = readModel.findStudentsByLastname(lastName);
+        if (!fromReadModel.isEmpty()) {
+            return fromReadModel.stream()
+                    .map(dto -> fields.project(dto, StudentFields::valueOf))
+                    .collect(Collectors.toList());
+        }
+
+        List<Map<String, Object>> fieldsToReturn;
+
+        try {
+            JPAHelper.beginTransaction();
+            fieldsToReturn = studentDAO.getFieldsByLastname(lastName, fields);
+            if (fieldsToReturn.isEmpty()) {
+                throw new EntityNotFoundException(Student.class, "lastname", lastName);
+            }
+            JPAHelper.commitTransaction();
+            log.info("Fields {} of students with lastname {} found successfully", fields.getFields(), lastName);
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+        return fieldsToReturn;
+    }
+
+    /**
+     * Retrieves the selected fields of a student by their SSN, graduated students included.
+     *
+     * @param ssn the SSN of the student to retrieve
+     * @param fields the fields to return
+     * @return the selected fields of the student
+     * @throws EntityNotFoundException if the student does not exist
+     */
+    @Override
+    public Map<String, Object> getStudentBySsn(String ssn, FieldSelection fields) throws EntityNotFoundException {
+        Optional<StudentReadOnlyDTO> fromReadModel = readModel.findStudentBySsn(ssn);
+        if (fromReadModel.isPresent()) {
+            return fields.project(fromReadModel.get(), StudentFields::valueOf);
+        }
+
+        Map<String, Object> fieldsToReturn;
+
+        try {
+            JPAHelper.beginTransaction();
+            Optional<Map<String, Object>> student = studentDAO.getFieldsBySsn(ssn, fields);
+            fieldsToReturn = student.isPresent()
+                    ? student.get()
+                    : archivedStudentDAO.getBySsn(ssn)
+                            .map(archivedStudent -> fields.project(Mapper.mapToStudentReadOnlyDTO(archivedStudent), StudentFields::valueOf))
+                            .orElseThrow(() -> new EntityNotFoundException(Student.class, "SSN", ssn));
+            JPAHelper.commitTransaction();
+            log.info("Fields {} of student with SSN {} found successfully", fields.getFields(), ssn);
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+        return fieldsToReturn;
     }
 }
@@ -1,20 +1,36 @@
 package gr.aueb.cf.elementaryclassmanager.service;
 
 import gr.aueb.cf.elementaryclassmanager.dao.teacherDAO.ITeacherDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.FieldSelection;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherFields;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherInsertDTO;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherSnapshot;
 import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherUpdateDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
+import gr.aueb.cf.elementaryclassmanager.keyfilter.UniqueKeyFilter;
 import gr.aueb.cf.elementaryclassmanager.mapper.Mapper;
+import gr.aueb.cf.elementaryclassmanager.metrics.Timed;
 import gr.aueb.cf.elementaryclassmanager.model.Teacher;
+import gr.aueb.cf.elementaryclassmanager.readmodel.SchoolReadModel;
+import gr.aueb.cf.elementaryclassmanager.service.cache.EntityVersionCache;
+import gr.aueb.cf.elementaryclassmanager.service.events.TeacherChangedEvent;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityNotFoundException;
+import gr.aueb.cf.elementaryclassmanager.service.exceptions.EntityVersionMismatchException;
 import gr.aueb.cf.elementaryclassmanager.service.exceptions.TeacherAlreadyExists;
 import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import gr.aueb.cf.elementaryclassmanager.service.util.PersistenceErrors;
+import gr.aueb.cf.elementaryclassmanager.tracing.Traced;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
 import jakarta.ws.rs.ext.Provider;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -24,15 +40,31 @@ import java.util.stream.Collectors;
 @Slf4j
 @Provider
 @ApplicationScoped
+@Timed
+@Traced
 public class TeacherServiceImpl implements ITeacherService {
 
     @Inject
     private ITeacherDAO teacherDAO;
 
+    @Inject
+    private SchoolReadModel readModel;
+
+    @Inject
+    private UniqueKeyFilter uniqueKeyFilter;
+
+    @Inject
+    private EntityVersionCache versionCache;
+
+    @Inject
+    private Event<TeacherChangedEvent> teacherChanged;
+
     /**
      * Inserts a new teacher into the system.
      *
      * This method checks if a teacher with the given registration number already exists and inserts a new teacher if not.
+     * The lookup is skipped when the unique key filter knows the registration number is new; the unique
+     * constraint on the column still rejects duplicates.
      *
      * @param dto the data transfer object containing teacher details
      * @return the inserted teacher as a read-only DTO
@@ -44,34 +76,63 @@ public class TeacherServiceImpl implements ITeacherService {
 
         try {
             JPAHelper.beginTransaction();
-            teacherDAO.getByRegistrationNumber(dto.getRegistrationNumber())
-                    .ifPresent(existingTeacher -> {
-                        throw new TeacherAlreadyExists(existingTeacher.getRegistrationNumber());
-                    });
+            if (uniqueKeyFilter.mightContainRegistrationNumber(dto.getRegistrationNumber())) {
+                teacherDAO.getByRegistrationNumber(dto.getRegistrationNumber())
+                        .ifPresent(existingTeacher -> {
+                            throw new TeacherAlreadyExists(existingTeacher.getRegistrationNumber());
+                        });
+            }
 
             teacherToInsert = Mapper.mapToTeacher(dto);
             teacherDAO.insertTeacher(teacherToInsert);
             JPAHelper.commitTransaction();
-            log.info("Teacher with id " + teacherToInsert.getId() + " was inserted");
+            TeacherChangedEvent inserted = TeacherChangedEvent.inserted(Mapper.mapToTeacherSnapshot(teacherToInsert));
+            JPAHelper.runAfterCommit(() -> teacherChanged.fire(inserted));
+            log.info("Teacher with id {} was inserted", teacherToInsert.getId());
         } catch (TeacherAlreadyExists e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
+            throw e;
+        } catch (PersistenceException e) {
+            if (JPAHelper.getEntityManager().getTransaction().isActive()) {
+                JPAHelper.rollbackTransaction();
+            }
+            // the email is unique too, so only a registration number that now exists is reported as such
+            if (PersistenceErrors.isConstraintViolation(e) && registrationNumberExists(dto.getRegistrationNumber())) {
+                log.debug("Teacher with registration number {} was rejected by the unique constraint", dto.getRegistrationNumber());
+                throw new TeacherAlreadyExists(dto.getRegistrationNumber());
+            }
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
         return Mapper.mapToTeacherReadOnlyDTO(teacherToInsert);
     }
 
+    /**
+     * Updates an existing teacher without checking its version.
+     *
+     * @param dto the data transfer object containing the updated teacher details.
+     * @return the updated teacher as a read-only DTO
+     * @throws EntityNotFoundException if the teacher with the specified ID does not exist.
+     */
+    @Override
+    public TeacherReadOnlyDTO updateTeacher(TeacherUpdateDTO dto) throws EntityNotFoundException {
+        return updateTeacher(dto, null);
+    }
+
     /**
      * Updates an existing teacher in the system.
      *
      * @param dto the data transfer object containing updated teacher details
+     * @param expectedVersion the version the client last saw, {@code null} to skip the check
      * @return the updated teacher as a read-only DTO
+     * @throws EntityVersionMismatchException if the teacher is not at the expected version,
+     * or was changed by a concurrent transaction.
      * @throws EntityNotFoundException if the teacher with the given ID does not exist
      */
     @Override
-    public TeacherReadOnlyDTO updateTeacher(TeacherUpdateDTO dto) throws EntityNotFoundException {
+    public TeacherReadOnlyDTO updateTeacher(TeacherUpdateDTO dto, Long expectedVersion) throws EntityNotFoundException {
         Teacher teacherToUpdate;
         Teacher updatedTeacher;
 
@@ -79,17 +140,33 @@ public class TeacherServiceImpl implements ITeacherService {
             JPAHelper.beginTransaction();
             teacherToUpdate = teacherDAO.getById(dto.getId())
                     .orElseThrow(() -> new EntityNotFoundException(Teacher.class, dto.getId()));
+            if (expectedVersion != null && expectedVersion != teacherToUpdate.getVersion()) {
+                throw new EntityVersionMismatchException(Teacher.class, dto.getId());
+            }
+            TeacherSnapshot before = Mapper.mapToTeacherSnapshot(teacherToUpdate);
 
             updatedTeacher = Mapper.mapToTeacher(teacherToUpdate, dto);
             teacherDAO.updateTeacher(updatedTeacher);
             JPAHelper.commitTransaction();
-            log.info("Teacher with id " + teacherToUpdate.getId() + " was updated");
-        } catch (EntityNotFoundException e) {
+            TeacherChangedEvent updated = TeacherChangedEvent.updated(before, Mapper.mapToTeacherSnapshot(updatedTeacher));
+            JPAHelper.runAfterCommit(() -> teacherChanged.fire(updated));
+            log.info("Teacher with id {} was updated", teacherToUpdate.getId());
+        } catch (EntityNotFoundException | EntityVersionMismatchException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
+            throw e;
+        } catch (PersistenceException e) {
+            if (JPAHelper.getEntityManager().getTransaction().isActive()) {
+                JPAHelper.rollbackTransaction();
+            }
+            if (PersistenceErrors.isOptimisticLockFailure(e)) {
+                EntityVersionMismatchException mismatch = new EntityVersionMismatchException(Teacher.class, dto.getId());
+                log.debug(mismatch.getMessage());
+                throw mismatch;
+            }
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
         return Mapper.mapToTeacherReadOnlyDTO(updatedTeacher);
     }
@@ -106,16 +183,18 @@ public class TeacherServiceImpl implements ITeacherService {
             JPAHelper.beginTransaction();
             Teacher teacherToDelete = teacherDAO.getById(id)
                     .orElseThrow(() -> new EntityNotFoundException(Teacher.class, id));
+            TeacherSnapshot before = Mapper.mapToTeacherSnapshot(teacherToDelete);
 
             teacherDAO.deleteTeacher(id);
             JPAHelper.commitTransaction();
-            log.info("Teacher with id " + teacherToDelete.getId() + " was deleted");
+            JPAHelper.runAfterCommit(() -> teacherChanged.fire(TeacherChangedEvent.deleted(before)));
+            log.info("Teacher with id {} was deleted", teacherToDelete.getId());
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
     }
 
@@ -128,6 +207,11 @@ public class TeacherServiceImpl implements ITeacherService {
      */
     @Override
     public List<TeacherReadOnlyDTO> getTeachersByLastname(String lastname) throws EntityNotFoundException {
+        List<TeacherReadOnlyDTO> fromReadModel = readModel.findTeachersByLastname(lastname);
+        if (!fromReadModel.isEmpty()) {
+            return fromReadModel;
+        }
+
         List<Teacher> teachers;
 
         try {
@@ -137,13 +221,13 @@ public class TeacherServiceImpl implements ITeacherService {
                 throw new EntityNotFoundException(Teacher.class, "lastname", lastname);
             }
             JPAHelper.commitTransaction();
-            log.info("Teachers with lastname like " + lastname + " were found");
+            log.info("Teachers with lastname like {} were found", lastname);
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
         return teachers.stream()
                 .map(Mapper::mapToTeacherReadOnlyDTO)
@@ -159,6 +243,11 @@ public class TeacherServiceImpl implements ITeacherService {
      */
     @Override
     public TeacherReadOnlyDTO getTeacherById(Long id) throws EntityNotFoundException {
+        Optional<TeacherReadOnlyDTO> fromReadModel = readModel.findTeacherById(id);
+        if (fromReadModel.isPresent()) {
+            return fromReadModel.get();
+        }
+
         Teacher teacherToReturn;
 
         try {
@@ -166,15 +255,125 @@ public class TeacherServiceImpl implements ITeacherService {
             teacherToReturn = teacherDAO.getById(id)
                     .orElseThrow(() -> new EntityNotFoundException(Teacher.class, id));
             JPAHelper.commitTransaction();
-            log.info("Teacher with id " + teacherToReturn.getId() + " was found");
+            log.info("Teacher with id {} was found", teacherToReturn.getId());
         } catch (EntityNotFoundException e) {
             JPAHelper.rollbackTransaction();
-            log.error(e.getMessage());
+            log.debug(e.getMessage());
             throw e;
         } finally {
-            JPAHelper.closeEntityManagerFactory();
+            JPAHelper.closeEntityManager();
         }
 
         return Mapper.mapToTeacherReadOnlyDTO(teacherToReturn);
     }
+
+    /**
+     * Retrieves the version of a teacher for conditional requests.
+     * Served from the version cache when possible; a miss reads only the version columns.
+     *
+     * @param id the ID of the teacher
+     * @return the version, or empty if the teacher does not exist
+     */
+    @Override
+    public Optional<EntityVersion> getTeacherVersion(Long id) {
+        return versionCache.get(Teacher.class, id, () -> {
+            try {
+                JPAHelper.beginTransaction();
+                Optional<EntityVersion> version = teacherDAO.getVersionById(id);
+                JPAHelper.commitTransaction();
+                return version;
+            } finally {
+                JPAHelper.closeEntityManager();
+            }
+        });
+    }
+
+    /**
+     * Checks in a new transaction whether a teacher with the given registration number exists.
+     *
+     * @param registrationNumber the registration number to look up
+     * @return {@code true} if a teacher has this registration number
+     */
+    private boolean registrationNumberExists(String registrationNumber) {
+        JPAHelper.closeEntityManager();
+        try {
+            JPAHelper.beginTransaction();
+            boolean exists = teacherDAO.getByRegistrationNumber(registrationNumber).isPresent();
+            JPAHelper.commitTransaction();
+            return exists;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+    }
+
+    /**
+     * Retrieves the selected fields of a teacher by their ID, selecting only their columns.
+     * The class group is only joined when {@code classGroupId} is selected.
+     *
+     * @param id the ID of the teacher to retrieve
+     * @param fields the fields to return
+     * @return the selected fields of the teacher
+     * @throws EntityNotFoundException if the teacher does not exist
+     */
+    @Override
+    public Map<String, Object> getTeacherById(Long id, FieldSelection fields) throws EntityNotFoundException {
+        Optional<TeacherReadOnlyDTO> fromReadModel = readModel.findTeacherById(id);
+        if (fromReadModel.isPresent()) {
+            return fields.project(fromReadModel.get(), TeacherFields::valueOf);
+        }
+
+        Map<String, Object> fieldsToReturn;
+
+        try {
+            JPAHelper.beginTransaction();
+            fieldsToReturn = teacherDAO.getFieldsById(id, fields)
+                    .orElseThrow(() -> new EntityNotFoundException(Teacher.class, id));
+            JPAHelper.commitTransaction();
+            log.info("Fields {} of teacher with id {} were found", fields.getFields(), id);
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+        return fieldsToReturn;
+    }
+
+    /**
+     * Retrieves the selected fields of the teachers whose last name starts with the given one.
+     *
+     * @param lastname the last name of the teachers to search for
+     * @param fields the fields to return
+     * @return the selected fields of each teacher found
+     * @throws EntityNotFoundException if no teachers are found
+     */
+    @Override
+    public List<Map<String, Object>> getTeachersByLastname(String lastname, FieldSelection fields) throws EntityNotFoundException {
+        List<TeacherReadOnlyDTO> fromReadModel = readModel.findTeachersByLastname(lastname);
+        if (!fromReadModel.isEmpty()) {
+            return fromReadModel.stream()
+                    .map(dto -> fields.project(dto, TeacherFields::valueOf))
+                    .collect(Collectors.toList());
+        }
+
+        List<Map<String, Object>> fieldsToReturn;
+
+        try {
+            JPAHelper.beginTransaction();
+            fieldsToReturn = teacherDAO.getFieldsByLastname(lastname, fields);
+            if (fieldsToReturn.isEmpty()) {
+                throw new EntityNotFoundException(Teacher.class, "lastname", lastname);
+            }
+            JPAHelper.commitTransaction();
+            log.info("Fields {} of teachers with lastname like {} were found", fields.getFields(), lastname);
+        } catch (EntityNotFoundException e) {
+            JPAHelper.rollbackTransaction();
+            log.debug(e.getMessage());
+            throw e;
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+        return fieldsToReturn;
+    }
 }
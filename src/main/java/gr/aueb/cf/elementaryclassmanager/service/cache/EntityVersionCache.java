@@ -0,0 +1,99 @@
+package gr.aueb.cf.elementaryclassmanager.service.cache;
+
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
+import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.model.Teacher;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.TeacherChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of entity versions, so that conditional requests can be answered without touching
+ * the database. A single generation counter is bumped on each invalidation, and a version read
+ * before any invalidation that happened meanwhile is not stored. Unlike the per class group
+ * versions of the {@link RosterCache}, a counter per entity would grow with every entity ever changed.
+ * Entries are invalidated from the committed change events; a class group change also
+ * invalidates the teachers it lost and gained, whose representation includes the class group.
+ */
+@ApplicationScoped
+public class EntityVersionCache {
+
+    private final int maxEntries = Integer.getInteger("etag.cacheSize", 100_000);
+
+    private final Map<String, EntityVersion> versions = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the version of an entity, loading and caching it on a miss.
+     * Inside a unit of work the version is always loaded and never cached, as it may not be committed.
+     *
+     * @param type   the entity class
+     * @param id     the entity id
+     * @param loader reads the version from the database, empty if the entity does not exist
+     * @return the version, or empty if the entity does not exist
+     */
+    public Optional<EntityVersion> get(Class<?> type, Long id, Supplier<Optional<EntityVersion>> loader) {
+        if (JPAHelper.isInUnitOfWork()) {
+            return loader.get();
+        }
+        String key = key(type, id);
+        EntityVersion cached = versions.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long loadedGeneration = generation.get();
+        Optional<EntityVersion> loaded = loader.get();
+        loaded.ifPresent(version -> {
+            if (versions.size() >= maxEntries) {
+                versions.clear();
+            }
+            versions.compute(key, (k, current) -> generation.get() == loadedGeneration ? version : current);
+        });
+        return loaded;
+    }
+
+    /**
+     * Drops the cached version of an entity and bumps the generation.
+     *
+     * @param type the entity class
+     * @param id   the entity id, ignored when {@code null}
+     */
+    public void invalidate(Class<?> type, Long id) {
+        if (id == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        versions.remove(key(type, id));
+    }
+
+    public void onStudentChanged(@Observes StudentChangedEvent event) {
+        invalidate(Student.class, event.getBefore() != null ? event.getBefore().getId() : event.getAfter().getId());
+    }
+
+    public void onTeacherChanged(@Observes TeacherChangedEvent event) {
+        invalidate(Teacher.class, event.getBefore() != null ? event.getBefore().getId() : event.getAfter().getId());
+    }
+
+    public void onClassGroupChanged(@Observes ClassGroupChangedEvent event) {
+        if (event.getBefore() != null) {
+            invalidate(Teacher.class, event.getBefore().getTeacherId());
+        }
+        if (event.getAfter() != null) {
+            invalidate(Teacher.class, event.getAfter().getTeacherId());
+        }
+    }
+
+    private static String key(Class<?> type, Long id) {
+        return type.getSimpleName() + ':' + id;
+    }
+}
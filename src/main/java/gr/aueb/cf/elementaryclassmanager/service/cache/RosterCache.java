@@ -0,0 +1,126 @@
+package gr.aueb.cf.elementaryclassmanager.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.serialization.ObjectMapperProvider;
+import gr.aueb.cf.elementaryclassmanager.service.events.ChangeType;
+import gr.aueb.cf.elementaryclassmanager.service.events.ClassGroupChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of serialized class group rosters, keyed by class group id.
+ * Every class group has a version that is bumped on each invalidation. A snapshot built from
+ * data read before an invalidation is never stored, so a concurrent reload cannot resurrect
+ * a stale roster.
+ * Rosters are invalidated from the committed change events: a student change invalidates the
+ * class group the student left and the one it joined, a class group change only when the
+ * grade of its students changed or the class group was deleted.
+ * Versions start over when the application restarts, so roster tags also carry the start time.
+ */
+@ApplicationScoped
+public class RosterCache {
+
+    @Inject
+    private ObjectMapperProvider objectMapperProvider;
+
+    private final Map<Long, RosterSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Returns the cached roster of a class group, if any.
+     * Inside a unit of work nothing is served from or stored into the cache, since the unit
+     * may have changed the roster without committing yet.
+     *
+     * @param classGroupId the ID of the class group
+     * @return the snapshot, or {@code null} if the roster is not cached
+     */
+    public RosterSnapshot get(Long classGroupId) {
+        return JPAHelper.isInUnitOfWork() ? null : snapshots.get(classGroupId);
+    }
+
+    /**
+     * Returns the current version of a class group's roster.
+     * Callers read it before loading the roster from the database and hand it back to {@link #put}.
+     *
+     * @param classGroupId the ID of the class group
+     * @return the roster version
+     */
+    public long currentVersion(Long classGroupId) {
+        return versions.getOrDefault(classGroupId, 0L);
+    }
+
+    /**
+     * Serializes a freshly loaded roster and caches it, unless the roster was invalidated
+     * after {@code version} was read.
+     *
+     * @param classGroupId the ID of the class group
+     * @param version      the roster version read before loading the students
+     * @param students     the students of the class group
+     * @return the snapshot built from the given students
+     */
+    public RosterSnapshot put(Long classGroupId, long version, List<StudentReadOnlyDTO> students) {
+        RosterSnapshot snapshot = new RosterSnapshot(classGroupId, version, serialize(students), tagOf(version));
+        if (JPAHelper.isInUnitOfWork()) {
+            return snapshot;
+        }
+        snapshots.compute(classGroupId, (id, cached) -> currentVersion(id) == version ? snapshot : cached);
+        return snapshot;
+    }
+
+    /**
+     * Returns the {@code ETag} value of a roster version.
+     *
+     * @param version the roster version
+     * @return the tag, unique across application restarts
+     */
+    public String tagOf(long version) {
+        return epoch + "-" + version;
+    }
+
+    /**
+     * Drops the cached roster of a class group and bumps its version.
+     *
+     * @param classGroupId the ID of the class group, ignored when {@code null}
+     */
+    public void invalidate(Long classGroupId) {
+        if (classGroupId == null) {
+            return;
+        }
+        versions.merge(classGroupId, 1L, Long::sum);
+        snapshots.remove(classGroupId);
+    }
+
+    public void onStudentChanged(@Observes StudentChangedEvent event) {
+        if (event.getBefore() != null) {
+            invalidate(event.getBefore().getClassGroupId());
+        }
+        if (event.getAfter() != null) {
+            invalidate(event.getAfter().getClassGroupId());
+        }
+    }
+
+    public void onClassGroupChanged(@Observes ClassGroupChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            invalidate(event.getBefore().getId());
+        } else if (event.getType() == ChangeType.UPDATED && event.getBefore().getGrade() != event.getAfter().getGrade()) {
+            invalidate(event.getAfter().getId());
+        }
+    }
+
+    private byte[] serialize(List<StudentReadOnlyDTO> students) {
+        try {
+            return objectMapperProvider.getObjectMapper().writeValueAsBytes(students);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize class group roster", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package gr.aueb.cf.elementaryclassmanager.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable, pre-serialized roster of a class group.
+ * The JSON bytes are shared between all readers and must never be modified.
+ */
+@AllArgsConstructor
+@Getter
+public class RosterSnapshot {
+
+    private final Long classGroupId;
+
+    private final long version;
+
+    private final byte[] json;
+
+    /**
+     * Opaque value for the {@code ETag} header, unique for this version of the roster.
+     */
+    private final String tag;
+}
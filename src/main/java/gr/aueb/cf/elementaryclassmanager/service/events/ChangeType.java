@@ -0,0 +1,9 @@
+package gr.aueb.cf.elementaryclassmanager.service.events;
+
+public enum ChangeType {
+    INSERTED,
+    UPDATED,
+    DELETED,
+    /** The row was moved to the archive table; it still exists, but no longer in the hot table. */
+    ARCHIVED
+}
@@ -0,0 +1,32 @@
+package gr.aueb.cf.elementaryclassmanager.service.events;
+
+import gr.aueb.cf.elementaryclassmanager.dto.classgroupDTO.ClassGroupSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CDI event fired by the services after a transaction that changed a ClassGroup has been committed.
+ * {@code before} is {@code null} for inserts and {@code after} is {@code null} for deletes.
+ */
+@AllArgsConstructor
+@Getter
+public class ClassGroupChangedEvent {
+
+    private final ChangeType type;
+
+    private final ClassGroupSnapshot before;
+
+    private final ClassGroupSnapshot after;
+
+    public static ClassGroupChangedEvent inserted(ClassGroupSnapshot after) {
+        return new ClassGroupChangedEvent(ChangeType.INSERTED, null, after);
+    }
+
+    public static ClassGroupChangedEvent updated(ClassGroupSnapshot before, ClassGroupSnapshot after) {
+        return new ClassGroupChangedEvent(ChangeType.UPDATED, before, after);
+    }
+
+    public static ClassGroupChangedEvent deleted(ClassGroupSnapshot before) {
+        return new ClassGroupChangedEvent(ChangeType.DELETED, before, null);
+    }
+}
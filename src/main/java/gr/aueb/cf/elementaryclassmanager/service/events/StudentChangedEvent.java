@@ -0,0 +1,37 @@
+package gr.aueb.cf.elementaryclassmanager.service.events;
+
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CDI event fired by the services after a transaction that changed a Student has been committed.
+ * {@code before} is {@code null} for inserts and {@code after} is {@code null} for deletes and for
+ * students moved to the archive table.
+ */
+@AllArgsConstructor
+@Getter
+public class StudentChangedEvent {
+
+    private final ChangeType type;
+
+    private final StudentSnapshot before;
+
+    private final StudentSnapshot after;
+
+    public static StudentChangedEvent inserted(StudentSnapshot after) {
+        return new StudentChangedEvent(ChangeType.INSERTED, null, after);
+    }
+
+    public static StudentChangedEvent updated(StudentSnapshot before, StudentSnapshot after) {
+        return new StudentChangedEvent(ChangeType.UPDATED, before, after);
+    }
+
+    public static StudentChangedEvent deleted(StudentSnapshot before) {
+        return new StudentChangedEvent(ChangeType.DELETED, before, null);
+    }
+
+    public static StudentChangedEvent archived(StudentSnapshot before) {
+        return new StudentChangedEvent(ChangeType.ARCHIVED, before, null);
+    }
+}
@@ -0,0 +1,32 @@
+package gr.aueb.cf.elementaryclassmanager.service.events;
+
+import gr.aueb.cf.elementaryclassmanager.dto.teacherDTO.TeacherSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CDI event fired by the services after a transaction that changed a Teacher has been committed.
+ * {@code before} is {@code null} for inserts and {@code after} is {@code null} for deletes.
+ */
+@AllArgsConstructor
+@Getter
+public class TeacherChangedEvent {
+
+    private final ChangeType type;
+
+    private final TeacherSnapshot before;
+
+    private final TeacherSnapshot after;
+
+    public static TeacherChangedEvent inserted(TeacherSnapshot after) {
+        return new TeacherChangedEvent(ChangeType.INSERTED, null, after);
+    }
+
+    public static TeacherChangedEvent updated(TeacherSnapshot before, TeacherSnapshot after) {
+        return new TeacherChangedEvent(ChangeType.UPDATED, before, after);
+    }
+
+    public static TeacherChangedEvent deleted(TeacherSnapshot before) {
+        return new TeacherChangedEvent(ChangeType.DELETED, before, null);
+    }
+}
@@ -6,6 +6,6 @@ public class ClassGroupAlreadyExists extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
     public ClassGroupAlreadyExists(Grade grade, Character groupName) {
-        super("Class group " + groupName + " already exists in grade " + grade);
+        super("Class group " + groupName + " already exists in grade " + grade, null, false, false);
     }
 }
@@ -4,6 +4,6 @@ public class ClassGroupFullException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
     public ClassGroupFullException(Long classGroupId) {
-        super("Class group id " + classGroupId + " is full");
+        super("Class group id " + classGroupId + " is full", null, false, false);
     }
 }
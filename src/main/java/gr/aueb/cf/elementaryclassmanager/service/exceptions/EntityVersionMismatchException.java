@@ -0,0 +1,9 @@
+package gr.aueb.cf.elementaryclassmanager.service.exceptions;
+
+public class EntityVersionMismatchException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public EntityVersionMismatchException(Class<?> entityClass, Long id) {
+        super("Entity " + entityClass.getSimpleName() + " with id " + id + " was modified by another request", null, false, false);
+    }
+}
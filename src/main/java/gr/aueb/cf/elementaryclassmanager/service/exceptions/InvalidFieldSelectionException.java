@@ -0,0 +1,9 @@
+package gr.aueb.cf.elementaryclassmanager.service.exceptions;
+
+public class InvalidFieldSelectionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidFieldSelectionException(String message) {
+        super(message, null, false, false);
+    }
+}
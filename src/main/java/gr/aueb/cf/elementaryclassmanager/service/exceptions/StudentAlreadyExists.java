@@ -4,6 +4,6 @@ public class StudentAlreadyExists extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
     public StudentAlreadyExists(String ssn) {
-        super("Student with SSN " + ssn + " already exists");
+        super("Student with SSN " + ssn + " already exists", null, false, false);
     }
 }
@@ -4,6 +4,6 @@ public class StudentGradeDoesNotMatchClassGroup extends Exception {
     private static final long serialVersionUID = 1L;
 
     public StudentGradeDoesNotMatchClassGroup(Long studentId, Long classGroupId ) {
-        super("Student with id " + studentId + " does not match class group with id " + classGroupId);
+        super("Student with id " + studentId + " does not match class group with id " + classGroupId, null, false, false);
     }
 }
@@ -4,6 +4,6 @@ public class TeacherAlreadyExists extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
     public TeacherAlreadyExists(String teacherRegistrationNumber) {
-      super("Teacher with registration number " + teacherRegistrationNumber + " already exists");
+      super("Teacher with registration number " + teacherRegistrationNumber + " already exists", null, false, false);
     }
 }
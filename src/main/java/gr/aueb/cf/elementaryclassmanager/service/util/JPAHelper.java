@@ -4,14 +4,26 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Utility class for managing JPA EntityManager instances and the EntityManagerFactory.
  * Provides methods for starting and managing transactions, as well as handling the lifecycle
  * of EntityManager and EntityManagerFactory instances.
+ * <p>
+ * A caller can open a unit of work that spans several service calls. Inside it the services'
+ * own begin, commit, rollback and close calls join the unit's transaction instead: a commit only
+ * flushes, the actual commit is deferred to the end of the unit, and a rollback marks the whole
+ * unit for rollback. Work that
+ * must only happen once the data is committed is registered with {@link #runAfterCommit(Runnable)}.
  */
 public class JPAHelper {
-    private static EntityManagerFactory emf;
+    private static volatile EntityManagerFactory emf;
     private static ThreadLocal<EntityManager> threadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> unitOfWork = new ThreadLocal<>();
 
     /**
      * Private constructor to prevent instantiation.
@@ -23,14 +35,33 @@ public class JPAHelper {
     /**
      * Retrieves the EntityManagerFactory instance.
      * If the factory is not initialized or is closed, a new instance is created.
+     * System properties starting with {@code hibernate.} or {@code jakarta.persistence.} override
+     * the settings of {@code persistence.xml}, e.g. to point the application at another database.
      *
      * @return the EntityManagerFactory instance
      */
     public static EntityManagerFactory getEntityManagerFactory() {
-        if ((emf == null) || (!emf.isOpen())) {
-            emf = Persistence.createEntityManagerFactory("schoolPU");
+        EntityManagerFactory factory = emf;
+        if ((factory == null) || (!factory.isOpen())) {
+            synchronized (JPAHelper.class) {
+                factory = emf;
+                if ((factory == null) || (!factory.isOpen())) {
+                    factory = Persistence.createEntityManagerFactory("schoolPU", persistenceOverrides());
+                    emf = factory;
+                }
+            }
         }
-        return emf;
+        return factory;
+    }
+
+    private static Map<String, String> persistenceOverrides() {
+        Map<String, String> overrides = new HashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("hibernate.") || name.startsWith("jakarta.persistence.")) {
+                overrides.put(name, System.getProperty(name));
+            }
+        }
+        return overrides;
     }
 
     /**
@@ -51,36 +82,127 @@ public class JPAHelper {
 
     /**
      * Closes the EntityManager associated with the current thread, if it is open.
+     * The EntityManagerFactory, and with it the connection pool, stays open for the next unit of work.
      */
     public static void closeEntityManager() {
-        getEntityManager().close();
+        if (isInUnitOfWork()) {
+            return;
+        }
+        EntityManager em = threadLocal.get();
+        if (em != null && em.isOpen()) {
+            em.close();
+        }
+        threadLocal.remove();
     }
 
     /**
      * Begins a new transaction on the current thread's EntityManager.
      */
     public static void beginTransaction() {
+        if (isInUnitOfWork() && getEntityManager().getTransaction().isActive()) {
+            return;
+        }
         getEntityManager().getTransaction().begin();
     }
 
     /**
      * Commits the current transaction on the current thread's EntityManager.
+     * Inside a unit of work the commit is left to {@link #commitUnitOfWork()}; the changes are
+     * flushed instead, so that a constraint or version conflict fails the call that caused it
+     * rather than the commit of the whole unit.
      */
     public static void commitTransaction() {
+        if (isInUnitOfWork()) {
+            getEntityManager().flush();
+            return;
+        }
         getEntityManager().getTransaction().commit();
     }
 
     /**
      * Rolls back the current transaction on the current thread's EntityManager.
+     * Inside a unit of work the whole unit is marked for rollback instead.
      */
     public static void rollbackTransaction() {
+        if (isInUnitOfWork()) {
+            getEntityManager().getTransaction().setRollbackOnly();
+            return;
+        }
         getEntityManager().getTransaction().rollback();
     }
 
+    /**
+     * Runs an action once the current data changes are committed: at the end of the unit of work
+     * if one is open, otherwise right away. Callers outside a unit of work call it after committing.
+     * Actions of a unit of work that is rolled back are dropped.
+     *
+     * @param action the action to run, typically firing a change event
+     */
+    public static void runAfterCommit(Runnable action) {
+        List<Runnable> actions = unitOfWork.get();
+        if (actions != null) {
+            actions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * @return whether a unit of work is open on the current thread, in which case data read
+     * through the EntityManager may not be committed yet
+     */
+    public static boolean isInUnitOfWork() {
+        return unitOfWork.get() != null;
+    }
+
+    /**
+     * Opens a unit of work and begins its transaction.
+     */
+    public static void beginUnitOfWork() {
+        if (isInUnitOfWork()) {
+            throw new IllegalStateException("A unit of work is already open on this thread");
+        }
+        getEntityManager().getTransaction().begin();
+        unitOfWork.set(new ArrayList<>());
+    }
+
+    /**
+     * Commits the unit of work, unless it was marked for rollback, and runs its after-commit actions.
+     *
+     * @return {@code true} if the unit was committed, {@code false} if it was rolled back
+     */
+    public static boolean commitUnitOfWork() {
+        List<Runnable> actions = unitOfWork.get();
+        unitOfWork.remove();
+        if (getEntityManager().getTransaction().getRollbackOnly()) {
+            getEntityManager().getTransaction().rollback();
+            return false;
+        }
+        getEntityManager().getTransaction().commit();
+        actions.forEach(Runnable::run);
+        return true;
+    }
+
+    /**
+     * Rolls back the unit of work, if still open, and closes its EntityManager.
+     * Safe to call from a {@code finally} block after {@link #commitUnitOfWork()}.
+     */
+    public static void endUnitOfWork() {
+        unitOfWork.remove();
+        EntityManager em = threadLocal.get();
+        if (em != null && em.isOpen() && em.getTransaction().isActive()) {
+            em.getTransaction().rollback();
+        }
+        closeEntityManager();
+    }
+
     /**
      * Closes the EntityManagerFactory, releasing all resources associated with it.
+     * Meant for application shutdown; a unit of work only closes its EntityManager.
      */
     public static void closeEntityManagerFactory() {
-        emf.close();
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+        }
     }
 }
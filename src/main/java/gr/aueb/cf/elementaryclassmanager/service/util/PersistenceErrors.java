@@ -0,0 +1,49 @@
+package gr.aueb.cf.elementaryclassmanager.service.util;
+
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Helpers for classifying persistence exceptions.
+ */
+public class PersistenceErrors {
+
+    private PersistenceErrors() {
+
+    }
+
+    /**
+     * Checks whether an exception was caused by a violated database constraint,
+     * such as a duplicate value in a unique column.
+     *
+     * @param e the exception thrown by the persistence layer
+     * @return {@code true} if a constraint violation is among its causes
+     */
+    public static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException || cause instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an exception was caused by a version check failing at flush time,
+     * meaning another transaction updated or deleted the same row.
+     *
+     * @param e the exception thrown by the persistence layer
+     * @return {@code true} if an optimistic lock failure is among its causes
+     */
+    public static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
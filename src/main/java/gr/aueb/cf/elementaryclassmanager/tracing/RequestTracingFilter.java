@@ -0,0 +1,67 @@
+package gr.aueb.cf.elementaryclassmanager.tracing;
+
+import gr.aueb.cf.elementaryclassmanager.metrics.RouteTemplates;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Starts the server span of a request once it is matched to a resource method, continuing the
+ * trace of a W3C {@code traceparent} header if there is one. It runs first, so admission and
+ * the other filters are part of the span. {@link RequestTracingListener} makes the span current
+ * while the resource method runs and ends it.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 300)
+public class RequestTracingFilter implements ContainerRequestFilter {
+
+    static final String SPAN_PROPERTY = RequestTracingFilter.class.getName() + ".span";
+
+    private static final TextMapGetter<ContainerRequestContext> HEADERS = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(ContainerRequestContext requestContext) {
+            return requestContext.getHeaders().keySet();
+        }
+
+        @Override
+        public String get(ContainerRequestContext requestContext, String key) {
+            return requestContext == null ? null : requestContext.getHeaderString(key);
+        }
+    };
+
+    private final Map<Method, String> routes = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null || !Tracing.isEnabled()) {
+            return;
+        }
+
+        String route = routes.computeIfAbsent(method, RouteTemplates::of);
+        Span span = Tracing.tracer().spanBuilder(requestContext.getMethod() + " " + route)
+                .setParent(Tracing.propagator().extract(io.opentelemetry.context.Context.root(), requestContext, HEADERS))
+                .setSpanKind(SpanKind.SERVER)
+                .startSpan();
+        if (span.isRecording()) {
+            span.setAttribute(SpanAttributes.HTTP_REQUEST_METHOD, requestContext.getMethod());
+            span.setAttribute(SpanAttributes.HTTP_ROUTE, route);
+            span.setAttribute(SpanAttributes.URL_PATH, requestContext.getUriInfo().getRequestUri().getRawPath());
+        }
+        requestContext.setProperty(SPAN_PROPERTY, span);
+    }
+}
@@ -0,0 +1,76 @@
+package gr.aueb.cf.elementaryclassmanager.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import jakarta.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Makes the server span of a request current while its resource method runs, so the service,
+ * DAO and JDBC spans become its children, and ends it once Jersey has completely finished with
+ * the request. Both resource method events fire on the thread that runs the method, which keeps
+ * the span out of the threads that later complete asynchronous responses.
+ */
+@Provider
+public class RequestTracingListener implements ApplicationEventListener {
+
+    private static final String SCOPE_PROPERTY = RequestTracingListener.class.getName() + ".scope";
+
+    private static final RequestEventListener TRACE = event -> {
+        ContainerRequest request = event.getContainerRequest();
+        Span span = (Span) request.getProperty(RequestTracingFilter.SPAN_PROPERTY);
+        if (span == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case RESOURCE_METHOD_START:
+                request.setProperty(SCOPE_PROPERTY, span.makeCurrent());
+                break;
+            case RESOURCE_METHOD_FINISHED:
+                Scope scope = (Scope) request.getProperty(SCOPE_PROPERTY);
+                if (scope != null) {
+                    scope.close();
+                    request.removeProperty(SCOPE_PROPERTY);
+                }
+                break;
+            case FINISHED:
+                end(span, event);
+                break;
+            default:
+                break;
+        }
+    };
+
+    @Override
+    public void onEvent(ApplicationEvent event) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        return Tracing.isEnabled() ? TRACE : null;
+    }
+
+    /**
+     * Ends the span; a request without a response failed on an unmapped exception and counts as a 500.
+     */
+    private static void end(Span span, RequestEvent event) {
+        if (span.isRecording()) {
+            ContainerResponse response = event.getContainerResponse();
+            int status = response != null ? response.getStatus() : 500;
+            span.setAttribute(SpanAttributes.HTTP_RESPONSE_STATUS_CODE, status);
+            if (status >= 500) {
+                span.setStatus(StatusCode.ERROR);
+                if (event.getException() != null) {
+                    span.recordException(event.getException());
+                }
+            }
+        }
+        span.end();
+    }
+}
@@ -0,0 +1,25 @@
+package gr.aueb.cf.elementaryclassmanager.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+
+/**
+ * The OpenTelemetry semantic convention attributes set on the spans.
+ */
+final class SpanAttributes {
+
+    static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+    static final AttributeKey<String> HTTP_REQUEST_METHOD = AttributeKey.stringKey("http.request.method");
+    static final AttributeKey<String> HTTP_ROUTE = AttributeKey.stringKey("http.route");
+    static final AttributeKey<Long> HTTP_RESPONSE_STATUS_CODE = AttributeKey.longKey("http.response.status_code");
+    static final AttributeKey<String> URL_PATH = AttributeKey.stringKey("url.path");
+    static final AttributeKey<String> CODE_NAMESPACE = AttributeKey.stringKey("code.namespace");
+    static final AttributeKey<String> CODE_FUNCTION = AttributeKey.stringKey("code.function");
+    static final AttributeKey<String> DB_SYSTEM = AttributeKey.stringKey("db.system");
+    static final AttributeKey<String> DB_STATEMENT = AttributeKey.stringKey("db.statement");
+    static final AttributeKey<String> DB_OPERATION = AttributeKey.stringKey("db.operation");
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private SpanAttributes() {}
+}
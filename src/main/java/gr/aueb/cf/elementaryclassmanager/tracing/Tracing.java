@@ -0,0 +1,89 @@
+package gr.aueb.cf.elementaryclassmanager.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Paths;
+
+/**
+ * Holds the tracer shared by the REST, service, DAO and JDBC instrumentation, so that all their
+ * spans end up in one trace per request. It is built from the {@link TracingConfig} on first use.
+ * <p>
+ * A trace is sampled where it starts: a request with a W3C {@code traceparent} header follows the
+ * caller's decision, any other request is recorded with the configured ratio. The spans of an
+ * unsampled trace are never recorded or exported.
+ */
+@Slf4j
+public final class Tracing {
+
+    private static final String INSTRUMENTATION_NAME = "gr.aueb.cf.elementaryclassmanager";
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Tracing() {}
+
+    /**
+     * Holds the tracer, initialized when the holder class is first loaded.
+     */
+    private static final class TracerHolder {
+        private static final TracingConfig CONFIG = TracingConfig.fromSystemProperties();
+        private static final SpanExporter EXPORTER = buildExporter(CONFIG);
+        private static final Tracer TRACER = buildTracer(CONFIG, EXPORTER);
+    }
+
+    /**
+     * @return {@code false} if tracing is off, in which case no instrumentation is installed
+     */
+    public static boolean isEnabled() {
+        return TracerHolder.EXPORTER != null;
+    }
+
+    public static Tracer tracer() {
+        return TracerHolder.TRACER;
+    }
+
+    public static TextMapPropagator propagator() {
+        return W3CTraceContextPropagator.getInstance();
+    }
+
+    private static SpanExporter buildExporter(TracingConfig config) {
+        switch (config.getExporter()) {
+            case "otlp":
+                return OtlpHttpSpanExporter.builder().setEndpoint(config.getOtlpEndpoint()).build();
+            case "file":
+                return new FileSpanExporter(Paths.get(config.getFile()));
+            case "none":
+                return null;
+            default:
+                log.warn("Unknown tracing exporter {}, tracing is off", config.getExporter());
+                return null;
+        }
+    }
+
+    private static Tracer buildTracer(TracingConfig config, SpanExporter exporter) {
+        if (exporter == null) {
+            return OpenTelemetry.noop().getTracer(INSTRUMENTATION_NAME);
+        }
+        SdkTracerProvider provider = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(
+                        Resource.create(Attributes.of(SpanAttributes.SERVICE_NAME, config.getServiceName()))))
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(config.getSampleRatio())))
+                .addSpanProcessor(BatchSpanProcessor.builder(exporter).build())
+                .build();
+        // flushes the spans still queued
+        Runtime.getRuntime().addShutdownHook(new Thread(provider::close, "tracing-shutdown"));
+        log.info("Tracing with the {} exporter, sampling {} of the traces", config.getExporter(), config.getSampleRatio());
+        return provider.get(INSTRUMENTATION_NAME);
+    }
+}
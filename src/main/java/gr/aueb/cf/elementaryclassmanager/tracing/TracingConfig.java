@@ -0,0 +1,35 @@
+package gr.aueb.cf.elementaryclassmanager.tracing;
+
+import lombok.Getter;
+
+/**
+ * Tracing settings, read once from system properties.
+ * <ul>
+ *     <li>{@code tracing.exporter} - {@code otlp}, {@code file} or {@code none}, which turns tracing off (default {@code none})</li>
+ *     <li>{@code tracing.otlp.endpoint} - the OTLP/HTTP traces endpoint (default {@code http://localhost:4318/v1/traces})</li>
+ *     <li>{@code tracing.file} - the file the {@code file} exporter appends to (default {@code traces.jsonl})</li>
+ *     <li>{@code tracing.sampleRatio} - the share of traces started here that are recorded (default {@code 0.05})</li>
+ *     <li>{@code tracing.serviceName} - the {@code service.name} of the spans (default {@code elementary-class-manager})</li>
+ * </ul>
+ */
+@Getter
+public class TracingConfig {
+
+    private final String exporter;
+    private final String otlpEndpoint;
+    private final String file;
+    private final double sampleRatio;
+    private final String serviceName;
+
+    private TracingConfig() {
+        this.exporter = System.getProperty("tracing.exporter", "none");
+        this.otlpEndpoint = System.getProperty("tracing.otlp.endpoint", "http://localhost:4318/v1/traces");
+        this.file = System.getProperty("tracing.file", "traces.jsonl");
+        this.sampleRatio = Double.parseDouble(System.getProperty("tracing.sampleRatio", "0.05"));
+        this.serviceName = System.getProperty("tracing.serviceName", "elementary-class-manager");
+    }
+
+    public static TracingConfig fromSystemProperties() {
+        return new TracingConfig();
+    }
+}
@@ -0,0 +1,49 @@
+package gr.aueb.cf.elementaryclassmanager.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Traces the methods of {@link Traced} beans. The span is named after the bean class and the
+ * method, e.g. {@code StudentServiceImpl.getStudentById}, and is marked as failed when the
+ * method throws. It runs before the other interceptors, so their time is part of the span.
+ */
+@Traced
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION - 100)
+public class TracingInterceptor {
+
+    private static final Map<Method, String> SPAN_NAMES = new ConcurrentHashMap<>();
+
+    @AroundInvoke
+    public Object trace(InvocationContext context) throws Exception {
+        if (!Tracing.isEnabled()) {
+            return context.proceed();
+        }
+        Method method = context.getMethod();
+        Span span = Tracing.tracer().spanBuilder(SPAN_NAMES.computeIfAbsent(method,
+                key -> key.getDeclaringClass().getSimpleName() + "." + key.getName())).startSpan();
+        if (span.isRecording()) {
+            span.setAttribute(SpanAttributes.CODE_NAMESPACE, method.getDeclaringClass().getName());
+            span.setAttribute(SpanAttributes.CODE_FUNCTION, method.getName());
+        }
+        try (Scope ignored = span.makeCurrent()) {
+            return context.proceed();
+        } catch (Exception e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
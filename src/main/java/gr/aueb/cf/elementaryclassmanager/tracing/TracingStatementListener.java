@@ -0,0 +1,64 @@
+package gr.aueb.cf.elementaryclassmanager.tracing;
+
+import gr.aueb.cf.elementaryclassmanager.jdbc.StatementExecution;
+import gr.aueb.cf.elementaryclassmanager.jdbc.StatementListener;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+
+import java.util.Locale;
+
+/**
+ * Records a client span for every statement executed within a sampled trace, as a child of the
+ * DAO span. Statements outside a sampled trace cost a single check.
+ */
+public class TracingStatementListener implements StatementListener {
+
+    private final String dbSystem;
+
+    /**
+     * @param dbSystem the database product in lower case, e.g. {@code mysql}
+     */
+    public TracingStatementListener(String dbSystem) {
+        this.dbSystem = dbSystem;
+    }
+
+    @Override
+    public Object beforeExecute(String sql) {
+        if (!Span.current().getSpanContext().isSampled()) {
+            return null;
+        }
+        String operation = operationOf(sql);
+        return Tracing.tracer().spanBuilder(operation.isEmpty() ? "JDBC" : operation)
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute(SpanAttributes.DB_SYSTEM, dbSystem)
+                .setAttribute(SpanAttributes.DB_OPERATION, operation)
+                .setAttribute(SpanAttributes.DB_STATEMENT, sql)
+                .startSpan();
+    }
+
+    @Override
+    public void afterExecute(Object token, StatementExecution execution) {
+        if (token == null) {
+            return;
+        }
+        Span span = (Span) token;
+        if (execution.getFailure() != null) {
+            span.recordException(execution.getFailure());
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    /**
+     * @return the first keyword of the statement in upper case, e.g. {@code SELECT}
+     */
+    private static String operationOf(String sql) {
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+}
@@ -6,16 +6,28 @@ import jakarta.validation.ValidatorFactory;
 import jakarta.validation.ConstraintViolation;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Utility class for validating Data Transfer Objects (DTOs) using Jakarta Bean Validation.
- * This class provides a thread-safe mechanism to retrieve a singleton instance of the Validator.
+ * The Validator is thread-safe and caches the constraint metadata of every class it has seen,
+ * so one instance is shared by all requests. It is created on first use by the class loader,
+ * which guarantees safe publication without locking on every call.
  */
 public class ValidatorUtil {
 
-    private static Validator validator; // Singleton instance of Validator
+    /**
+     * The number of list items from which {@link #validateEach} validates in parallel.
+     * Below it the fork-join overhead outweighs the validation itself.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
 
     /**
      * Private constructor to prevent instantiation of this utility class.
@@ -23,35 +35,104 @@ public class ValidatorUtil {
     private ValidatorUtil() {}
 
     /**
-     * Synchronized method to get the Validator instance.
-     * If the Validator instance is not already initialized, it creates a new one.
-     *
-     * @return the singleton Validator instance
+     * Holds the singleton Validator, initialized when the holder class is first loaded.
      */
-    private static synchronized Validator getValidator() {
-        if (validator == null) {
+    private static final class ValidatorHolder {
+        private static final Validator VALIDATOR = buildValidator();
+
+        private static Validator buildValidator() {
             ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-            validator = factory.getValidator();
+            return factory.getValidator();
         }
-        return validator;
+    }
+
+    private static Validator getValidator() {
+        return ValidatorHolder.VALIDATOR;
     }
 
     /**
      * Validates the given DTO and returns a list of error messages if there are any violations.
      *
-     * @param dto the DTO to validate
-     * @param <T> the type of the DTO
+     * @param dto    the DTO to validate
+     * @param groups the validation groups to apply; the default group when none are given
+     * @param <T>    the type of the DTO
      * @return a list of error messages; empty list if there are no violations
      */
-    public static <T> List<String> validateDTO(T dto) {
-        Set<ConstraintViolation<T>> violations = getValidator().validate(dto);
-        List<String> errors = new ArrayList<>();
+    public static <T> List<String> validateDTO(T dto, Class<?>... groups) {
+        Set<ConstraintViolation<T>> violations = getValidator().validate(dto, groups);
+
+        if (violations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<T> violation : violations) {
+            errors.add(violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Validates the given DTO and returns its error messages keyed by the path of the invalid
+     * field, e.g. {@code operations[2].method}, so that nested errors can be told apart.
+     *
+     * @param dto    the DTO to validate
+     * @param groups the validation groups to apply; the default group when none are given
+     * @param <T>    the type of the DTO
+     * @return the error messages per field path, sorted by path; empty map if there are no violations
+     */
+    public static <T> Map<String, List<String>> validateFields(T dto, Class<?>... groups) {
+        Set<ConstraintViolation<T>> violations = getValidator().validate(dto, groups);
 
-        if (!violations.isEmpty()) {
-            for (ConstraintViolation<T> violation : violations) {
-                errors.add(violation.getMessage());
-            }
+        if (violations.isEmpty()) {
+            return Collections.emptyMap();
         }
+        Map<String, List<String>> errors = new TreeMap<>();
+        addErrors(errors, "", violations);
         return errors;
     }
+
+    /**
+     * Validates every item of a list and returns the error messages keyed by
+     * {@code property[index].field}. Long lists are validated in parallel.
+     *
+     * @param property the name of the list property, used as the path prefix
+     * @param items    the items to validate; {@code null} items are skipped
+     * @param groups   the validation groups to apply; the default group when none are given
+     * @param <T>      the type of the items
+     * @return the error messages per field path, in list order; empty map if there are no violations
+     */
+    public static <T> Map<String, List<String>> validateEach(String property, List<T> items, Class<?>... groups) {
+        if (items == null || items.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Validator validator = getValidator();
+        IntStream indexes = IntStream.range(0, items.size());
+        if (items.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+
+        List<Map.Entry<Integer, Set<ConstraintViolation<T>>>> invalid = indexes
+                .filter(index -> items.get(index) != null)
+                .mapToObj(index -> Map.entry(index, validator.validate(items.get(index), groups)))
+                .filter(entry -> !entry.getValue().isEmpty())
+                .collect(Collectors.toList());
+
+        if (invalid.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<String>> errors = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Set<ConstraintViolation<T>>> entry : invalid) {
+            addErrors(errors, property + "[" + entry.getKey() + "]", entry.getValue());
+        }
+        return errors;
+    }
+
+    private static <T> void addErrors(Map<String, List<String>> errors, String prefix,
+                                      Set<ConstraintViolation<T>> violations) {
+        for (ConstraintViolation<T> violation : violations) {
+            String path = violation.getPropertyPath().toString();
+            String key = prefix.isEmpty() || path.isEmpty() ? prefix + path : prefix + "." + path;
+            errors.computeIfAbsent(key, k -> new ArrayList<>(1)).add(violation.getMessage());
+        }
+    }
 }
@@ -0,0 +1,12 @@
+#!/bin/sh
+# Runs the standalone JAR, with its class-data sharing archive when one was built next to it
+# (mvn -Pstandalone,appcds package). Extra arguments are passed to the JVM, e.g. -Dserver.port=9090.
+# -Xshare:auto makes the JVM ignore an archive written by another JDK or for another JAR.
+
+JAR="${JAR:-target/elementaryclassmanager-standalone.jar}"
+ARCHIVE="${JAR%.jar}.jsa"
+
+if [ -f "$ARCHIVE" ]; then
+    exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto "$@" -jar "$JAR"
+fi
+exec java "$@" -jar "$JAR"
@@ -0,0 +1,142 @@
+package gr.aueb.cf.elementaryclassmanager.admission;
+
+import gr.aueb.cf.elementaryclassmanager.dto.admissionDTO.AdmissionRouteReadOnlyDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionLimiterTest {
+
+    private static final AdmissionConfig CONFIG = AdmissionConfig.fromSystemProperties();
+
+    @Test
+    void admitsUpToTheLimitAndShedsBulkRequests() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", CONFIG, 2, 4, false);
+
+        assertTrue(limiter.tryAcquire(AdmissionPriority.READ));
+        assertTrue(limiter.tryAcquire(AdmissionPriority.WRITE));
+        assertFalse(limiter.tryAcquire(AdmissionPriority.BULK));
+
+        AdmissionRouteReadOnlyDTO snapshot = limiter.snapshot();
+        assertEquals(2, snapshot.getInFlight());
+        assertEquals(2, snapshot.getAdmitted());
+        assertEquals(1, snapshot.getRejected());
+    }
+
+    @Test
+    void releaseReturnsThePermit() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", CONFIG, 1, 4, false);
+        assertTrue(limiter.tryAcquire(AdmissionPriority.BULK));
+        assertFalse(limiter.tryAcquire(AdmissionPriority.BULK));
+
+        limiter.release(0L);
+
+        assertTrue(limiter.tryAcquire(AdmissionPriority.BULK));
+        assertEquals(1, limiter.snapshot().getInFlight());
+    }
+
+    @Test
+    void waitingReadIsAdmittedBeforeAnEarlierWrite() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", CONFIG, 1, 4, false);
+        assertTrue(limiter.tryAcquire(AdmissionPriority.READ));
+        List<AdmissionPriority> admitted = new CopyOnWriteArrayList<>();
+
+        Thread write = waiter(limiter, AdmissionPriority.WRITE, admitted);
+        awaitWaiting(limiter, 1);
+        Thread read = waiter(limiter, AdmissionPriority.READ, admitted);
+        awaitWaiting(limiter, 2);
+        limiter.release(0L);
+        write.join(TimeUnit.SECONDS.toMillis(5));
+        read.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(AdmissionPriority.READ, admitted.get(0));
+    }
+
+    @Test
+    void writesOccupyOnlyTheirShareOfTheQueue() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", CONFIG, 1, 2, false);
+        assertTrue(limiter.tryAcquire(AdmissionPriority.READ));
+        Thread write = waiter(limiter, AdmissionPriority.WRITE, new CopyOnWriteArrayList<>());
+        awaitWaiting(limiter, 1);
+
+        assertFalse(limiter.tryAcquire(AdmissionPriority.WRITE));
+
+        limiter.release(0L);
+        write.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Test
+    void adaptiveLimitBacksOffOnSlowResponsesAndGrowsUnderLoad() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", CONFIG, 8, 4, true);
+        assertTrue(limiter.tryAcquire(AdmissionPriority.READ));
+
+        limiter.release(CONFIG.getTargetLatencyNanos() + 1);
+        assertEquals(7, limiter.snapshot().getLimit());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(AdmissionPriority.READ));
+        }
+        limiter.release(0L);
+        assertEquals(8, limiter.snapshot().getLimit());
+    }
+
+    @Test
+    void cancelReturnsThePermitWithoutRaisingTheLimit() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", CONFIG, 2, 4, true);
+        assertTrue(limiter.tryAcquire(AdmissionPriority.READ));
+        assertTrue(limiter.tryAcquire(AdmissionPriority.READ));
+
+        limiter.cancel();
+
+        AdmissionRouteReadOnlyDTO snapshot = limiter.snapshot();
+        assertEquals(2, snapshot.getLimit());
+        assertEquals(1, snapshot.getInFlight());
+        assertTrue(limiter.tryAcquire(AdmissionPriority.BULK));
+    }
+
+    @Test
+    void cancelHandsThePermitToAWaiter() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", CONFIG, 1, 4, true);
+        assertTrue(limiter.tryAcquire(AdmissionPriority.READ));
+        List<AdmissionPriority> admitted = new CopyOnWriteArrayList<>();
+        Thread read = waiter(limiter, AdmissionPriority.READ, admitted);
+        awaitWaiting(limiter, 1);
+
+        limiter.cancel();
+        read.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(List.of(AdmissionPriority.READ), admitted);
+    }
+
+    /**
+     * Starts a thread that waits for a permit, records its priority once admitted and releases it.
+     */
+    private static Thread waiter(AdmissionLimiter limiter, AdmissionPriority priority, List<AdmissionPriority> admitted) {
+        Thread thread = new Thread(() -> {
+            try {
+                if (limiter.tryAcquire(priority)) {
+                    admitted.add(priority);
+                    limiter.release(0L);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(AdmissionLimiter limiter, int waiting) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.snapshot().getWaiting() < waiting && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(waiting, limiter.snapshot().getWaiting());
+    }
+}
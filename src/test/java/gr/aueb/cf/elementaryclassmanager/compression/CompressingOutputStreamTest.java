@@ -0,0 +1,97 @@
+package gr.aueb.cf.elementaryclassmanager.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressingOutputStreamTest {
+
+    private static final int THRESHOLD = 1024;
+
+    @Test
+    void bodyBelowTheThresholdIsSentAsIs() throws IOException {
+        byte[] body = json(5);
+        AtomicInteger compressed = new AtomicInteger();
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        write(target, ContentCoding.GZIP, body, compressed);
+
+        assertTrue(body.length < THRESHOLD);
+        assertEquals(0, compressed.get());
+        assertArrayEquals(body, target.toByteArray());
+    }
+
+    @Test
+    void gzipBodyInflatesToTheOriginal() throws IOException {
+        byte[] body = json(500);
+        AtomicInteger compressed = new AtomicInteger();
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        write(target, ContentCoding.GZIP, body, compressed);
+
+        assertEquals(1, compressed.get());
+        assertArrayEquals(body, readAll(new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))));
+        assertTrue(target.size() * 5 < body.length, target.size() + " of " + body.length + " bytes");
+    }
+
+    @Test
+    void deflateBodyInflatesToTheOriginal() throws IOException {
+        byte[] body = json(500);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        write(target, ContentCoding.DEFLATE, body, new AtomicInteger());
+
+        assertArrayEquals(body, readAll(new InflaterInputStream(new ByteArrayInputStream(target.toByteArray()))));
+    }
+
+    @Test
+    void pooledDeflaterIsReusedCleanly() throws IOException {
+        DeflaterPool pool = new DeflaterPool(6, ContentCoding.GZIP.isNowrap(), 1);
+        for (int i = 0; i < 3; i++) {
+            byte[] body = json(100 + i);
+            ByteArrayOutputStream target = new ByteArrayOutputStream();
+            CompressingOutputStream out = new CompressingOutputStream(target, ContentCoding.GZIP, pool, THRESHOLD, () -> { });
+            out.write(body, 0, body.length);
+            out.finish();
+            assertArrayEquals(body, readAll(new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))));
+        }
+    }
+
+    private static void write(ByteArrayOutputStream target, ContentCoding coding, byte[] body, AtomicInteger compressed)
+            throws IOException {
+        DeflaterPool pool = new DeflaterPool(6, coding.isNowrap(), 1);
+        CompressingOutputStream out = new CompressingOutputStream(target, coding, pool, THRESHOLD, compressed::incrementAndGet);
+        // written in small chunks, as a JSON generator does
+        for (int offset = 0; offset < body.length; offset += 100) {
+            out.write(body, offset, Math.min(100, body.length - offset));
+        }
+        out.finish();
+    }
+
+    private static byte[] json(int students) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < students; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i)
+                    .append(",\"firstname\":\"Anna\",\"lastname\":\"Georgiou\",\"ssn\":\"")
+                    .append(String.format("%09d", i)).append("\",\"grade\":\"GRADE_2\",\"classGroupId\":1}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}
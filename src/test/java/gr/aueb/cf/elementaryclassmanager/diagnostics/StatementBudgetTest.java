@@ -0,0 +1,75 @@
+package gr.aueb.cf.elementaryclassmanager.diagnostics;
+
+import gr.aueb.cf.elementaryclassmanager.launcher.InProcessServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls every method with a {@link StatementBudget} with {@code diagnostics.strict} on, which the
+ * build sets for all tests, so that a method over its budget answers 500 and fails the build.
+ */
+class StatementBudgetTest {
+
+    private static InProcessServer server;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        assertTrue(StatementDiagnostics.getConfig().isStrict(), "the tests must run with -Ddiagnostics.strict=true");
+        server = InProcessServer.start("statement-budget");
+
+        assertCreated(server.post("classgroups", "{\"name\":\"A\",\"grade\":\"GRADE_2\"}"));
+        assertCreated(server.post("teachers", "{\"firstname\":\"Eleni\",\"lastname\":\"Vlachou\","
+                + "\"registrationNumber\":\"000000001\",\"email\":\"eleni@school.gr\"}"));
+        for (int i = 1; i <= 10; i++) {
+            assertCreated(server.post("students", "{\"firstname\":\"Anna\",\"lastname\":\"Georgiou\","
+                    + "\"ssn\":\"" + String.format("%09d", i) + "\",\"grade\":\"GRADE_2\"}"));
+        }
+        assertWithinBudget(server.put("classgroups/1/assign-teacher/1"));
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void assignStudentStaysWithinBudget() throws Exception {
+        for (int i = 1; i <= 10; i++) {
+            assertWithinBudget(server.put("classgroups/1/assign-student/" + i));
+        }
+    }
+
+    @Test
+    void lookupsStayWithinBudget() throws Exception {
+        assertWithinBudget(server.get("students/1"));
+        assertWithinBudget(server.get("students/1?fields=id,lastname"));
+        assertWithinBudget(server.get("teachers/1"));
+        assertWithinBudget(server.get("teachers/1?fields=id,lastname"));
+    }
+
+    @Test
+    void rostersStayWithinBudget() throws Exception {
+        server.put("classgroups/1/assign-student/1");
+        server.put("classgroups/1/assign-student/2");
+        assertWithinBudget(server.get("classgroups/1/students"));
+        assertWithinBudget(server.get("classgroups/1/students?fields=id,lastname"));
+        assertWithinBudget(server.send(server.request("classgroups/1/students")
+                .header("Accept", "application/cbor").GET().build()));
+    }
+
+    private static void assertCreated(HttpResponse<String> response) {
+        assertEquals(201, response.statusCode(), response::body);
+    }
+
+    private static void assertWithinBudget(HttpResponse<String> response) {
+        assertTrue(response.statusCode() < 300, () -> response.statusCode() + " " + response.body());
+    }
+}
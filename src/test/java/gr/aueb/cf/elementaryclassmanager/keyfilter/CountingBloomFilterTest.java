@@ -0,0 +1,102 @@
+package gr.aueb.cf.elementaryclassmanager.keyfilter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void addedKeysAreNeverReportedAbsent() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(ssn(i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(ssn(i)), ssn(i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(ssn(i));
+        }
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(ssn(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000 lookups");
+    }
+
+    @Test
+    void removedKeyIsAbsentAgainAndOthersStay() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.001);
+        filter.add("123456789");
+        filter.add("987654321");
+        filter.remove("123456789");
+        assertFalse(filter.mightContain("123456789"));
+        assertTrue(filter.mightContain("987654321"));
+    }
+
+    @Test
+    void keyAddedTwiceSurvivesOneRemoval() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.001);
+        filter.add("123456789");
+        filter.add("123456789");
+        filter.remove("123456789");
+        assertTrue(filter.mightContain("123456789"));
+    }
+
+    @Test
+    void saturatedCountersAreNeverDecremented() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.001);
+        for (int i = 0; i < 20; i++) {
+            filter.add("123456789");
+        }
+        for (int i = 0; i < 20; i++) {
+            filter.remove("123456789");
+        }
+        assertTrue(filter.mightContain("123456789"));
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        CountingBloomFilter filter = new CountingBloomFilter(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 10_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < offset + 10_000; i++) {
+                        filter.add(ssn(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < 40_000; i++) {
+            assertTrue(filter.mightContain(ssn(i)), ssn(i));
+        }
+    }
+
+    private static String ssn(int i) {
+        return String.format("%09d", i);
+    }
+}
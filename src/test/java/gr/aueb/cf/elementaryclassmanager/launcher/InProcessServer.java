@@ -0,0 +1,129 @@
+package gr.aueb.cf.elementaryclassmanager.launcher;
+
+import gr.aueb.cf.elementaryclassmanager.ElementaryClassManagerApplication;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import jakarta.ws.rs.ApplicationPath;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Runs the application the way the {@link StandaloneLauncher} does, on an ephemeral port and
+ * against an in-memory H2 database, for the tests and benchmarks that go through HTTP.
+ * <p>
+ * The settings of the application are read once per JVM, so they are set as system properties
+ * before the server starts; settings already given on the command line are kept. One server per
+ * JVM at a time.
+ */
+public final class InProcessServer implements AutoCloseable {
+
+    private static final String APPLICATION_JSON = "application/json";
+
+    private final HttpServer server;
+    private final URI apiUri;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private InProcessServer(HttpServer server, URI apiUri) {
+        this.server = server;
+        this.apiUri = apiUri;
+    }
+
+    /**
+     * Starts the server and waits until it is ready.
+     *
+     * @param database the name of the in-memory database
+     * @return the running server
+     */
+    public static InProcessServer start(String database) throws IOException, InterruptedException {
+        useInMemoryDatabase(database);
+        setDefault("health.warmup.iterations", "0");
+
+        URI baseUri = URI.create("http://localhost:0/");
+        HttpServer server = GrizzlyHttpServerFactory.createHttpServer(baseUri, StandaloneLauncher.resourceConfig(), false);
+        server.start();
+        int port = server.getListeners().iterator().next().getPort();
+        String path = ElementaryClassManagerApplication.class.getAnnotation(ApplicationPath.class).value();
+        InProcessServer started = new InProcessServer(server, URI.create("http://localhost:" + port + path + "/"));
+        started.awaitReady();
+        return started;
+    }
+
+    /**
+     * Points {@link JPAHelper} at an in-memory H2 database, whose schema is created when the
+     * persistence unit starts, for the tests that use the services without a server.
+     *
+     * @param database the name of the in-memory database
+     */
+    public static void useInMemoryDatabase(String database) {
+        setDefault("hibernate.hikari.dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        setDefault("hibernate.hikari.dataSource.url", "jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        setDefault("hibernate.hbm2ddl.auto", "create");
+        setDefault("hibernate.show_sql", "false");
+    }
+
+    public HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return send(request(path).GET().build());
+    }
+
+    public HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        return send(request(path).header("Content-Type", APPLICATION_JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build());
+    }
+
+    public HttpResponse<String> put(String path, String json) throws IOException, InterruptedException {
+        return send(request(path).header("Content-Type", APPLICATION_JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString(json)).build());
+    }
+
+    public HttpResponse<String> put(String path) throws IOException, InterruptedException {
+        return send(request(path).PUT(HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * @param path the path relative to the application, e.g. {@code students/1}
+     * @return a request builder for the path, accepting JSON
+     */
+    public HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(apiUri.resolve(path)).timeout(Duration.ofSeconds(30)).header("Accept", APPLICATION_JSON);
+    }
+
+    public URI getApiUri() {
+        return apiUri;
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+        JPAHelper.closeEntityManagerFactory();
+    }
+
+    private void awaitReady() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (get("health/ready").statusCode() != 200) {
+            if (System.nanoTime() > deadline) {
+                close();
+                throw new IllegalStateException("The server did not become ready");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static void setDefault(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import jakarta.ws.rs.core.PathSegment;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchItemUriInfoTest {
+
+    private static final URI BASE_URI = URI.create("http://localhost:8080/api/");
+
+    @Test
+    void pathIsRelativeToTheBaseUri() {
+        BatchItemUriInfo uriInfo = new BatchItemUriInfo(BASE_URI, "students/7?fields=id");
+
+        assertEquals("students/7", uriInfo.getPath());
+        assertEquals(URI.create("http://localhost:8080/api/students/7"), uriInfo.getAbsolutePath());
+        assertEquals("id", uriInfo.getQueryParameters().getFirst("fields"));
+    }
+
+    @Test
+    void pathSegmentsAreSplitAndDecoded() {
+        BatchItemUriInfo uriInfo = new BatchItemUriInfo(BASE_URI, "students/search%20all;active=true");
+
+        List<PathSegment> segments = uriInfo.getPathSegments();
+
+        assertEquals(List.of("students", "search all"), paths(segments));
+        assertEquals("true", segments.get(1).getMatrixParameters().getFirst("active"));
+        assertEquals(List.of("students", "search%20all"), paths(uriInfo.getPathSegments(false)));
+    }
+
+    private static List<String> paths(List<PathSegment> segments) {
+        return segments.stream().map(PathSegment::getPath).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package gr.aueb.cf.elementaryclassmanager.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.elementaryclassmanager.launcher.InProcessServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs atomic batches against the in-process server. The school statistics are maintained from
+ * the change events, so they tell whether a batch fired any.
+ */
+class BatchRestControllerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static InProcessServer server;
+    private static String classGroup;
+    private static String pupil;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        server = InProcessServer.start("batch");
+        HttpResponse<String> created = server.post("classgroups", "{\"name\":\"A\",\"grade\":\"GRADE_1\"}");
+        assertEquals(201, created.statusCode(), created::body);
+        classGroup = idOf(created);
+        created = server.post("students", student("000000001"));
+        assertEquals(201, created.statusCode(), created::body);
+        pupil = idOf(created);
+        assertEquals(204, server.put("classgroups/" + classGroup + "/assign-student/" + pupil).statusCode());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void failedOperationRollsBackTheWholeBatch() throws Exception {
+        long enrolled = enrolledFirstGraders();
+
+        JsonNode result = batch(true,
+                operation("PUT", "/classgroups/" + classGroup + "/increment-grade?async=true", null),
+                operation("POST", "/students", student("100000001")),
+                operation("POST", "/students", student("100000001")),
+                operation("POST", "/students", student("100000002")));
+
+        assertFalse(result.get("committed").asBoolean());
+        assertEquals(List.of(202, 201, 409, 424), statuses(result));
+        assertEquals(404, server.get("students/ssn/100000001").statusCode());
+        assertEquals(404, server.get("students/ssn/100000002").statusCode());
+        long jobId = result.get("results").get(0).get("body").get("id").asLong();
+        assertEquals(404, server.get("jobs/" + jobId).statusCode());
+        assertEquals(enrolled, enrolledFirstGraders());
+        // a dispatched job would have moved the pupils of the class group on to the second grade
+        Thread.sleep(500);
+        assertEquals("GRADE_1", MAPPER.readTree(server.get("students/" + pupil).body()).get("grade").asText());
+    }
+
+    @Test
+    void batchWithoutFailuresIsCommittedAndPublished() throws Exception {
+        long enrolled = enrolledFirstGraders();
+
+        JsonNode result = batch(true,
+                operation("POST", "/students", student("200000001")),
+                operation("POST", "/students", student("200000002")));
+
+        assertTrue(result.get("committed").asBoolean());
+        assertEquals(List.of(201, 201), statuses(result));
+        assertEquals(200, server.get("students/ssn/200000001").statusCode());
+        assertEquals(200, server.get("students/ssn/200000002").statusCode());
+        assertEquals(enrolled + 2, enrolledFirstGraders());
+    }
+
+    private static JsonNode batch(boolean atomic, String... operations) throws Exception {
+        HttpResponse<String> response = server.post("batch",
+                "{\"atomic\":" + atomic + ",\"operations\":[" + String.join(",", operations) + "]}");
+        assertEquals(200, response.statusCode(), response::body);
+        return MAPPER.readTree(response.body());
+    }
+
+    private static String operation(String method, String path, String body) {
+        return "{\"method\":\"" + method + "\",\"path\":\"" + path + "\"" + (body != null ? ",\"body\":" + body : "") + "}";
+    }
+
+    private static String student(String ssn) {
+        return "{\"firstname\":\"Anna\",\"lastname\":\"Georgiou\",\"ssn\":\"" + ssn + "\",\"grade\":\"GRADE_1\"}";
+    }
+
+    private static String idOf(HttpResponse<String> created) {
+        String location = created.headers().firstValue("Location").orElseThrow();
+        return location.substring(location.lastIndexOf('/') + 1);
+    }
+
+    private static List<Integer> statuses(JsonNode result) {
+        List<Integer> statuses = new ArrayList<>();
+        result.get("results").forEach(item -> statuses.add(item.get("status").asInt()));
+        return statuses;
+    }
+
+    private static long enrolledFirstGraders() throws Exception {
+        HttpResponse<String> response = server.get("stats");
+        assertEquals(200, response.statusCode(), response::body);
+        return MAPPER.readTree(response.body()).get("enrollmentByGrade").get("GRADE_1").asLong();
+    }
+}
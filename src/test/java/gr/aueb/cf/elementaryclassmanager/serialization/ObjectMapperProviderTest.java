@@ -0,0 +1,52 @@
+package gr.aueb.cf.elementaryclassmanager.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjectMapperProviderTest {
+
+    private final ObjectMapperProvider provider = new ObjectMapperProvider();
+
+    @Test
+    void mappersShareTheConfiguration() {
+        for (ObjectMapper mapper : List.of(provider.getObjectMapper(), provider.getCborMapper(), provider.getSmileMapper())) {
+            assertFalse(mapper.isEnabled(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+            assertFalse(mapper.getFactory().isEnabled(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+            assertTrue(mapper.getRegisteredModuleIds().stream().anyMatch(id -> id.toString().contains("Blackbird")));
+        }
+    }
+
+    @Test
+    void everyFormatRoundTripsAStudent() throws Exception {
+        StudentReadOnlyDTO student = new StudentReadOnlyDTO("Anna", "Georgiou", "123456789", Grade.GRADE_3, 7L);
+        student.setId(42L);
+        for (ObjectMapper mapper : List.of(provider.getObjectMapper(), provider.getCborMapper(), provider.getSmileMapper())) {
+            StudentReadOnlyDTO read = mapper.readValue(mapper.writeValueAsBytes(student), StudentReadOnlyDTO.class);
+            assertEquals(42L, read.getId());
+            assertEquals("Georgiou", read.getLastname());
+            assertEquals(Grade.GRADE_3, read.getGrade());
+            assertEquals(7L, read.getClassGroupId());
+        }
+    }
+
+    @Test
+    void binaryFormatsAreSmallerThanJson() throws Exception {
+        StudentReadOnlyDTO student = new StudentReadOnlyDTO("Anna", "Georgiou", "123456789", Grade.GRADE_3, 7L);
+        student.setId(42L);
+        List<StudentReadOnlyDTO> students = Collections.nCopies(100, student);
+        int json = provider.getObjectMapper().writeValueAsBytes(students).length;
+        assertTrue(provider.getCborMapper().writeValueAsBytes(students).length < json);
+        assertTrue(provider.getSmileMapper().writeValueAsBytes(students).length < json);
+    }
+}
@@ -0,0 +1,86 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.launcher.InProcessServer;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks how service calls join the unit of work of an atomic batch: their commits only flush,
+ * their rollbacks mark the unit and their after-commit actions, the change events and job
+ * dispatches, wait for the unit to commit.
+ */
+class BatchServiceImplTest {
+
+    private final BatchServiceImpl batchService = new BatchServiceImpl();
+    private final List<String> afterCommit = new ArrayList<>();
+
+    @BeforeAll
+    static void useDatabase() {
+        InProcessServer.useInMemoryDatabase("batch-service");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        JPAHelper.closeEntityManagerFactory();
+    }
+
+    @Test
+    void afterCommitActionsRunOnceTheUnitCommits() {
+        boolean committed = batchService.runInOneTransaction(() -> {
+            serviceCall("first");
+            serviceCall("second");
+            assertEquals(List.of(), afterCommit);
+            return true;
+        });
+
+        assertTrue(committed);
+        assertEquals(List.of("first", "second"), afterCommit);
+    }
+
+    @Test
+    void afterCommitActionsAreDroppedWhenAnOperationFails() {
+        boolean committed = batchService.runInOneTransaction(() -> {
+            serviceCall("first");
+            return false;
+        });
+
+        assertFalse(committed);
+        assertEquals(List.of(), afterCommit);
+        assertFalse(JPAHelper.isInUnitOfWork());
+    }
+
+    @Test
+    void serviceRollbackMarksTheWholeUnit() {
+        boolean committed = batchService.runInOneTransaction(() -> {
+            serviceCall("first");
+            JPAHelper.beginTransaction();
+            JPAHelper.rollbackTransaction();
+            return true;
+        });
+
+        assertFalse(committed);
+        assertEquals(List.of(), afterCommit);
+    }
+
+    /**
+     * A service method as the services write them: its own transaction, then its event.
+     */
+    private void serviceCall(String name) {
+        try {
+            JPAHelper.beginTransaction();
+            JPAHelper.commitTransaction();
+        } finally {
+            JPAHelper.closeEntityManager();
+        }
+        JPAHelper.runAfterCommit(() -> afterCommit.add(name));
+    }
+}
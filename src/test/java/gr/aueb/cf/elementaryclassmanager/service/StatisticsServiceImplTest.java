@@ -0,0 +1,167 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import gr.aueb.cf.elementaryclassmanager.dao.classGroupDAO.ClassGroupDAOImpl;
+import gr.aueb.cf.elementaryclassmanager.dao.statisticsDAO.IStatisticsDAO;
+import gr.aueb.cf.elementaryclassmanager.dto.statsDTO.SchoolStatsReadOnlyDTO;
+import gr.aueb.cf.elementaryclassmanager.dto.studentDTO.StudentSnapshot;
+import gr.aueb.cf.elementaryclassmanager.launcher.InProcessServer;
+import gr.aueb.cf.elementaryclassmanager.model.Grade;
+import gr.aueb.cf.elementaryclassmanager.service.events.StudentChangedEvent;
+import gr.aueb.cf.elementaryclassmanager.service.util.JPAHelper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the incremental counters count a change exactly once, whether it commits before
+ * the statistics are queried, while they are, or after. The counts come from a stub standing in
+ * for the database; the class groups are read from an empty H2 database.
+ */
+class StatisticsServiceImplTest {
+
+    private final StatisticsServiceImpl service = new StatisticsServiceImpl();
+    private final StubStatisticsDAO database = new StubStatisticsDAO();
+    private final List<Thread> events = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void useDatabase() {
+        InProcessServer.useInMemoryDatabase("statistics");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        JPAHelper.closeEntityManagerFactory();
+    }
+
+    @BeforeEach
+    void wire() {
+        service.statisticsDAO = database;
+        service.classGroupDAO = new ClassGroupDAOImpl();
+    }
+
+    @Test
+    void changeAlreadySeenByTheRecomputeIsCountedOnce() {
+        database.activeGradeOne = 1;
+        database.duringQuery = () -> fireConcurrently(StudentChangedEvent.inserted(student(1L)));
+
+        SchoolStatsReadOnlyDTO statistics = service.getStatistics();
+        awaitEvents();
+        statistics = service.getStatistics();
+
+        assertEquals(1L, statistics.getEnrollmentByGrade().get(Grade.GRADE_1));
+        assertEquals(1L, statistics.getUnassignedStudents());
+        assertEquals(2, database.queries);
+    }
+
+    @Test
+    void changeCommittedDuringTheRecomputeIsCounted() {
+        database.duringQuery = () -> {
+            database.activeGradeOne = 1;
+            fireConcurrently(StudentChangedEvent.inserted(student(1L)));
+        };
+
+        SchoolStatsReadOnlyDTO statistics = service.refreshStatistics();
+        awaitEvents();
+        statistics = service.getStatistics();
+
+        assertEquals(1L, statistics.getEnrollmentByGrade().get(Grade.GRADE_1));
+        assertEquals(1L, statistics.getUnassignedStudents());
+    }
+
+    @Test
+    void changeAfterTheRecomputeIsAppliedIncrementally() {
+        service.getStatistics();
+
+        database.activeGradeOne = 1;
+        service.onStudentChanged(StudentChangedEvent.inserted(student(1L)));
+        SchoolStatsReadOnlyDTO statistics = service.getStatistics();
+
+        assertEquals(1L, statistics.getEnrollmentByGrade().get(Grade.GRADE_1));
+        assertEquals(1, database.queries);
+    }
+
+    @Test
+    void recomputeGivesUpAfterTheLastAttempt() {
+        database.everyQuery = true;
+        database.duringQuery = () -> service.onStudentChanged(StudentChangedEvent.inserted(student(1L)));
+
+        service.refreshStatistics();
+
+        assertEquals(StatisticsServiceImpl.MAX_RECOMPUTE_ATTEMPTS, database.queries);
+    }
+
+    /**
+     * Fires an event the way a request thread does after its commit, and gives it the time to
+     * be applied unless it has to wait for the recompute.
+     */
+    private void fireConcurrently(StudentChangedEvent event) {
+        Thread thread = new Thread(() -> service.onStudentChanged(event));
+        events.add(thread);
+        thread.start();
+        try {
+            thread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitEvents() {
+        for (Thread thread : events) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static StudentSnapshot student(Long id) {
+        return new StudentSnapshot(id, "Anna", "Georgiou", String.format("%09d", id), Grade.GRADE_1, null, false);
+    }
+
+    /**
+     * Counts of a school whose only students are active, unassigned first graders.
+     */
+    private static final class StubStatisticsDAO implements IStatisticsDAO {
+
+        private long activeGradeOne;
+        private Runnable duringQuery;
+        private boolean everyQuery;
+        private int queries;
+
+        @Override
+        public Map<Grade, Long> countActiveStudentsByGrade() {
+            queries++;
+            Map<Grade, Long> counts = Map.of(Grade.GRADE_1, activeGradeOne);
+            Runnable change = duringQuery;
+            if (change != null) {
+                duringQuery = everyQuery ? change : null;
+                change.run();
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<Long, Long> countStudentsByClassGroup() {
+            return Map.of();
+        }
+
+        @Override
+        public long countUnassignedActiveStudents() {
+            return activeGradeOne;
+        }
+
+        @Override
+        public long countArchivedStudents() {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package gr.aueb.cf.elementaryclassmanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.elementaryclassmanager.launcher.InProcessServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Applies teacher reassignments through {@code PUT /classgroups/teachers} on H2, where the teacher
+ * column of the class groups is unique, so that a swap applied row by row would fail.
+ * Every test sets up class groups and teachers of its own.
+ */
+class TeacherReassignmentTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static InProcessServer server;
+    private static int created;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        server = InProcessServer.start("teacher-reassignment");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void swapsTwoTeachers() throws Exception {
+        long a = classGroup();
+        long b = classGroup();
+        long t1 = teacher(a);
+        long t2 = teacher(b);
+
+        JsonNode report = reassign(Map.of(a, t2, b, t1));
+
+        assertEquals(Set.of(change(a, t1, t2), change(b, t2, t1)), changes(report));
+        assertEquals(0, report.get("unchanged").asInt());
+        assertClassGroupOf(t1, b);
+        assertClassGroupOf(t2, a);
+    }
+
+    @Test
+    void rotatesThreeTeachers() throws Exception {
+        long a = classGroup();
+        long b = classGroup();
+        long c = classGroup();
+        long t1 = teacher(a);
+        long t2 = teacher(b);
+        long t3 = teacher(c);
+
+        JsonNode report = reassign(Map.of(a, t2, b, t3, c, t1));
+
+        assertEquals(Set.of(change(a, t1, t2), change(b, t2, t3), change(c, t3, t1)), changes(report));
+        assertClassGroupOf(t1, c);
+        assertClassGroupOf(t2, a);
+        assertClassGroupOf(t3, b);
+    }
+
+    @Test
+    void unassignsAnUnlistedClassGroupThatLosesItsTeacher() throws Exception {
+        long a = classGroup();
+        long b = classGroup();
+        long c = classGroup();
+        long t1 = teacher(a);
+        long t2 = teacher(b);
+        long t3 = teacher(c);
+
+        Map<Long, Long> requested = new LinkedHashMap<>();
+        requested.put(a, t2);
+        requested.put(c, t3);
+        JsonNode report = reassign(requested);
+
+        assertEquals(Set.of(change(a, t1, t2), change(b, t2, null)), changes(report));
+        assertEquals(1, report.get("unchanged").asInt());
+        assertClassGroupOf(t1, null);
+        assertClassGroupOf(t2, a);
+        assertClassGroupOf(t3, c);
+    }
+
+    private static JsonNode reassign(Map<Long, Long> assignments) throws Exception {
+        List<String> entries = new ArrayList<>();
+        assignments.forEach((classGroupId, teacherId) ->
+                entries.add("{\"classGroupId\":" + classGroupId + ",\"teacherId\":" + teacherId + "}"));
+        HttpResponse<String> response = server.put("classgroups/teachers",
+                "{\"assignments\":[" + String.join(",", entries) + "]}");
+        assertEquals(200, response.statusCode(), response::body);
+        return MAPPER.readTree(response.body());
+    }
+
+    private static long classGroup() throws Exception {
+        char name = (char) ('A' + created++);
+        return idOf(server.post("classgroups", "{\"name\":\"" + name + "\",\"grade\":\"GRADE_3\"}"));
+    }
+
+    /**
+     * Creates a teacher and assigns it to a class group.
+     */
+    private static long teacher(long classGroupId) throws Exception {
+        int number = created++;
+        long teacherId = idOf(server.post("teachers", "{\"firstname\":\"Eleni\",\"lastname\":\"Vlachou\","
+                + "\"registrationNumber\":\"" + String.format("%09d", number) + "\","
+                + "\"email\":\"teacher" + number + "@school.gr\"}"));
+        HttpResponse<String> assigned = server.put("classgroups/" + classGroupId + "/assign-teacher/" + teacherId);
+        assertEquals(204, assigned.statusCode(), assigned::body);
+        return teacherId;
+    }
+
+    private static long idOf(HttpResponse<String> response) {
+        assertEquals(201, response.statusCode(), response::body);
+        String location = response.headers().firstValue("Location").orElseThrow();
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private static void assertClassGroupOf(long teacherId, Long classGroupId) throws Exception {
+        HttpResponse<String> response = server.get("teachers/" + teacherId);
+        assertEquals(200, response.statusCode(), response::body);
+        JsonNode classGroup = MAPPER.readTree(response.body()).get("classGroupId");
+        assertEquals(classGroupId, classGroup == null || classGroup.isNull() ? null : classGroup.asLong());
+    }
+
+    private static Set<List<Long>> changes(JsonNode report) {
+        Set<List<Long>> changes = new HashSet<>();
+        for (JsonNode change : report.get("changes")) {
+            changes.add(change(change.get("classGroupId").asLong(), teacherIdOf(change.get("previousTeacherId")),
+                    teacherIdOf(change.get("newTeacherId"))));
+        }
+        return changes;
+    }
+
+    private static List<Long> change(Long classGroupId, Long previousTeacherId, Long newTeacherId) {
+        List<Long> change = new ArrayList<>(3);
+        change.add(classGroupId);
+        change.add(previousTeacherId);
+        change.add(newTeacherId);
+        return change;
+    }
+
+    private static Long teacherIdOf(JsonNode value) {
+        return value == null || value.isNull() ? null : value.asLong();
+    }
+}
@@ -0,0 +1,81 @@
+package gr.aueb.cf.elementaryclassmanager.service.cache;
+
+import gr.aueb.cf.elementaryclassmanager.dto.versionDTO.EntityVersion;
+import gr.aueb.cf.elementaryclassmanager.model.Student;
+import gr.aueb.cf.elementaryclassmanager.model.Teacher;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityVersionCacheTest {
+
+    private static final Instant UPDATED_AT = Instant.parse("2026-09-01T08:00:00Z");
+
+    private final EntityVersionCache cache = new EntityVersionCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnceAndServesTheCachedVersion() {
+        assertEquals(1L, version(Student.class, 1L, 1L));
+        assertEquals(1L, version(Student.class, 1L, 2L));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidationDropsTheCachedVersion() {
+        version(Student.class, 1L, 1L);
+
+        cache.invalidate(Student.class, 1L);
+
+        assertEquals(2L, version(Student.class, 1L, 2L));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void versionLoadedAcrossAnInvalidationIsNotCached() {
+        // the entity changes while its old version is being read
+        Optional<EntityVersion> loaded = cache.get(Student.class, 1L, () -> {
+            cache.invalidate(Student.class, 1L);
+            return Optional.of(new EntityVersion(1L, UPDATED_AT));
+        });
+        assertEquals(1L, loaded.get().getVersion());
+
+        assertEquals(2L, version(Student.class, 1L, 2L));
+    }
+
+    @Test
+    void invalidationOfAnyEntityKeepsAConcurrentLoadOutOfTheCache() {
+        cache.get(Student.class, 1L, () -> {
+            cache.invalidate(Teacher.class, 5L);
+            return Optional.of(new EntityVersion(1L, UPDATED_AT));
+        });
+
+        assertEquals(2L, version(Student.class, 1L, 2L));
+    }
+
+    @Test
+    void missingEntitiesAreNotCached() {
+        assertTrue(cache.get(Student.class, 1L, Optional::empty).isEmpty());
+
+        assertEquals(1L, version(Student.class, 1L, 1L));
+    }
+
+    @Test
+    void entitiesOfDifferentTypesAreKeptApart() {
+        version(Student.class, 1L, 1L);
+
+        assertEquals(7L, version(Teacher.class, 1L, 7L));
+    }
+
+    private long version(Class<?> type, Long id, long current) {
+        return cache.get(type, id, () -> {
+            loads.incrementAndGet();
+            return Optional.of(new EntityVersion(current, UPDATED_AT));
+        }).orElseThrow().getVersion();
+    }
+}
@@ -0,0 +1,78 @@
+package gr.aueb.cf.elementaryclassmanager.service.cache;
+
+import gr.aueb.cf.elementaryclassmanager.serialization.ObjectMapperProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RosterCacheTest {
+
+    private final RosterCache cache = new RosterCache();
+
+    @BeforeEach
+    void injectMapper() throws ReflectiveOperationException {
+        Field mapper = RosterCache.class.getDeclaredField("objectMapperProvider");
+        mapper.setAccessible(true);
+        mapper.set(cache, new ObjectMapperProvider());
+    }
+
+    @Test
+    void cachesTheRosterOfTheCurrentVersion() {
+        long version = cache.currentVersion(1L);
+
+        RosterSnapshot snapshot = cache.put(1L, version, List.of());
+
+        assertSame(snapshot, cache.get(1L));
+        assertEquals(cache.tagOf(version), snapshot.getTag());
+    }
+
+    @Test
+    void invalidationDropsTheRosterAndChangesTheTag() {
+        long before = cache.currentVersion(1L);
+        cache.put(1L, before, List.of());
+
+        cache.invalidate(1L);
+
+        assertNull(cache.get(1L));
+        assertNotEquals(cache.tagOf(before), cache.tagOf(cache.currentVersion(1L)));
+    }
+
+    @Test
+    void rosterLoadedBeforeAnInvalidationIsNotCached() {
+        long version = cache.currentVersion(1L);
+        cache.invalidate(1L);
+
+        RosterSnapshot stale = cache.put(1L, version, List.of());
+
+        assertNotNull(stale);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void staleRosterDoesNotReplaceAFresherOne() {
+        long stale = cache.currentVersion(1L);
+        cache.invalidate(1L);
+        RosterSnapshot fresh = cache.put(1L, cache.currentVersion(1L), List.of());
+
+        cache.put(1L, stale, List.of());
+
+        assertSame(fresh, cache.get(1L));
+    }
+
+    @Test
+    void invalidationOnlyAffectsItsClassGroup() {
+        RosterSnapshot other = cache.put(2L, cache.currentVersion(2L), List.of());
+
+        cache.invalidate(1L);
+
+        assertSame(other, cache.get(2L));
+    }
+}